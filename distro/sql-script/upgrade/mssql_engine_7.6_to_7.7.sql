@@ -32,4 +32,55 @@ ALTER TABLE ACT_ID_USER
 
 -- operationId column to link records with those from ACT_HI_OP_LOG
 ALTER TABLE ACT_HI_DETAIL
-  ADD OPERATION_ID_ nvarchar(64);
\ No newline at end of file
+  ADD OPERATION_ID_ nvarchar(64);
+
+-- correlation key of message event subscriptions
+ALTER TABLE ACT_RU_EVENT_SUBSCR
+  ADD CORRELATION_KEY_ nvarchar(64);
+
+create index ACT_IDX_EVENT_SUBSCR_CORR_KEY ON ACT_RU_EVENT_SUBSCR(CORRELATION_KEY_);
+
+-- history event buffer
+create table ACT_RU_HIST_BUFFER (
+  ID_ nvarchar(64) not null,
+  SEQUENCE_ numeric(19,0) identity(1,1) not null,
+  CREATE_TIME_ datetime2 not null,
+  EVENT_COUNT_ int,
+  EVENTS_ image,
+  primary key (ID_)
+);
+
+create unique index ACT_IDX_HIST_BUFFER_SEQ ON ACT_RU_HIST_BUFFER(SEQUENCE_);
+
+-- history time to live of definitions
+ALTER TABLE ACT_RE_PROCDEF
+  ADD HISTORY_TTL_ int;
+
+ALTER TABLE ACT_RE_DECISION_DEF
+  ADD HISTORY_TTL_ int;
+
+ALTER TABLE ACT_RE_CASE_DEF
+  ADD HISTORY_TTL_ int;
+
+-- indexes used by the history cleanup
+create index ACT_IDX_HI_TASKINST_PROCINST ON ACT_HI_TASKINST(PROC_INST_ID_);
+create index ACT_IDX_HI_IDENT_LNK_TASK ON ACT_HI_IDENTITYLINK(TASK_ID_);
+create index ACT_IDX_HI_INCIDENT_PROCINST ON ACT_HI_INCIDENT(PROC_INST_ID_);
+create index ACT_IDX_HI_CAS_A_I_CASEINST ON ACT_HI_CASEACTINST(CASE_INST_ID_);
+
+-- authorization permission projection
+create table ACT_RU_AUTH_PERM (
+  ID_ nvarchar(64) not null,
+  AUTH_ID_ nvarchar(64) not null,
+  TYPE_ int not null,
+  GROUP_ID_ nvarchar(255),
+  USER_ID_ nvarchar(255),
+  RESOURCE_TYPE_ int not null,
+  RESOURCE_ID_ nvarchar(64),
+  PERMS_ int not null,
+  primary key (ID_)
+);
+
+create index ACT_IDX_AUTH_PERM_AUTH_ID ON ACT_RU_AUTH_PERM(AUTH_ID_);
+create index ACT_IDX_AUTH_PERM_USER ON ACT_RU_AUTH_PERM(RESOURCE_TYPE_, PERMS_, USER_ID_);
+create index ACT_IDX_AUTH_PERM_GROUP ON ACT_RU_AUTH_PERM(RESOURCE_TYPE_, PERMS_, GROUP_ID_);
\ No newline at end of file
@@ -35,6 +35,7 @@ public interface FilterRestService {
   @GET
   @Produces(MediaType.APPLICATION_JSON)
   List<FilterDto> getFilters(@Context UriInfo uriInfo, @QueryParam("itemCount") Boolean itemCount,
+      @QueryParam("maxStaleness") Long maxStaleness,
       @QueryParam("firstResult") Integer firstResult, @QueryParam("maxResults") Integer maxResults);
 
   @GET
@@ -12,10 +12,15 @@
  */
 package org.camunda.bpm.engine.rest;
 
+import java.util.List;
+
+import org.camunda.bpm.engine.rest.dto.message.CorrelationMessageBulkDto;
 import org.camunda.bpm.engine.rest.dto.message.CorrelationMessageDto;
+import org.camunda.bpm.engine.rest.dto.message.MessageCorrelationBulkResultDto;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
+import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -29,4 +34,10 @@ public interface MessageRestService {
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.APPLICATION_JSON)
   Response deliverMessage(CorrelationMessageDto messageDto);
+
+  @POST
+  @Path("/bulk")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  List<MessageCorrelationBulkResultDto> deliverMessages(CorrelationMessageBulkDto bulkDto);
 }
@@ -13,11 +13,13 @@
 package org.camunda.bpm.engine.rest;
 
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
+import org.camunda.bpm.engine.rest.dto.KeysetPageDto;
 import org.camunda.bpm.engine.rest.dto.task.TaskDto;
 import org.camunda.bpm.engine.rest.dto.task.TaskQueryDto;
 import org.camunda.bpm.engine.rest.hal.Hal;
 import org.camunda.bpm.engine.rest.sub.task.TaskReportResource;
 import org.camunda.bpm.engine.rest.sub.task.TaskResource;
+import org.camunda.bpm.engine.task.TaskQuery;
 
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
@@ -53,6 +55,16 @@ public interface TaskRestService {
   List<TaskDto> queryTasks(TaskQueryDto query,
       @QueryParam("firstResult") Integer firstResult, @QueryParam("maxResults") Integer maxResults);
 
+  /**
+   * Expects the same query parameters as {@link #getTasks(Request, UriInfo, Integer, Integer)} and
+   * returns a page of tasks following the given continuation token, see {@link TaskQuery#listKeysetPage(String, int)}.
+   */
+  @GET
+  @Path("/keyset-page")
+  @Produces(MediaType.APPLICATION_JSON)
+  KeysetPageDto<TaskDto> getTasksKeysetPage(@Context UriInfo uriInfo,
+      @QueryParam("continuationToken") String continuationToken, @QueryParam("maxResults") Integer maxResults);
+
   @GET
   @Path("/count")
   @Produces(MediaType.APPLICATION_JSON)
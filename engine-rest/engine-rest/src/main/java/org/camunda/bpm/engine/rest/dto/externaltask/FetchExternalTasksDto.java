@@ -23,6 +23,7 @@ public class FetchExternalTasksDto {
   protected int maxTasks;
   protected String workerId;
   protected boolean usePriority = false;
+  protected Long asyncResponseTimeout;
   protected List<FetchExternalTaskTopicDto> topics;
 
   public int getMaxTasks() {
@@ -52,11 +53,20 @@ public class FetchExternalTasksDto {
     this.usePriority = usePriority;
   }
 
+  public Long getAsyncResponseTimeout() {
+    return asyncResponseTimeout;
+  }
+
+  public void setAsyncResponseTimeout(Long asyncResponseTimeout) {
+    this.asyncResponseTimeout = asyncResponseTimeout;
+  }
+
   public static class FetchExternalTaskTopicDto {
     protected String topicName;
     protected long lockDuration;
     protected List<String> variables;
     protected boolean deserializeValues = false;
+    protected Integer maxTasks;
 
     public String getTopicName() {
       return topicName;
@@ -82,5 +92,11 @@ public class FetchExternalTasksDto {
     public void setDeserializeValues(boolean deserializeValues) {
       this.deserializeValues = deserializeValues;
     }
+    public Integer getMaxTasks() {
+      return maxTasks;
+    }
+    public void setMaxTasks(Integer maxTasks) {
+      this.maxTasks = maxTasks;
+    }
   }
 }
@@ -0,0 +1,55 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.dto.message;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.rest.dto.ExceptionDto;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkResult;
+import org.camunda.bpm.engine.runtime.MessageCorrelationResult;
+
+public class MessageCorrelationBulkResultDto {
+
+  private boolean successful;
+  private List<MessageCorrelationResultDto> results;
+  private ExceptionDto exception;
+
+  public static MessageCorrelationBulkResultDto fromMessageCorrelationBulkResult(MessageCorrelationBulkResult bulkResult) {
+    MessageCorrelationBulkResultDto dto = new MessageCorrelationBulkResultDto();
+    dto.successful = bulkResult.isSuccessful();
+
+    dto.results = new ArrayList<MessageCorrelationResultDto>();
+    for (MessageCorrelationResult result : bulkResult.getResults()) {
+      dto.results.add(MessageCorrelationResultDto.fromMessageCorrelationResult(result));
+    }
+
+    if (bulkResult.getException() != null) {
+      dto.exception = ExceptionDto.fromException(bulkResult.getException());
+    }
+    return dto;
+  }
+
+  public boolean isSuccessful() {
+    return successful;
+  }
+
+  public List<MessageCorrelationResultDto> getResults() {
+    return results;
+  }
+
+  public ExceptionDto getException() {
+    return exception;
+  }
+
+}
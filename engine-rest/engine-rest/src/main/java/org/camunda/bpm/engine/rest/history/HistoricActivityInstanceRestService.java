@@ -12,7 +12,9 @@
  */
 package org.camunda.bpm.engine.rest.history;
 
+import org.camunda.bpm.engine.history.HistoricActivityInstanceQuery;
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
+import org.camunda.bpm.engine.rest.dto.KeysetPageDto;
 import org.camunda.bpm.engine.rest.dto.history.HistoricActivityInstanceDto;
 import org.camunda.bpm.engine.rest.dto.history.HistoricActivityInstanceQueryDto;
 import org.camunda.bpm.engine.rest.sub.history.HistoricActivityInstanceResource;
@@ -20,6 +22,7 @@ import org.camunda.bpm.engine.rest.sub.history.HistoricActivityInstanceResource;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import java.util.List;
 
@@ -58,6 +61,29 @@ public interface HistoricActivityInstanceRestService {
   List<HistoricActivityInstanceDto> queryHistoricActivityInstances(HistoricActivityInstanceQueryDto query, @QueryParam("firstResult") Integer firstResult,
       @QueryParam("maxResults") Integer maxResults);
 
+  /**
+   * Expects the same query parameters as {@link #getHistoricActivityInstances(UriInfo, Integer, Integer)} and
+   * returns a page of historic activity instances following the given continuation token, see
+   * {@link HistoricActivityInstanceQuery#listKeysetPage(String, int)}.
+   */
+  @GET
+  @Path("/keyset-page")
+  @Produces(MediaType.APPLICATION_JSON)
+  KeysetPageDto<HistoricActivityInstanceDto> getHistoricActivityInstancesKeysetPage(@Context UriInfo uriInfo,
+      @QueryParam("continuationToken") String continuationToken, @QueryParam("maxResults") Integer maxResults);
+
+  /**
+   * Expects the same query parameters as {@link #getHistoricActivityInstances(UriInfo, Integer, Integer)}
+   * without pagination and writes all matching historic activity instances as a JSON array while they are
+   * read from the database, see {@link HistoricActivityInstanceQuery#iterate}. The transaction and the database
+   * connection of the query stay open until the response has been written, so a slow client keeps them
+   * open as well. Use the paginated endpoint if clients cannot consume the response quickly.
+   */
+  @GET
+  @Path("/stream")
+  @Produces(MediaType.APPLICATION_JSON)
+  StreamingOutput streamHistoricActivityInstances(@Context UriInfo uriInfo);
+
   @GET
   @Path("/count")
   @Produces(MediaType.APPLICATION_JSON)
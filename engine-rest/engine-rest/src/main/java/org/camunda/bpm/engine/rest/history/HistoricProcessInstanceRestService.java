@@ -23,10 +23,12 @@ import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import java.util.List;
 import org.camunda.bpm.engine.history.HistoricProcessInstanceQuery;
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
+import org.camunda.bpm.engine.rest.dto.KeysetPageDto;
 import org.camunda.bpm.engine.rest.dto.batch.BatchDto;
 import org.camunda.bpm.engine.rest.dto.history.DeleteHistoricProcessInstancesDto;
 import org.camunda.bpm.engine.rest.dto.history.HistoricProcessInstanceDto;
@@ -68,6 +70,29 @@ public interface HistoricProcessInstanceRestService {
   List<HistoricProcessInstanceDto> queryHistoricProcessInstances(HistoricProcessInstanceQueryDto query, @QueryParam("firstResult") Integer firstResult,
       @QueryParam("maxResults") Integer maxResults);
 
+  /**
+   * Expects the same query parameters as {@link #getHistoricProcessInstances(UriInfo, Integer, Integer)} and
+   * returns a page of historic process instances following the given continuation token, see
+   * {@link HistoricProcessInstanceQuery#listKeysetPage(String, int)}.
+   */
+  @GET
+  @Path("/keyset-page")
+  @Produces(MediaType.APPLICATION_JSON)
+  KeysetPageDto<HistoricProcessInstanceDto> getHistoricProcessInstancesKeysetPage(@Context UriInfo uriInfo,
+      @QueryParam("continuationToken") String continuationToken, @QueryParam("maxResults") Integer maxResults);
+
+  /**
+   * Expects the same query parameters as {@link #getHistoricProcessInstances(UriInfo, Integer, Integer)}
+   * without pagination and writes all matching historic process instances as a JSON array while they are
+   * read from the database, see {@link HistoricProcessInstanceQuery#iterate}. The transaction and the database
+   * connection of the query stay open until the response has been written, so a slow client keeps them
+   * open as well. Use the paginated endpoint if clients cannot consume the response quickly.
+   */
+  @GET
+  @Path("/stream")
+  @Produces(MediaType.APPLICATION_JSON)
+  StreamingOutput streamHistoricProcessInstances(@Context UriInfo uriInfo);
+
   @GET
   @Path("/count")
   @Produces(MediaType.APPLICATION_JSON)
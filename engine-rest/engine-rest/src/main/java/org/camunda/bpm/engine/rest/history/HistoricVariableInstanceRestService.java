@@ -22,6 +22,7 @@ import org.camunda.bpm.engine.rest.sub.history.HistoricVariableInstanceResource;
 import javax.ws.rs.*;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import java.util.List;
 
@@ -66,6 +67,19 @@ public interface HistoricVariableInstanceRestService {
       @QueryParam("maxResults") Integer maxResults,
       @QueryParam(VariableResource.DESERIALIZE_VALUES_QUERY_PARAM) @DefaultValue("true") boolean deserializeValues);
 
+  /**
+   * Expects the same query parameters as {@link #getHistoricVariableInstances(UriInfo, Integer, Integer, boolean)}
+   * without pagination and writes all matching historic variable instances as a JSON array while they are
+   * read from the database, see {@link HistoricVariableInstanceQuery#iterate}. The transaction and the database
+   * connection of the query stay open until the response has been written, so a slow client keeps them
+   * open as well. Use the paginated endpoint if clients cannot consume the response quickly.
+   */
+  @GET
+  @Path("/stream")
+  @Produces(MediaType.APPLICATION_JSON)
+  StreamingOutput streamHistoricVariableInstances(@Context UriInfo uriInfo,
+      @QueryParam(VariableResource.DESERIALIZE_VALUES_QUERY_PARAM) @DefaultValue("true") boolean deserializeValues);
+
   @GET
   @Path("/count")
   @Produces(MediaType.APPLICATION_JSON)
@@ -13,8 +13,10 @@
 package org.camunda.bpm.engine.rest.impl;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
 
 import org.camunda.bpm.engine.ProcessEngine;
@@ -30,6 +32,7 @@ import org.camunda.bpm.engine.rest.dto.externaltask.ExternalTaskQueryDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksDto.FetchExternalTaskTopicDto;
 import org.camunda.bpm.engine.rest.dto.externaltask.LockedExternalTaskDto;
+import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.sub.externaltask.ExternalTaskResource;
 import org.camunda.bpm.engine.rest.sub.externaltask.impl.ExternalTaskResourceImpl;
 
@@ -103,6 +106,46 @@ public class ExternalTaskRestServiceImpl extends AbstractRestProcessEngineAware
 
   @Override
   public List<LockedExternalTaskDto> fetchAndLock(FetchExternalTasksDto fetchingDto) {
+    Long asyncResponseTimeout = fetchingDto.getAsyncResponseTimeout();
+    if (asyncResponseTimeout != null && asyncResponseTimeout > FetchAndLockHandler.MAX_ASYNC_RESPONSE_TIMEOUT) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, "The asynchronous response timeout cannot be set to a value greater than "
+          + FetchAndLockHandler.MAX_ASYNC_RESPONSE_TIMEOUT + " milliseconds");
+    }
+
+    List<LockedExternalTask> tasks = executeFetchAndLock(fetchingDto);
+
+    if (tasks.isEmpty() && asyncResponseTimeout != null && asyncResponseTimeout > 0
+        && fetchingDto.getTopics() != null && !fetchingDto.getTopics().isEmpty()) {
+      tasks = awaitAndFetchAndLock(fetchingDto, asyncResponseTimeout);
+    }
+
+    return LockedExternalTaskDto.fromLockedExternalTasks(tasks);
+  }
+
+  /**
+   * Parks the request until tasks for its topics become available or the timeout elapses.
+   */
+  protected List<LockedExternalTask> awaitAndFetchAndLock(FetchExternalTasksDto fetchingDto, long asyncResponseTimeout) {
+    FetchAndLockHandler handler = FetchAndLockHandler.getInstance(processEngine);
+
+    List<String> topicNames = new ArrayList<String>();
+    for (FetchExternalTaskTopicDto topicDto : fetchingDto.getTopics()) {
+      topicNames.add(topicDto.getTopicName());
+    }
+
+    List<LockedExternalTask> tasks = Collections.emptyList();
+    long deadline = System.currentTimeMillis() + asyncResponseTimeout;
+    long remaining = asyncResponseTimeout;
+
+    while (tasks.isEmpty() && remaining > 0 && handler.awaitExternalTasks(topicNames, remaining)) {
+      tasks = executeFetchAndLock(fetchingDto);
+      remaining = deadline - System.currentTimeMillis();
+    }
+
+    return tasks;
+  }
+
+  protected List<LockedExternalTask> executeFetchAndLock(FetchExternalTasksDto fetchingDto) {
     ExternalTaskQueryBuilder fetchBuilder = processEngine
       .getExternalTaskService()
       .fetchAndLock(fetchingDto.getMaxTasks(), fetchingDto.getWorkerId(), fetchingDto.isUsePriority());
@@ -120,13 +163,15 @@ public class ExternalTaskRestServiceImpl extends AbstractRestProcessEngineAware
           topicFetchBuilder = topicFetchBuilder.enableCustomObjectDeserialization();
         }
 
+        if (topicDto.getMaxTasks() != null) {
+          topicFetchBuilder = topicFetchBuilder.maxTasks(topicDto.getMaxTasks());
+        }
+
         fetchBuilder = topicFetchBuilder;
       }
     }
 
-    List<LockedExternalTask> tasks = fetchBuilder.execute();
-
-    return LockedExternalTaskDto.fromLockedExternalTasks(tasks);
+    return fetchBuilder.execute();
   }
 
   @Override
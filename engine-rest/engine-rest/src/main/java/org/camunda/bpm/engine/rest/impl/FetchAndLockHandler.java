@@ -0,0 +1,306 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskCreationObserver;
+
+/**
+ * <p>Parks long-polling fetch and lock requests of a process engine until external
+ * tasks may be available for their topics.</p>
+ *
+ * <p>Waiting requests are woken up when the process engine creates an external task
+ * for one of their topics. In addition, a single poller thread per process engine
+ * periodically checks the topics of all waiting requests for unlocked external tasks,
+ * so that tasks created by other nodes of a cluster are noticed as well. The poller
+ * issues one query per topic and cycle, regardless of the number of waiting requests,
+ * and only wakes as many requests as tasks are available.</p>
+ *
+ * <p>JAX-RS 1.1 offers no asynchronous responses, so every parked request occupies a
+ * request thread of the servlet container until it is woken up or its timeout elapses.
+ * To keep threads available for other requests, at most {@link #getMaxPendingRequests()}
+ * requests are parked at a time. Further requests are answered right away with the tasks
+ * available at that time, possibly none, and the clients have to poll again.</p>
+ *
+ * <p>A handler is discarded when its process engine is closed.</p>
+ *
+ * @see ExternalTaskRestServiceImpl#fetchAndLock(org.camunda.bpm.engine.rest.dto.externaltask.FetchExternalTasksDto)
+ */
+public class FetchAndLockHandler implements ExternalTaskCreationObserver, Runnable {
+
+  private static final Logger LOGGER = Logger.getLogger(FetchAndLockHandler.class.getName());
+
+  public static final long MAX_ASYNC_RESPONSE_TIMEOUT = 30 * 60 * 1000;
+  public static final long DEFAULT_POLL_INTERVAL = 1000;
+  public static final int DEFAULT_MAX_PENDING_REQUESTS = 50;
+
+  protected static final Map<String, FetchAndLockHandler> HANDLERS = new HashMap<String, FetchAndLockHandler>();
+
+  protected final ProcessEngine processEngine;
+  protected final List<PendingRequest> pendingRequests = new LinkedList<PendingRequest>();
+  protected long pollInterval = DEFAULT_POLL_INTERVAL;
+  protected int maxPendingRequests = DEFAULT_MAX_PENDING_REQUESTS;
+  protected Thread pollerThread;
+  protected boolean closed = false;
+
+  public FetchAndLockHandler(ProcessEngine processEngine) {
+    this.processEngine = processEngine;
+  }
+
+  /**
+   * @return the handler shared by all requests to the given process engine
+   */
+  public static synchronized FetchAndLockHandler getInstance(ProcessEngine processEngine) {
+    String engineName = processEngine.getName();
+    FetchAndLockHandler handler = HANDLERS.get(engineName);
+
+    if (handler == null || handler.processEngine != processEngine) {
+      handler = new FetchAndLockHandler(processEngine);
+      handler.registerCreationObserver();
+      HANDLERS.put(engineName, handler);
+    }
+
+    return handler;
+  }
+
+  protected void registerCreationObserver() {
+    ProcessEngineConfiguration configuration = processEngine.getProcessEngineConfiguration();
+    if (configuration instanceof ProcessEngineConfigurationImpl) {
+      List<ExternalTaskCreationObserver> observers = ((ProcessEngineConfigurationImpl) configuration).getExternalTaskCreationObservers();
+      if (observers != null) {
+        observers.add(this);
+      }
+    }
+  }
+
+  /**
+   * Blocks the calling thread until external tasks may be available for one of the given topics.
+   *
+   * @return true, if the caller should try to fetch and lock tasks again; false, if the timeout elapsed,
+   *   the calling thread was interrupted, the maximal number of requests is already waiting or the
+   *   process engine was closed
+   */
+  public boolean awaitExternalTasks(Collection<String> topicNames, long timeout) {
+    PendingRequest request = new PendingRequest(new HashSet<String>(topicNames));
+
+    synchronized (this) {
+      if (closed || pendingRequests.size() >= maxPendingRequests) {
+        return false;
+      }
+      pendingRequests.add(request);
+      ensurePollerStarted();
+    }
+
+    try {
+      return request.await(timeout);
+    }
+    finally {
+      synchronized (this) {
+        pendingRequests.remove(request);
+      }
+    }
+  }
+
+  public synchronized void externalTaskCreated(String topicName) {
+    for (PendingRequest request : pendingRequests) {
+      if (!request.isSignaled() && request.getTopicNames().contains(topicName)) {
+        request.signal();
+        return;
+      }
+    }
+  }
+
+  /**
+   * Releases all waiting requests, stops the poller and removes the handler, so that
+   * neither the handler nor the closed process engine are retained.
+   */
+  public void processEngineClosed() {
+    synchronized (FetchAndLockHandler.class) {
+      String engineName = processEngine.getName();
+      if (HANDLERS.get(engineName) == this) {
+        HANDLERS.remove(engineName);
+      }
+    }
+
+    synchronized (this) {
+      closed = true;
+      for (PendingRequest request : pendingRequests) {
+        request.release();
+      }
+      if (pollerThread != null) {
+        pollerThread.interrupt();
+      }
+    }
+  }
+
+  protected void ensurePollerStarted() {
+    if (pollerThread == null) {
+      pollerThread = new Thread(this, "fetch-and-lock-poller[" + processEngine.getName() + "]");
+      pollerThread.setDaemon(true);
+      pollerThread.start();
+    }
+  }
+
+  public void run() {
+    while (true) {
+      List<PendingRequest> requests;
+
+      synchronized (this) {
+        if (pendingRequests.isEmpty()) {
+          pollerThread = null;
+          return;
+        }
+        requests = new ArrayList<PendingRequest>(pendingRequests);
+      }
+
+      signalRequestsWithAvailableTasks(requests);
+
+      try {
+        Thread.sleep(pollInterval);
+      }
+      catch (InterruptedException e) {
+        synchronized (this) {
+          pollerThread = null;
+        }
+        return;
+      }
+    }
+  }
+
+  protected void signalRequestsWithAvailableTasks(List<PendingRequest> requests) {
+    Set<String> topicNames = new HashSet<String>();
+    for (PendingRequest request : requests) {
+      if (!request.isSignaled()) {
+        topicNames.addAll(request.getTopicNames());
+      }
+    }
+
+    Map<String, Long> availableTasks = new HashMap<String, Long>();
+    try {
+      for (String topicName : topicNames) {
+        availableTasks.put(topicName, countAvailableTasks(topicName));
+      }
+    }
+    catch (RuntimeException e) {
+      // let the requests fetch on their own, so that the failure is reported to the clients
+      LOGGER.log(Level.WARNING, "Could not check for available external tasks", e);
+      for (PendingRequest request : requests) {
+        request.signal();
+      }
+      return;
+    }
+
+    for (PendingRequest request : requests) {
+      if (request.isSignaled()) {
+        continue;
+      }
+      for (String topicName : request.getTopicNames()) {
+        Long count = availableTasks.get(topicName);
+        if (count != null && count > 0) {
+          availableTasks.put(topicName, count - 1);
+          request.signal();
+          break;
+        }
+      }
+    }
+  }
+
+  protected long countAvailableTasks(String topicName) {
+    return processEngine.getExternalTaskService()
+      .createExternalTaskQuery()
+      .topicName(topicName)
+      .notLocked()
+      .active()
+      .withRetriesLeft()
+      .count();
+  }
+
+  public long getPollInterval() {
+    return pollInterval;
+  }
+
+  public void setPollInterval(long pollInterval) {
+    this.pollInterval = pollInterval;
+  }
+
+  public int getMaxPendingRequests() {
+    return maxPendingRequests;
+  }
+
+  public void setMaxPendingRequests(int maxPendingRequests) {
+    this.maxPendingRequests = maxPendingRequests;
+  }
+
+  protected static class PendingRequest {
+
+    protected final Set<String> topicNames;
+    protected boolean signaled = false;
+    protected boolean released = false;
+
+    public PendingRequest(Set<String> topicNames) {
+      this.topicNames = topicNames;
+    }
+
+    public Set<String> getTopicNames() {
+      return topicNames;
+    }
+
+    public synchronized boolean isSignaled() {
+      return signaled;
+    }
+
+    public synchronized void signal() {
+      signaled = true;
+      notifyAll();
+    }
+
+    /**
+     * Wakes up the request without asking it to fetch again.
+     */
+    public synchronized void release() {
+      released = true;
+      notifyAll();
+    }
+
+    public synchronized boolean await(long timeout) {
+      long deadline = System.currentTimeMillis() + timeout;
+      long remaining = timeout;
+
+      try {
+        while (!signaled && !released && remaining > 0) {
+          wait(remaining);
+          remaining = deadline - System.currentTimeMillis();
+        }
+      }
+      catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+
+      return signaled && !released;
+    }
+  }
+
+}
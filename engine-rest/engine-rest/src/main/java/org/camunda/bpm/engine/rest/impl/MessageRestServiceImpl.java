@@ -21,10 +21,14 @@ import org.camunda.bpm.engine.MismatchingMessageCorrelationException;
 import org.camunda.bpm.engine.RuntimeService;
 import org.camunda.bpm.engine.rest.MessageRestService;
 import org.camunda.bpm.engine.rest.dto.VariableValueDto;
+import org.camunda.bpm.engine.rest.dto.message.CorrelationMessageBulkDto;
 import org.camunda.bpm.engine.rest.dto.message.CorrelationMessageDto;
+import org.camunda.bpm.engine.rest.dto.message.MessageCorrelationBulkResultDto;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.exception.RestException;
 import org.camunda.bpm.engine.runtime.MessageCorrelationBuilder;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkBuilder;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkResult;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.ArrayList;
@@ -42,12 +46,7 @@ public class MessageRestServiceImpl extends AbstractRestProcessEngineAware imple
 
   @Override
   public Response deliverMessage(CorrelationMessageDto messageDto) {
-    if (messageDto.getMessageName() == null) {
-      throw new InvalidRequestException(Status.BAD_REQUEST, "No message name supplied");
-    }
-    if (messageDto.getTenantId() != null && messageDto.isWithoutTenantId()) {
-      throw new InvalidRequestException(Status.BAD_REQUEST, "Parameter 'tenantId' cannot be used together with parameter 'withoutTenantId'.");
-    }
+    validateMessage(messageDto);
 
     List<MessageCorrelationResultDto> resultDtos = new ArrayList<MessageCorrelationResultDto>();
     try {
@@ -72,6 +71,51 @@ public class MessageRestServiceImpl extends AbstractRestProcessEngineAware imple
   }
 
 
+  @Override
+  public List<MessageCorrelationBulkResultDto> deliverMessages(CorrelationMessageBulkDto bulkDto) {
+    if (bulkDto.getMessages() == null || bulkDto.getMessages().isEmpty()) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, "No messages supplied");
+    }
+    if (bulkDto.getChunkSize() != null && bulkDto.getChunkSize() <= 0) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, "Parameter 'chunkSize' must be greater than 0.");
+    }
+
+    MessageCorrelationBulkBuilder bulkBuilder = processEngine.getRuntimeService().createMessageCorrelationBulk();
+    if (bulkDto.getChunkSize() != null) {
+      bulkBuilder.chunkSize(bulkDto.getChunkSize());
+    }
+
+    try {
+      for (CorrelationMessageDto messageDto : bulkDto.getMessages()) {
+        validateMessage(messageDto);
+        MessageCorrelationBuilder correlation = createMessageCorrelationBuilder(messageDto);
+        if (messageDto.isAll()) {
+          bulkBuilder.correlateAll(correlation);
+        } else {
+          bulkBuilder.correlate(correlation);
+        }
+      }
+    } catch (RestException e) {
+      String errorMessage = String.format("Cannot deliver messages: %s", e.getMessage());
+      throw new InvalidRequestException(e.getStatus(), e, errorMessage);
+    }
+
+    List<MessageCorrelationBulkResultDto> resultDtos = new ArrayList<MessageCorrelationBulkResultDto>();
+    for (MessageCorrelationBulkResult result : bulkBuilder.execute()) {
+      resultDtos.add(MessageCorrelationBulkResultDto.fromMessageCorrelationBulkResult(result));
+    }
+    return resultDtos;
+  }
+
+  protected void validateMessage(CorrelationMessageDto messageDto) {
+    if (messageDto.getMessageName() == null) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, "No message name supplied");
+    }
+    if (messageDto.getTenantId() != null && messageDto.isWithoutTenantId()) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, "Parameter 'tenantId' cannot be used together with parameter 'withoutTenantId'.");
+    }
+  }
+
   protected Response createResponse(List<MessageCorrelationResultDto> resultDtos, CorrelationMessageDto messageDto) {
     Response.ResponseBuilder response = Response.noContent();
     if (messageDto.isResultEnabled()) {
@@ -0,0 +1,76 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.impl;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.camunda.bpm.engine.query.QueryResultHandler;
+import org.camunda.bpm.engine.rest.exception.RestException;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes the results of a query as a JSON array while the query streams them from the database,
+ * so that neither the engine nor the REST API holds the complete result in memory. As the length
+ * of the response is unknown, it is sent with chunked transfer encoding.
+ *
+ * The results are written inside the command which executes the query. Its transaction and
+ * database connection are held until the last result has been written to the client; the
+ * transaction timeout of the environment bounds how long a slow client can hold them.
+ */
+public abstract class QueryResultStreamingOutput<T> implements StreamingOutput {
+
+  protected ObjectMapper objectMapper;
+
+  public QueryResultStreamingOutput(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  public void write(OutputStream output) throws IOException {
+    final JsonGenerator generator = objectMapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+    // the container closes the response stream
+    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    generator.writeStartArray();
+
+    iterate(new QueryResultHandler<T>() {
+      public void handleResult(T result) {
+        try {
+          generator.writeObject(toDto(result));
+        }
+        catch (IOException e) {
+          throw new RestException(Status.INTERNAL_SERVER_ERROR, e, "Cannot write query result: " + e.getMessage());
+        }
+      }
+    });
+
+    generator.writeEndArray();
+    generator.close();
+  }
+
+  /**
+   * Executes the query and passes its results to the handler.
+   */
+  protected abstract void iterate(QueryResultHandler<T> resultHandler);
+
+  /**
+   * Converts a query result to the dto which is written to the response.
+   */
+  protected abstract Object toDto(T result);
+
+}
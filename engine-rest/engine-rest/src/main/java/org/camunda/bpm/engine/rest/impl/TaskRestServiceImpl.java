@@ -25,8 +25,10 @@ import javax.ws.rs.core.Variant;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.TaskService;
 import org.camunda.bpm.engine.exception.NotValidException;
+import org.camunda.bpm.engine.query.KeysetPage;
 import org.camunda.bpm.engine.rest.TaskRestService;
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
+import org.camunda.bpm.engine.rest.dto.KeysetPageDto;
 import org.camunda.bpm.engine.rest.dto.task.TaskDto;
 import org.camunda.bpm.engine.rest.dto.task.TaskQueryDto;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
@@ -100,6 +102,31 @@ public class TaskRestServiceImpl extends AbstractRestProcessEngineAware implemen
     return tasks;
   }
 
+  public KeysetPageDto<TaskDto> getTasksKeysetPage(UriInfo uriInfo, String continuationToken, Integer maxResults) {
+    if (maxResults == null) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, "Parameter 'maxResults' is required for keyset pagination");
+    }
+
+    TaskQueryDto queryDto = new TaskQueryDto(getObjectMapper(), uriInfo.getQueryParameters());
+    TaskQuery query = queryDto.toQuery(getProcessEngine());
+    query.initializeFormKeys();
+
+    KeysetPage<Task> page;
+    try {
+      page = query.listKeysetPage(continuationToken, maxResults);
+    }
+    catch (NotValidException e) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, e, e.getMessage());
+    }
+
+    List<TaskDto> tasks = new ArrayList<TaskDto>();
+    for (Task task : page.getResults()) {
+      tasks.add(TaskDto.fromEntity(task));
+    }
+
+    return new KeysetPageDto<TaskDto>(tasks, page.getContinuationToken());
+  }
+
   protected List<Task> executeTaskQuery(Integer firstResult, Integer maxResults, TaskQuery query) {
 
     // enable initialization of form key:
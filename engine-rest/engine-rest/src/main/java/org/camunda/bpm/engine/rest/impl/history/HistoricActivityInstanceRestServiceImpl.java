@@ -16,13 +16,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.history.HistoricActivityInstance;
 import org.camunda.bpm.engine.history.HistoricActivityInstanceQuery;
+import org.camunda.bpm.engine.exception.NotValidException;
+import org.camunda.bpm.engine.query.KeysetPage;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
+import org.camunda.bpm.engine.rest.dto.KeysetPageDto;
 import org.camunda.bpm.engine.rest.dto.history.HistoricActivityInstanceDto;
 import org.camunda.bpm.engine.rest.dto.history.HistoricActivityInstanceQueryDto;
+import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.history.HistoricActivityInstanceRestService;
+import org.camunda.bpm.engine.rest.impl.QueryResultStreamingOutput;
 import org.camunda.bpm.engine.rest.sub.history.HistoricActivityInstanceResource;
 import org.camunda.bpm.engine.rest.sub.history.impl.HistoricActivityInstanceResourceImpl;
 
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import java.util.ArrayList;
 import java.util.List;
@@ -67,6 +75,46 @@ public class HistoricActivityInstanceRestServiceImpl implements HistoricActivity
     return historicActivityInstanceResults;
   }
 
+  @Override
+  public KeysetPageDto<HistoricActivityInstanceDto> getHistoricActivityInstancesKeysetPage(UriInfo uriInfo, String continuationToken, Integer maxResults) {
+    if (maxResults == null) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, "Parameter 'maxResults' is required for keyset pagination");
+    }
+
+    HistoricActivityInstanceQueryDto queryDto = new HistoricActivityInstanceQueryDto(objectMapper, uriInfo.getQueryParameters());
+    HistoricActivityInstanceQuery query = queryDto.toQuery(processEngine);
+
+    KeysetPage<HistoricActivityInstance> page;
+    try {
+      page = query.listKeysetPage(continuationToken, maxResults);
+    }
+    catch (NotValidException e) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, e, e.getMessage());
+    }
+
+    List<HistoricActivityInstanceDto> historicActivityInstanceResults = new ArrayList<HistoricActivityInstanceDto>();
+    for (HistoricActivityInstance historicActivityInstance : page.getResults()) {
+      historicActivityInstanceResults.add(HistoricActivityInstanceDto.fromHistoricActivityInstance(historicActivityInstance));
+    }
+    return new KeysetPageDto<HistoricActivityInstanceDto>(historicActivityInstanceResults, page.getContinuationToken());
+  }
+
+  @Override
+  public StreamingOutput streamHistoricActivityInstances(UriInfo uriInfo) {
+    HistoricActivityInstanceQueryDto queryDto = new HistoricActivityInstanceQueryDto(objectMapper, uriInfo.getQueryParameters());
+    final HistoricActivityInstanceQuery query = queryDto.toQuery(processEngine);
+
+    return new QueryResultStreamingOutput<HistoricActivityInstance>(objectMapper) {
+      protected void iterate(QueryResultHandler<HistoricActivityInstance> resultHandler) {
+        query.iterate(resultHandler);
+      }
+
+      protected Object toDto(HistoricActivityInstance result) {
+        return HistoricActivityInstanceDto.fromHistoricActivityInstance(result);
+      }
+    };
+  }
+
   private List<HistoricActivityInstance> executePaginatedQuery(HistoricActivityInstanceQuery query, Integer firstResult, Integer maxResults) {
     if (firstResult == null) {
       firstResult = 0;
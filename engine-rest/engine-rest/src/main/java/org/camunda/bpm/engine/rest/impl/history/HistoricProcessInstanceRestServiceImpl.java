@@ -14,13 +14,17 @@ package org.camunda.bpm.engine.rest.impl.history;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.camunda.bpm.engine.BadUserRequestException;
+import org.camunda.bpm.engine.exception.NotValidException;
 import org.camunda.bpm.engine.HistoryService;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.batch.Batch;
 import org.camunda.bpm.engine.history.HistoricProcessInstance;
 import org.camunda.bpm.engine.history.HistoricProcessInstanceQuery;
 import org.camunda.bpm.engine.history.ReportResult;
+import org.camunda.bpm.engine.query.KeysetPage;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
+import org.camunda.bpm.engine.rest.dto.KeysetPageDto;
 import org.camunda.bpm.engine.rest.dto.batch.BatchDto;
 import org.camunda.bpm.engine.rest.dto.converter.ReportResultToCsvConverter;
 import org.camunda.bpm.engine.rest.dto.history.DeleteHistoricProcessInstancesDto;
@@ -30,6 +34,7 @@ import org.camunda.bpm.engine.rest.dto.history.HistoricProcessInstanceReportDto;
 import org.camunda.bpm.engine.rest.dto.history.ReportResultDto;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.history.HistoricProcessInstanceRestService;
+import org.camunda.bpm.engine.rest.impl.QueryResultStreamingOutput;
 import org.camunda.bpm.engine.rest.sub.history.HistoricProcessInstanceResource;
 import org.camunda.bpm.engine.rest.sub.history.impl.HistoricProcessInstanceResourceImpl;
 
@@ -38,6 +43,7 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import javax.ws.rs.core.Variant;
 import java.util.ArrayList;
@@ -88,6 +94,46 @@ import java.util.List;
     return historicProcessInstanceDtoResults;
   }
 
+  @Override
+  public KeysetPageDto<HistoricProcessInstanceDto> getHistoricProcessInstancesKeysetPage(UriInfo uriInfo, String continuationToken, Integer maxResults) {
+    if (maxResults == null) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, "Parameter 'maxResults' is required for keyset pagination");
+    }
+
+    HistoricProcessInstanceQueryDto queryDto = new HistoricProcessInstanceQueryDto(objectMapper, uriInfo.getQueryParameters());
+    HistoricProcessInstanceQuery query = queryDto.toQuery(processEngine);
+
+    KeysetPage<HistoricProcessInstance> page;
+    try {
+      page = query.listKeysetPage(continuationToken, maxResults);
+    }
+    catch (NotValidException e) {
+      throw new InvalidRequestException(Status.BAD_REQUEST, e, e.getMessage());
+    }
+
+    List<HistoricProcessInstanceDto> historicProcessInstanceDtoResults = new ArrayList<HistoricProcessInstanceDto>();
+    for (HistoricProcessInstance historicProcessInstance : page.getResults()) {
+      historicProcessInstanceDtoResults.add(HistoricProcessInstanceDto.fromHistoricProcessInstance(historicProcessInstance));
+    }
+    return new KeysetPageDto<HistoricProcessInstanceDto>(historicProcessInstanceDtoResults, page.getContinuationToken());
+  }
+
+  @Override
+  public StreamingOutput streamHistoricProcessInstances(UriInfo uriInfo) {
+    HistoricProcessInstanceQueryDto queryDto = new HistoricProcessInstanceQueryDto(objectMapper, uriInfo.getQueryParameters());
+    final HistoricProcessInstanceQuery query = queryDto.toQuery(processEngine);
+
+    return new QueryResultStreamingOutput<HistoricProcessInstance>(objectMapper) {
+      protected void iterate(QueryResultHandler<HistoricProcessInstance> resultHandler) {
+        query.iterate(resultHandler);
+      }
+
+      protected Object toDto(HistoricProcessInstance result) {
+        return HistoricProcessInstanceDto.fromHistoricProcessInstance(result);
+      }
+    };
+  }
+
   private List<HistoricProcessInstance> executePaginatedQuery(HistoricProcessInstanceQuery query, Integer firstResult, Integer maxResults) {
     if (firstResult == null) {
       firstResult = 0;
@@ -16,13 +16,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.history.HistoricVariableInstance;
 import org.camunda.bpm.engine.history.HistoricVariableInstanceQuery;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 import org.camunda.bpm.engine.rest.dto.CountResultDto;
 import org.camunda.bpm.engine.rest.dto.history.HistoricVariableInstanceDto;
 import org.camunda.bpm.engine.rest.dto.history.HistoricVariableInstanceQueryDto;
 import org.camunda.bpm.engine.rest.history.HistoricVariableInstanceRestService;
+import org.camunda.bpm.engine.rest.impl.QueryResultStreamingOutput;
 import org.camunda.bpm.engine.rest.sub.history.HistoricVariableInstanceResource;
 import org.camunda.bpm.engine.rest.sub.history.impl.HistoricVariableInstanceResourceImpl;
 
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import java.util.ArrayList;
 import java.util.List;
@@ -74,6 +77,27 @@ public class HistoricVariableInstanceRestServiceImpl implements HistoricVariable
     return historicVariableInstanceDtoResults;
   }
 
+  @Override
+  public StreamingOutput streamHistoricVariableInstances(UriInfo uriInfo, boolean deserializeObjectValues) {
+    HistoricVariableInstanceQueryDto queryDto = new HistoricVariableInstanceQueryDto(objectMapper, uriInfo.getQueryParameters());
+    final HistoricVariableInstanceQuery query = queryDto.toQuery(processEngine);
+    query.disableBinaryFetching();
+
+    if (!deserializeObjectValues) {
+      query.disableCustomObjectDeserialization();
+    }
+
+    return new QueryResultStreamingOutput<HistoricVariableInstance>(objectMapper) {
+      protected void iterate(QueryResultHandler<HistoricVariableInstance> resultHandler) {
+        query.iterate(resultHandler);
+      }
+
+      protected Object toDto(HistoricVariableInstance result) {
+        return HistoricVariableInstanceDto.fromHistoricVariableInstance(result);
+      }
+    };
+  }
+
   private List<HistoricVariableInstance> executePaginatedQuery(HistoricVariableInstanceQuery query, Integer firstResult, Integer maxResults) {
     if (firstResult == null) {
       firstResult = 0;
@@ -31,7 +31,7 @@ public interface FilterResource {
 
   @GET
   @Produces(MediaType.APPLICATION_JSON)
-  FilterDto getFilter(@QueryParam("itemCount") Boolean itemCount);
+  FilterDto getFilter(@QueryParam("itemCount") Boolean itemCount, @QueryParam("maxStaleness") Long maxStaleness);
 
   @DELETE
   void deleteFilter();
@@ -66,7 +66,7 @@ public interface FilterResource {
   @GET
   @Path("/count")
   @Produces(MediaType.APPLICATION_JSON)
-  CountResultDto executeCount();
+  CountResultDto executeCount(@QueryParam("maxStaleness") Long maxStaleness);
 
   @POST
   @Path("/count")
@@ -69,11 +69,16 @@ public class FilterResourceImpl extends AbstractAuthorizedRestResource implement
     filterService = processEngine.getFilterService();
   }
 
-  public FilterDto getFilter(Boolean itemCount) {
+  public FilterDto getFilter(Boolean itemCount, Long maxStaleness) {
     Filter filter = getDbFilter();
     FilterDto dto = FilterDto.fromFilter(filter);
     if (itemCount != null && itemCount) {
-      dto.setItemCount(filterService.count(filter.getId()));
+      if (maxStaleness != null) {
+        dto.setItemCount(filterService.count(filter.getId(), maxStaleness));
+      }
+      else {
+        dto.setItemCount(filterService.count(filter.getId()));
+      }
     }
     return dto;
   }
@@ -262,8 +267,18 @@ public class FilterResourceImpl extends AbstractAuthorizedRestResource implement
     }
   }
 
-  public CountResultDto executeCount() {
-    return queryCount(null);
+  public CountResultDto executeCount(Long maxStaleness) {
+    if (maxStaleness != null) {
+      try {
+        return new CountResultDto(filterService.count(resourceId, maxStaleness));
+      }
+      catch (NullValueException e) {
+        throw filterNotFound(e);
+      }
+    }
+    else {
+      return queryCount(null);
+    }
   }
 
   public CountResultDto queryCount(String extendingQuery) {
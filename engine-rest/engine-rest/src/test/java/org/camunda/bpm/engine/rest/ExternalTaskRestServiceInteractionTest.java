@@ -25,11 +25,13 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -44,12 +46,14 @@ import org.camunda.bpm.engine.externaltask.ExternalTask;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQuery;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryTopicBuilder;
 import org.camunda.bpm.engine.externaltask.LockedExternalTask;
+import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.exception.RestException;
 import org.camunda.bpm.engine.rest.helper.EqualsVariableMap;
 import org.camunda.bpm.engine.rest.helper.MockProvider;
 import org.camunda.bpm.engine.rest.helper.variable.EqualsObjectValue;
 import org.camunda.bpm.engine.rest.helper.variable.EqualsPrimitiveValue;
 import org.camunda.bpm.engine.rest.helper.variable.EqualsUntypedValue;
+import org.camunda.bpm.engine.rest.impl.FetchAndLockHandler;
 import org.camunda.bpm.engine.rest.util.VariablesBuilder;
 import org.camunda.bpm.engine.rest.util.container.TestContainerRule;
 import org.camunda.bpm.engine.variable.type.ValueType;
@@ -102,6 +106,7 @@ public class ExternalTaskRestServiceInteractionTest extends AbstractRestServiceT
     when(fetchTopicBuilder.variables(anyListOf(String.class))).thenReturn(fetchTopicBuilder);
     when(fetchTopicBuilder.variables(any(String[].class))).thenReturn(fetchTopicBuilder);
     when(fetchTopicBuilder.enableCustomObjectDeserialization()).thenReturn(fetchTopicBuilder);
+    when(fetchTopicBuilder.maxTasks(anyInt())).thenReturn(fetchTopicBuilder);
     when(fetchTopicBuilder.topic(any(String.class), anyLong())).thenReturn(fetchTopicBuilder);
 
     // querying
@@ -166,6 +171,127 @@ public class ExternalTaskRestServiceInteractionTest extends AbstractRestServiceT
     verifyNoMoreInteractions(fetchTopicBuilder, externalTaskService);
   }
 
+  @Test
+  public void testFetchAndLockWithTopicMaxTasks() {
+    // given
+    when(fetchTopicBuilder.execute()).thenReturn(Arrays.asList(lockedExternalTaskMock));
+
+    // when
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("maxTasks", 5);
+    parameters.put("workerId", "aWorkerId");
+
+    Map<String, Object> topicParameter = new HashMap<String, Object>();
+    topicParameter.put("topicName", "aTopicName");
+    topicParameter.put("lockDuration", 12354L);
+    topicParameter.put("maxTasks", 2);
+    parameters.put("topics", Arrays.asList(topicParameter));
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(parameters)
+      .header("accept", MediaType.APPLICATION_JSON)
+      .then().expect().statusCode(Status.OK.getStatusCode())
+      .body("[0].id", equalTo(MockProvider.EXTERNAL_TASK_ID))
+      .when().post(FETCH_EXTERNAL_TASK_URL);
+
+    InOrder inOrder = inOrder(fetchTopicBuilder, externalTaskService);
+    inOrder.verify(externalTaskService).fetchAndLock(5, "aWorkerId", false);
+    inOrder.verify(fetchTopicBuilder).topic("aTopicName", 12354L);
+    inOrder.verify(fetchTopicBuilder).maxTasks(2);
+    inOrder.verify(fetchTopicBuilder).execute();
+    verifyNoMoreInteractions(fetchTopicBuilder, externalTaskService);
+  }
+
+  @Test
+  public void testFetchAndLockWithAsyncResponseTimeout() {
+    // given no tasks on the first attempt and a task once the topic has available tasks
+    when(fetchTopicBuilder.execute())
+      .thenReturn(Collections.<LockedExternalTask>emptyList())
+      .thenReturn(Arrays.asList(lockedExternalTaskMock));
+
+    when(externalTaskQueryMock.topicName(any(String.class))).thenReturn(externalTaskQueryMock);
+    when(externalTaskQueryMock.notLocked()).thenReturn(externalTaskQueryMock);
+    when(externalTaskQueryMock.active()).thenReturn(externalTaskQueryMock);
+    when(externalTaskQueryMock.withRetriesLeft()).thenReturn(externalTaskQueryMock);
+    when(externalTaskQueryMock.count()).thenReturn(1L);
+
+    // when
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("maxTasks", 5);
+    parameters.put("workerId", "aWorkerId");
+    parameters.put("asyncResponseTimeout", 10000L);
+
+    Map<String, Object> topicParameter = new HashMap<String, Object>();
+    topicParameter.put("topicName", "aTopicName");
+    topicParameter.put("lockDuration", 12354L);
+    parameters.put("topics", Arrays.asList(topicParameter));
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(parameters)
+      .header("accept", MediaType.APPLICATION_JSON)
+      .then().expect().statusCode(Status.OK.getStatusCode())
+      .body("size()", equalTo(1))
+      .body("[0].id", equalTo(MockProvider.EXTERNAL_TASK_ID))
+      .when().post(FETCH_EXTERNAL_TASK_URL);
+
+    verify(fetchTopicBuilder, times(2)).execute();
+    verify(externalTaskQueryMock).topicName("aTopicName");
+  }
+
+  @Test
+  public void testFetchAndLockWithAsyncResponseTimeoutNoTasks() {
+    // given
+    when(fetchTopicBuilder.execute()).thenReturn(Collections.<LockedExternalTask>emptyList());
+
+    when(externalTaskQueryMock.topicName(any(String.class))).thenReturn(externalTaskQueryMock);
+    when(externalTaskQueryMock.notLocked()).thenReturn(externalTaskQueryMock);
+    when(externalTaskQueryMock.active()).thenReturn(externalTaskQueryMock);
+    when(externalTaskQueryMock.withRetriesLeft()).thenReturn(externalTaskQueryMock);
+    when(externalTaskQueryMock.count()).thenReturn(0L);
+
+    // when
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("maxTasks", 5);
+    parameters.put("workerId", "aWorkerId");
+    parameters.put("asyncResponseTimeout", 500L);
+
+    Map<String, Object> topicParameter = new HashMap<String, Object>();
+    topicParameter.put("topicName", "aTopicName");
+    topicParameter.put("lockDuration", 12354L);
+    parameters.put("topics", Arrays.asList(topicParameter));
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(parameters)
+      .header("accept", MediaType.APPLICATION_JSON)
+      .then().expect().statusCode(Status.OK.getStatusCode())
+      .body("size()", equalTo(0))
+      .when().post(FETCH_EXTERNAL_TASK_URL);
+
+    // then tasks were not fetched again while no tasks were available
+    verify(fetchTopicBuilder).execute();
+  }
+
+  @Test
+  public void testFetchAndLockWithTooLongAsyncResponseTimeout() {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("maxTasks", 5);
+    parameters.put("workerId", "aWorkerId");
+    parameters.put("asyncResponseTimeout", FetchAndLockHandler.MAX_ASYNC_RESPONSE_TIMEOUT + 1);
+
+    given()
+      .contentType(POST_JSON_CONTENT_TYPE)
+      .body(parameters)
+      .header("accept", MediaType.APPLICATION_JSON)
+      .then().expect().statusCode(Status.BAD_REQUEST.getStatusCode())
+      .body("type", equalTo(InvalidRequestException.class.getSimpleName()))
+      .when().post(FETCH_EXTERNAL_TASK_URL);
+
+    verifyNoMoreInteractions(externalTaskService);
+  }
+
   @Test
   public void testFetchWithoutVariables() {
     // given
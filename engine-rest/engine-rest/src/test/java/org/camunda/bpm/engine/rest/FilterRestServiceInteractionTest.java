@@ -55,6 +55,7 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.anyVararg;
 import static org.mockito.Matchers.argThat;
@@ -184,6 +185,8 @@ public class FilterRestServiceInteractionTest extends AbstractRestServiceTest {
       .thenReturn((long) 1);
     when(filterServiceMock.count(eq(EXAMPLE_FILTER_ID), any(Query.class)))
       .thenReturn((long) 1);
+    when(filterServiceMock.count(eq(EXAMPLE_FILTER_ID), anyLong()))
+      .thenReturn((long) 1);
 
     doThrow(new NullValueException("No filter found with given id"))
       .when(filterServiceMock).singleResult(eq(MockProvider.NON_EXISTING_ID));
@@ -201,6 +204,8 @@ public class FilterRestServiceInteractionTest extends AbstractRestServiceTest {
       .when(filterServiceMock).count(eq(MockProvider.NON_EXISTING_ID));
     doThrow(new NullValueException("No filter found with given id"))
       .when(filterServiceMock).count(eq(MockProvider.NON_EXISTING_ID), any(Query.class));
+    doThrow(new NullValueException("No filter found with given id"))
+      .when(filterServiceMock).count(eq(MockProvider.NON_EXISTING_ID), anyLong());
     doThrow(new NullValueException("No filter found with given id"))
       .when(filterServiceMock).deleteFilter(eq(MockProvider.NON_EXISTING_ID));
 
@@ -1138,6 +1143,36 @@ public class FilterRestServiceInteractionTest extends AbstractRestServiceTest {
     verify(filterServiceMock).count(MockProvider.NON_EXISTING_ID, null);
   }
 
+  @Test
+  public void testExecuteCountWithMaxStaleness() {
+    given()
+      .header(ACCEPT_JSON_HEADER)
+      .pathParam("id", EXAMPLE_FILTER_ID)
+      .queryParam("maxStaleness", 5000)
+    .then().expect()
+      .statusCode(Status.OK.getStatusCode())
+      .body("count", equalTo(1))
+    .when()
+      .get(EXECUTE_COUNT_FILTER_URL);
+
+    verify(filterServiceMock).count(EXAMPLE_FILTER_ID, 5000L);
+    verify(filterServiceMock, never()).count(eq(EXAMPLE_FILTER_ID), any(Query.class));
+  }
+
+  @Test
+  public void testExecuteCountWithMaxStalenessOfNonExistingFilter() {
+    given()
+      .header(ACCEPT_JSON_HEADER)
+      .pathParam("id", MockProvider.NON_EXISTING_ID)
+      .queryParam("maxStaleness", 5000)
+    .then().expect()
+      .statusCode(Status.NOT_FOUND.getStatusCode())
+    .when()
+      .get(EXECUTE_COUNT_FILTER_URL);
+
+    verify(filterServiceMock).count(MockProvider.NON_EXISTING_ID, 5000L);
+  }
+
   @Test
   public void testExecuteCountAsPost() {
     given()
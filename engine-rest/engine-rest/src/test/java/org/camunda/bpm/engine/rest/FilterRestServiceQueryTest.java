@@ -20,6 +20,7 @@ import static com.jayway.restassured.path.json.JsonPath.from;
 import static org.fest.assertions.Assertions.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
@@ -77,6 +78,8 @@ public class FilterRestServiceQueryTest extends AbstractRestServiceTest {
     when(filterService.count(eq(MockProvider.EXAMPLE_FILTER_ID))).thenReturn((long) mockedFilterItemCount);
     when(filterService.getFilter(eq(MockProvider.ANOTHER_EXAMPLE_FILTER_ID))).thenReturn(anotherMockedFilter);
     when(filterService.count(eq(MockProvider.ANOTHER_EXAMPLE_FILTER_ID))).thenReturn((long) anotherMockedFilterItemCount);
+    when(filterService.count(eq(MockProvider.EXAMPLE_FILTER_ID), anyLong())).thenReturn((long) mockedFilterItemCount);
+    when(filterService.count(eq(MockProvider.ANOTHER_EXAMPLE_FILTER_ID), anyLong())).thenReturn((long) anotherMockedFilterItemCount);
   }
 
   @Test
@@ -219,6 +222,25 @@ public class FilterRestServiceQueryTest extends AbstractRestServiceTest {
       .get(FILTER_QUERY_URL);
   }
 
+  @Test
+  public void testFilterQueryWithItemCountAndMaxStaleness() {
+    FilterService filterService = processEngine.getFilterService();
+
+    given()
+      .queryParam("itemCount", true)
+      .queryParam("maxStaleness", 5000)
+    .then().expect()
+      .statusCode(Status.OK.getStatusCode())
+      .body("$.size", equalTo(2))
+      .body("[0].itemCount", equalTo(mockedFilterItemCount))
+      .body("[1].itemCount", equalTo(anotherMockedFilterItemCount))
+    .when()
+      .get(FILTER_QUERY_URL);
+
+    verify(filterService).count(MockProvider.EXAMPLE_FILTER_ID, 5000L);
+    verify(filterService).count(MockProvider.ANOTHER_EXAMPLE_FILTER_ID, 5000L);
+  }
+
   @Test
   public void testFilterQueryWithoutItemCount() {
     given()
@@ -6,6 +6,7 @@ import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -26,6 +27,8 @@ import org.camunda.bpm.engine.rest.helper.MockProvider;
 import org.camunda.bpm.engine.rest.util.VariablesBuilder;
 import org.camunda.bpm.engine.rest.util.container.TestContainerRule;
 import org.camunda.bpm.engine.runtime.MessageCorrelationBuilder;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkBuilder;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkResult;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
@@ -1064,4 +1067,90 @@ public class MessageRestServiceTest extends AbstractRestServiceTest {
     verifyNoMoreInteractions(messageCorrelationBuilderMock);
   }
 
+  @Test
+  public void testBulkMessageCorrelation() {
+    MessageCorrelationBulkBuilder bulkBuilderMock = mock(MessageCorrelationBulkBuilder.class);
+    when(runtimeServiceMock.createMessageCorrelationBulk()).thenReturn(bulkBuilderMock);
+
+    MessageCorrelationBulkResult successfulResult = mock(MessageCorrelationBulkResult.class);
+    when(successfulResult.isSuccessful()).thenReturn(true);
+    when(successfulResult.getResults()).thenReturn(executionResultList);
+
+    MessageCorrelationBulkResult failedResult = mock(MessageCorrelationBulkResult.class);
+    when(failedResult.isSuccessful()).thenReturn(false);
+    when(failedResult.getResults()).thenReturn(new ArrayList<MessageCorrelationResult>());
+    when(failedResult.getException()).thenReturn(new MismatchingMessageCorrelationException("aMessageName", "a reason"));
+
+    List<MessageCorrelationBulkResult> results = new ArrayList<MessageCorrelationBulkResult>();
+    results.add(successfulResult);
+    results.add(failedResult);
+    when(bulkBuilderMock.execute()).thenReturn(results);
+
+    Map<String, Object> firstMessage = new HashMap<String, Object>();
+    firstMessage.put("messageName", "aMessageName");
+    firstMessage.put("processInstanceId", MockProvider.EXAMPLE_PROCESS_INSTANCE_ID);
+
+    Map<String, Object> secondMessage = new HashMap<String, Object>();
+    secondMessage.put("messageName", "anotherMessageName");
+    secondMessage.put("all", true);
+
+    List<Map<String, Object>> messages = new ArrayList<Map<String, Object>>();
+    messages.add(firstMessage);
+    messages.add(secondMessage);
+
+    Map<String, Object> bulkParameters = new HashMap<String, Object>();
+    bulkParameters.put("messages", messages);
+    bulkParameters.put("chunkSize", 10);
+
+    Response response = given().contentType(POST_JSON_CONTENT_TYPE)
+           .body(bulkParameters)
+    .then().expect()
+           .contentType(ContentType.JSON)
+           .statusCode(Status.OK.getStatusCode())
+    .when().post(MESSAGE_URL + "/bulk");
+
+    String content = response.asString();
+    assertEquals(true, from(content).getBoolean("[0].successful"));
+    assertEquals(MockProvider.EXAMPLE_EXECUTION_ID, from(content).get("[0].results[0].execution.id"));
+    assertNull(from(content).get("[0].exception"));
+    assertEquals(false, from(content).getBoolean("[1].successful"));
+    assertEquals(MismatchingMessageCorrelationException.class.getSimpleName(), from(content).get("[1].exception.type"));
+
+    verify(runtimeServiceMock).createMessageCorrelation(eq("aMessageName"));
+    verify(runtimeServiceMock).createMessageCorrelation(eq("anotherMessageName"));
+    verify(messageCorrelationBuilderMock).processInstanceId(eq(MockProvider.EXAMPLE_PROCESS_INSTANCE_ID));
+    verify(bulkBuilderMock).chunkSize(10);
+    verify(bulkBuilderMock).correlate(messageCorrelationBuilderMock);
+    verify(bulkBuilderMock).correlateAll(messageCorrelationBuilderMock);
+    verify(bulkBuilderMock).execute();
+  }
+
+  @Test
+  public void testBulkMessageCorrelationWithoutMessages() {
+    given().contentType(POST_JSON_CONTENT_TYPE)
+      .body(new HashMap<String, Object>())
+    .then().expect()
+      .statusCode(Status.BAD_REQUEST.getStatusCode())
+      .body("type", equalTo(InvalidRequestException.class.getSimpleName()))
+      .body("message", equalTo("No messages supplied"))
+    .when().post(MESSAGE_URL + "/bulk");
+  }
+
+  @Test
+  public void testBulkMessageCorrelationWithoutMessageName() {
+    Map<String, Object> message = new HashMap<String, Object>();
+    message.put("businessKey", "aBusinessKey");
+
+    Map<String, Object> bulkParameters = new HashMap<String, Object>();
+    bulkParameters.put("messages", Collections.singletonList(message));
+
+    given().contentType(POST_JSON_CONTENT_TYPE)
+      .body(bulkParameters)
+    .then().expect()
+      .statusCode(Status.BAD_REQUEST.getStatusCode())
+      .body("type", equalTo(InvalidRequestException.class.getSimpleName()))
+      .body("message", equalTo("No message name supplied"))
+    .when().post(MESSAGE_URL + "/bulk");
+  }
+
 }
@@ -5,9 +5,11 @@ import static com.jayway.restassured.path.json.JsonPath.from;
 import static org.camunda.bpm.engine.rest.util.QueryParamUtils.arrayAsCommaSeperatedList;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -28,8 +30,10 @@ import javax.ws.rs.core.Response.Status;
 import org.camunda.bpm.ProcessApplicationService;
 import org.camunda.bpm.application.ProcessApplicationInfo;
 import org.camunda.bpm.container.RuntimeContainerDelegate;
+import org.camunda.bpm.engine.exception.NotValidException;
 import org.camunda.bpm.engine.identity.User;
 import org.camunda.bpm.engine.identity.UserQuery;
+import org.camunda.bpm.engine.query.KeysetPage;
 import org.camunda.bpm.engine.repository.CaseDefinition;
 import org.camunda.bpm.engine.repository.CaseDefinitionQuery;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
@@ -63,6 +67,7 @@ public class TaskRestServiceQueryTest extends AbstractRestServiceTest {
 
   protected static final String TASK_QUERY_URL = TEST_RESOURCE_ROOT_PATH + "/task";
   protected static final String TASK_COUNT_QUERY_URL = TASK_QUERY_URL + "/count";
+  protected static final String TASK_KEYSET_PAGE_URL = TASK_QUERY_URL + "/keyset-page";
   private TaskQuery mockQuery;
 
   @Before
@@ -120,6 +125,60 @@ public class TaskRestServiceQueryTest extends AbstractRestServiceTest {
       .when().get(TASK_QUERY_URL);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testTaskKeysetPage() {
+    KeysetPage<Task> page = mock(KeysetPage.class);
+    when(page.getResults()).thenReturn(MockProvider.createMockTasks());
+    when(page.getContinuationToken()).thenReturn("nextToken");
+    when(mockQuery.listKeysetPage(anyString(), anyInt())).thenReturn(page);
+
+    given()
+      .queryParam("continuationToken", "aToken")
+      .queryParam("maxResults", 1)
+      .header("accept", MediaType.APPLICATION_JSON)
+    .then().expect()
+      .statusCode(Status.OK.getStatusCode())
+      .body("results.size()", equalTo(1))
+      .body("results[0].id", equalTo(MockProvider.EXAMPLE_TASK_ID))
+      .body("continuationToken", equalTo("nextToken"))
+    .when()
+      .get(TASK_KEYSET_PAGE_URL);
+
+    verify(mockQuery).listKeysetPage("aToken", 1);
+  }
+
+  @Test
+  public void testTaskKeysetPageWithoutMaxResults() {
+    given()
+      .header("accept", MediaType.APPLICATION_JSON)
+    .then().expect()
+      .statusCode(Status.BAD_REQUEST.getStatusCode())
+      .contentType(ContentType.JSON)
+      .body("type", equalTo(InvalidRequestException.class.getSimpleName()))
+    .when()
+      .get(TASK_KEYSET_PAGE_URL);
+
+    verify(mockQuery, never()).listKeysetPage(anyString(), anyInt());
+  }
+
+  @Test
+  public void testTaskKeysetPageWithInvalidContinuationToken() {
+    doThrow(new NotValidException("Invalid continuation token 'invalid'"))
+      .when(mockQuery).listKeysetPage(eq("invalid"), anyInt());
+
+    given()
+      .queryParam("continuationToken", "invalid")
+      .queryParam("maxResults", 1)
+      .header("accept", MediaType.APPLICATION_JSON)
+    .then().expect()
+      .statusCode(Status.BAD_REQUEST.getStatusCode())
+      .contentType(ContentType.JSON)
+      .body("type", equalTo(InvalidRequestException.class.getSimpleName()))
+    .when()
+      .get(TASK_KEYSET_PAGE_URL);
+  }
+
   @Test
   public void testSimpleTaskQuery() {
     String queryName = "name";
@@ -7,6 +7,8 @@ import static org.fest.assertions.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.is;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -25,6 +27,7 @@ import javax.ws.rs.core.Response.Status;
 
 import org.camunda.bpm.engine.history.HistoricVariableInstance;
 import org.camunda.bpm.engine.history.HistoricVariableInstanceQuery;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 import org.camunda.bpm.engine.rest.AbstractRestServiceTest;
 import org.camunda.bpm.engine.rest.exception.InvalidRequestException;
 import org.camunda.bpm.engine.rest.helper.MockHistoricVariableInstanceBuilder;
@@ -41,6 +44,8 @@ import org.junit.ClassRule;
 import org.junit.Test;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
 import com.jayway.restassured.http.ContentType;
 import com.jayway.restassured.response.Response;
@@ -54,6 +59,8 @@ public class HistoricVariableInstanceRestServiceQueryTest extends AbstractRestSe
 
   protected static final String HISTORIC_VARIABLE_INSTANCE_COUNT_RESOURCE_URL = HISTORIC_VARIABLE_INSTANCE_RESOURCE_URL + "/count";
 
+  protected static final String HISTORIC_VARIABLE_INSTANCE_STREAM_RESOURCE_URL = HISTORIC_VARIABLE_INSTANCE_RESOURCE_URL + "/stream";
+
   protected HistoricVariableInstanceQuery mockedQuery;
   protected HistoricVariableInstance mockInstance;
   protected MockHistoricVariableInstanceBuilder mockInstanceBuilder;
@@ -746,6 +753,51 @@ public class HistoricVariableInstanceRestServiceQueryTest extends AbstractRestSe
     verify(mockedQuery).caseActivityIdIn(MockProvider.EXAMPLE_CASE_ACTIVITY_ID, MockProvider.ANOTHER_EXAMPLE_CASE_ACTIVITY_ID);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testStreamQuery() {
+    doAnswer(new Answer<Void>() {
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        QueryResultHandler<HistoricVariableInstance> resultHandler = (QueryResultHandler<HistoricVariableInstance>) invocation.getArguments()[0];
+        resultHandler.handleResult(mockInstance);
+        resultHandler.handleResult(mockInstance);
+        return null;
+      }
+    }).when(mockedQuery).iterate(any(QueryResultHandler.class));
+
+    given()
+      .queryParam("variableName", mockInstanceBuilder.getName())
+    .then().expect()
+      .statusCode(Status.OK.getStatusCode())
+      .contentType(ContentType.JSON)
+      .body("size()", is(2))
+      .body("[0].id", equalTo(mockInstanceBuilder.getId()))
+      .body("[1].name", equalTo(mockInstanceBuilder.getName()))
+    .when()
+      .get(HISTORIC_VARIABLE_INSTANCE_STREAM_RESOURCE_URL);
+
+    InOrder inOrder = inOrder(mockedQuery);
+    inOrder.verify(mockedQuery).variableName(mockInstanceBuilder.getName());
+    inOrder.verify(mockedQuery).disableBinaryFetching();
+    inOrder.verify(mockedQuery).iterate(any(QueryResultHandler.class));
+    verify(mockedQuery, never()).disableCustomObjectDeserialization();
+    verify(mockedQuery, never()).list();
+  }
+
+  @Test
+  public void testStreamQueryDisableObjectDeserialization() {
+    given()
+      .queryParam("deserializeValues", false)
+    .then().expect()
+      .statusCode(Status.OK.getStatusCode())
+      .body("size()", is(0))
+    .when()
+      .get(HISTORIC_VARIABLE_INSTANCE_STREAM_RESOURCE_URL);
+
+    verify(mockedQuery).disableCustomObjectDeserialization();
+    verify(mockedQuery).iterate(any(QueryResultHandler.class));
+  }
+
   private List<HistoricVariableInstance> createMockHistoricVariableInstancesTwoTenants() {
     return Arrays.asList(
         MockProvider.mockHistoricVariableInstance(MockProvider.EXAMPLE_TENANT_ID).build(),
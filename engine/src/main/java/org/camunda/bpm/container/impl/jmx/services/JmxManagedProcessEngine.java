@@ -12,6 +12,8 @@
  */
 package org.camunda.bpm.container.impl.jmx.services;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 import org.camunda.bpm.container.impl.jmx.MBeanServiceContainer;
@@ -19,6 +21,7 @@ import org.camunda.bpm.container.impl.spi.PlatformService;
 import org.camunda.bpm.container.impl.spi.PlatformServiceContainer;
 import org.camunda.bpm.engine.ManagementService;
 import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.management.CommandProfile;
 
 /**
  * <p>Represents a process engine managed by the {@link MBeanServiceContainer}</p>
@@ -78,4 +81,28 @@ public class JmxManagedProcessEngine implements PlatformService<ProcessEngine>,
     managementService.reportDbMetricsNow();
   }
 
+  public void startCommandProfiling(int samplingRate) {
+    ManagementService managementService = processEngine.getManagementService();
+    managementService.startCommandProfiling(samplingRate);
+  }
+
+  public void stopCommandProfiling() {
+    ManagementService managementService = processEngine.getManagementService();
+    managementService.stopCommandProfiling();
+  }
+
+  public List<String> getCommandProfiles() {
+    ManagementService managementService = processEngine.getManagementService();
+    List<String> summaries = new ArrayList<String>();
+    for (CommandProfile commandProfile : managementService.getCommandProfiles()) {
+      summaries.add(commandProfile.toString());
+    }
+    return summaries;
+  }
+
+  public void resetCommandProfiles() {
+    ManagementService managementService = processEngine.getManagementService();
+    managementService.resetCommandProfiles();
+  }
+
 }
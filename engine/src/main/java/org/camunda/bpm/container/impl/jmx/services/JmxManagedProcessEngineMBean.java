@@ -12,6 +12,7 @@
  */
 package org.camunda.bpm.container.impl.jmx.services;
 
+import java.util.List;
 import java.util.Set;
 
 import org.camunda.bpm.engine.ProcessEngine;
@@ -42,4 +43,20 @@ public interface JmxManagedProcessEngineMBean {
   public void unregisterDeployment(String deploymentId);
 
   public void reportDbMetrics();
+
+  /**
+   * Requires command profiling to be enabled in the process engine configuration.
+   *
+   * @param samplingRate record every n-th command
+   */
+  public void startCommandProfiling(int samplingRate);
+
+  public void stopCommandProfiling();
+
+  /**
+   * @return a summary of each recorded command profile, ordered by descending total duration
+   */
+  public List<String> getCommandProfiles();
+
+  public void resetCommandProfiles();
 }
@@ -213,4 +213,22 @@ public interface FilterService {
    */
   Long count(String filterId, Query<?, ?> extendingQuery);
 
+  /**
+   * Returns the result count of the filter query, possibly from the filter count cache. The
+   * count is shared by all callers with the same user, groups and tenants. If the cache is
+   * disabled in the process engine configuration, the count is always executed.
+   *
+   * @param filterId the the id of the filter
+   * @param maxStaleness the maximum age in milliseconds of a cached count which may be returned;
+   *  a value of 0 forces the count to be executed
+   * @return the result count
+   * @throws AuthorizationException if the user has no {@link Permissions#READ} permissions on {@link Resources#FILTER}.
+   * @throws BadUserRequestException
+   *  <ul><li>When the filter query uses expressions and expression evaluation is deactivated for stored queries.
+   *  Expression evaluation can be activated by setting the process engine configuration properties
+   *  <code>enableExpressionsInAdhocQueries</code> (default <code>false</code>) and
+   *  <code>enableExpressionsInStoredQueries</code> (default <code>true</code>) to <code>true</code>.
+   */
+  Long count(String filterId, long maxStaleness);
+
 }
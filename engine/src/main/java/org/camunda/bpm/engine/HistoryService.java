@@ -14,6 +14,7 @@
 
 package org.camunda.bpm.engine;
 
+import org.camunda.bpm.engine.authorization.Groups;
 import org.camunda.bpm.engine.authorization.Permissions;
 import org.camunda.bpm.engine.authorization.Resources;
 import org.camunda.bpm.engine.batch.Batch;
@@ -55,6 +56,7 @@ import org.camunda.bpm.engine.history.NativeHistoricTaskInstanceQuery;
 import org.camunda.bpm.engine.history.UserOperationLogEntry;
 import org.camunda.bpm.engine.history.UserOperationLogQuery;
 import org.camunda.bpm.engine.history.HistoricDecisionInstanceStatisticsQuery;
+import org.camunda.bpm.engine.runtime.Job;
 
 import java.util.List;
 
@@ -355,4 +357,30 @@ public interface HistoryService {
    * @since 7.7
    */
   String getHistoricExternalTaskLogErrorDetails(String historicExternalTaskLogId);
+
+  /**
+   * Schedules the history cleanup job to run immediately, regardless of the
+   * configured batch window. The job removes the history of process, decision and
+   * case instances whose definition's history time to live has expired, one batch
+   * of the configured history cleanup batch size per job execution, until nothing
+   * is left to remove.
+   *
+   * @return the history cleanup job
+   *
+   * @throws AuthorizationException
+   *          If the user is not a member of the group {@link Groups#CAMUNDA_ADMIN}.
+   *
+   * @since 7.7
+   */
+  Job cleanUpHistoryAsync();
+
+  /**
+   * Returns the history cleanup job or <code>null</code> if none is scheduled.
+   *
+   * @throws AuthorizationException
+   *          If the user is not a member of the group {@link Groups#CAMUNDA_ADMIN}.
+   *
+   * @since 7.7
+   */
+  Job findHistoryCleanupJob();
 }
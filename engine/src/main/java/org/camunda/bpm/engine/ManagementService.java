@@ -28,6 +28,7 @@ import org.camunda.bpm.engine.batch.BatchQuery;
 import org.camunda.bpm.engine.batch.BatchStatisticsQuery;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
 import org.camunda.bpm.engine.management.ActivityStatisticsQuery;
+import org.camunda.bpm.engine.management.CommandProfile;
 import org.camunda.bpm.engine.management.DeploymentStatisticsQuery;
 import org.camunda.bpm.engine.management.JobDefinition;
 import org.camunda.bpm.engine.management.JobDefinitionQuery;
@@ -1128,6 +1129,18 @@ public interface ManagementService {
    */
   int getHistoryLevel();
 
+  /**
+   * Get the age of the oldest history events which were not yet written from the
+   * history event buffer to the history tables. The history event buffer is used
+   * if it is enabled in the process engine configuration.
+   *
+   * @return the lag in milliseconds, 0 if the history event buffer is empty
+   *
+   * @throws AuthorizationException
+   *          If the user is not a member of the group {@link Groups#CAMUNDA_ADMIN}.
+   */
+  long getHistoryEventBufferLag();
+
   /**
    * @return a new metrics Query.
    * @since 7.3
@@ -1162,6 +1175,59 @@ public interface ManagementService {
    */
   void reportDbMetricsNow();
 
+  /**
+   * Starts recording the execution of commands, e.g. their duration and the SQL
+   * statements they execute. The data is aggregated per command class and can be
+   * retrieved with {@link #getCommandProfiles()}. If profiling is already
+   * started, only the sampling rate is changed.
+   *
+   * @param samplingRate record every n-th command; 1 records all commands
+   *
+   * @throws ProcessEngineException if command profiling is not enabled in the
+   *          process engine configuration or the sampling rate is less than 1
+   * @throws AuthorizationException
+   *          If the user is not a member of the group {@link Groups#CAMUNDA_ADMIN}.
+   *
+   * @since 7.7
+   */
+  void startCommandProfiling(int samplingRate);
+
+  /**
+   * Stops recording commands. The profiles recorded so far are kept.
+   *
+   * @throws ProcessEngineException if command profiling is not enabled in the
+   *          process engine configuration
+   * @throws AuthorizationException
+   *          If the user is not a member of the group {@link Groups#CAMUNDA_ADMIN}.
+   *
+   * @since 7.7
+   */
+  void stopCommandProfiling();
+
+  /**
+   * @return the recorded profiles, one per command class, ordered by descending total duration
+   *
+   * @throws ProcessEngineException if command profiling is not enabled in the
+   *          process engine configuration
+   * @throws AuthorizationException
+   *          If the user is not a member of the group {@link Groups#CAMUNDA_ADMIN}.
+   *
+   * @since 7.7
+   */
+  List<CommandProfile> getCommandProfiles();
+
+  /**
+   * Discards the recorded profiles.
+   *
+   * @throws ProcessEngineException if command profiling is not enabled in the
+   *          process engine configuration
+   * @throws AuthorizationException
+   *          If the user is not a member of the group {@link Groups#CAMUNDA_ADMIN}.
+   *
+   * @since 7.7
+   */
+  void resetCommandProfiles();
+
   /**
    * Creates a query to search for {@link org.camunda.bpm.engine.batch.Batch} instances.
    *
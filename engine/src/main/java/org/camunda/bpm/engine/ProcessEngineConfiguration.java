@@ -178,6 +178,15 @@ public abstract class ProcessEngineConfiguration {
   protected boolean jobExecutorAcquireByDueDate = false;
   protected boolean jobExecutorAcquireByPriority = false;
 
+  /**
+   * If true, the job executor claims the jobs it acquires with row locks which are skipped
+   * by concurrent acquisitions (<code>FOR UPDATE SKIP LOCKED</code> on PostgreSQL, Oracle,
+   * MySQL 8 and MariaDB 10.6, <code>READPAST</code> on SQL Server). This way, job executors
+   * of a cluster do not acquire the same jobs. On other databases, jobs are acquired with
+   * optimistic locking as usual.
+   */
+  protected boolean jobExecutorAcquireWithSkipLocked = false;
+
   protected boolean producePrioritizedJobs = true;
   protected boolean producePrioritizedExternalTasks = true;
 
@@ -188,6 +197,16 @@ public abstract class ProcessEngineConfiguration {
    */
   protected boolean hintJobExecutor = true;
 
+  /**
+   * If true, non-exclusive jobs which are created by this process engine and are due immediately
+   * are locked for the local job executor in the creating transaction and are handed to it right
+   * after the transaction committed, instead of being picked up by the next job acquisition.
+   * Jobs that cannot be handed off (e.g. because the job executor is saturated) are unlocked again
+   * and left to job acquisition, which also remains responsible for recovering handed off jobs
+   * of a crashed node once their lock expired.
+   */
+  protected boolean jobExecutorHandOffLocalJobs = false;
+
   protected String mailServerHost = "localhost";
   protected String mailServerUsername; // by default no name and password are provided, which
   protected String mailServerPassword; // means no authentication for mail server
@@ -595,6 +614,15 @@ public abstract class ProcessEngineConfiguration {
     return this;
   }
 
+  public boolean isJobExecutorHandOffLocalJobs() {
+    return jobExecutorHandOffLocalJobs;
+  }
+
+  public ProcessEngineConfiguration setJobExecutorHandOffLocalJobs(boolean jobExecutorHandOffLocalJobs) {
+    this.jobExecutorHandOffLocalJobs = jobExecutorHandOffLocalJobs;
+    return this;
+  }
+
   public ClassLoader getClassLoader() {
     return classLoader;
   }
@@ -725,6 +753,15 @@ public abstract class ProcessEngineConfiguration {
     this.jobExecutorAcquireByPriority = jobExecutorAcquireByPriority;
   }
 
+  public boolean isJobExecutorAcquireWithSkipLocked() {
+    return jobExecutorAcquireWithSkipLocked;
+  }
+
+  public ProcessEngineConfiguration setJobExecutorAcquireWithSkipLocked(boolean jobExecutorAcquireWithSkipLocked) {
+    this.jobExecutorAcquireWithSkipLocked = jobExecutorAcquireWithSkipLocked;
+    return this;
+  }
+
   public boolean isProducePrioritizedExternalTasks() {
     return producePrioritizedExternalTasks;
   }
@@ -31,6 +31,7 @@ import org.camunda.bpm.engine.runtime.Execution;
 import org.camunda.bpm.engine.runtime.ExecutionQuery;
 import org.camunda.bpm.engine.runtime.IncidentQuery;
 import org.camunda.bpm.engine.runtime.MessageCorrelationBuilder;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkBuilder;
 import org.camunda.bpm.engine.runtime.ModificationBuilder;
 import org.camunda.bpm.engine.runtime.NativeExecutionQuery;
 import org.camunda.bpm.engine.runtime.NativeProcessInstanceQuery;
@@ -1587,6 +1588,17 @@ public interface RuntimeService {
    */
   MessageCorrelationBuilder createMessageCorrelation(String messageName);
 
+  /**
+   * Define the correlation of many messages using a fluent builder. The messages
+   * are correlated in chunks, each chunk in one transaction, and a result
+   * or failure is reported per message.
+   *
+   * @return the fluent builder for defining the message correlations.
+   *
+   * @since 7.7
+   */
+  MessageCorrelationBulkBuilder createMessageCorrelationBulk();
+
   /**
    * Correlates a message to either an execution that is waiting for this message or a process definition
    * that can be started by this message.
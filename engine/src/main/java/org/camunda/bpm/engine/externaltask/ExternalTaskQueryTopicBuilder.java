@@ -46,4 +46,16 @@ public interface ExternalTaskQueryTopicBuilder extends ExternalTaskQueryBuilder
    */
   public ExternalTaskQueryTopicBuilder enableCustomObjectDeserialization();
 
+  /**
+   * Limit the number of tasks fetched for the current topic. If a limit is defined for
+   * any topic, each topic is queried separately and the overall number of tasks is
+   * shared fairly between the topics that have tasks available, so that a topic with many
+   * tasks cannot starve the other topics. With priority enabled, tasks are fetched by
+   * priority within each topic.
+   *
+   * @param maxTasks the maximum number of tasks to fetch for the current topic
+   * @return this builder
+   */
+  public ExternalTaskQueryTopicBuilder maxTasks(int maxTasks);
+
 }
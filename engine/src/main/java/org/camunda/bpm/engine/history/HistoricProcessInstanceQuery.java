@@ -18,7 +18,10 @@ import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.exception.NotValidException;
+import org.camunda.bpm.engine.query.KeysetPage;
 import org.camunda.bpm.engine.query.Query;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 import org.camunda.bpm.engine.runtime.ProcessInstanceQuery;
 
 /**
@@ -289,4 +292,39 @@ public interface HistoricProcessInstanceQuery extends Query<HistoricProcessInsta
 
   /** Only select historic process instances that executed an job before the given date. */
   HistoricProcessInstanceQuery executedJobBefore(Date date);
+
+  /**
+   * <p>Executes the query and returns at most <code>maxResults</code> results which follow
+   * the last result of the page the continuation token was returned with. Unlike
+   * {@link #listPage(int, int)}, the database does not have to read and skip the results
+   * of all previous pages, which makes this the method of choice to iterate over large
+   * result sets.</p>
+   *
+   * <p>The query must either have no ordering or a single ordering out of
+   * {@link #orderByProcessInstanceId()} and {@link #orderByProcessInstanceStartTime()}.
+   * The results are additionally ordered by id in the same direction. All pages have
+   * to be requested with the same criteria and ordering.</p>
+   *
+   * @param continuationToken the token returned with the previous page or <code>null</code> to request the first page
+   * @param maxResults the maximum number of results of the page
+   * @throws NotValidException if the query is ordered differently or the continuation token is invalid
+   */
+  KeysetPage<HistoricProcessInstance> listKeysetPage(String continuationToken, int maxResults);
+
+  /**
+   * <p>Executes the query and passes the results one by one to the given handler while
+   * they are read from the database, instead of collecting them in a list. The results
+   * are not registered in the cache of the command, so the memory consumption does not
+   * grow with the size of the result. The JDBC fetch size of the query is configured by
+   * <code>queryStreamingFetchSize</code> of the process engine configuration. MySQL and
+   * MariaDB drivers only honor it if the JDBC URL contains <code>useCursorFetch=true</code>
+   * and read the complete result into memory otherwise.</p>
+   *
+   * <p>The handler is invoked inside the command which executes the query, so the
+   * transaction and its connection stay open until the handler returns for the last result.</p>
+   *
+   * @param resultHandler the handler which receives the results
+   */
+  void iterate(QueryResultHandler<? super HistoricProcessInstance> resultHandler);
+
 }
@@ -14,6 +14,7 @@
 package org.camunda.bpm.engine.history;
 
 import org.camunda.bpm.engine.query.Query;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 
 
 /**
@@ -93,4 +94,22 @@ public interface HistoricVariableInstanceQuery extends Query<HistoricVariableIns
    */
   HistoricVariableInstanceQuery disableCustomObjectDeserialization();
 
+  /**
+   * <p>Executes the query and passes the results one by one to the given handler while
+   * they are read from the database, instead of collecting them in a list. The results
+   * are not registered in the cache of the command, so the memory consumption does not
+   * grow with the size of the result. The JDBC fetch size of the query is configured by
+   * <code>queryStreamingFetchSize</code> of the process engine configuration. MySQL and
+   * MariaDB drivers only honor it if the JDBC URL contains <code>useCursorFetch=true</code>
+   * and read the complete result into memory otherwise.</p>
+   *
+   * <p>The handler is invoked inside the command which executes the query, so the
+   * transaction and its connection stay open until the handler returns for the last result. Values of
+   * byte array variables are fetched for each result unless {@link #disableBinaryFetching()}
+   * was called.</p>
+   *
+   * @param resultHandler the handler which receives the results
+   */
+  void iterate(QueryResultHandler<? super HistoricVariableInstance> resultHandler);
+
 }
@@ -19,6 +19,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
@@ -64,16 +68,97 @@ public abstract class AbstractDefinitionDeployer<DefinitionEntity extends Resour
   }
 
   protected List<DefinitionEntity> parseDefinitionResources(DeploymentEntity deployment, Properties properties) {
-    List<DefinitionEntity> definitions = new ArrayList<DefinitionEntity>();
+    List<ResourceEntity> handledResources = new ArrayList<ResourceEntity>();
     for (ResourceEntity resource : deployment.getResources().values()) {
       LOG.debugProcessingResource(resource.getName());
       if (isResourceHandled(resource)) {
-        definitions.addAll(transformResource(deployment, resource, properties));
+        handledResources.add(resource);
       }
     }
+
+    ExecutorService executor = getParsingExecutor();
+    if (executor != null && handledResources.size() > 1 && isParallelParsingSupported()) {
+      return transformResourcesInParallel(executor, deployment, handledResources, properties);
+    }
+
+    List<DefinitionEntity> definitions = new ArrayList<DefinitionEntity>();
+    for (ResourceEntity resource : handledResources) {
+      definitions.addAll(transformResource(deployment, resource, properties));
+    }
     return definitions;
   }
 
+  /**
+   * Returns true if {@link #transformDefinitions(DeploymentEntity, ResourceEntity, Properties)}
+   * may be invoked concurrently for different resources of the same deployment. Such
+   * implementations must not access the command context and must synchronize on the
+   * given properties when modifying them.
+   */
+  protected boolean isParallelParsingSupported() {
+    return false;
+  }
+
+  protected ExecutorService getParsingExecutor() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (processEngineConfiguration == null) {
+      return null;
+    }
+    return processEngineConfiguration.getDeploymentParsingExecutor();
+  }
+
+  /**
+   * Transforms the resources on the given executor. The results are merged in the order of
+   * the resources, so the outcome (including the reported parse error if more than one
+   * resource is invalid) is the same as if the resources were transformed sequentially.
+   */
+  protected List<DefinitionEntity> transformResourcesInParallel(ExecutorService executor, DeploymentEntity deployment,
+      List<ResourceEntity> resources, Properties properties) {
+
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+
+    List<Future<List<DefinitionEntity>>> futures = new ArrayList<Future<List<DefinitionEntity>>>();
+    try {
+      for (ResourceEntity resource : resources) {
+        futures.add(executor.submit(new TransformDefinitionsTask(deployment, resource, properties, processEngineConfiguration, classLoader)));
+      }
+
+      List<DefinitionEntity> definitions = new ArrayList<DefinitionEntity>();
+      for (int i = 0; i < resources.size(); i++) {
+        ResourceEntity resource = resources.get(i);
+        List<DefinitionEntity> resourceDefinitions = getTransformationResult(futures.get(i));
+        initDefinitionResources(deployment, resource, resourceDefinitions);
+        definitions.addAll(resourceDefinitions);
+      }
+      return definitions;
+
+    } finally {
+      for (Future<List<DefinitionEntity>> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  protected List<DefinitionEntity> getTransformationResult(Future<List<DefinitionEntity>> future) {
+    try {
+      return future.get();
+
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessEngineException("Interrupted while waiting for the deployment resources to be parsed", e);
+
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new ProcessEngineException(cause);
+      }
+    }
+  }
+
   protected boolean isResourceHandled(ResourceEntity resource) {
     String resourceName = resource.getName();
 
@@ -92,8 +177,13 @@ public abstract class AbstractDefinitionDeployer<DefinitionEntity extends Resour
   protected abstract String[] getResourcesSuffixes();
 
   protected Collection<DefinitionEntity> transformResource(DeploymentEntity deployment, ResourceEntity resource, Properties properties) {
-    String resourceName = resource.getName();
     List<DefinitionEntity> definitions = transformDefinitions(deployment, resource, properties);
+    initDefinitionResources(deployment, resource, definitions);
+    return definitions;
+  }
+
+  protected void initDefinitionResources(DeploymentEntity deployment, ResourceEntity resource, List<DefinitionEntity> definitions) {
+    String resourceName = resource.getName();
 
     for (DefinitionEntity definition : definitions) {
       definition.setResourceName(resourceName);
@@ -103,8 +193,6 @@ public abstract class AbstractDefinitionDeployer<DefinitionEntity extends Resour
         definition.setDiagramResourceName(diagramResourceName);
       }
     }
-
-    return definitions;
   }
 
 
@@ -359,4 +447,36 @@ public abstract class AbstractDefinitionDeployer<DefinitionEntity extends Resour
     return getProcessEngineConfiguration().getDeploymentCache();
   }
 
+  protected class TransformDefinitionsTask implements Callable<List<DefinitionEntity>> {
+
+    protected DeploymentEntity deployment;
+    protected ResourceEntity resource;
+    protected Properties properties;
+    protected ProcessEngineConfigurationImpl processEngineConfiguration;
+    protected ClassLoader classLoader;
+
+    public TransformDefinitionsTask(DeploymentEntity deployment, ResourceEntity resource, Properties properties,
+        ProcessEngineConfigurationImpl processEngineConfiguration, ClassLoader classLoader) {
+      this.deployment = deployment;
+      this.resource = resource;
+      this.properties = properties;
+      this.processEngineConfiguration = processEngineConfiguration;
+      this.classLoader = classLoader;
+    }
+
+    public List<DefinitionEntity> call() {
+      Thread currentThread = Thread.currentThread();
+      ClassLoader previousClassLoader = currentThread.getContextClassLoader();
+      currentThread.setContextClassLoader(classLoader);
+      Context.setProcessEngineConfiguration(processEngineConfiguration);
+      try {
+        return transformDefinitions(deployment, resource, properties);
+
+      } finally {
+        Context.removeProcessEngineConfiguration();
+        currentThread.setContextClassLoader(previousClassLoader);
+      }
+    }
+  }
+
 }
@@ -19,6 +19,7 @@ import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -33,8 +34,10 @@ import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.query.KeysetPage;
 import org.camunda.bpm.engine.query.Query;
 import org.camunda.bpm.engine.query.QueryProperty;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 import org.joda.time.DateTime;
 
 
@@ -51,7 +54,7 @@ public abstract class AbstractQuery<T extends Query<?,?>, U> extends ListQueryPa
   public static final String SORTORDER_DESC = "desc";
 
   protected enum ResultType {
-    LIST, LIST_PAGE, SINGLE_RESULT, COUNT
+    LIST, LIST_PAGE, SINGLE_RESULT, COUNT, ITERATE
   }
   protected transient CommandExecutor commandExecutor;
 
@@ -61,6 +64,10 @@ public abstract class AbstractQuery<T extends Query<?,?>, U> extends ListQueryPa
 
   protected Set<Validator<AbstractQuery<?, ?>>> validators = new HashSet<Validator<AbstractQuery<?, ?>>>();
 
+  protected KeysetPosition keysetPosition;
+
+  protected transient QueryResultHandler<? super U> resultHandler;
+
   protected AbstractQuery() {
   }
 
@@ -150,6 +157,120 @@ public abstract class AbstractQuery<T extends Query<?,?>, U> extends ListQueryPa
     return evaluateExpressionsAndExecuteList(Context.getCommandContext(), new Page(firstResult, maxResults));
   }
 
+  /**
+   * Executes the query and returns at most <code>maxResults</code> results which follow the
+   * result the continuation token was created for. The results are ordered by the single
+   * ordering property of the query (or the id if there is none) and by the id, which makes
+   * the order unique.
+   *
+   * @param continuationToken the token of the previous page or <code>null</code> for the first page
+   */
+  public KeysetPage<U> listKeysetPage(String continuationToken, int maxResults) {
+    QueryProperty idProperty = getKeysetIdProperty();
+    ensureNotNull(NotValidException.class, "Keyset pagination is not supported by " + getClass().getSimpleName(), "idProperty", idProperty);
+
+    QueryOrderingProperty ordering = getKeysetOrdering(idProperty);
+    QueryProperty sortProperty = idProperty.equals(ordering.getQueryProperty()) ? null : ordering.getQueryProperty();
+    Direction direction = ordering.getDirection();
+
+    List<QueryOrderingProperty> originalOrderingProperties = orderingProperties;
+    try {
+      orderingProperties = new ArrayList<QueryOrderingProperty>();
+      if (sortProperty != null) {
+        orderingProperties.add(ordering);
+      }
+      orderingProperties.add(new QueryOrderingProperty(idProperty, direction));
+
+      if (continuationToken != null) {
+        keysetPosition = KeysetPosition.fromContinuationToken(continuationToken, sortProperty, idProperty, direction);
+      }
+
+      List<U> results = listPage(0, maxResults);
+
+      String nextContinuationToken = null;
+      if (!results.isEmpty() && results.size() >= maxResults) {
+        U lastResult = results.get(results.size() - 1);
+        Object sortValue = sortProperty != null ? getKeysetValue(sortProperty, lastResult) : null;
+        String id = (String) getKeysetValue(idProperty, lastResult);
+        nextContinuationToken = KeysetPosition.toContinuationToken(sortProperty, sortValue, idProperty, id);
+      }
+
+      return new KeysetPageImpl<U>(results, nextContinuationToken);
+    }
+    finally {
+      orderingProperties = originalOrderingProperties;
+      keysetPosition = null;
+    }
+  }
+
+  /**
+   * Returns the single ordering of the query which keyset pagination is based on.
+   */
+  protected QueryOrderingProperty getKeysetOrdering(QueryProperty idProperty) {
+    if (orderingProperties.isEmpty()) {
+      return new QueryOrderingProperty(idProperty, Direction.ASCENDING);
+    }
+
+    QueryOrderingProperty ordering = orderingProperties.get(0);
+    QueryProperty property = ordering.getQueryProperty();
+    if (orderingProperties.size() > 1 || !ordering.isContainedProperty()
+        || !(idProperty.equals(property) || getKeysetSortProperties().contains(property))) {
+      throw new NotValidException("Keyset pagination is only supported for queries which are ordered by a single "
+          + "property out of " + getKeysetSortProperties() + " or by " + idProperty);
+    }
+
+    ensureNotNull(NotValidException.class, "Invalid query: call asc() or desc() after using orderByXX()", "direction", ordering.getDirection());
+    return ordering;
+  }
+
+  /**
+   * Returns the property of the unique id used by keyset pagination or
+   * <code>null</code> if the query does not support keyset pagination.
+   */
+  protected QueryProperty getKeysetIdProperty() {
+    return null;
+  }
+
+  /**
+   * Returns the non-nullable properties which keyset pagination supports in addition to the id.
+   */
+  protected List<QueryProperty> getKeysetSortProperties() {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Returns the value of a property returned by {@link #getKeysetIdProperty()} or
+   * {@link #getKeysetSortProperties()} for the given result.
+   */
+  protected Object getKeysetValue(QueryProperty property, U result) {
+    throw new NotValidException("Keyset pagination is not supported by " + getClass().getSimpleName());
+  }
+
+  public KeysetPosition getKeysetPosition() {
+    return keysetPosition;
+  }
+
+  /**
+   * Executes the query and passes the results one by one to the handler while they are
+   * read from the database. The results are not kept in memory by the engine.
+   */
+  public void iterate(QueryResultHandler<? super U> resultHandler) {
+    ensureNotNull("resultHandler", resultHandler);
+    this.resultType = ResultType.ITERATE;
+    this.resultHandler = resultHandler;
+    try {
+      if (commandExecutor!=null) {
+        commandExecutor.execute(this);
+      }
+      else {
+        evaluateExpressionsAndExecuteIterate(Context.getCommandContext(), resultHandler);
+      }
+    }
+    finally {
+      this.resultHandler = null;
+    }
+  }
+
   public long count() {
     this.resultType = ResultType.COUNT;
     if (commandExecutor!=null) {
@@ -165,6 +286,9 @@ public abstract class AbstractQuery<T extends Query<?,?>, U> extends ListQueryPa
       return executeSingleResult(commandContext);
     } else if (resultType==ResultType.LIST_PAGE) {
       return evaluateExpressionsAndExecuteList(commandContext, null);
+    } else if (resultType==ResultType.ITERATE) {
+      evaluateExpressionsAndExecuteIterate(commandContext, resultHandler);
+      return null;
     } else {
       return evaluateExpressionsAndExecuteCount(commandContext);
     }
@@ -184,6 +308,22 @@ public abstract class AbstractQuery<T extends Query<?,?>, U> extends ListQueryPa
     return !hasExcludingConditions() ? executeList(commandContext, page) : new ArrayList<U>();
   }
 
+  public void evaluateExpressionsAndExecuteIterate(CommandContext commandContext, QueryResultHandler<? super U> resultHandler) {
+    validate();
+    evaluateExpressions();
+    if (!hasExcludingConditions()) {
+      firstResult = 0;
+      maxResults = Integer.MAX_VALUE;
+      fetchSize = commandContext.getProcessEngineConfiguration().getQueryStreamingFetchSize();
+      try {
+        executeIterate(commandContext, resultHandler);
+      }
+      finally {
+        fetchSize = 0;
+      }
+    }
+  }
+
   /**
    * Whether or not the query has excluding conditions. If the query has excluding conditions,
    * (e.g. task due date before and after are excluding), the SQL query is avoided and a default result is
@@ -201,6 +341,14 @@ public abstract class AbstractQuery<T extends Query<?,?>, U> extends ListQueryPa
    */
   public abstract List<U> executeList(CommandContext commandContext, Page page);
 
+  /**
+   * Executes the actual query and passes the results to the handler while they are read
+   * from the database. Queries which support streaming their results override this method.
+   */
+  protected void executeIterate(CommandContext commandContext, QueryResultHandler<? super U> resultHandler) {
+    throw new NotValidException("Streaming the results is not supported by " + getClass().getSimpleName());
+  }
+
   public U executeSingleResult(CommandContext commandContext) {
     List<U> results = evaluateExpressionsAndExecuteList(commandContext, null);
     if (results.size() == 1) {
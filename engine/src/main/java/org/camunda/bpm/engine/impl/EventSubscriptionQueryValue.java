@@ -25,6 +25,8 @@ public class EventSubscriptionQueryValue implements Serializable {
   
   protected String eventType;
   protected String eventName;
+  protected String correlationKey;
+  protected String excludedCorrelationKeyPrefix;
   
   public EventSubscriptionQueryValue(String eventName, String eventType) {
     this.eventName = eventName;
@@ -46,6 +48,26 @@ public class EventSubscriptionQueryValue implements Serializable {
   public void setEventName(String eventName) {
     this.eventName = eventName;
   }
+
+  public String getCorrelationKey() {
+    return correlationKey;
+  }
+
+  public void setCorrelationKey(String correlationKey) {
+    this.correlationKey = correlationKey;
+  }
+
+  public String getExcludedCorrelationKeyPrefix() {
+    return excludedCorrelationKeyPrefix;
+  }
+
+  public void setExcludedCorrelationKeyPrefix(String excludedCorrelationKeyPrefix) {
+    this.excludedCorrelationKeyPrefix = excludedCorrelationKeyPrefix;
+  }
+
+  public String getExcludedCorrelationKeyPattern() {
+    return excludedCorrelationKeyPrefix + "%";
+  }
   
     
 
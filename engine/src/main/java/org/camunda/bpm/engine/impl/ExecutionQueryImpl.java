@@ -121,6 +121,27 @@ public class ExecutionQueryImpl extends AbstractVariableQueryImpl<ExecutionQuery
     return this;
   }
 
+  /**
+   * Only select executions with a message event subscription that has the given correlation key.
+   */
+  public ExecutionQueryImpl messageEventSubscriptionCorrelationKey(String messageName, String correlationKey) {
+    ensureNotNull("correlation key", correlationKey);
+    eventSubscription(EventType.MESSAGE, messageName);
+    eventSubscriptions.get(eventSubscriptions.size() - 1).setCorrelationKey(correlationKey);
+    return this;
+  }
+
+  /**
+   * Only select executions with a message event subscription that has no correlation key
+   * starting with the given prefix, i.e. that was not indexed by the same set of variables.
+   */
+  public ExecutionQueryImpl messageEventSubscriptionWithoutCorrelationKeyPrefix(String messageName, String correlationKeyPrefix) {
+    ensureNotNull("correlation key prefix", correlationKeyPrefix);
+    eventSubscription(EventType.MESSAGE, messageName);
+    eventSubscriptions.get(eventSubscriptions.size() - 1).setExcludedCorrelationKeyPrefix(correlationKeyPrefix);
+    return this;
+  }
+
   public ExecutionQuery suspended() {
     this.suspensionState = SuspensionState.SUSPENDED;
     return this;
@@ -26,6 +26,7 @@ import org.camunda.bpm.engine.impl.cmd.ExecuteFilterListPageCmd;
 import org.camunda.bpm.engine.impl.cmd.ExecuteFilterSingleResultCmd;
 import org.camunda.bpm.engine.impl.cmd.GetFilterCmd;
 import org.camunda.bpm.engine.impl.cmd.SaveFilterCmd;
+import org.camunda.bpm.engine.impl.filter.FilterCountCache;
 import org.camunda.bpm.engine.impl.filter.FilterQueryImpl;
 import org.camunda.bpm.engine.query.Query;
 
@@ -35,6 +36,8 @@ import org.camunda.bpm.engine.query.Query;
  */
 public class FilterServiceImpl extends ServiceImpl implements FilterService {
 
+  protected FilterCountCache filterCountCache;
+
   public Filter newTaskFilter() {
     return commandExecutor.execute(new CreateFilterCmd(EntityTypes.TASK));
   }
@@ -101,4 +104,21 @@ public class FilterServiceImpl extends ServiceImpl implements FilterService {
     return commandExecutor.execute(new ExecuteFilterCountCmd(filterId, extendingQuery));
   }
 
+  public Long count(String filterId, long maxStaleness) {
+    if (filterCountCache != null) {
+      return filterCountCache.getCount(filterId, maxStaleness);
+    }
+    else {
+      return count(filterId);
+    }
+  }
+
+  public FilterCountCache getFilterCountCache() {
+    return filterCountCache;
+  }
+
+  public void setFilterCountCache(FilterCountCache filterCountCache) {
+    this.filterCountCache = filterCountCache;
+  }
+
 }
@@ -15,6 +15,7 @@ package org.camunda.bpm.engine.impl;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -25,6 +26,8 @@ import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.pvm.runtime.ActivityInstanceState;
 import org.camunda.bpm.engine.impl.util.CompareUtil;
+import org.camunda.bpm.engine.query.QueryProperty;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 
 /**
  * @author Tom Baeyens
@@ -73,6 +76,34 @@ public class HistoricActivityInstanceQueryImpl extends AbstractQuery<HistoricAct
       .findHistoricActivityInstancesByQueryCriteria(this, page);
   }
 
+  @Override
+  protected void executeIterate(CommandContext commandContext, QueryResultHandler<? super HistoricActivityInstance> resultHandler) {
+    checkQueryOk();
+    commandContext
+      .getHistoricActivityInstanceManager()
+      .iterateHistoricActivityInstancesByQueryCriteria(this, resultHandler);
+  }
+
+  @Override
+  protected QueryProperty getKeysetIdProperty() {
+    return HistoricActivityInstanceQueryProperty.HISTORIC_ACTIVITY_INSTANCE_ID;
+  }
+
+  @Override
+  protected List<QueryProperty> getKeysetSortProperties() {
+    return Collections.singletonList(HistoricActivityInstanceQueryProperty.START);
+  }
+
+  @Override
+  protected Object getKeysetValue(QueryProperty property, HistoricActivityInstance historicActivityInstance) {
+    if (HistoricActivityInstanceQueryProperty.START.equals(property)) {
+      return historicActivityInstance.getStartTime();
+    }
+    else {
+      return historicActivityInstance.getId();
+    }
+  }
+
   public HistoricActivityInstanceQueryImpl processInstanceId(String processInstanceId) {
     this.processInstanceId = processInstanceId;
     return this;
@@ -14,6 +14,7 @@
 package org.camunda.bpm.engine.impl;
 
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Set;
@@ -22,6 +23,8 @@ import org.camunda.bpm.engine.history.HistoricProcessInstanceQuery;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.util.CompareUtil;
+import org.camunda.bpm.engine.query.QueryProperty;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotContainsEmptyString;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotContainsNull;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotEmpty;
@@ -282,6 +285,35 @@ public class HistoricProcessInstanceQueryImpl extends AbstractVariableQueryImpl<
       .findHistoricProcessInstancesByQueryCriteria(this, page);
   }
 
+  @Override
+  protected void executeIterate(CommandContext commandContext, QueryResultHandler<? super HistoricProcessInstance> resultHandler) {
+    checkQueryOk();
+    ensureVariablesInitialized();
+    commandContext
+      .getHistoricProcessInstanceManager()
+      .iterateHistoricProcessInstancesByQueryCriteria(this, resultHandler);
+  }
+
+  @Override
+  protected QueryProperty getKeysetIdProperty() {
+    return HistoricProcessInstanceQueryProperty.PROCESS_INSTANCE_ID_;
+  }
+
+  @Override
+  protected List<QueryProperty> getKeysetSortProperties() {
+    return Collections.singletonList(HistoricProcessInstanceQueryProperty.START_TIME);
+  }
+
+  @Override
+  protected Object getKeysetValue(QueryProperty property, HistoricProcessInstance historicProcessInstance) {
+    if (HistoricProcessInstanceQueryProperty.START_TIME.equals(property)) {
+      return historicProcessInstance.getStartTime();
+    }
+    else {
+      return historicProcessInstance.getId();
+    }
+  }
+
   public String getBusinessKey() {
     return businessKey;
   }
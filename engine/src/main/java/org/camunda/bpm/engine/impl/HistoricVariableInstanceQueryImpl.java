@@ -21,11 +21,14 @@ import org.camunda.bpm.engine.history.HistoricVariableInstance;
 import org.camunda.bpm.engine.history.HistoricVariableInstanceQuery;
 import org.camunda.bpm.engine.impl.cmd.CommandLogger;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricVariableInstanceEntity;
 import org.camunda.bpm.engine.impl.variable.serializer.AbstractTypedValueSerializer;
 import org.camunda.bpm.engine.impl.variable.serializer.VariableSerializers;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 
 /**
  * @author Christian Lipphardt (camunda)
@@ -174,21 +177,50 @@ public class HistoricVariableInstanceQueryImpl extends AbstractQuery<HistoricVar
 
     if (historicVariableInstances!=null) {
       for (HistoricVariableInstance historicVariableInstance: historicVariableInstances) {
+        fetchValue((HistoricVariableInstanceEntity) historicVariableInstance);
+      }
+    }
+    return historicVariableInstances;
+  }
 
-        HistoricVariableInstanceEntity variableInstanceEntity = (HistoricVariableInstanceEntity) historicVariableInstance;
-        if (shouldFetchValue(variableInstanceEntity)) {
-          try {
-            variableInstanceEntity.getTypedValue(isCustomObjectDeserializationEnabled);
-
-          } catch(Exception t) {
-            // do not fail if one of the variables fails to load
-            LOG.exceptionWhileGettingValueForVariable(t);
+  @Override
+  protected void executeIterate(CommandContext commandContext, final QueryResultHandler<? super HistoricVariableInstance> resultHandler) {
+    checkQueryOk();
+    ensureVariablesInitialized();
+    final DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+
+    commandContext
+      .getHistoricVariableInstanceManager()
+      .iterateHistoricVariableInstancesByQueryCriteria(this, new QueryResultHandler<HistoricVariableInstance>() {
+        public void handleResult(HistoricVariableInstance result) {
+          HistoricVariableInstanceEntity variableInstanceEntity = (HistoricVariableInstanceEntity) result;
+          String byteArrayId = variableInstanceEntity.getByteArrayId();
+          boolean isByteArrayCached = byteArrayId == null || dbEntityManager.getCachedEntity(ByteArrayEntity.class, byteArrayId) != null;
+
+          fetchValue(variableInstanceEntity);
+          resultHandler.handleResult(variableInstanceEntity);
+
+          // release the byte array which was loaded for this result only
+          if (!isByteArrayCached) {
+            ByteArrayEntity byteArray = dbEntityManager.getCachedEntity(ByteArrayEntity.class, byteArrayId);
+            if (byteArray != null) {
+              dbEntityManager.evictUnchanged(byteArray);
+            }
           }
         }
+      });
+  }
 
+  protected void fetchValue(HistoricVariableInstanceEntity variableInstanceEntity) {
+    if (shouldFetchValue(variableInstanceEntity)) {
+      try {
+        variableInstanceEntity.getTypedValue(isCustomObjectDeserializationEnabled);
+
+      } catch(Exception t) {
+        // do not fail if one of the variables fails to load
+        LOG.exceptionWhileGettingValueForVariable(t);
       }
     }
-    return historicVariableInstances;
   }
 
   protected boolean shouldFetchValue(HistoricVariableInstanceEntity entity) {
@@ -47,11 +47,14 @@ import org.camunda.bpm.engine.impl.cmd.DeleteHistoricProcessInstanceCmd;
 import org.camunda.bpm.engine.impl.cmd.DeleteHistoricProcessInstancesCmd;
 import org.camunda.bpm.engine.impl.cmd.DeleteHistoricTaskInstanceCmd;
 import org.camunda.bpm.engine.impl.cmd.DeleteUserOperationLogEntryCmd;
+import org.camunda.bpm.engine.impl.cmd.FindHistoryCleanupJobCmd;
 import org.camunda.bpm.engine.impl.cmd.GetHistoricExternalTaskLogErrorDetailsCmd;
 import org.camunda.bpm.engine.impl.cmd.GetHistoricJobLogExceptionStacktraceCmd;
+import org.camunda.bpm.engine.impl.cmd.HistoryCleanupCmd;
 import org.camunda.bpm.engine.impl.cmd.batch.DeleteHistoricProcessInstancesBatchCmd;
 import org.camunda.bpm.engine.impl.dmn.cmd.DeleteHistoricDecisionInstanceByInstanceIdCmd;
 import org.camunda.bpm.engine.impl.dmn.cmd.DeleteHistoricDecisionInstanceByDefinitionIdCmd;
+import org.camunda.bpm.engine.runtime.Job;
 
 import java.util.List;
 
@@ -220,4 +223,14 @@ public class HistoryServiceImpl extends ServiceImpl implements HistoryService {
   public String getHistoricExternalTaskLogErrorDetails(String historicExternalTaskLogId) {
     return commandExecutor.execute(new GetHistoricExternalTaskLogErrorDetailsCmd(historicExternalTaskLogId));
   }
+
+  @Override
+  public Job cleanUpHistoryAsync() {
+    return commandExecutor.execute(new HistoryCleanupCmd(true));
+  }
+
+  @Override
+  public Job findHistoryCleanupJob() {
+    return commandExecutor.execute(new FindHistoryCleanupJobCmd());
+  }
 }
@@ -0,0 +1,160 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl;
+
+import java.io.Serializable;
+import java.io.UnsupportedEncodingException;
+import java.util.Date;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.exception.NotValidException;
+import org.camunda.bpm.engine.impl.digest._apacheCommonsCodec.Base64;
+import org.camunda.bpm.engine.query.QueryProperty;
+
+/**
+ * The position after which keyset pagination continues, i.e. the sort value and the id of
+ * the last result of the previous page. The query restricts its results to those following
+ * this position in the order of the sort property and the id, so that the database can seek
+ * to the first result of the page by an index instead of skipping all previous results.
+ *
+ * <p>The position is passed to clients as an opaque continuation token.</p>
+ */
+public class KeysetPosition implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected static final String TOKEN_CHARSET = "UTF-8";
+  protected static final String SEPARATOR = ":";
+  protected static final String TYPE_DATE = "d";
+  protected static final String TYPE_INTEGER = "i";
+
+  protected QueryProperty sortProperty;
+  protected Object sortValue;
+  protected QueryProperty idProperty;
+  protected String id;
+  protected Direction direction;
+
+  public KeysetPosition(QueryProperty sortProperty, Object sortValue, QueryProperty idProperty, String id, Direction direction) {
+    this.sortProperty = sortProperty;
+    this.sortValue = sortValue;
+    this.idProperty = idProperty;
+    this.id = id;
+    this.direction = direction;
+  }
+
+  /**
+   * @param sortProperty the property the results are ordered by in addition to the id or <code>null</code>
+   *  if they are ordered by the id only
+   */
+  public static String toContinuationToken(QueryProperty sortProperty, Object sortValue, QueryProperty idProperty, String id) {
+    StringBuilder token = new StringBuilder();
+
+    if (sortProperty != null) {
+      token.append(sortProperty.getName()).append(SEPARATOR);
+
+      if (sortValue instanceof Date) {
+        token.append(TYPE_DATE).append(SEPARATOR).append(((Date) sortValue).getTime());
+      }
+      else if (sortValue instanceof Integer) {
+        token.append(TYPE_INTEGER).append(SEPARATOR).append(sortValue);
+      }
+      else {
+        throw new ProcessEngineException("Cannot create a continuation token for the value '" + sortValue + "' of property " + sortProperty.getName());
+      }
+    }
+    else {
+      token.append(idProperty.getName()).append(SEPARATOR).append(SEPARATOR);
+    }
+
+    token.append(SEPARATOR).append(id);
+
+    try {
+      return Base64.encodeBase64URLSafeString(token.toString().getBytes(TOKEN_CHARSET));
+    }
+    catch (UnsupportedEncodingException e) {
+      throw new ProcessEngineException(e);
+    }
+  }
+
+  /**
+   * Parses a continuation token which was created for a query with the same ordering.
+   *
+   * @throws NotValidException if the token is malformed or was created for a different ordering
+   */
+  public static KeysetPosition fromContinuationToken(String continuationToken, QueryProperty sortProperty, QueryProperty idProperty, Direction direction) {
+    String[] parts;
+    try {
+      parts = new String(Base64.decodeBase64(continuationToken), TOKEN_CHARSET).split(SEPARATOR, 4);
+    }
+    catch (UnsupportedEncodingException e) {
+      throw new ProcessEngineException(e);
+    }
+
+    if (parts.length != 4 || parts[3].length() == 0) {
+      throw new NotValidException("Invalid continuation token '" + continuationToken + "'");
+    }
+
+    String expectedPropertyName = sortProperty != null ? sortProperty.getName() : idProperty.getName();
+    if (!expectedPropertyName.equals(parts[0])) {
+      throw new NotValidException("The continuation token '" + continuationToken + "' was created for a query with a different ordering");
+    }
+
+    Object sortValue = null;
+    if (sortProperty != null) {
+      try {
+        if (TYPE_DATE.equals(parts[1])) {
+          sortValue = new Date(Long.parseLong(parts[2]));
+        }
+        else if (TYPE_INTEGER.equals(parts[1])) {
+          sortValue = Integer.valueOf(parts[2]);
+        }
+        else {
+          throw new NotValidException("Invalid continuation token '" + continuationToken + "'");
+        }
+      }
+      catch (NumberFormatException e) {
+        throw new NotValidException("Invalid continuation token '" + continuationToken + "'", e);
+      }
+    }
+
+    return new KeysetPosition(sortProperty, sortValue, idProperty, parts[3], direction);
+  }
+
+  public QueryProperty getSortProperty() {
+    return sortProperty;
+  }
+
+  public Object getSortValue() {
+    return sortValue;
+  }
+
+  public QueryProperty getIdProperty() {
+    return idProperty;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public Direction getDirection() {
+    return direction;
+  }
+
+  /**
+   * The comparison operator which selects the results following this position.
+   */
+  public String getOperator() {
+    return Direction.DESCENDING.equals(direction) ? "<" : ">";
+  }
+
+}
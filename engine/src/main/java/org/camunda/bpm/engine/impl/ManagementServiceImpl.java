@@ -33,6 +33,7 @@ import org.camunda.bpm.engine.impl.management.UpdateJobDefinitionSuspensionState
 import org.camunda.bpm.engine.impl.management.UpdateJobSuspensionStateBuilderImpl;
 import org.camunda.bpm.engine.impl.metrics.MetricsQueryImpl;
 import org.camunda.bpm.engine.management.ActivityStatisticsQuery;
+import org.camunda.bpm.engine.management.CommandProfile;
 import org.camunda.bpm.engine.management.DeploymentStatisticsQuery;
 import org.camunda.bpm.engine.management.JobDefinitionQuery;
 import org.camunda.bpm.engine.management.MetricsQuery;
@@ -416,6 +417,10 @@ public class ManagementServiceImpl extends ServiceImpl implements ManagementServ
     return commandExecutor.execute(new GetHistoryLevelCmd());
   }
 
+  public long getHistoryEventBufferLag() {
+    return commandExecutor.execute(new GetHistoryEventBufferLagCmd());
+  }
+
   public MetricsQuery createMetricsQuery() {
     return new MetricsQueryImpl(commandExecutor);
   }
@@ -433,6 +438,22 @@ public class ManagementServiceImpl extends ServiceImpl implements ManagementServ
     commandExecutor.execute(new ReportDbMetricsCmd());
   }
 
+  public void startCommandProfiling(int samplingRate) {
+    commandExecutor.execute(new StartCommandProfilingCmd(samplingRate));
+  }
+
+  public void stopCommandProfiling() {
+    commandExecutor.execute(new StopCommandProfilingCmd());
+  }
+
+  public List<CommandProfile> getCommandProfiles() {
+    return commandExecutor.execute(new GetCommandProfilesCmd());
+  }
+
+  public void resetCommandProfiles() {
+    commandExecutor.execute(new ResetCommandProfilesCmd());
+  }
+
   public void setOverridingJobPriorityForJobDefinition(String jobDefinitionId, long priority) {
     commandExecutor.execute(new SetJobDefinitionPriorityCmd(jobDefinitionId, priority, false));
   }
@@ -0,0 +1,112 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl;
+
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureInstanceOf;
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensurePositive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.cmd.AbstractCorrelateMessageCmd;
+import org.camunda.bpm.engine.impl.cmd.CorrelateAllMessageCmd;
+import org.camunda.bpm.engine.impl.cmd.CorrelateMessageCmd;
+import org.camunda.bpm.engine.impl.cmd.CorrelateMessagesInBulkCmd;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.runtime.MessageCorrelationBulkResultImpl;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBuilder;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkBuilder;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkResult;
+
+public class MessageCorrelationBulkBuilderImpl implements MessageCorrelationBulkBuilder {
+
+  protected CommandExecutor commandExecutor;
+
+  protected List<AbstractCorrelateMessageCmd> correlations = new ArrayList<AbstractCorrelateMessageCmd>();
+  protected Integer chunkSize;
+
+  public MessageCorrelationBulkBuilderImpl(CommandExecutor commandExecutor) {
+    ensureNotNull("commandExecutor", commandExecutor);
+    this.commandExecutor = commandExecutor;
+  }
+
+  public MessageCorrelationBulkBuilder correlate(MessageCorrelationBuilder messageCorrelation) {
+    MessageCorrelationBuilderImpl builder = getBuilderImpl(messageCorrelation);
+    correlations.add(new CorrelateMessageCmd(builder));
+    return this;
+  }
+
+  public MessageCorrelationBulkBuilder correlateAll(MessageCorrelationBuilder messageCorrelation) {
+    MessageCorrelationBuilderImpl builder = getBuilderImpl(messageCorrelation);
+    correlations.add(new CorrelateAllMessageCmd(builder));
+    return this;
+  }
+
+  protected MessageCorrelationBuilderImpl getBuilderImpl(MessageCorrelationBuilder messageCorrelation) {
+    ensureNotNull("messageCorrelation", messageCorrelation);
+    ensureInstanceOf("messageCorrelation", messageCorrelation, MessageCorrelationBuilderImpl.class);
+
+    MessageCorrelationBuilderImpl builder = (MessageCorrelationBuilderImpl) messageCorrelation;
+    builder.ensureProcessDefinitionIdNotSet();
+    builder.ensureProcessInstanceAndTenantIdNotSet();
+    return builder;
+  }
+
+  public MessageCorrelationBulkBuilder chunkSize(int chunkSize) {
+    ensurePositive("chunkSize", (long) chunkSize);
+    this.chunkSize = chunkSize;
+    return this;
+  }
+
+  public List<MessageCorrelationBulkResult> execute() {
+    List<MessageCorrelationBulkResult> results = new ArrayList<MessageCorrelationBulkResult>(correlations.size());
+
+    int position = 0;
+    Integer nextChunkSize = chunkSize;
+
+    while (position < correlations.size()) {
+      CorrelateMessagesInBulkCmd command = new CorrelateMessagesInBulkCmd(correlations, position, nextChunkSize);
+      try {
+        List<MessageCorrelationBulkResult> chunkResults = commandExecutor.execute(command);
+        results.addAll(chunkResults);
+        position += chunkResults.size();
+        nextChunkSize = chunkSize;
+
+      } catch (RuntimeException e) {
+        int failedPosition = command.getFailedPosition();
+        if (failedPosition == position) {
+          // the transaction of the failed correlation contained no other correlation
+          results.add(MessageCorrelationBulkResultImpl.failed(e));
+          position++;
+          nextChunkSize = chunkSize;
+
+        } else {
+          // the correlations before the failed one were rolled back, execute them again
+          nextChunkSize = failedPosition - position;
+        }
+      }
+    }
+
+    return results;
+  }
+
+  public List<AbstractCorrelateMessageCmd> getCorrelations() {
+    return correlations;
+  }
+
+  public Integer getChunkSize() {
+    return chunkSize;
+  }
+
+}
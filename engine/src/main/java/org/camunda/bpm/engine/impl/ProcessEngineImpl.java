@@ -30,8 +30,13 @@ import org.camunda.bpm.engine.RuntimeService;
 import org.camunda.bpm.engine.TaskService;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionContextFactory;
+import org.camunda.bpm.engine.impl.cmd.HistoryCleanupCmd;
+import org.camunda.bpm.engine.impl.cmd.InvalidateAuthorizationPermissionsCmd;
+import org.camunda.bpm.engine.impl.cmd.RebuildAuthorizationPermissionsCmd;
 import org.camunda.bpm.engine.impl.el.ExpressionManager;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskCreationObserver;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.impl.history.cleanup.HistoryCleanupHelper;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
@@ -120,6 +125,26 @@ public class ProcessEngineImpl implements ProcessEngine {
       }
     }
 
+    if (processEngineConfiguration.isHistoryEventBufferEnabled()) {
+      processEngineConfiguration.getHistoryEventBufferWriter().start();
+    }
+
+    if (processEngineConfiguration.getFilterCountCache() != null) {
+      processEngineConfiguration.getFilterCountCache().start();
+    }
+
+    if (processEngineConfiguration.isAuthorizationPermissionProjectionEnabled()) {
+      commandExecutor.execute(new RebuildAuthorizationPermissionsCmd(false));
+    }
+    else {
+      commandExecutor.execute(new InvalidateAuthorizationPermissionsCmd());
+    }
+
+    if (HistoryCleanupHelper.isBatchWindowConfigured(processEngineConfiguration)) {
+      // make sure the history cleanup job exists so that it runs within the batch window
+      commandExecutor.execute(new HistoryCleanupCmd(false));
+    }
+
   }
 
   protected void executeSchemaOperations() {
@@ -135,6 +160,20 @@ public class ProcessEngineImpl implements ProcessEngine {
       processEngineConfiguration.getDbMetricsReporter().stop();
     }
 
+    if (processEngineConfiguration.isHistoryEventBufferEnabled()) {
+      processEngineConfiguration.getHistoryEventBufferWriter().stop();
+    }
+
+    if (processEngineConfiguration.getFilterCountCache() != null) {
+      processEngineConfiguration.getFilterCountCache().stop();
+    }
+
+    if (processEngineConfiguration.getExternalTaskCreationObservers() != null) {
+      for (ExternalTaskCreationObserver observer : processEngineConfiguration.getExternalTaskCreationObservers()) {
+        observer.processEngineClosed();
+      }
+    }
+
     if ((jobExecutor != null)) {
       // unregister process engine with Job Executor
       jobExecutor.unregisterProcessEngine(this);
@@ -16,6 +16,7 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotEmpty;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
@@ -30,6 +31,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.SuspensionState;
 import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
 import org.camunda.bpm.engine.impl.util.CompareUtil;
 import org.camunda.bpm.engine.impl.variable.serializer.VariableSerializers;
+import org.camunda.bpm.engine.query.QueryProperty;
 import org.camunda.bpm.engine.task.DelegationState;
 import org.camunda.bpm.engine.task.Task;
 import org.camunda.bpm.engine.task.TaskQuery;
@@ -1112,6 +1114,29 @@ public class TaskQueryImpl extends AbstractQuery<TaskQuery, Task> implements Tas
     return taskList;
   }
 
+  @Override
+  protected QueryProperty getKeysetIdProperty() {
+    return TaskQueryProperty.TASK_ID;
+  }
+
+  @Override
+  protected List<QueryProperty> getKeysetSortProperties() {
+    return Arrays.asList(TaskQueryProperty.CREATE_TIME, TaskQueryProperty.PRIORITY);
+  }
+
+  @Override
+  protected Object getKeysetValue(QueryProperty property, Task task) {
+    if (TaskQueryProperty.CREATE_TIME.equals(property)) {
+      return task.getCreateTime();
+    }
+    else if (TaskQueryProperty.PRIORITY.equals(property)) {
+      return task.getPriority();
+    }
+    else {
+      return task.getId();
+    }
+  }
+
   @Override
   public long executeCount(CommandContext commandContext) {
     ensureVariablesInitialized();
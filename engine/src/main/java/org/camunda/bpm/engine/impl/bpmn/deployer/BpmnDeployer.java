@@ -39,6 +39,7 @@ import org.camunda.bpm.engine.impl.jobexecutor.TimerDeclarationImpl;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerStartEventJobHandler;
 import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
 import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.ParsedResourceFileCache;
 import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionManager;
@@ -51,6 +52,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ResourceEntity;
 import org.camunda.bpm.engine.impl.pvm.runtime.LegacyBehavior;
+import org.camunda.bpm.engine.impl.util.xml.Element;
 import org.camunda.bpm.engine.management.JobDefinition;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
 import org.camunda.bpm.engine.task.IdentityLinkType;
@@ -75,6 +77,7 @@ public class BpmnDeployer extends AbstractDefinitionDeployer<ProcessDefinitionEn
 
   protected ExpressionManager expressionManager;
   protected BpmnParser bpmnParser;
+  protected ParsedResourceFileCache parsedResourceCache;
 
   /** <!> DON'T KEEP DEPLOYMENT-SPECIFIC STATE <!> **/
 
@@ -83,27 +86,47 @@ public class BpmnDeployer extends AbstractDefinitionDeployer<ProcessDefinitionEn
     return BPMN_RESOURCE_SUFFIXES;
   }
 
+  @Override
+  protected boolean isParallelParsingSupported() {
+    return true;
+  }
+
   @Override
   protected List<ProcessDefinitionEntity> transformDefinitions(DeploymentEntity deployment, ResourceEntity resource, Properties properties) {
     byte[] bytes = resource.getBytes();
-    ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes);
 
     BpmnParse bpmnParse = bpmnParser
         .createParse()
-        .sourceInputStream(inputStream)
         .deployment(deployment)
         .name(resource.getName());
 
-    if (!deployment.isValidatingSchema()) {
-      bpmnParse.setSchemaResource(null);
+    Element cachedRootElement = null;
+    if (parsedResourceCache != null && !deployment.isNew()) {
+      cachedRootElement = parsedResourceCache.load(deployment.getId(), bytes);
+    }
+
+    if (cachedRootElement != null) {
+      bpmnParse.sourceElement(cachedRootElement);
+    } else {
+      bpmnParse.sourceInputStream(new ByteArrayInputStream(bytes));
+
+      if (!deployment.isValidatingSchema()) {
+        bpmnParse.setSchemaResource(null);
+      }
     }
 
     bpmnParse.execute();
 
-    if (!properties.contains(JOB_DECLARATIONS_PROPERTY)) {
-      properties.set(JOB_DECLARATIONS_PROPERTY, new HashMap<String, List<JobDeclaration<?, ?>>>());
+    if (parsedResourceCache != null && cachedRootElement == null) {
+      parsedResourceCache.store(deployment.getId(), bytes, bpmnParse.getRootElement());
+    }
+
+    synchronized (properties) {
+      if (!properties.contains(JOB_DECLARATIONS_PROPERTY)) {
+        properties.set(JOB_DECLARATIONS_PROPERTY, new HashMap<String, List<JobDeclaration<?, ?>>>());
+      }
+      properties.get(JOB_DECLARATIONS_PROPERTY).putAll(bpmnParse.getJobDeclarations());
     }
-    properties.get(JOB_DECLARATIONS_PROPERTY).putAll(bpmnParse.getJobDeclarations());
 
     return bpmnParse.getProcessDefinitions();
   }
@@ -460,4 +483,12 @@ public class BpmnDeployer extends AbstractDefinitionDeployer<ProcessDefinitionEn
     this.bpmnParser = bpmnParser;
   }
 
+  public ParsedResourceFileCache getParsedResourceCache() {
+    return parsedResourceCache;
+  }
+
+  public void setParsedResourceCache(ParsedResourceFileCache parsedResourceCache) {
+    this.parsedResourceCache = parsedResourceCache;
+  }
+
 }
@@ -61,4 +61,9 @@ public class BpmnProperties {
 
   public static final PropertyKey<Boolean> HAS_CONDITIONAL_EVENTS = new PropertyKey<Boolean>(PROPERTYNAME_HAS_CONDITIONAL_EVENTS);
 
+  /**
+   * The names of the variables which are correlation keys of messages the process definition subscribes to.
+   */
+  public static final PropertyListKey<String> CORRELATION_KEY_VARIABLES = new PropertyListKey<String>("correlationKeyVariables");
+
 }
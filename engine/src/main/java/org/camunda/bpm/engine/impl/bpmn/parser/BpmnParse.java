@@ -373,6 +373,17 @@ public class BpmnParse extends Parse {
       }
 
       MessageDefinition messageDefinition = new MessageDefinition(this.targetNamespace + ":" + id, messageExpression);
+
+      String correlationKeys = messageElement.attributeNS(CAMUNDA_BPMN_EXTENSIONS_NS, "correlationKeys");
+      if (correlationKeys != null) {
+        List<String> correlationKeyNames = parseCommaSeparatedList(correlationKeys);
+        if (correlationKeyNames.isEmpty()) {
+          addError("Attribute 'correlationKeys' must contain at least one variable name", messageElement);
+        } else {
+          messageDefinition.setCorrelationKeys(correlationKeyNames);
+        }
+      }
+
       this.messages.put(messageDefinition.getId(), messageDefinition);
     }
   }
@@ -538,6 +549,7 @@ public class BpmnParse extends Parse {
     processDefinition.setVersionTag(
       processElement.attributeNS(CAMUNDA_BPMN_EXTENSIONS_NS, "versionTag")
     );
+    processDefinition.setHistoryTimeToLive(parseHistoryTimeToLive(processElement));
 
     LOG.parsingElement("process", processDefinition.getKey());
 
@@ -561,6 +573,25 @@ public class BpmnParse extends Parse {
     return processDefinition;
   }
 
+  protected Integer parseHistoryTimeToLive(Element processElement) {
+    String historyTimeToLive = processElement.attributeNS(CAMUNDA_BPMN_EXTENSIONS_NS, "historyTimeToLive");
+    if (historyTimeToLive == null || historyTimeToLive.isEmpty()) {
+      return null;
+    }
+
+    try {
+      int days = Integer.parseInt(historyTimeToLive);
+      if (days >= 0) {
+        return days;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+
+    addError("Value '" + historyTimeToLive + "' for attribute 'historyTimeToLive' is not a valid number of days", processElement);
+    return null;
+  }
+
   protected void parseLaneSets(Element parentElement, ProcessDefinitionEntity processDefinition) {
     List<Element> laneSets = parentElement.elements("laneSet");
 
@@ -1122,7 +1153,9 @@ public class BpmnParse extends Parse {
     if (messageDefinition == null) {
       addError("Invalid 'messageRef': no message with id '" + messageRef + "' found.", messageEventDefinition);
     }
-    return new EventSubscriptionDeclaration(messageDefinition.getExpression(), EventType.MESSAGE);
+    EventSubscriptionDeclaration declaration = new EventSubscriptionDeclaration(messageDefinition.getExpression(), EventType.MESSAGE);
+    declaration.setCorrelationKeys(messageDefinition.getCorrelationKeys());
+    return declaration;
   }
 
   @SuppressWarnings("unchecked")
@@ -1146,6 +1179,15 @@ public class BpmnParse extends Parse {
     }
 
     scope.getProperties().putMapEntry(BpmnProperties.EVENT_SUBSCRIPTION_DECLARATIONS, subscription.getActivityId(), subscription);
+
+    if (subscription.hasCorrelationKeys()) {
+      Properties processDefinitionProperties = scope.getProcessDefinition().getProperties();
+      for (String variableName : subscription.getCorrelationKeys()) {
+        if (!processDefinitionProperties.get(BpmnProperties.CORRELATION_KEY_VARIABLES).contains(variableName)) {
+          processDefinitionProperties.addListItem(BpmnProperties.CORRELATION_KEY_VARIABLES, variableName);
+        }
+      }
+    }
   }
 
   protected boolean hasMultipleMessageEventDefinitionsWithSameName(EventSubscriptionDeclaration subscription, Collection<EventSubscriptionDeclaration> eventDefinitions) {
@@ -4281,6 +4323,12 @@ public class BpmnParse extends Parse {
     return this;
   }
 
+  @Override
+  public BpmnParse sourceElement(Element rootElement) {
+    super.sourceElement(rootElement);
+    return this;
+  }
+
   public Boolean parseBooleanAttribute(String booleanText, boolean defaultValue) {
     if (booleanText == null) {
       return defaultValue;
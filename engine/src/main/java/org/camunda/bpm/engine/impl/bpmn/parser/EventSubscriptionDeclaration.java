@@ -25,9 +25,12 @@ import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
 import org.camunda.bpm.engine.impl.pvm.PvmScope;
 import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
 import org.camunda.bpm.engine.impl.pvm.runtime.LegacyBehavior;
+import org.camunda.bpm.engine.impl.runtime.MessageCorrelationKey;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 
@@ -47,6 +50,7 @@ public class EventSubscriptionDeclaration implements Serializable {
   protected String activityId = null;
   protected String eventScopeActivityId = null;
   protected boolean isStartEvent;
+  protected ArrayList<String> correlationKeys;
 
   protected EventSubscriptionJobDeclaration jobDeclaration = null;
 
@@ -114,6 +118,27 @@ public class EventSubscriptionDeclaration implements Serializable {
     return eventType.name();
   }
 
+  public List<String> getCorrelationKeys() {
+    return correlationKeys;
+  }
+
+  /**
+   * Declares the variables whose values are stored as correlation key with the subscriptions
+   * created for an execution. Correlating a message by exactly these process variables then
+   * looks up the subscription by its key instead of querying the variables.
+   */
+  public void setCorrelationKeys(List<String> correlationKeys) {
+    if (correlationKeys != null) {
+      this.correlationKeys = new ArrayList<String>(correlationKeys);
+    } else {
+      this.correlationKeys = null;
+    }
+  }
+
+  public boolean hasCorrelationKeys() {
+    return correlationKeys != null && !correlationKeys.isEmpty();
+  }
+
   public void setJobDeclaration(EventSubscriptionJobDeclaration jobDeclaration) {
     this.jobDeclaration = jobDeclaration;
   }
@@ -143,6 +168,7 @@ public class EventSubscriptionDeclaration implements Serializable {
       ActivityImpl activity = execution.getProcessDefinition().findActivity(activityId);
       eventSubscriptionEntity.setActivity(activity);
     }
+    eventSubscriptionEntity.setCorrelationKey(resolveCorrelationKey(execution));
 
     eventSubscriptionEntity.insert();
     LegacyBehavior.removeLegacySubscriptionOnParent(execution, eventSubscriptionEntity);
@@ -161,6 +187,38 @@ public class EventSubscriptionDeclaration implements Serializable {
     }
   }
 
+  /**
+   * Resolves the correlation key from the variables of the process instance of the given
+   * execution, since correlation matches process instance variables. If one of the variables
+   * is not set, only the prefix of the key is returned: the subscription cannot match a
+   * correlation by these variables and therefore must not be matched by their values either.
+   */
+  public String resolveCorrelationKey(ExecutionEntity execution) {
+    if (hasCorrelationKeys()) {
+      ExecutionEntity processInstance = execution.getProcessInstance();
+      for (String correlationKey : correlationKeys) {
+        if (!processInstance.hasVariableLocal(correlationKey)) {
+          return MessageCorrelationKey.getPrefix(correlationKeys);
+        }
+      }
+      return MessageCorrelationKey.fromVariables(correlationKeys, processInstance);
+    } else {
+      return null;
+    }
+  }
+
+  /**
+   * @return the correlation key of a subscription whose process instance is about to lose
+   *   one of the correlation key variables
+   */
+  public String resolveCorrelationKeyWithoutVariable(ExecutionEntity execution, String variableName) {
+    if (hasCorrelationKeys() && correlationKeys.contains(variableName)) {
+      return MessageCorrelationKey.getPrefix(correlationKeys);
+    } else {
+      return resolveCorrelationKey(execution);
+    }
+  }
+
   protected boolean isExpressionAvailable() {
     return eventName != null;
   }
@@ -169,6 +227,7 @@ public class EventSubscriptionDeclaration implements Serializable {
     String eventName = resolveExpressionOfEventName(eventSubscription.getExecution());
     eventSubscription.setEventName(eventName);
     eventSubscription.setActivityId(activityId);
+    eventSubscription.setCorrelationKey(resolveCorrelationKey(eventSubscription.getExecution()));
   }
 
 }
@@ -13,6 +13,8 @@
 package org.camunda.bpm.engine.impl.bpmn.parser;
 
 
+import java.util.List;
+
 import org.camunda.bpm.engine.impl.el.Expression;
 
 /**
@@ -24,6 +26,7 @@ public class MessageDefinition {
 
   protected String id;
   protected Expression name;
+  protected List<String> correlationKeys;
   
   public MessageDefinition(String id, Expression name) {
     this.id = id;
@@ -38,4 +41,16 @@ public class MessageDefinition {
     return name;
   }
 
+  /**
+   * @return the names of the variables declared as correlation keys of this message
+   *   (attribute <code>camunda:correlationKeys</code>) or <code>null</code> if none are declared
+   */
+  public List<String> getCorrelationKeys() {
+    return correlationKeys;
+  }
+
+  public void setCorrelationKeys(List<String> correlationKeys) {
+    this.correlationKeys = correlationKeys;
+  }
+
 }
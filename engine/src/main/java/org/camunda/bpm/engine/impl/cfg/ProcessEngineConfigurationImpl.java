@@ -16,6 +16,7 @@ package org.camunda.bpm.engine.impl.cfg;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
+import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
@@ -27,12 +28,18 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.naming.InitialContext;
 import javax.sql.DataSource;
@@ -40,6 +47,7 @@ import javax.sql.DataSource;
 import org.apache.ibatis.builder.xml.XMLConfigBuilder;
 import org.apache.ibatis.datasource.pooled.PooledDataSource;
 import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.plugin.Interceptor;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
@@ -100,11 +108,18 @@ import org.camunda.bpm.engine.impl.calendar.DueDateBusinessCalendar;
 import org.camunda.bpm.engine.impl.calendar.DurationBusinessCalendar;
 import org.camunda.bpm.engine.impl.calendar.MapBusinessCalendarManager;
 import org.camunda.bpm.engine.impl.cfg.auth.AuthorizationCommandChecker;
+import org.camunda.bpm.engine.impl.cfg.auth.AuthorizationDecisionCache;
+import org.camunda.bpm.engine.impl.cfg.auth.AuthorizationPermissionProjectionStatus;
 import org.camunda.bpm.engine.impl.cfg.auth.DefaultAuthorizationProvider;
 import org.camunda.bpm.engine.impl.cfg.auth.ResourceAuthorizationProvider;
 import org.camunda.bpm.engine.impl.cfg.multitenancy.TenantCommandChecker;
 import org.camunda.bpm.engine.impl.cfg.multitenancy.TenantIdProvider;
 import org.camunda.bpm.engine.impl.cfg.standalone.StandaloneTransactionContextFactory;
+import org.camunda.bpm.engine.impl.cmd.CompleteTaskCmd;
+import org.camunda.bpm.engine.impl.cmd.CorrelateAllMessageCmd;
+import org.camunda.bpm.engine.impl.cmd.CorrelateMessagesInBulkCmd;
+import org.camunda.bpm.engine.impl.cmd.CorrelateMessageCmd;
+import org.camunda.bpm.engine.impl.cmd.ExecuteJobsCmd;
 import org.camunda.bpm.engine.impl.cmmn.CaseServiceImpl;
 import org.camunda.bpm.engine.impl.cmmn.deployer.CmmnDeployer;
 import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionManager;
@@ -117,9 +132,12 @@ import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformer;
 import org.camunda.bpm.engine.impl.cmmn.transformer.DefaultCmmnTransformFactory;
 import org.camunda.bpm.engine.impl.db.DbIdGenerator;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManagerFactory;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntitySecondLevelCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.SecondLevelCacheConfiguration;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlPersistenceProviderFactory;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.camunda.bpm.engine.impl.db.sql.FetchSizeInterceptor;
 import org.camunda.bpm.engine.impl.delegate.DefaultDelegateInterceptor;
 import org.camunda.bpm.engine.impl.digest.Default16ByteSaltGenerator;
 import org.camunda.bpm.engine.impl.digest.PasswordEncryptor;
@@ -141,6 +159,8 @@ import org.camunda.bpm.engine.impl.event.EventHandlerImpl;
 import org.camunda.bpm.engine.impl.event.EventType;
 import org.camunda.bpm.engine.impl.event.SignalEventHandler;
 import org.camunda.bpm.engine.impl.externaltask.DefaultExternalTaskPriorityProvider;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskCreationObserver;
+import org.camunda.bpm.engine.impl.filter.FilterCountCache;
 import org.camunda.bpm.engine.impl.form.engine.FormEngine;
 import org.camunda.bpm.engine.impl.form.engine.HtmlFormEngine;
 import org.camunda.bpm.engine.impl.form.engine.JuelFormEngine;
@@ -159,7 +179,11 @@ import org.camunda.bpm.engine.impl.form.validator.MinValidator;
 import org.camunda.bpm.engine.impl.form.validator.ReadOnlyValidator;
 import org.camunda.bpm.engine.impl.form.validator.RequiredValidator;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.impl.history.buffer.HistoryEventBufferWriter;
+import org.camunda.bpm.engine.impl.history.cleanup.HistoryCleanupHelper;
+import org.camunda.bpm.engine.impl.history.cleanup.HistoryCleanupJobHandler;
 import org.camunda.bpm.engine.impl.history.event.HistoricDecisionInstanceManager;
+import org.camunda.bpm.engine.impl.history.handler.BufferedHistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.parser.HistoryParseListener;
@@ -239,11 +263,14 @@ import org.camunda.bpm.engine.impl.migration.validation.instruction.SameEventTyp
 import org.camunda.bpm.engine.impl.migration.validation.instruction.UpdateEventTriggersValidator;
 import org.camunda.bpm.engine.impl.persistence.GenericManagerFactory;
 import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentParsingThreadFactory;
 import org.camunda.bpm.engine.impl.persistence.deploy.cache.CacheFactory;
 import org.camunda.bpm.engine.impl.persistence.deploy.cache.DefaultCacheFactory;
 import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.ParsedResourceFileCache;
 import org.camunda.bpm.engine.impl.persistence.entity.AttachmentManager;
 import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationManager;
+import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationPermissionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.BatchManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayManager;
 import org.camunda.bpm.engine.impl.persistence.entity.CommentManager;
@@ -268,8 +295,11 @@ import org.camunda.bpm.engine.impl.persistence.entity.HistoricVariableInstanceMa
 import org.camunda.bpm.engine.impl.persistence.entity.IdentityInfoManager;
 import org.camunda.bpm.engine.impl.persistence.entity.IdentityLinkManager;
 import org.camunda.bpm.engine.impl.persistence.entity.IncidentManager;
+import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.JobManager;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryCleanupManager;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryEventBufferManager;
 import org.camunda.bpm.engine.impl.persistence.entity.MeterLogManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.PropertyManager;
@@ -279,11 +309,16 @@ import org.camunda.bpm.engine.impl.persistence.entity.StatisticsManager;
 import org.camunda.bpm.engine.impl.persistence.entity.TableDataManager;
 import org.camunda.bpm.engine.impl.persistence.entity.TaskManager;
 import org.camunda.bpm.engine.impl.persistence.entity.TaskReportManager;
+import org.camunda.bpm.engine.impl.persistence.entity.TenantEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.TenantManager;
 import org.camunda.bpm.engine.impl.persistence.entity.UserOperationLogManager;
 import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceManager;
+import org.camunda.bpm.engine.impl.profiling.CommandProfiler;
+import org.camunda.bpm.engine.impl.profiling.CommandProfilingInterceptor;
+import org.camunda.bpm.engine.impl.profiling.StatementProfilingInterceptor;
 import org.camunda.bpm.engine.impl.runtime.CorrelationHandler;
 import org.camunda.bpm.engine.impl.runtime.DefaultCorrelationHandler;
+import org.camunda.bpm.engine.impl.scripting.CompiledScriptCache;
 import org.camunda.bpm.engine.impl.scripting.ScriptFactory;
 import org.camunda.bpm.engine.impl.scripting.engine.BeansResolverFactory;
 import org.camunda.bpm.engine.impl.scripting.engine.ResolverFactory;
@@ -318,6 +353,7 @@ import org.camunda.bpm.engine.repository.DeploymentBuilder;
 import org.camunda.bpm.engine.runtime.Incident;
 import org.camunda.bpm.engine.variable.Variables;
 import org.camunda.bpm.engine.variable.type.ValueType;
+import org.camunda.commons.utils.cache.Cache;
 
 
 /**
@@ -339,6 +375,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   public static final String DEFAULT_MYBATIS_MAPPING_FILE = "org/camunda/bpm/engine/impl/mapping/mappings.xml";
 
+  /** upper bound of the history cleanup batch size, keeps id lists within the IN list limits of all databases */
+  public static final int MAX_HISTORY_CLEANUP_BATCH_SIZE = 500;
+
   public static SqlSessionFactory cachedSqlSessionFactory;
 
   // SERVICES /////////////////////////////////////////////////////////////////
@@ -403,12 +442,116 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected List<Deployer> deployers;
   protected DeploymentCache deploymentCache;
 
+  /**
+   * The number of threads used to parse the resources of a deployment. If greater than 1,
+   * the BPMN and DMN resources of a deployment are parsed in parallel, while the definitions
+   * are still persisted by the thread executing the deployment. Parse listeners must be
+   * thread-safe when this is enabled. Default setting is 1.
+   */
+  protected int deploymentParsingParallelism = 1;
+
+  protected ExecutorService deploymentParsingExecutor;
+
+  /**
+   * If set, the parsed XML of BPMN resources is stored in this directory and restored from it
+   * when the process definitions of an existing deployment are loaded into the deployment cache,
+   * for example after a restart. This avoids parsing and validating the XML again.
+   */
+  protected String parsedResourceCacheDirectory;
+
+  protected ParsedResourceFileCache parsedResourceCache;
+
   // CACHE ////////////////////////////////////////////////////////////////////
 
   protected CacheFactory cacheFactory;
   protected int cacheCapacity = 1000;
+
+  /**
+   * If true, entities of the types configured by {@link #dbEntitySecondLevelCacheConfigurations}
+   * are cached across commands when they are selected by id. Default setting is false.
+   */
+  protected boolean dbEntitySecondLevelCacheEnabled = false;
+
+  /**
+   * The entity types cached by the second level cache. If not set, job definitions
+   * and tenants are cached with a time to live of one minute.
+   */
+  protected List<SecondLevelCacheConfiguration> dbEntitySecondLevelCacheConfigurations;
+  protected DbEntitySecondLevelCache dbEntitySecondLevelCache;
+
+  /**
+   * If true, the results of authorization checks are cached across commands. The cache is
+   * invalidated whenever this engine changes authorizations, group memberships or tenant
+   * memberships. Default setting is false.
+   */
+  protected boolean authorizationDecisionCacheEnabled = false;
+
+  /**
+   * The maximum number of cached authorization decisions.
+   */
+  protected int authorizationDecisionCacheCapacity = 10000;
+
+  /**
+   * The time in milliseconds after which a cached authorization decision expires. This bounds
+   * the time until changes made by other engines of a cluster become effective.
+   */
+  protected long authorizationDecisionCacheTimeToLive = 10000;
+
+  protected AuthorizationDecisionCache authorizationDecisionCache;
+
+  /**
+   * If true, {@link FilterService#count(String, long)} may return cached filter counts. Counts
+   * which are still requested are recomputed in the background. Default setting is false.
+   */
+  protected boolean filterCountCacheEnabled = false;
+
+  /**
+   * The maximum number of cached filter counts, i.e. of combinations of filter and user.
+   */
+  protected int filterCountCacheCapacity = 1000;
+
+  /**
+   * The interval in milliseconds in which cached filter counts are recomputed in the
+   * background. Counts which were not requested during an interval are evicted instead.
+   * A value of 0 disables the background refresh.
+   */
+  protected long filterCountCacheRefreshInterval = 5000;
+
+  protected FilterCountCache filterCountCache;
+
+  /**
+   * If true, the permissions granted by global and grant authorizations are additionally
+   * stored with one row per permission in <code>ACT_RU_AUTH_PERM</code>. Authorization
+   * checks of queries join this projection by equality instead of evaluating the permission
+   * bits of <code>ACT_RU_AUTHORIZATION</code>. The projection is built once, by the first
+   * engine which is built with this setting enabled. An engine built with this setting disabled
+   * marks the projection as outdated, so that it is rebuilt afterwards. Until then, the checks
+   * evaluate <code>ACT_RU_AUTHORIZATION</code> again. Default setting is false.
+   */
+  protected boolean authorizationPermissionProjectionEnabled = false;
+
+  /**
+   * The time in milliseconds after which this engine reads again whether the authorization
+   * permission projection is up to date. This bounds the time until an engine of a cluster
+   * which is built with the projection disabled becomes effective.
+   */
+  protected long authorizationPermissionProjectionStatusTimeToLive = 5000;
+
+  protected AuthorizationPermissionProjectionStatus authorizationPermissionProjectionStatus;
   protected boolean enableFetchProcessDefinitionDescription = true;
 
+  /**
+   * The JDBC fetch size of the statements which stream the results of a query to a
+   * {@link org.camunda.bpm.engine.query.QueryResultHandler}, i.e. the number of rows
+   * the driver fetches per round trip. A value of 0 keeps the default of the driver.
+   *
+   * <p>MySQL and MariaDB drivers ignore the fetch size and read the complete result unless the
+   * JDBC URL contains <code>useCursorFetch=true</code>. Their row-by-row streaming mode (a fetch
+   * size of <code>Integer.MIN_VALUE</code>) is not used, since it blocks the connection for the
+   * statements which are executed while the results are handled, e.g. to fetch byte array values.</p>
+   */
+  protected int queryStreamingFetchSize = 500;
+
   // JOB EXECUTOR /////////////////////////////////////////////////////////////
 
   protected List<JobHandler> customJobHandlers;
@@ -420,6 +563,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   // EXTERNAL TASK /////////////////////////////////////////////////////////////
   protected PriorityProvider<ExternalTaskActivityBehavior> externalTaskPriorityProvider;
 
+  /**
+   * Observers notified after external tasks were created and committed by this process engine,
+   * e.g. to wake up long-polling fetch and lock requests.
+   */
+  protected List<ExternalTaskCreationObserver> externalTaskCreationObservers = new CopyOnWriteArrayList<ExternalTaskCreationObserver>();
+
   // MYBATIS SQL SESSION FACTORY //////////////////////////////////////////////
 
   protected SqlSessionFactory sqlSessionFactory;
@@ -431,6 +580,20 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected DataSource idGeneratorDataSource;
   protected String idGeneratorDataSourceJndiName;
 
+  /**
+   * Upper bound for the id block size of the {@link DbIdGenerator}. Blocks grow up to
+   * this size when ids are consumed quickly. If it is not greater than the
+   * {@link #idBlockSize}, the block size is not adapted, which is the default.
+   */
+  protected int idBlockSizeMax = 0;
+
+  /**
+   * Number of independent id blocks the {@link DbIdGenerator} hands out ids from.
+   * Defaults to a single block; more blocks reduce contention between threads
+   * which generate many ids, e.g. the number of available processors.
+   */
+  protected int idGeneratorStripes = 1;
+
   // INCIDENT HANDLER /////////////////////////////////////////////////////////
 
   protected Map<String, IncidentHandler> incidentHandlers;
@@ -487,6 +650,21 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected boolean enableScriptEngineCaching = true;
   protected boolean enableFetchScriptEngineFromProcessApplication = true;
 
+  /**
+   * If true, compiled scripts are kept in an engine-wide cache which is shared by all
+   * process definitions. Scripts loaded from resources and scripts whose source is
+   * determined by an expression are then compiled once per distinct source as well.
+   * Requires script compilation and script engine caching. Default setting is false.
+   */
+  protected boolean enableCompiledScriptCache = false;
+
+  /**
+   * The maximum number of scripts in the compiled script cache.
+   */
+  protected int compiledScriptCacheCapacity = 1000;
+
+  protected CompiledScriptCache compiledScriptCache;
+
   protected boolean cmmnEnabled = true;
   protected boolean dmnEnabled = true;
 
@@ -584,8 +762,77 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected HistoryEventHandler historyEventHandler;
 
+  /**
+   * If true, the history events of a transaction are written to the history event buffer
+   * together with the runtime changes and are written to the history tables asynchronously
+   * by the {@link #historyEventBufferWriter}. History queries only see the events once they
+   * were drained. Default setting is false.
+   */
+  protected boolean historyEventBufferEnabled = false;
+
+  /**
+   * The interval in milliseconds in which the history event buffer is drained.
+   */
+  protected long historyEventBufferDrainInterval = 1000;
+
+  /**
+   * The number of buffered transactions which are written to the history tables in one
+   * transaction.
+   */
+  protected int historyEventBufferDrainBatchSize = 100;
+
+  /**
+   * If greater than 0, a warning is logged whenever the oldest buffered history events
+   * are older than this number of milliseconds.
+   */
+  protected long historyEventBufferMaxLag = 0;
+
+  protected HistoryEventBufferWriter historyEventBufferWriter;
+
+  /**
+   * Start of the daily time window in which the history cleanup job removes expired
+   * history, in the format HH:mm. If no window is set, the history cleanup only runs
+   * when it is triggered by {@link HistoryService#cleanUpHistoryAsync()}.
+   */
+  protected String historyCleanupBatchWindowStartTime;
+
+  /**
+   * End of the daily history cleanup window, in the format HH:mm. May be before the
+   * start time if the window spans midnight.
+   */
+  protected String historyCleanupBatchWindowEndTime;
+
+  /**
+   * The maximum number of historic instances removed by one execution of the history
+   * cleanup job. The ids of the instances are used in IN lists, so the value must not
+   * exceed {@link #MAX_HISTORY_CLEANUP_BATCH_SIZE}.
+   */
+  protected int historyCleanupBatchSize = 500;
+
   protected boolean isExecutionTreePrefetchEnabled = true;
 
+  /**
+   * If true, commands of the types contained in {@link #processInstanceGraphPrefetchCommands}
+   * load the event subscriptions, variables, tasks, jobs, incidents and external tasks of a process
+   * instance together with its execution tree, using one query per entity type. Otherwise, these
+   * are loaded on demand for each execution.
+   */
+  protected boolean processInstanceGraphPrefetchEnabled = false;
+
+  /**
+   * The command types which prefetch the process instance graph if
+   * {@link #processInstanceGraphPrefetchEnabled} is set. Subtypes are included. Defaults to
+   * job execution, message correlation and task completion.
+   */
+  protected Set<Class<?>> processInstanceGraphPrefetchCommands;
+
+  /**
+   * The number of messages correlated in one transaction by a
+   * {@link org.camunda.bpm.engine.runtime.MessageCorrelationBulkBuilder} which does not
+   * specify a chunk size.
+   */
+  protected int messageCorrelationBulkChunkSize = 100;
+
   /**
    * If true the process engine will attempt to acquire an exclusive lock before
    * creating a deployment.
@@ -598,6 +845,22 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    */
   protected boolean isDbEntityCacheReuseEnabled = false;
 
+  /**
+   * If true, the INSERT, UPDATE and DELETE statements of a flush are sent to the
+   * database as JDBC batches instead of one statement per entity. The JDBC driver
+   * must report the update count of every batched statement, otherwise optimistic
+   * locking cannot be detected. Default setting is false.
+   */
+  protected boolean jdbcBatchProcessing = false;
+
+  /**
+   * If true, updates of executions, tasks and jobs only write the columns which changed
+   * since the entity was loaded. The number of distinct column sets per update statement
+   * is limited, so that the number of statements prepared by the database stays bounded.
+   * Default setting is false.
+   */
+  protected boolean dbEntityPartialUpdate = false;
+
   protected boolean isInvokeCustomVariableListeners = true;
 
   /**
@@ -622,6 +885,22 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected boolean isMetricsEnabled = true;
   protected boolean isDbMetricsReporterActivate = true;
 
+  /**
+   * If true, the durations of commands, flushes, job executions and job
+   * acquisitions are recorded in histograms and reported as percentiles
+   * next to the meters, see {@link Metrics#COMMAND_DURATION}.
+   */
+  protected boolean isHistogramMetricsEnabled = false;
+
+  /**
+   * If true, the {@link CommandProfilingInterceptor} and the statement accounting
+   * are installed. Profiling itself is started and stopped at runtime, see
+   * {@link ManagementService#startCommandProfiling(int)}.
+   */
+  protected boolean isCommandProfilingEnabled = false;
+
+  protected CommandProfiler commandProfiler;
+
   protected MetricsReporterIdProvider metricsReporterIdProvider;
 
   /**
@@ -700,10 +979,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initBusinessCalendarManager();
     initCommandContextFactory();
     initTransactionContextFactory();
+    initCommandProfiler();
     initCommandExecutors();
     initServices();
     initIdGenerator();
     initDeployers();
+    initDeploymentParsingExecutor();
     initJobProvider();
     initExternalTaskPriorityProvider();
     initBatchHandlers();
@@ -726,8 +1007,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initDeploymentRegistration();
     initResourceAuthorizationProvider();
     initMetrics();
+    initCompiledScriptCache();
+    initAuthorizationDecisionCache();
+    initFilterCountCache();
+    initAuthorizationPermissionProjectionStatus();
+    initHistoryEventBufferWriter();
+    initHistoryCleanup();
     initMigration();
     initCommandCheckers();
+    initProcessInstanceGraphPrefetchCommands();
     initDefaultUserPermissionForTask();
     invokePostInit();
   }
@@ -829,10 +1117,13 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected void initCommandInterceptorsTxRequired() {
     if (commandInterceptorsTxRequired == null) {
+      commandInterceptorsTxRequired = new ArrayList<CommandInterceptor>();
+      if (isCommandProfilingEnabled) {
+        // outermost, so that the profiled duration covers all other interceptors
+        commandInterceptorsTxRequired.add(new CommandProfilingInterceptor(commandProfiler));
+      }
       if (customPreCommandInterceptorsTxRequired != null) {
-        commandInterceptorsTxRequired = new ArrayList<CommandInterceptor>(customPreCommandInterceptorsTxRequired);
-      } else {
-        commandInterceptorsTxRequired = new ArrayList<CommandInterceptor>();
+        commandInterceptorsTxRequired.addAll(customPreCommandInterceptorsTxRequired);
       }
       commandInterceptorsTxRequired.addAll(getDefaultCommandInterceptorsTxRequired());
       if (customPostCommandInterceptorsTxRequired != null) {
@@ -1117,7 +1408,31 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
           IoUtil.closeSilently(inputStream);
         }
       }
+
+      if (isCommandProfilingEnabled) {
+        initStatementProfiling(sqlSessionFactory.getConfiguration());
+      }
+      initFetchSize(sqlSessionFactory.getConfiguration());
+    }
+  }
+
+  protected void initFetchSize(Configuration configuration) {
+    for (Interceptor interceptor : configuration.getInterceptors()) {
+      if (interceptor instanceof FetchSizeInterceptor) {
+        return;
+      }
+    }
+    configuration.addInterceptor(new FetchSizeInterceptor());
+  }
+
+  protected void initStatementProfiling(Configuration configuration) {
+    // the session factory may be shared with an engine which installed the plugin already
+    for (Interceptor interceptor : configuration.getInterceptors()) {
+      if (interceptor instanceof StatementProfilingInterceptor) {
+        return;
+      }
     }
+    configuration.addInterceptor(new StatementProfilingInterceptor());
   }
 
   public static void initSqlSessionFactoryProperties(Properties properties, String databaseTablePrefix, String databaseType) {
@@ -1171,7 +1486,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
       initPersistenceProviders();
 
-      addSessionFactory(new DbEntityManagerFactory(idGenerator));
+      initDbEntitySecondLevelCache();
+      addSessionFactory(new DbEntityManagerFactory(idGenerator, dbEntitySecondLevelCache));
 
       addSessionFactory(new GenericManagerFactory(AttachmentManager.class));
       addSessionFactory(new GenericManagerFactory(CommentManager.class));
@@ -1206,8 +1522,11 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       addSessionFactory(new GenericManagerFactory(StatisticsManager.class));
       addSessionFactory(new GenericManagerFactory(IncidentManager.class));
       addSessionFactory(new GenericManagerFactory(AuthorizationManager.class));
+      addSessionFactory(new GenericManagerFactory(AuthorizationPermissionManager.class));
       addSessionFactory(new GenericManagerFactory(FilterManager.class));
       addSessionFactory(new GenericManagerFactory(MeterLogManager.class));
+      addSessionFactory(new GenericManagerFactory(HistoryEventBufferManager.class));
+      addSessionFactory(new GenericManagerFactory(HistoryCleanupManager.class));
       addSessionFactory(new GenericManagerFactory(ExternalTaskManager.class));
       addSessionFactory(new GenericManagerFactory(ReportManager.class));
       addSessionFactory(new GenericManagerFactory(BatchManager.class));
@@ -1248,6 +1567,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     dbSqlSessionFactory.setDbHistoryUsed(isDbHistoryUsed);
     dbSqlSessionFactory.setCmmnEnabled(cmmnEnabled);
     dbSqlSessionFactory.setDmnEnabled(dmnEnabled);
+    dbSqlSessionFactory.setJdbcBatchProcessing(jdbcBatchProcessing);
+    dbSqlSessionFactory.setDbEntityPartialUpdate(dbEntityPartialUpdate);
     dbSqlSessionFactory.setDatabaseTablePrefix(databaseTablePrefix);
     dbSqlSessionFactory.setDatabaseSchema(databaseSchema);
     addSessionFactory(dbSqlSessionFactory);
@@ -1349,6 +1670,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   // deployers ////////////////////////////////////////////////////////////////
 
   protected void initDeployers() {
+    initParsedResourceCache();
+
     if (this.deployers == null) {
       this.deployers = new ArrayList<Deployer>();
       if (customPreDeployers != null) {
@@ -1375,6 +1698,26 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  protected void initParsedResourceCache() {
+    if (parsedResourceCacheDirectory != null && parsedResourceCache == null) {
+      File directory = new File(parsedResourceCacheDirectory);
+      if (!directory.isDirectory() && !directory.mkdirs()) {
+        throw new ProcessEngineException("Could not create the parsed resource cache directory '" + parsedResourceCacheDirectory + "'");
+      }
+      parsedResourceCache = new ParsedResourceFileCache(directory);
+    }
+  }
+
+  protected void initDeploymentParsingExecutor() {
+    if (deploymentParsingParallelism > 1 && deploymentParsingExecutor == null) {
+      ThreadPoolExecutor executor = new ThreadPoolExecutor(deploymentParsingParallelism, deploymentParsingParallelism,
+          60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new DeploymentParsingThreadFactory(getProcessEngineName()));
+      // threads are only needed while deploying, most notably during startup
+      executor.allowCoreThreadTimeOut(true);
+      deploymentParsingExecutor = executor;
+    }
+  }
+
   protected Collection<? extends Deployer> getDefaultDeployers() {
     List<Deployer> defaultDeployers = new ArrayList<Deployer>();
 
@@ -1401,6 +1744,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     BpmnDeployer bpmnDeployer = new BpmnDeployer();
     bpmnDeployer.setExpressionManager(expressionManager);
     bpmnDeployer.setIdGenerator(idGenerator);
+    bpmnDeployer.setParsedResourceCache(parsedResourceCache);
 
     if (bpmnParseFactory == null) {
       bpmnParseFactory = new DefaultBpmnParseFactory();
@@ -1545,6 +1889,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     BatchMonitorJobHandler batchMonitorJobHandler = new BatchMonitorJobHandler();
     jobHandlers.put(batchMonitorJobHandler.getType(), batchMonitorJobHandler);
 
+    HistoryCleanupJobHandler historyCleanupJobHandler = new HistoryCleanupJobHandler();
+    jobHandlers.put(historyCleanupJobHandler.getType(), historyCleanupJobHandler);
+
     for (JobHandler batchHandler : batchHandlers.values()) {
       jobHandlers.put(batchHandler.getType(), batchHandler);
     }
@@ -1641,6 +1988,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
       DbIdGenerator dbIdGenerator = new DbIdGenerator();
       dbIdGenerator.setIdBlockSize(idBlockSize);
+      dbIdGenerator.setMaxIdBlockSize(idBlockSizeMax);
+      dbIdGenerator.setStripes(idGeneratorStripes);
       dbIdGenerator.setCommandExecutor(idGeneratorCommandExecutor);
       idGenerator = dbIdGenerator;
     }
@@ -1695,6 +2044,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  protected void initCommandProfiler() {
+    if (isCommandProfilingEnabled && commandProfiler == null) {
+      commandProfiler = new CommandProfiler();
+    }
+  }
+
   protected void initDefaultMetrics(MetricsRegistry metricsRegistry) {
     metricsRegistry.createMeter(Metrics.ACTIVTY_INSTANCE_START);
     metricsRegistry.createMeter(Metrics.ACTIVTY_INSTANCE_END);
@@ -1708,6 +2063,32 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     metricsRegistry.createMeter(Metrics.JOB_EXECUTION_REJECTED);
 
     metricsRegistry.createMeter(Metrics.EXECUTED_DECISION_ELEMENTS);
+
+    metricsRegistry.createMeter(Metrics.HISTORY_CLEANUP_REMOVED_PROCESS_INSTANCES);
+    metricsRegistry.createMeter(Metrics.HISTORY_CLEANUP_REMOVED_DECISION_INSTANCES);
+    metricsRegistry.createMeter(Metrics.HISTORY_CLEANUP_REMOVED_CASE_INSTANCES);
+
+    if (authorizationDecisionCacheEnabled) {
+      metricsRegistry.createMeter(Metrics.AUTHORIZATION_CACHE_HIT);
+      metricsRegistry.createMeter(Metrics.AUTHORIZATION_CACHE_MISS);
+    }
+
+    if (filterCountCacheEnabled) {
+      metricsRegistry.createMeter(Metrics.FILTER_COUNT_CACHE_HIT);
+      metricsRegistry.createMeter(Metrics.FILTER_COUNT_CACHE_MISS);
+    }
+
+    if (enableCompiledScriptCache) {
+      metricsRegistry.createMeter(Metrics.SCRIPT_CACHE_HIT);
+      metricsRegistry.createMeter(Metrics.SCRIPT_CACHE_MISS);
+    }
+
+    if (isHistogramMetricsEnabled) {
+      metricsRegistry.createHistogram(Metrics.COMMAND_DURATION);
+      metricsRegistry.createHistogram(Metrics.JOB_EXECUTION_TIME);
+      metricsRegistry.createHistogram(Metrics.JOB_ACQUISITION_CYCLE_TIME);
+      metricsRegistry.createHistogram(Metrics.FLUSH_DURATION);
+    }
   }
 
   protected void initSerialization() {
@@ -1793,6 +2174,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   }
 
+  protected void initCompiledScriptCache() {
+    if (enableCompiledScriptCache && compiledScriptCache == null) {
+      compiledScriptCache = new CompiledScriptCache(compiledScriptCacheCapacity, metricsRegistry);
+    }
+  }
+
   protected void initScripting() {
     if (resolverFactories == null) {
       resolverFactories = new ArrayList<ResolverFactory>();
@@ -1897,6 +2284,17 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  protected void initProcessInstanceGraphPrefetchCommands() {
+    if (processInstanceGraphPrefetchCommands == null) {
+      processInstanceGraphPrefetchCommands = new HashSet<Class<?>>();
+      processInstanceGraphPrefetchCommands.add(ExecuteJobsCmd.class);
+      processInstanceGraphPrefetchCommands.add(CorrelateMessageCmd.class);
+      processInstanceGraphPrefetchCommands.add(CorrelateAllMessageCmd.class);
+      processInstanceGraphPrefetchCommands.add(CompleteTaskCmd.class);
+      processInstanceGraphPrefetchCommands.add(CorrelateMessagesInBulkCmd.class);
+    }
+  }
+
   // JPA //////////////////////////////////////////////////////////////////////
 
   protected void initJpa() {
@@ -1969,6 +2367,36 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     if (historyEventHandler == null) {
       historyEventHandler = new DbHistoryEventHandler();
     }
+    if (historyEventBufferEnabled && !(historyEventHandler instanceof BufferedHistoryEventHandler)) {
+      historyEventHandler = new BufferedHistoryEventHandler(historyEventHandler);
+    }
+  }
+
+  protected void initHistoryEventBufferWriter() {
+    if (historyEventBufferEnabled && historyEventBufferWriter == null) {
+      HistoryEventHandler delegate = ((BufferedHistoryEventHandler) historyEventHandler).getDelegate();
+      historyEventBufferWriter = new HistoryEventBufferWriter(commandExecutorTxRequired, delegate);
+      historyEventBufferWriter.setDrainIntervalInMillis(historyEventBufferDrainInterval);
+      historyEventBufferWriter.setDrainBatchSize(historyEventBufferDrainBatchSize);
+      historyEventBufferWriter.setMaxLagInMillis(historyEventBufferMaxLag);
+    }
+  }
+
+  protected void initHistoryCleanup() {
+    if (historyCleanupBatchSize < 1 || historyCleanupBatchSize > MAX_HISTORY_CLEANUP_BATCH_SIZE) {
+      throw new ProcessEngineException("invalid history cleanup batch size: " + historyCleanupBatchSize
+          + ", must be between 1 and " + MAX_HISTORY_CLEANUP_BATCH_SIZE);
+    }
+
+    if ((historyCleanupBatchWindowStartTime == null) != (historyCleanupBatchWindowEndTime == null)) {
+      throw new ProcessEngineException("history cleanup batch window requires both a start and an end time");
+    }
+
+    if (historyCleanupBatchWindowStartTime != null) {
+      // fail fast on invalid times
+      HistoryCleanupHelper.parseTimeOfDay(historyCleanupBatchWindowStartTime);
+      HistoryCleanupHelper.parseTimeOfDay(historyCleanupBatchWindowEndTime);
+    }
   }
 
   // password digest //////////////////////////////////////////////////////////
@@ -2004,6 +2432,49 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  protected void initAuthorizationDecisionCache() {
+    if (authorizationDecisionCacheEnabled && authorizationDecisionCache == null) {
+      initCacheFactory();
+      Cache<String, AuthorizationDecisionCache.CacheEntry> cache = cacheFactory.createCache(authorizationDecisionCacheCapacity);
+      authorizationDecisionCache = new AuthorizationDecisionCache(cache, authorizationDecisionCacheTimeToLive, metricsRegistry);
+    }
+  }
+
+  protected void initFilterCountCache() {
+    if (filterCountCacheEnabled && filterCountCache == null) {
+      initCacheFactory();
+      Cache<String, FilterCountCache.CountEntry> cache = cacheFactory.createCache(filterCountCacheCapacity);
+      filterCountCache = new FilterCountCache(commandExecutorTxRequired, identityService, cache, metricsRegistry);
+      filterCountCache.setRefreshIntervalInMillis(filterCountCacheRefreshInterval);
+    }
+    if (filterService instanceof FilterServiceImpl) {
+      ((FilterServiceImpl) filterService).setFilterCountCache(filterCountCache);
+    }
+  }
+
+  protected void initAuthorizationPermissionProjectionStatus() {
+    if (authorizationPermissionProjectionEnabled && authorizationPermissionProjectionStatus == null) {
+      authorizationPermissionProjectionStatus = new AuthorizationPermissionProjectionStatus(authorizationPermissionProjectionStatusTimeToLive);
+    }
+  }
+
+  protected void initDbEntitySecondLevelCache() {
+    if (dbEntitySecondLevelCacheEnabled && dbEntitySecondLevelCache == null) {
+      if (dbEntitySecondLevelCacheConfigurations == null) {
+        dbEntitySecondLevelCacheConfigurations = getDefaultDbEntitySecondLevelCacheConfigurations();
+      }
+      initCacheFactory();
+      dbEntitySecondLevelCache = new DbEntitySecondLevelCache(cacheFactory, dbEntitySecondLevelCacheConfigurations);
+    }
+  }
+
+  protected List<SecondLevelCacheConfiguration> getDefaultDbEntitySecondLevelCacheConfigurations() {
+    List<SecondLevelCacheConfiguration> configurations = new ArrayList<SecondLevelCacheConfiguration>();
+    configurations.add(new SecondLevelCacheConfiguration(JobDefinitionEntity.class, cacheCapacity, 60000));
+    configurations.add(new SecondLevelCacheConfiguration(TenantEntity.class, cacheCapacity, 60000));
+    return configurations;
+  }
+
   // resource authorization provider //////////////////////////////////////////
 
   protected void initResourceAuthorizationProvider() {
@@ -2246,6 +2717,42 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public int getDeploymentParsingParallelism() {
+    return deploymentParsingParallelism;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentParsingParallelism(int deploymentParsingParallelism) {
+    this.deploymentParsingParallelism = deploymentParsingParallelism;
+    return this;
+  }
+
+  public ExecutorService getDeploymentParsingExecutor() {
+    return deploymentParsingExecutor;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentParsingExecutor(ExecutorService deploymentParsingExecutor) {
+    this.deploymentParsingExecutor = deploymentParsingExecutor;
+    return this;
+  }
+
+  public String getParsedResourceCacheDirectory() {
+    return parsedResourceCacheDirectory;
+  }
+
+  public ProcessEngineConfigurationImpl setParsedResourceCacheDirectory(String parsedResourceCacheDirectory) {
+    this.parsedResourceCacheDirectory = parsedResourceCacheDirectory;
+    return this;
+  }
+
+  public ParsedResourceFileCache getParsedResourceCache() {
+    return parsedResourceCache;
+  }
+
+  public ProcessEngineConfigurationImpl setParsedResourceCache(ParsedResourceFileCache parsedResourceCache) {
+    this.parsedResourceCache = parsedResourceCache;
+    return this;
+  }
+
   public JobExecutor getJobExecutor() {
     return jobExecutor;
   }
@@ -2271,6 +2778,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.externalTaskPriorityProvider = externalTaskPriorityProvider;
   }
 
+  public List<ExternalTaskCreationObserver> getExternalTaskCreationObservers() {
+    return externalTaskCreationObservers;
+  }
+
+  public ProcessEngineConfigurationImpl setExternalTaskCreationObservers(List<ExternalTaskCreationObserver> externalTaskCreationObservers) {
+    this.externalTaskCreationObservers = externalTaskCreationObservers;
+    return this;
+  }
+
   public IdGenerator getIdGenerator() {
     return idGenerator;
   }
@@ -2395,6 +2911,136 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.cacheFactory = cacheFactory;
   }
 
+  public boolean isDbEntitySecondLevelCacheEnabled() {
+    return dbEntitySecondLevelCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDbEntitySecondLevelCacheEnabled(boolean dbEntitySecondLevelCacheEnabled) {
+    this.dbEntitySecondLevelCacheEnabled = dbEntitySecondLevelCacheEnabled;
+    return this;
+  }
+
+  public List<SecondLevelCacheConfiguration> getDbEntitySecondLevelCacheConfigurations() {
+    return dbEntitySecondLevelCacheConfigurations;
+  }
+
+  public ProcessEngineConfigurationImpl setDbEntitySecondLevelCacheConfigurations(List<SecondLevelCacheConfiguration> dbEntitySecondLevelCacheConfigurations) {
+    this.dbEntitySecondLevelCacheConfigurations = dbEntitySecondLevelCacheConfigurations;
+    return this;
+  }
+
+  public boolean isAuthorizationDecisionCacheEnabled() {
+    return authorizationDecisionCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCacheEnabled(boolean authorizationDecisionCacheEnabled) {
+    this.authorizationDecisionCacheEnabled = authorizationDecisionCacheEnabled;
+    return this;
+  }
+
+  public int getAuthorizationDecisionCacheCapacity() {
+    return authorizationDecisionCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCacheCapacity(int authorizationDecisionCacheCapacity) {
+    this.authorizationDecisionCacheCapacity = authorizationDecisionCacheCapacity;
+    return this;
+  }
+
+  public long getAuthorizationDecisionCacheTimeToLive() {
+    return authorizationDecisionCacheTimeToLive;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCacheTimeToLive(long authorizationDecisionCacheTimeToLive) {
+    this.authorizationDecisionCacheTimeToLive = authorizationDecisionCacheTimeToLive;
+    return this;
+  }
+
+  public AuthorizationDecisionCache getAuthorizationDecisionCache() {
+    return authorizationDecisionCache;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCache(AuthorizationDecisionCache authorizationDecisionCache) {
+    this.authorizationDecisionCache = authorizationDecisionCache;
+    return this;
+  }
+
+  public boolean isFilterCountCacheEnabled() {
+    return filterCountCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setFilterCountCacheEnabled(boolean filterCountCacheEnabled) {
+    this.filterCountCacheEnabled = filterCountCacheEnabled;
+    return this;
+  }
+
+  public int getFilterCountCacheCapacity() {
+    return filterCountCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setFilterCountCacheCapacity(int filterCountCacheCapacity) {
+    this.filterCountCacheCapacity = filterCountCacheCapacity;
+    return this;
+  }
+
+  public long getFilterCountCacheRefreshInterval() {
+    return filterCountCacheRefreshInterval;
+  }
+
+  public ProcessEngineConfigurationImpl setFilterCountCacheRefreshInterval(long filterCountCacheRefreshInterval) {
+    this.filterCountCacheRefreshInterval = filterCountCacheRefreshInterval;
+    return this;
+  }
+
+  public FilterCountCache getFilterCountCache() {
+    return filterCountCache;
+  }
+
+  public ProcessEngineConfigurationImpl setFilterCountCache(FilterCountCache filterCountCache) {
+    this.filterCountCache = filterCountCache;
+    return this;
+  }
+
+  public int getQueryStreamingFetchSize() {
+    return queryStreamingFetchSize;
+  }
+
+  public ProcessEngineConfigurationImpl setQueryStreamingFetchSize(int queryStreamingFetchSize) {
+    this.queryStreamingFetchSize = queryStreamingFetchSize;
+    return this;
+  }
+
+  public boolean isAuthorizationPermissionProjectionEnabled() {
+    return authorizationPermissionProjectionEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationPermissionProjectionEnabled(boolean authorizationPermissionProjectionEnabled) {
+    this.authorizationPermissionProjectionEnabled = authorizationPermissionProjectionEnabled;
+    return this;
+  }
+
+  public long getAuthorizationPermissionProjectionStatusTimeToLive() {
+    return authorizationPermissionProjectionStatusTimeToLive;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationPermissionProjectionStatusTimeToLive(long authorizationPermissionProjectionStatusTimeToLive) {
+    this.authorizationPermissionProjectionStatusTimeToLive = authorizationPermissionProjectionStatusTimeToLive;
+    return this;
+  }
+
+  public AuthorizationPermissionProjectionStatus getAuthorizationPermissionProjectionStatus() {
+    return authorizationPermissionProjectionStatus;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationPermissionProjectionStatus(AuthorizationPermissionProjectionStatus authorizationPermissionProjectionStatus) {
+    this.authorizationPermissionProjectionStatus = authorizationPermissionProjectionStatus;
+    return this;
+  }
+
+  public DbEntitySecondLevelCache getDbEntitySecondLevelCache() {
+    return dbEntitySecondLevelCache;
+  }
+
   public void setCacheCapacity(int cacheCapacity) {
     this.cacheCapacity = cacheCapacity;
   }
@@ -2889,6 +3535,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.idGeneratorDataSourceJndiName = idGeneratorDataSourceJndiName;
   }
 
+  public int getIdBlockSizeMax() {
+    return idBlockSizeMax;
+  }
+
+  public ProcessEngineConfigurationImpl setIdBlockSizeMax(int idBlockSizeMax) {
+    this.idBlockSizeMax = idBlockSizeMax;
+    return this;
+  }
+
+  public int getIdGeneratorStripes() {
+    return idGeneratorStripes;
+  }
+
+  public ProcessEngineConfigurationImpl setIdGeneratorStripes(int idGeneratorStripes) {
+    this.idGeneratorStripes = idGeneratorStripes;
+    return this;
+  }
+
   public ProcessApplicationManager getProcessApplicationManager() {
     return processApplicationManager;
   }
@@ -2922,6 +3586,78 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return historyEventHandler;
   }
 
+  public boolean isHistoryEventBufferEnabled() {
+    return historyEventBufferEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventBufferEnabled(boolean historyEventBufferEnabled) {
+    this.historyEventBufferEnabled = historyEventBufferEnabled;
+    return this;
+  }
+
+  public long getHistoryEventBufferDrainInterval() {
+    return historyEventBufferDrainInterval;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventBufferDrainInterval(long historyEventBufferDrainInterval) {
+    this.historyEventBufferDrainInterval = historyEventBufferDrainInterval;
+    return this;
+  }
+
+  public int getHistoryEventBufferDrainBatchSize() {
+    return historyEventBufferDrainBatchSize;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventBufferDrainBatchSize(int historyEventBufferDrainBatchSize) {
+    this.historyEventBufferDrainBatchSize = historyEventBufferDrainBatchSize;
+    return this;
+  }
+
+  public long getHistoryEventBufferMaxLag() {
+    return historyEventBufferMaxLag;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventBufferMaxLag(long historyEventBufferMaxLag) {
+    this.historyEventBufferMaxLag = historyEventBufferMaxLag;
+    return this;
+  }
+
+  public HistoryEventBufferWriter getHistoryEventBufferWriter() {
+    return historyEventBufferWriter;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventBufferWriter(HistoryEventBufferWriter historyEventBufferWriter) {
+    this.historyEventBufferWriter = historyEventBufferWriter;
+    return this;
+  }
+
+  public String getHistoryCleanupBatchWindowStartTime() {
+    return historyCleanupBatchWindowStartTime;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryCleanupBatchWindowStartTime(String historyCleanupBatchWindowStartTime) {
+    this.historyCleanupBatchWindowStartTime = historyCleanupBatchWindowStartTime;
+    return this;
+  }
+
+  public String getHistoryCleanupBatchWindowEndTime() {
+    return historyCleanupBatchWindowEndTime;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryCleanupBatchWindowEndTime(String historyCleanupBatchWindowEndTime) {
+    this.historyCleanupBatchWindowEndTime = historyCleanupBatchWindowEndTime;
+    return this;
+  }
+
+  public int getHistoryCleanupBatchSize() {
+    return historyCleanupBatchSize;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryCleanupBatchSize(int historyCleanupBatchSize) {
+    this.historyCleanupBatchSize = historyCleanupBatchSize;
+    return this;
+  }
+
   public IncidentHandler getIncidentHandler(String incidentType) {
     return incidentHandlers.get(incidentType);
   }
@@ -3105,6 +3841,33 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.isExecutionTreePrefetchEnabled = isExecutionTreePrefetchingEnabled;
   }
 
+  public boolean isProcessInstanceGraphPrefetchEnabled() {
+    return processInstanceGraphPrefetchEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setProcessInstanceGraphPrefetchEnabled(boolean processInstanceGraphPrefetchEnabled) {
+    this.processInstanceGraphPrefetchEnabled = processInstanceGraphPrefetchEnabled;
+    return this;
+  }
+
+  public Set<Class<?>> getProcessInstanceGraphPrefetchCommands() {
+    return processInstanceGraphPrefetchCommands;
+  }
+
+  public ProcessEngineConfigurationImpl setProcessInstanceGraphPrefetchCommands(Set<Class<?>> processInstanceGraphPrefetchCommands) {
+    this.processInstanceGraphPrefetchCommands = processInstanceGraphPrefetchCommands;
+    return this;
+  }
+
+  public int getMessageCorrelationBulkChunkSize() {
+    return messageCorrelationBulkChunkSize;
+  }
+
+  public ProcessEngineConfigurationImpl setMessageCorrelationBulkChunkSize(int messageCorrelationBulkChunkSize) {
+    this.messageCorrelationBulkChunkSize = messageCorrelationBulkChunkSize;
+    return this;
+  }
+
   public ProcessEngineImpl getProcessEngine() {
     return processEngine;
   }
@@ -3140,6 +3903,33 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return enableScriptCompilation;
   }
 
+  public boolean isEnableCompiledScriptCache() {
+    return enableCompiledScriptCache;
+  }
+
+  public ProcessEngineConfigurationImpl setEnableCompiledScriptCache(boolean enableCompiledScriptCache) {
+    this.enableCompiledScriptCache = enableCompiledScriptCache;
+    return this;
+  }
+
+  public int getCompiledScriptCacheCapacity() {
+    return compiledScriptCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setCompiledScriptCacheCapacity(int compiledScriptCacheCapacity) {
+    this.compiledScriptCacheCapacity = compiledScriptCacheCapacity;
+    return this;
+  }
+
+  public CompiledScriptCache getCompiledScriptCache() {
+    return compiledScriptCache;
+  }
+
+  public ProcessEngineConfigurationImpl setCompiledScriptCache(CompiledScriptCache compiledScriptCache) {
+    this.compiledScriptCache = compiledScriptCache;
+    return this;
+  }
+
   public boolean isEnableGracefulDegradationOnContextSwitchFailure() {
     return enableGracefulDegradationOnContextSwitchFailure;
   }
@@ -3254,6 +4044,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isJdbcBatchProcessing() {
+    return jdbcBatchProcessing;
+  }
+
+  public ProcessEngineConfigurationImpl setJdbcBatchProcessing(boolean jdbcBatchProcessing) {
+    this.jdbcBatchProcessing = jdbcBatchProcessing;
+    return this;
+  }
+
+  public boolean isDbEntityPartialUpdate() {
+    return dbEntityPartialUpdate;
+  }
+
+  public ProcessEngineConfigurationImpl setDbEntityPartialUpdate(boolean dbEntityPartialUpdate) {
+    this.dbEntityPartialUpdate = dbEntityPartialUpdate;
+    return this;
+  }
+
   public DbEntityCacheKeyMapping getDbEntityCacheKeyMapping() {
     return dbEntityCacheKeyMapping;
   }
@@ -3286,6 +4094,10 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   }
 
   public void close() {
+    if (deploymentParsingExecutor != null) {
+      deploymentParsingExecutor.shutdown();
+    }
+
     if (forceCloseMybatisConnectionPool
         && dataSource instanceof PooledDataSource) {
 
@@ -3312,6 +4124,33 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return isMetricsEnabled;
   }
 
+  public boolean isHistogramMetricsEnabled() {
+    return isHistogramMetricsEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setHistogramMetricsEnabled(boolean isHistogramMetricsEnabled) {
+    this.isHistogramMetricsEnabled = isHistogramMetricsEnabled;
+    return this;
+  }
+
+  public boolean isCommandProfilingEnabled() {
+    return isCommandProfilingEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setCommandProfilingEnabled(boolean isCommandProfilingEnabled) {
+    this.isCommandProfilingEnabled = isCommandProfilingEnabled;
+    return this;
+  }
+
+  public CommandProfiler getCommandProfiler() {
+    return commandProfiler;
+  }
+
+  public ProcessEngineConfigurationImpl setCommandProfiler(CommandProfiler commandProfiler) {
+    this.commandProfiler = commandProfiler;
+    return this;
+  }
+
   public DbMetricsReporter getDbMetricsReporter() {
     return dbMetricsReporter;
   }
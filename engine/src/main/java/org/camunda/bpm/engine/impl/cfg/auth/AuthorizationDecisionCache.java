@@ -0,0 +1,188 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cfg.auth;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.db.CompositePermissionCheck;
+import org.camunda.bpm.engine.impl.db.PermissionCheck;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.commons.utils.cache.Cache;
+
+/**
+ * <p>Engine-wide cache of the results of authorization checks, keyed by the user, the
+ * groups of the authentication and the checked permissions.</p>
+ *
+ * <p>The whole cache is invalidated when this engine changes authorizations, group memberships
+ * or tenant memberships, once when the change is flushed and again when the transaction
+ * is completed, see {@link org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager}.
+ * A decision which was computed while an invalidation happened is not cached, so a
+ * decision is never based on a state older than the last invalidation. Changes made by
+ * other engines of a cluster are not noticed, decisions expire after the configured
+ * time to live instead.</p>
+ *
+ * <p>The decisions do not depend on the revoke check mode, since the mode is either
+ * fixed by the configuration or determined from the authorizations in the database.</p>
+ */
+public class AuthorizationDecisionCache {
+
+  protected Cache<String, CacheEntry> cache;
+  protected long timeToLive;
+  protected MetricsRegistry metricsRegistry;
+
+  /** incremented by every invalidation */
+  protected AtomicLong generation = new AtomicLong();
+
+  public AuthorizationDecisionCache(Cache<String, CacheEntry> cache, long timeToLive, MetricsRegistry metricsRegistry) {
+    this.cache = cache;
+    this.timeToLive = timeToLive;
+    this.metricsRegistry = metricsRegistry;
+  }
+
+  /**
+   * @return the current generation which must be passed to {@link #put(String, boolean, long)}
+   *   when caching a decision that is computed afterwards
+   */
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * @return the cached decision or null if no valid decision is cached
+   */
+  public Boolean get(String key) {
+    CacheEntry entry = cache.get(key);
+
+    if (entry != null && (entry.generation != generation.get() || entry.expirationTime <= ClockUtil.getCurrentTime().getTime())) {
+      cache.remove(key);
+      entry = null;
+    }
+
+    if (entry != null) {
+      markOccurrence(Metrics.AUTHORIZATION_CACHE_HIT);
+      return entry.isAuthorized;
+    }
+    else {
+      markOccurrence(Metrics.AUTHORIZATION_CACHE_MISS);
+      return null;
+    }
+  }
+
+  /**
+   * Caches the decision unless the cache was invalidated since the given generation.
+   */
+  public void put(String key, boolean isAuthorized, long generation) {
+    if (generation == this.generation.get()) {
+      long expirationTime = ClockUtil.getCurrentTime().getTime() + timeToLive;
+      cache.put(key, new CacheEntry(isAuthorized, generation, expirationTime));
+    }
+  }
+
+  public void invalidate() {
+    generation.incrementAndGet();
+    cache.clear();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public String createKey(String userId, List<String> groupIds, List<PermissionCheck> permissionChecks) {
+    StringBuilder key = createKey(userId, groupIds);
+    key.append('L');
+    appendPermissionChecks(key, permissionChecks);
+    return key.toString();
+  }
+
+  public String createKey(String userId, List<String> groupIds, CompositePermissionCheck compositePermissionCheck) {
+    StringBuilder key = createKey(userId, groupIds);
+    appendCompositeCheck(key, compositePermissionCheck);
+    return key.toString();
+  }
+
+  protected StringBuilder createKey(String userId, List<String> groupIds) {
+    StringBuilder key = new StringBuilder();
+    appendString(key, userId);
+
+    if (groupIds == null) {
+      key.append('-');
+    }
+    else {
+      List<String> sortedGroupIds = new ArrayList<String>(groupIds);
+      Collections.sort(sortedGroupIds);
+      key.append(sortedGroupIds.size()).append('[');
+      for (String groupId : sortedGroupIds) {
+        appendString(key, groupId);
+      }
+    }
+
+    return key;
+  }
+
+  protected void appendCompositeCheck(StringBuilder key, CompositePermissionCheck compositeCheck) {
+    key.append(compositeCheck.isDisjunctive() ? 'D' : 'C');
+    appendPermissionChecks(key, compositeCheck.getAtomicChecks());
+
+    key.append(compositeCheck.getCompositeChecks().size()).append('(');
+    for (CompositePermissionCheck subCheck : compositeCheck.getCompositeChecks()) {
+      appendCompositeCheck(key, subCheck);
+    }
+    key.append(')');
+  }
+
+  protected void appendPermissionChecks(StringBuilder key, List<PermissionCheck> permissionChecks) {
+    key.append(permissionChecks.size()).append('{');
+    for (PermissionCheck permissionCheck : permissionChecks) {
+      key.append(permissionCheck.getPerms()).append(',');
+      key.append(permissionCheck.getResourceType()).append(',');
+      key.append(permissionCheck.getAuthorizationNotFoundReturnValue()).append(',');
+      appendString(key, permissionCheck.getResourceId());
+      appendString(key, permissionCheck.getResourceIdQueryParam());
+    }
+  }
+
+  /** appends the string prefixed with its length, so that different strings never result in the same key */
+  protected void appendString(StringBuilder key, String value) {
+    if (value == null) {
+      key.append('-');
+    }
+    else {
+      key.append(value.length()).append(':').append(value);
+    }
+  }
+
+  protected void markOccurrence(String name) {
+    if (metricsRegistry != null) {
+      metricsRegistry.markOccurrence(name);
+    }
+  }
+
+  public static class CacheEntry {
+
+    protected final boolean isAuthorized;
+    protected final long generation;
+    protected final long expirationTime;
+
+    public CacheEntry(boolean isAuthorized, long generation, long expirationTime) {
+      this.isAuthorized = isAuthorized;
+      this.generation = generation;
+      this.expirationTime = expirationTime;
+    }
+  }
+
+}
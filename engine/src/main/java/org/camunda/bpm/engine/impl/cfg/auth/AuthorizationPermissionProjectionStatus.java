@@ -0,0 +1,93 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cfg.auth;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * <p>Engine-wide record of whether the authorization permission projection is up to date,
+ * i.e. whether the property written after building the projection exists.</p>
+ *
+ * <p>An engine of a cluster which is built with the projection disabled removes the property,
+ * since it does not maintain the projection. The recorded state therefore expires after the
+ * configured time to live and is read from the database again. A state which was read while
+ * an invalidation happened is not recorded.</p>
+ *
+ * @see org.camunda.bpm.engine.impl.persistence.entity.AuthorizationPermissionManager
+ */
+public class AuthorizationPermissionProjectionStatus {
+
+  protected long timeToLive;
+
+  protected volatile Entry entry;
+
+  /** incremented by every invalidation */
+  protected AtomicLong generation = new AtomicLong();
+
+  public AuthorizationPermissionProjectionStatus(long timeToLive) {
+    this.timeToLive = timeToLive;
+  }
+
+  /**
+   * @return the current generation which must be passed to {@link #put(boolean, long)}
+   *   when recording a state that is read afterwards
+   */
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * @return whether the projection is up to date or null if the state is not known
+   */
+  public Boolean get() {
+    Entry entry = this.entry;
+
+    if (entry == null || entry.generation != generation.get() || entry.expirationTime <= ClockUtil.getCurrentTime().getTime()) {
+      return null;
+    }
+    else {
+      return entry.isUpToDate;
+    }
+  }
+
+  /**
+   * Records the state unless it was invalidated since the given generation.
+   */
+  public void put(boolean isUpToDate, long generation) {
+    if (generation == this.generation.get()) {
+      long expirationTime = ClockUtil.getCurrentTime().getTime() + timeToLive;
+      entry = new Entry(isUpToDate, generation, expirationTime);
+    }
+  }
+
+  public void invalidate() {
+    generation.incrementAndGet();
+    entry = null;
+  }
+
+  protected static class Entry {
+
+    protected final boolean isUpToDate;
+    protected final long generation;
+    protected final long expirationTime;
+
+    public Entry(boolean isUpToDate, long generation, long expirationTime) {
+      this.isUpToDate = isUpToDate;
+      this.generation = generation;
+      this.expirationTime = expirationTime;
+    }
+  }
+
+}
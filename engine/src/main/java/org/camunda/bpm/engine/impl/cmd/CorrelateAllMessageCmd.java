@@ -45,17 +45,7 @@ public class CorrelateAllMessageCmd extends AbstractCorrelateMessageCmd implemen
   }
 
   public List<MessageCorrelationResult> execute(final CommandContext commandContext) {
-    ensureAtLeastOneNotNull(
-        "At least one of the following correlation criteria has to be present: " + "messageName, businessKey, correlationKeys, processInstanceId", messageName,
-        builder.getBusinessKey(), builder.getCorrelationProcessInstanceVariables(), builder.getProcessInstanceId());
-
-    final CorrelationHandler correlationHandler = Context.getProcessEngineConfiguration().getCorrelationHandler();
-    final CorrelationSet correlationSet = new CorrelationSet(builder);
-    List<CorrelationHandlerResult> correlationResults = commandContext.runWithoutAuthorization(new Callable<List<CorrelationHandlerResult>>() {
-      public List<CorrelationHandlerResult> call() throws Exception {
-        return correlationHandler.correlateMessages(commandContext, messageName, correlationSet);
-      }
-    });
+    List<CorrelationHandlerResult> correlationResults = findCorrelations(commandContext);
 
     // check authorization
     for (CorrelationHandlerResult correlationResult : correlationResults) {
@@ -69,4 +59,21 @@ public class CorrelateAllMessageCmd extends AbstractCorrelateMessageCmd implemen
 
     return results;
   }
+
+  /**
+   * Finds the executions and process definitions the message correlates to without modifying any state.
+   */
+  protected List<CorrelationHandlerResult> findCorrelations(final CommandContext commandContext) {
+    ensureAtLeastOneNotNull(
+        "At least one of the following correlation criteria has to be present: " + "messageName, businessKey, correlationKeys, processInstanceId", messageName,
+        builder.getBusinessKey(), builder.getCorrelationProcessInstanceVariables(), builder.getProcessInstanceId());
+
+    final CorrelationHandler correlationHandler = Context.getProcessEngineConfiguration().getCorrelationHandler();
+    final CorrelationSet correlationSet = new CorrelationSet(builder);
+    return commandContext.runWithoutAuthorization(new Callable<List<CorrelationHandlerResult>>() {
+      public List<CorrelationHandlerResult> call() throws Exception {
+        return correlationHandler.correlateMessages(commandContext, messageName, correlationSet);
+      }
+    });
+  }
 }
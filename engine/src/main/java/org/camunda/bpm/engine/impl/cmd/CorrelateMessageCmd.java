@@ -45,6 +45,20 @@ public class CorrelateMessageCmd extends AbstractCorrelateMessageCmd implements
   }
 
   public MessageCorrelationResult execute(final CommandContext commandContext) {
+    CorrelationHandlerResult correlationResult = findCorrelation(commandContext);
+
+    // check authorization
+    checkAuthorization(correlationResult);
+
+    return createMessageCorrelationResult(commandContext, correlationResult);
+  }
+
+  /**
+   * Finds the execution or process definition the message correlates to without modifying any state.
+   *
+   * @throws MismatchingMessageCorrelationException if there is none or more than one
+   */
+  protected CorrelationHandlerResult findCorrelation(final CommandContext commandContext) {
     ensureAtLeastOneNotNull(
         "At least one of the following correlation criteria has to be present: " + "messageName, businessKey, correlationKeys, processInstanceId", messageName,
         builder.getBusinessKey(), builder.getCorrelationProcessInstanceVariables(), builder.getProcessInstanceId());
@@ -61,9 +75,6 @@ public class CorrelateMessageCmd extends AbstractCorrelateMessageCmd implements
       throw new MismatchingMessageCorrelationException(messageName, "No process definition or execution matches the parameters");
     }
 
-    // check authorization
-    checkAuthorization(correlationResult);
-
-    return createMessageCorrelationResult(commandContext, correlationResult);
+    return correlationResult;
   }
 }
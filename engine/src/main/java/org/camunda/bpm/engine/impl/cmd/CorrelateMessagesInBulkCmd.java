@@ -0,0 +1,126 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.camunda.bpm.engine.AuthorizationException;
+import org.camunda.bpm.engine.MismatchingMessageCorrelationException;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.runtime.CorrelationHandlerResult;
+import org.camunda.bpm.engine.impl.runtime.MessageCorrelationBulkResultImpl;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkResult;
+import org.camunda.bpm.engine.runtime.MessageCorrelationResult;
+
+/**
+ * Executes a chunk of the given message correlations, starting at the given position.
+ *
+ * <p>Correlations that fail before they modify any state, because they do not match or
+ * the user is not authorized, are reported as failed and the chunk continues. Any other
+ * exception aborts the command. In that case, {@link #getFailedPosition()} returns the
+ * position of the correlation that caused it.</p>
+ */
+public class CorrelateMessagesInBulkCmd implements Command<List<MessageCorrelationBulkResult>> {
+
+  protected final List<AbstractCorrelateMessageCmd> correlations;
+  protected final int fromPosition;
+  protected final Integer chunkSize;
+
+  protected int position;
+  protected int toPosition;
+
+  /**
+   * @param correlations instances of {@link CorrelateMessageCmd} and {@link CorrelateAllMessageCmd}
+   * @param chunkSize the maximum number of correlations to execute; if null, the configured chunk size is used
+   */
+  public CorrelateMessagesInBulkCmd(List<AbstractCorrelateMessageCmd> correlations, int fromPosition, Integer chunkSize) {
+    this.correlations = correlations;
+    this.fromPosition = fromPosition;
+    this.chunkSize = chunkSize;
+    this.position = fromPosition;
+    this.toPosition = fromPosition + 1;
+  }
+
+  public List<MessageCorrelationBulkResult> execute(CommandContext commandContext) {
+    int maxResults = chunkSize != null ? chunkSize : commandContext.getProcessEngineConfiguration().getMessageCorrelationBulkChunkSize();
+    toPosition = Math.min(fromPosition + Math.max(maxResults, 1), correlations.size());
+
+    List<MessageCorrelationBulkResult> results = new ArrayList<MessageCorrelationBulkResult>(toPosition - fromPosition);
+
+    for (position = fromPosition; position < toPosition; position++) {
+      AbstractCorrelateMessageCmd correlation = correlations.get(position);
+
+      MessageCorrelationBulkResult result;
+      if (correlation instanceof CorrelateAllMessageCmd) {
+        result = correlateAll(commandContext, (CorrelateAllMessageCmd) correlation);
+      } else {
+        result = correlate(commandContext, (CorrelateMessageCmd) correlation);
+      }
+      results.add(result);
+
+      if (result.isSuccessful()) {
+        // the next correlation must see the changes of this one in the database
+        commandContext.getDbEntityManager().flush();
+      }
+    }
+
+    return results;
+  }
+
+  protected MessageCorrelationBulkResult correlate(CommandContext commandContext, CorrelateMessageCmd correlation) {
+    CorrelationHandlerResult correlationResult;
+    try {
+      correlationResult = correlation.findCorrelation(commandContext);
+      correlation.checkAuthorization(correlationResult);
+
+    } catch (MismatchingMessageCorrelationException e) {
+      return MessageCorrelationBulkResultImpl.failed(e);
+
+    } catch (AuthorizationException e) {
+      return MessageCorrelationBulkResultImpl.failed(e);
+    }
+
+    MessageCorrelationResult result = correlation.createMessageCorrelationResult(commandContext, correlationResult);
+    return MessageCorrelationBulkResultImpl.successful(Collections.singletonList(result));
+  }
+
+  protected MessageCorrelationBulkResult correlateAll(CommandContext commandContext, CorrelateAllMessageCmd correlation) {
+    List<CorrelationHandlerResult> correlationResults = correlation.findCorrelations(commandContext);
+    try {
+      for (CorrelationHandlerResult correlationResult : correlationResults) {
+        correlation.checkAuthorization(correlationResult);
+      }
+
+    } catch (AuthorizationException e) {
+      return MessageCorrelationBulkResultImpl.failed(e);
+    }
+
+    List<MessageCorrelationResult> results = new ArrayList<MessageCorrelationResult>();
+    for (CorrelationHandlerResult correlationResult : correlationResults) {
+      results.add(correlation.createMessageCorrelationResult(commandContext, correlationResult));
+    }
+    return MessageCorrelationBulkResultImpl.successful(results);
+  }
+
+  /**
+   * @return the position of the correlation which was executed when the command failed;
+   *   the last correlation of the chunk if it failed after all correlations were executed
+   */
+  public int getFailedPosition() {
+    return Math.min(position, toPosition - 1);
+  }
+
+}
@@ -0,0 +1,93 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryEventBufferEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryEventBufferManager;
+
+/**
+ * Writes the oldest rows of the history event buffer to the history tables.
+ * Each row is claimed by deleting it, so that a row is drained exactly once
+ * even if several engines drain the buffer concurrently. Returns the number
+ * of drained rows.
+ */
+public class DrainHistoryEventBufferCmd implements Command<Integer> {
+
+  protected HistoryEventHandler historyEventHandler;
+  protected int maxBuffers;
+
+  public DrainHistoryEventBufferCmd(HistoryEventHandler historyEventHandler, int maxBuffers) {
+    this.historyEventHandler = historyEventHandler;
+    this.maxBuffers = maxBuffers;
+  }
+
+  public Integer execute(CommandContext commandContext) {
+    HistoryEventBufferManager bufferManager = commandContext.getHistoryEventBufferManager();
+
+    int drainedBuffers = 0;
+    for (HistoryEventBufferEntity buffer : bufferManager.findBuffersToDrain(maxBuffers)) {
+      if (bufferManager.claimBuffer(buffer)) {
+        writeEvents(commandContext, buffer);
+        drainedBuffers++;
+      }
+    }
+
+    return drainedBuffers;
+  }
+
+  protected void writeEvents(CommandContext commandContext, HistoryEventBufferEntity buffer) {
+    List<HistoryEvent> events = buffer.getBufferedEvents();
+    List<String> eventTypes = buffer.getBufferedEventTypes();
+
+    for (int i = 0; i < events.size(); i++) {
+      HistoryEvent event = events.get(i);
+      // the event carries its final state but is inserted or updated depending on the type it had when it was handled
+      event.setEventType(eventTypes.get(i));
+
+      evictCachedEvent(commandContext, event);
+      historyEventHandler.handleEvent(event);
+    }
+  }
+
+  /**
+   * The events of different buffer rows are different objects even if they
+   * belong to the same history entity. Since a handler ignores events whose
+   * entity is already cached, the earlier state is flushed and evicted before
+   * the later event is handled.
+   *
+   * <p>The flush only executes the pending statements of this command early,
+   * the drained rows are still written and claimed in a single transaction.
+   * It happens once per history entity which occurs in several drained rows,
+   * e.g. an activity instance which was started and ended in different
+   * transactions.</p>
+   */
+  protected void evictCachedEvent(CommandContext commandContext, HistoryEvent event) {
+    if (event.getId() != null) {
+      DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+      HistoryEvent cachedEvent = dbEntityManager.getCachedEntity(event.getClass(), event.getId());
+
+      if (cachedEvent != null && cachedEvent != event) {
+        dbEntityManager.flush();
+        dbEntityManager.getDbEntityCache().remove(cachedEvent);
+      }
+    }
+  }
+
+}
@@ -13,6 +13,7 @@
 package org.camunda.bpm.engine.impl.cmd;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -30,6 +31,7 @@ import org.camunda.bpm.engine.impl.externaltask.TopicFetchInstruction;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExternalTaskManager;
 import org.camunda.bpm.engine.impl.util.EnsureUtil;
 
 /**
@@ -61,9 +63,15 @@ public class FetchExternalTasksCmd implements Command<List<LockedExternalTask>>
   public List<LockedExternalTask> execute(CommandContext commandContext) {
     validateInput();
 
-    List<ExternalTaskEntity> externalTasks = commandContext
-      .getExternalTaskManager()
-      .selectExternalTasksForTopics(fetchInstructions.keySet(), maxResults, usePriority);
+    List<ExternalTaskEntity> externalTasks;
+    if (isFetchPartitionedByTopic()) {
+      externalTasks = selectExternalTasksPartitionedByTopic(commandContext);
+    }
+    else {
+      externalTasks = commandContext
+        .getExternalTaskManager()
+        .selectExternalTasksForTopics(fetchInstructions.keySet(), maxResults, usePriority);
+    }
 
     final List<LockedExternalTask> result = new ArrayList<LockedExternalTask>();
 
@@ -83,6 +91,51 @@ public class FetchExternalTasksCmd implements Command<List<LockedExternalTask>>
     return result;
   }
 
+  protected boolean isFetchPartitionedByTopic() {
+    for (TopicFetchInstruction instruction : fetchInstructions.values()) {
+      if (instruction.getMaxTasks() != null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Selects the tasks of each topic with a separate query limited to the topic's maximum
+   * and shares the overall maximum between the topics in a round-robin fashion.
+   */
+  protected List<ExternalTaskEntity> selectExternalTasksPartitionedByTopic(CommandContext commandContext) {
+    ExternalTaskManager externalTaskManager = commandContext.getExternalTaskManager();
+
+    List<List<ExternalTaskEntity>> tasksByTopic = new ArrayList<List<ExternalTaskEntity>>();
+    for (TopicFetchInstruction instruction : fetchInstructions.values()) {
+      int topicMaxResults = maxResults;
+      if (instruction.getMaxTasks() != null) {
+        topicMaxResults = Math.min(instruction.getMaxTasks(), maxResults);
+      }
+
+      if (topicMaxResults > 0) {
+        List<ExternalTaskEntity> topicTasks = externalTaskManager
+          .selectExternalTasksForTopics(Collections.singleton(instruction.getTopicName()), topicMaxResults, usePriority);
+        tasksByTopic.add(topicTasks);
+      }
+    }
+
+    List<ExternalTaskEntity> externalTasks = new ArrayList<ExternalTaskEntity>();
+    boolean taskAdded = true;
+    for (int i = 0; taskAdded && externalTasks.size() < maxResults; i++) {
+      taskAdded = false;
+      for (List<ExternalTaskEntity> topicTasks : tasksByTopic) {
+        if (i < topicTasks.size() && externalTasks.size() < maxResults) {
+          externalTasks.add(topicTasks.get(i));
+          taskAdded = true;
+        }
+      }
+    }
+
+    return externalTasks;
+  }
+
   protected void filterOnOptimisticLockingFailure(CommandContext commandContext, final List<LockedExternalTask> tasks) {
     commandContext.getDbEntityManager().registerOptimisticLockingListener(new OptimisticLockingListener() {
 
@@ -122,6 +175,9 @@ public class FetchExternalTasksCmd implements Command<List<LockedExternalTask>>
     for (TopicFetchInstruction instruction : fetchInstructions.values()) {
       EnsureUtil.ensureNotNull("topicName", instruction.getTopicName());
       EnsureUtil.ensurePositive("lockTime", instruction.getLockDuration());
+      if (instruction.getMaxTasks() != null) {
+        EnsureUtil.ensureGreaterThanOrEqual("maxTasks", instruction.getMaxTasks(), 0);
+      }
     }
   }
 }
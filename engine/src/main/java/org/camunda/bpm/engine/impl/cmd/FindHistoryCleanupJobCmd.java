@@ -0,0 +1,43 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.history.cleanup.HistoryCleanupJobHandler;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.runtime.Job;
+
+/**
+ * Returns the history cleanup job or <code>null</code> if none is scheduled.
+ */
+public class FindHistoryCleanupJobCmd implements Command<Job> {
+
+  public Job execute(CommandContext commandContext) {
+    commandContext.getAuthorizationManager().checkCamundaAdmin();
+
+    List<JobEntity> historyCleanupJobs = commandContext
+      .getJobManager()
+      .findJobsByHandlerType(HistoryCleanupJobHandler.TYPE);
+
+    if (historyCleanupJobs.isEmpty()) {
+      return null;
+    }
+    else {
+      return historyCleanupJobs.get(0);
+    }
+  }
+
+}
@@ -0,0 +1,39 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.profiling.CommandProfiler;
+import org.camunda.bpm.engine.management.CommandProfile;
+
+public class GetCommandProfilesCmd implements Command<List<CommandProfile>> {
+
+  public List<CommandProfile> execute(CommandContext commandContext) {
+    commandContext.getAuthorizationManager().checkCamundaAdmin();
+
+    return getCommandProfiler(commandContext).getProfiles();
+  }
+
+  protected static CommandProfiler getCommandProfiler(CommandContext commandContext) {
+    CommandProfiler commandProfiler = commandContext.getProcessEngineConfiguration().getCommandProfiler();
+    if (commandProfiler == null) {
+      throw new ProcessEngineException("Command profiling is not enabled in the process engine configuration");
+    }
+    return commandProfiler;
+  }
+
+}
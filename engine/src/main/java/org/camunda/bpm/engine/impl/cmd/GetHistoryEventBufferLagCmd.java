@@ -0,0 +1,42 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.Date;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Returns the age in milliseconds of the oldest row in the history event buffer,
+ * i.e. how far the history tables lag behind the runtime.
+ */
+public class GetHistoryEventBufferLagCmd implements Command<Long> {
+
+  public Long execute(CommandContext commandContext) {
+    commandContext.getAuthorizationManager().checkCamundaAdmin();
+
+    Date oldestCreateTime = commandContext
+      .getHistoryEventBufferManager()
+      .findOldestBufferCreateTime();
+
+    if (oldestCreateTime == null) {
+      return 0L;
+    }
+    else {
+      return Math.max(0L, ClockUtil.getCurrentTime().getTime() - oldestCreateTime.getTime());
+    }
+  }
+
+}
@@ -0,0 +1,73 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.history.cleanup.HistoryCleanupHelper;
+import org.camunda.bpm.engine.impl.history.cleanup.HistoryCleanupJobHandler;
+import org.camunda.bpm.engine.impl.history.cleanup.HistoryCleanupJobHandler.HistoryCleanupJobConfiguration;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
+
+/**
+ * Makes sure that the history cleanup job exists. If the cleanup is immediately
+ * due, an existing job is rescheduled to run now, regardless of the batch window.
+ * Otherwise a new job is due at the start of the batch window.
+ */
+public class HistoryCleanupCmd implements Command<Job> {
+
+  protected boolean immediatelyDue;
+
+  public HistoryCleanupCmd(boolean immediatelyDue) {
+    this.immediatelyDue = immediatelyDue;
+  }
+
+  public Job execute(CommandContext commandContext) {
+    commandContext.getAuthorizationManager().checkCamundaAdmin();
+
+    Date now = ClockUtil.getCurrentTime();
+
+    List<JobEntity> historyCleanupJobs = commandContext
+      .getJobManager()
+      .findJobsByHandlerType(HistoryCleanupJobHandler.TYPE);
+
+    if (historyCleanupJobs.isEmpty()) {
+      return HistoryCleanupJobHandler.scheduleJob(commandContext, immediatelyDue, getDueDate(commandContext, now));
+    }
+
+    JobEntity historyCleanupJob = historyCleanupJobs.get(0);
+    if (immediatelyDue && historyCleanupJob.getLockOwner() == null) {
+      historyCleanupJob.setJobHandlerConfiguration(new HistoryCleanupJobConfiguration(true));
+      historyCleanupJob.setDuedate(now);
+    }
+
+    return historyCleanupJob;
+  }
+
+  protected Date getDueDate(CommandContext commandContext, Date now) {
+    ProcessEngineConfigurationImpl configuration = commandContext.getProcessEngineConfiguration();
+    if (immediatelyDue || HistoryCleanupHelper.isWithinBatchWindow(now, configuration)) {
+      return now;
+    }
+    else {
+      return HistoryCleanupHelper.getNextBatchWindowStartTime(now, configuration);
+    }
+  }
+
+}
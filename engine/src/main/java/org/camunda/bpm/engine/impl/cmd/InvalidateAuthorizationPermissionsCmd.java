@@ -0,0 +1,32 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * Marks the authorization permission projection as outdated, so that it is rebuilt
+ * by the next engine which is built with the projection enabled.
+ */
+public class InvalidateAuthorizationPermissionsCmd implements Command<Void> {
+
+  public Void execute(CommandContext commandContext) {
+    commandContext
+      .getAuthorizationPermissionManager()
+      .invalidateAuthorizationPermissions();
+
+    return null;
+  }
+
+}
@@ -0,0 +1,50 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationPermissionManager;
+
+/**
+ * Rebuilds the authorization permission projection from the current authorizations.
+ */
+public class RebuildAuthorizationPermissionsCmd implements Command<Void> {
+
+  protected boolean force;
+
+  public RebuildAuthorizationPermissionsCmd() {
+    this(true);
+  }
+
+  /**
+   * @param force if false, the projection is only built if it is not up to date
+   */
+  public RebuildAuthorizationPermissionsCmd(boolean force) {
+    this.force = force;
+  }
+
+  public Void execute(CommandContext commandContext) {
+    AuthorizationPermissionManager authorizationPermissionManager = commandContext.getAuthorizationPermissionManager();
+
+    if (force) {
+      authorizationPermissionManager.rebuildAuthorizationPermissions();
+    }
+    else {
+      authorizationPermissionManager.ensureAuthorizationPermissionsBuilt();
+    }
+
+    return null;
+  }
+
+}
@@ -0,0 +1,36 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * Starts recording every n-th command with the command profiler of the engine.
+ */
+public class StartCommandProfilingCmd implements Command<Void> {
+
+  protected int samplingRate;
+
+  public StartCommandProfilingCmd(int samplingRate) {
+    this.samplingRate = samplingRate;
+  }
+
+  public Void execute(CommandContext commandContext) {
+    commandContext.getAuthorizationManager().checkCamundaAdmin();
+
+    GetCommandProfilesCmd.getCommandProfiler(commandContext).start(samplingRate);
+    return null;
+  }
+
+}
@@ -43,6 +43,7 @@ public class CaseDefinitionEntity extends CmmnCaseDefinition implements CaseDefi
   protected String resourceName;
   protected String diagramResourceName;
   protected String tenantId;
+  protected Integer historyTimeToLive;
 
   protected Map<String, TaskDefinition> taskDefinitions;
 
@@ -132,6 +133,14 @@ public class CaseDefinitionEntity extends CmmnCaseDefinition implements CaseDefi
     this.tenantId = tenantId;
   }
 
+  public Integer getHistoryTimeToLive() {
+    return historyTimeToLive;
+  }
+
+  public void setHistoryTimeToLive(Integer historyTimeToLive) {
+    this.historyTimeToLive = historyTimeToLive;
+  }
+
   // previous case definition //////////////////////////////////////////////
 
   public CaseDefinitionEntity getPreviousDefinition() {
@@ -48,6 +48,7 @@ import org.camunda.bpm.engine.impl.core.variable.scope.VariableStore.VariablesPr
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.HasDbReferences;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.db.PersistentStateSnapshot;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
 import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
@@ -803,15 +804,14 @@ public class CaseExecutionEntity extends CmmnExecution implements CaseExecution,
   }
 
   public Object getPersistentState() {
-    Map<String, Object> persistentState = new HashMap<String, Object>();
-    persistentState.put("caseDefinitionId", caseDefinitionId);
-    persistentState.put("businessKey", businessKey);
-    persistentState.put("activityId", activityId);
-    persistentState.put("parentId", parentId);
-    persistentState.put("currentState", currentState);
-    persistentState.put("previousState", previousState);
-    persistentState.put("superExecutionId", superExecutionId);
-    return persistentState;
+    return new PersistentStateSnapshot(
+        caseDefinitionId,
+        businessKey,
+        activityId,
+        parentId,
+        currentState,
+        previousState,
+        superExecutionId);
   }
 
   public CmmnModelInstance getCmmnModelInstance() {
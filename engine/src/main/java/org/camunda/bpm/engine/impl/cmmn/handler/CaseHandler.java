@@ -47,6 +47,7 @@ public class CaseHandler extends CmmnElementHandler<Case, CmmnCaseDefinition> {
     definition.setName(element.getName());
     definition.setDeploymentId(deployment.getId());
     definition.setTaskDefinitions(new HashMap<String, TaskDefinition>());
+    definition.setHistoryTimeToLive(element.getCamundaHistoryTimeToLive());
 
     CmmnModelInstance model = context.getModel();
 
@@ -53,6 +53,12 @@ public class AuthorizationCheck implements Serializable {
 
   protected CompositePermissionCheck permissionChecks = new CompositePermissionCheck();
 
+  /**
+   * Indicates if the authorization permission projection is maintained and may be
+   * joined instead of the authorization table.
+   */
+  protected boolean isPermissionProjectionEnabled = false;
+
   public AuthorizationCheck() {
   }
 
@@ -127,6 +133,37 @@ public class AuthorizationCheck implements Serializable {
     this.permissionChecks = permissionChecks;
   }
   
+  public boolean isPermissionProjectionEnabled() {
+    return isPermissionProjectionEnabled;
+  }
+
+  public void setPermissionProjectionEnabled(boolean isPermissionProjectionEnabled) {
+    this.isPermissionProjectionEnabled = isPermissionProjectionEnabled;
+  }
+
+  /**
+   * The projection holds a single permission per row. It can only be matched
+   * by equality if each atomic check asks for exactly one permission.
+   *
+   * is used by myBatis
+   */
+  public boolean isPermissionProjectionApplicable() {
+    if (!isPermissionProjectionEnabled) {
+      return false;
+    }
+
+    List<PermissionCheck> atomicChecks = permissionChecks.getAtomicChecks();
+    if (atomicChecks != null) {
+      for (PermissionCheck atomicCheck : atomicChecks) {
+        if (Integer.bitCount(atomicCheck.getPerms()) != 1) {
+          return false;
+        }
+      }
+    }
+
+    return true;
+  }
+
   public boolean isRevokeAuthorizationCheckEnabled() {
     return isRevokeAuthorizationCheckEnabled;
   }
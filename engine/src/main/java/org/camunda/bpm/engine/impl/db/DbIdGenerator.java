@@ -10,42 +10,145 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package org.camunda.bpm.engine.impl.db;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.cmd.GetNextIdBlockCmd;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 
 
 /**
+ * Hands out ids from blocks which are reserved in the database.
+ *
+ * <p>The generator keeps one block per stripe and threads are mapped to a stripe by
+ * their thread id, so that threads on different stripes never compete for the same
+ * block. Within a block, ids are handed out with an atomic counter. When half of a
+ * block is consumed, the thread drawing that id reserves the next block early, before
+ * handing out its id, while all other threads continue with the current one. A thread
+ * only waits if a block is exhausted before its successor is available. Blocks are
+ * reserved one at a time since they are all taken from the same property row.</p>
+ *
+ * <p>The size of the reserved blocks grows up to {@link #getMaxIdBlockSize()} if a
+ * stripe consumes its blocks faster than {@link #ID_BLOCK_TARGET_MILLIS} and shrinks
+ * back to {@link #getIdBlockSize()} if it consumes them slowly.</p>
+ *
  * @author Tom Baeyens
  */
 public class DbIdGenerator implements IdGenerator {
 
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  /** the time a block should last at the observed id consumption rate */
+  protected static final long ID_BLOCK_TARGET_MILLIS = 1000;
+
   protected int idBlockSize;
-  protected long nextId;
-  protected long lastId;
+  protected int maxIdBlockSize;
+  protected int stripes = 1;
 
   protected CommandExecutor commandExecutor;
 
+  protected volatile IdBlockStripe[] idBlockStripes;
+
+  /**
+   * Reserving a block updates a single property row, so concurrent reservations of
+   * different stripes would only fail with optimistic locking exceptions.
+   */
+  protected final Object newBlockLock = new Object();
+
   public DbIdGenerator() {
     reset();
   }
 
-  public synchronized String getNextId() {
-    if (lastId<nextId) {
-      getNewBlock();
+  public String getNextId() {
+    IdBlockStripe stripe = getStripe();
+
+    while (true) {
+      ActiveIdBlock block = stripe.currentBlock;
+      long nextId = block.nextId.getAndIncrement();
+
+      if (nextId <= block.lastId) {
+        if (nextId == block.earlyFetchId) {
+          fetchNextBlockEarly(stripe);
+        }
+        return Long.toString(nextId);
+      }
+
+      switchBlock(stripe, block);
     }
-    long _nextId = nextId++;
-    return Long.toString(_nextId);
   }
 
-  protected synchronized void getNewBlock() {
-    // TODO http://jira.codehaus.org/browse/ACT-45 use a separate 'requiresNew' command executor
-    IdBlock idBlock = commandExecutor.execute(new GetNextIdBlockCmd(idBlockSize));
-    this.nextId = idBlock.getNextId();
-    this.lastId = idBlock.getLastId();
+  protected IdBlockStripe getStripe() {
+    IdBlockStripe[] stripes = idBlockStripes;
+    return stripes[(int) (Thread.currentThread().getId() % stripes.length)];
+  }
+
+  /**
+   * Reserves the block following the current block of the stripe unless it is
+   * already reserved. This happens synchronously in the calling thread, which
+   * holds the stripe lock meanwhile; only threads which exhaust the current block
+   * in the meantime have to wait for it. Failures are not propagated since the id
+   * which triggered the early fetch is valid; the block is then fetched when it
+   * is needed.
+   */
+  protected void fetchNextBlockEarly(IdBlockStripe stripe) {
+    synchronized (stripe) {
+      if (stripe.nextBlock == null) {
+        try {
+          stripe.nextBlock = getNewBlock(stripe);
+        } catch (RuntimeException e) {
+          LOG.fetchIdBlockEarlyFailed(e);
+        }
+      }
+    }
+  }
+
+  protected void switchBlock(IdBlockStripe stripe, ActiveIdBlock exhaustedBlock) {
+    synchronized (stripe) {
+      if (stripe.currentBlock != exhaustedBlock) {
+        // another thread has already switched the block
+        return;
+      }
+
+      ActiveIdBlock nextBlock = stripe.nextBlock;
+      if (nextBlock == null) {
+        nextBlock = getNewBlock(stripe);
+      }
+
+      stripe.nextBlock = null;
+      stripe.currentBlock = nextBlock;
+    }
+  }
+
+  protected ActiveIdBlock getNewBlock(IdBlockStripe stripe) {
+    adaptBlockSize(stripe);
+
+    IdBlock idBlock;
+    synchronized (newBlockLock) {
+      // the command executor starts a new transaction (see ProcessEngineConfigurationImpl#initIdGenerator)
+      idBlock = commandExecutor.execute(new GetNextIdBlockCmd(stripe.blockSize));
+    }
+    return new ActiveIdBlock(idBlock.getNextId(), idBlock.getLastId());
+  }
+
+  protected void adaptBlockSize(IdBlockStripe stripe) {
+    long now = System.currentTimeMillis();
+
+    if (stripe.lastFetchTime > 0) {
+      long millisSinceLastFetch = now - stripe.lastFetchTime;
+
+      if (millisSinceLastFetch < ID_BLOCK_TARGET_MILLIS) {
+        stripe.blockSize = Math.min(stripe.blockSize * 2, Math.max(maxIdBlockSize, idBlockSize));
+
+      } else if (millisSinceLastFetch > 10 * ID_BLOCK_TARGET_MILLIS) {
+        stripe.blockSize = Math.max(stripe.blockSize / 2, idBlockSize);
+
+      }
+    }
+
+    stripe.lastFetchTime = now;
   }
 
   public int getIdBlockSize() {
@@ -54,6 +157,28 @@ public class DbIdGenerator implements IdGenerator {
 
   public void setIdBlockSize(int idBlockSize) {
     this.idBlockSize = idBlockSize;
+    reset();
+  }
+
+  public int getMaxIdBlockSize() {
+    return maxIdBlockSize;
+  }
+
+  /**
+   * @param maxIdBlockSize the upper bound for adapted block sizes; if it is not
+   *   greater than the id block size, the block size is not adapted
+   */
+  public void setMaxIdBlockSize(int maxIdBlockSize) {
+    this.maxIdBlockSize = maxIdBlockSize;
+  }
+
+  public int getStripes() {
+    return stripes;
+  }
+
+  public void setStripes(int stripes) {
+    this.stripes = Math.max(stripes, 1);
+    reset();
   }
 
   public CommandExecutor getCommandExecutor() {
@@ -69,7 +194,44 @@ public class DbIdGenerator implements IdGenerator {
    * when the next ID generation request is received.
    */
   public void reset() {
-    nextId = 0;
-    lastId = -1;
+    IdBlockStripe[] newStripes = new IdBlockStripe[stripes];
+    for (int i = 0; i < newStripes.length; i++) {
+      newStripes[i] = new IdBlockStripe(idBlockSize);
+    }
+    idBlockStripes = newStripes;
   }
+
+  /**
+   * The blocks used by the threads mapped to the stripe. Switching and fetching
+   * blocks is synchronized on the stripe.
+   */
+  protected static class IdBlockStripe {
+
+    protected volatile ActiveIdBlock currentBlock = new ActiveIdBlock(0, -1);
+    protected volatile ActiveIdBlock nextBlock;
+
+    protected int blockSize;
+    protected long lastFetchTime;
+
+    public IdBlockStripe(int blockSize) {
+      this.blockSize = blockSize;
+    }
+  }
+
+  /**
+   * A reserved block of ids with the counter of the next id to hand out.
+   */
+  protected static class ActiveIdBlock {
+
+    protected final AtomicLong nextId;
+    protected final long lastId;
+    protected final long earlyFetchId;
+
+    public ActiveIdBlock(long nextId, long lastId) {
+      this.nextId = new AtomicLong(nextId);
+      this.lastId = lastId;
+      this.earlyFetchId = nextId + (lastId - nextId) / 2;
+    }
+  }
+
 }
@@ -618,5 +618,107 @@ public class EnginePersistenceLogger extends ProcessEngineLogger {
         ));
   }
 
+  public ProcessEngineException wrongBatchResultsSizeException(List<DbOperation> operationsToFlush) {
+    return new ProcessEngineException(exceptionMessage(
+        "078",
+        "Unexpected number of JDBC batch results for the executed operations. Flush summary: \n {}",
+        buildStringFromList(operationsToFlush)
+        ));
+  }
+
+  public ProcessEngineException batchUpdateCountNotReportedException(DbOperation operation) {
+    return new ProcessEngineException(exceptionMessage(
+        "079",
+        "The JDBC driver did not report the number of affected rows for '{}'. Optimistic locking cannot be checked, "
+        + "disable JDBC batch processing for this database.",
+        operation
+        ));
+  }
+
+  public void fetchIdBlockEarlyFailed(Throwable cause) {
+    logWarn(
+        "080",
+        "Could not fetch the next id block early, it will be fetched when the current block is exhausted. Reason: '{}'",
+        cause.getMessage(),
+        cause
+        );
+  }
+
+  public void secondLevelCacheCopyFailed(Class<?> entityType, String id, Throwable cause) {
+    logWarn(
+        "081",
+        "Could not copy entity '{}[{}]' to or from the second level cache, it is loaded from the database instead. Reason: '{}'",
+        ClassNameUtil.getClassNameWithoutPackage(entityType),
+        id,
+        cause.getMessage(),
+        cause
+        );
+  }
+
+  public ProcessEngineException serializeHistoryEventBufferException(String bufferId, Throwable cause) {
+    return new ProcessEngineException(exceptionMessage(
+        "082",
+        "Could not serialize the history events of buffer '{}'. Reason: '{}'",
+        bufferId,
+        cause.getMessage()),
+        cause);
+  }
+
+  public ProcessEngineException deserializeHistoryEventBufferException(String bufferId, Throwable cause) {
+    return new ProcessEngineException(exceptionMessage(
+        "083",
+        "Could not deserialize the history events of buffer '{}'. Reason: '{}'",
+        bufferId,
+        cause.getMessage()),
+        cause);
+  }
+
+  public void couldNotDrainHistoryEventBuffer(Throwable cause) {
+    logWarn(
+        "084",
+        "Could not write buffered history events to the history tables, they are retried with the next drain. Reason: '{}'",
+        cause.getMessage(),
+        cause
+        );
+  }
+
+  public void historyEventBufferLagExceeded(long lagInMillis, long maxLagInMillis) {
+    logWarn(
+        "085",
+        "The oldest buffered history events are {} ms old which exceeds the configured maximum lag of {} ms",
+        lagInMillis,
+        maxLagInMillis
+        );
+  }
+
+  public void couldNotReadParsedResourceCacheFile(String file, Throwable cause) {
+    logWarn(
+        "086",
+        "Could not restore the parsed resource from cache file '{}', the resource is parsed again. Reason: '{}'",
+        file,
+        cause.getMessage(),
+        cause
+        );
+  }
+
+  public void couldNotWriteParsedResourceCacheFile(String file, Throwable cause) {
+    logWarn(
+        "087",
+        "Could not write the parsed resource to cache file '{}'. Reason: '{}'",
+        file,
+        cause.getMessage(),
+        cause
+        );
+  }
+
+  public void couldNotRefreshFilterCount(String filterId, Throwable cause) {
+    logWarn(
+        "088",
+        "Could not refresh the cached count of filter '{}', the count is evicted. Reason: '{}'",
+        filterId,
+        cause.getMessage(),
+        cause
+        );
+  }
 
 }
@@ -0,0 +1,31 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+import java.util.Set;
+
+/**
+ * Entities whose update statement only writes the columns of the changed properties
+ * need to implement this interface. The update statement checks for every such column
+ * whether its property is contained in {@link #getChangedProperties()}; a value of
+ * <code>null</code> means that all columns are written.
+ *
+ * <p>The property names are the names of the fields of the entity's
+ * {@link PersistentStateSnapshot}.</p>
+ */
+public interface HasDbPartialUpdate {
+
+  void setChangedProperties(Set<String> changedProperties);
+  Set<String> getChangedProperties();
+
+}
@@ -36,6 +36,9 @@ public class ListQueryParameterObject implements Serializable {
   protected Object parameter;
   protected String databaseType;
 
+  /** the JDBC fetch size of the statement, <code>0</code> for the default of the driver */
+  protected int fetchSize = 0;
+
   public ListQueryParameterObject() {
   }
 
@@ -88,6 +91,14 @@ public class ListQueryParameterObject implements Serializable {
     return databaseType;
   }
 
+  public int getFetchSize() {
+    return fetchSize;
+  }
+
+  public void setFetchSize(int fetchSize) {
+    this.fetchSize = fetchSize;
+  }
+
   public AuthorizationCheck getAuthCheck() {
     return authCheck;
   }
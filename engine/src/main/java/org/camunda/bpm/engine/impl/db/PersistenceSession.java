@@ -16,6 +16,7 @@ import java.util.List;
 
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
 import org.camunda.bpm.engine.impl.interceptor.Session;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 
 
 /**
@@ -28,8 +29,24 @@ public interface PersistenceSession extends Session {
 
   void executeDbOperation(DbOperation operation);
 
+  /**
+   * Executes the operations that were deferred by {@link #executeDbOperation(DbOperation)},
+   * e.g. because they were added to a JDBC batch.
+   *
+   * @return the deferred operations with their final result applied, an empty list
+   *   if all operations were executed immediately
+   */
+  List<DbOperation> flushOperations();
+
   List<?> selectList(String statement, Object parameter);
 
+  /**
+   * Passes the results of the statement to the handler one by one while they are read
+   * from the database. In contrast to {@link #selectList(String, Object)}, the entity
+   * load listeners are not notified about the results.
+   */
+  void selectStreaming(String statement, Object parameter, QueryResultHandler<Object> resultHandler);
+
   <T extends DbEntity> T selectById(Class<T> type, String id);
 
   Object selectOne(String statement, Object parameter);
@@ -0,0 +1,85 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Compact persistent state of a {@link DbEntity}, see {@link DbEntity#getPersistentState()}.
+ * It holds the values of the persistent fields in a fixed order instead of a map with one
+ * entry per field, which makes the snapshot cheap to create and to compare on every flush.
+ *
+ * <p>Entities must always pass the same fields in the same order. Entities which name
+ * the fields allow determining which of them changed between two snapshots, see
+ * {@link #getChangedProperties(PersistentStateSnapshot)}.</p>
+ */
+public class PersistentStateSnapshot {
+
+  protected final String[] properties;
+  protected final Object[] values;
+
+  public PersistentStateSnapshot(Object... values) {
+    this(null, values);
+  }
+
+  /**
+   * @param properties the names of the fields, must be the same array instance for
+   *   all snapshots of an entity type
+   * @param values the values of the fields in the order of the names
+   */
+  public PersistentStateSnapshot(String[] properties, Object[] values) {
+    this.properties = properties;
+    this.values = values;
+  }
+
+  /**
+   * @return the names of the fields whose values differ from the given snapshot or null
+   *   if the snapshots do not name their fields or were not created by the same entity type
+   */
+  public Set<String> getChangedProperties(PersistentStateSnapshot previous) {
+    if (properties == null || previous.properties != properties) {
+      return null;
+    }
+
+    Set<String> changedProperties = new HashSet<String>();
+    for (int i = 0; i < values.length; i++) {
+      Object value = values[i];
+      Object previousValue = previous.values[i];
+      if (value == null ? previousValue != null : !value.equals(previousValue)) {
+        changedProperties.add(properties[i]);
+      }
+    }
+    return changedProperties;
+  }
+
+  public int hashCode() {
+    return Arrays.hashCode(values);
+  }
+
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    return Arrays.equals(values, ((PersistentStateSnapshot) obj).values);
+  }
+
+  public String toString() {
+    return Arrays.toString(values);
+  }
+
+}
@@ -46,16 +46,22 @@ import org.camunda.bpm.engine.impl.UserQueryImpl;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionContext;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.cfg.auth.AuthorizationDecisionCache;
 import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionQueryImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.DbEntityLifecycleAware;
 import org.camunda.bpm.engine.impl.db.EntityLoadListener;
+import org.camunda.bpm.engine.impl.db.HasDbPartialUpdate;
 import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.db.PersistenceSession;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntitySecondLevelCache;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
@@ -64,9 +70,17 @@ import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationManager
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
 import org.camunda.bpm.engine.impl.identity.db.DbGroupQueryImpl;
 import org.camunda.bpm.engine.impl.identity.db.DbUserQueryImpl;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.Session;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorContext;
+import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationPermissionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.MembershipEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TenantMembershipEntity;
+import org.camunda.bpm.engine.impl.profiling.CommandProfileRecording;
+import org.camunda.bpm.engine.impl.profiling.CommandProfiler;
 import org.camunda.bpm.engine.impl.util.EnsureUtil;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 
 /**
  *
@@ -88,6 +102,8 @@ public class DbEntityManager implements Session, EntityLoadListener {
   protected DbOperationManager dbOperationManager;
 
   protected PersistenceSession persistenceSession;
+
+  protected DbEntitySecondLevelCache secondLevelCache;
   protected boolean isIgnoreForeignKeysForNextFlush;
 
   public DbEntityManager(IdGenerator idGenerator, PersistenceSession persistenceSession) {
@@ -160,6 +176,38 @@ public class DbEntityManager implements Session, EntityLoadListener {
     return selectListWithRawParameter(statement, parameter, parameter.getFirstResult(), parameter.getMaxResults());
   }
 
+  /**
+   * Passes the results of the statement to the handler one by one while they are read from the
+   * database. In contrast to {@link #selectList(String, ListQueryParameterObject)}, the loaded
+   * entities are not put into the entity cache, so that the memory consumption does not grow
+   * with the number of results. Entities which are cached already are passed in their cached version.
+   */
+  public void selectStreaming(String statement, ListQueryParameterObject parameter, final QueryResultHandler<Object> resultHandler) {
+    if (parameter.getFirstResult() == -1 || parameter.getMaxResults() == -1) {
+      return;
+    }
+    persistenceSession.selectStreaming(statement, parameter, new QueryResultHandler<Object>() {
+      public void handleResult(Object result) {
+        if (result instanceof DbEntity) {
+          result = loadWithoutCaching((DbEntity) result);
+        }
+        resultHandler.handleResult(result);
+      }
+    });
+  }
+
+  protected DbEntity loadWithoutCaching(DbEntity entity) {
+    DbEntity cachedEntity = dbEntityCache.get(entity.getClass(), entity.getId());
+    if (cachedEntity != null) {
+      return cachedEntity;
+    }
+
+    if (entity instanceof DbEntityLifecycleAware) {
+      ((DbEntityLifecycleAware) entity).postLoad();
+    }
+    return entity;
+  }
+
   @SuppressWarnings("unchecked")
   public List selectListWithRawParameter(String statement, Object parameter, int firstResult, int maxResults) {
     if(firstResult == -1 ||  maxResults==-1) {
@@ -190,10 +238,25 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
   public <T extends DbEntity> T selectById(Class<T> entityClass, String id) {
     T persistentObject = dbEntityCache.get(entityClass, id);
+
+    CommandProfileRecording profileRecording = CommandProfiler.getCurrentRecording();
+    if (profileRecording != null) {
+      if (persistentObject != null) {
+        profileRecording.entityCacheHit();
+      }
+      else {
+        profileRecording.entityCacheMiss();
+      }
+    }
+
     if (persistentObject!=null) {
       return persistentObject;
     }
 
+    if (secondLevelCache != null && secondLevelCache.isCached(entityClass)) {
+      return selectByIdFromSecondLevelCache(entityClass, id);
+    }
+
     persistentObject = persistenceSession.selectById(entityClass, id);
 
     if (persistentObject==null) {
@@ -203,6 +266,23 @@ public class DbEntityManager implements Session, EntityLoadListener {
     return persistentObject;
   }
 
+  protected <T extends DbEntity> T selectByIdFromSecondLevelCache(Class<T> entityClass, String id) {
+    T persistentObject = secondLevelCache.get(entityClass, id);
+    if (persistentObject != null) {
+      // the copy is handled like an entity loaded by the persistence session
+      onEntityLoaded(persistentObject);
+      return persistentObject;
+    }
+
+    // the generation must be read before the entity is loaded to detect concurrent evictions
+    long generation = secondLevelCache.getGeneration(entityClass);
+    persistentObject = persistenceSession.selectById(entityClass, id);
+    if (persistentObject != null) {
+      secondLevelCache.put(persistentObject, generation);
+    }
+    return persistentObject;
+  }
+
   public <T extends DbEntity> T getCachedEntity(Class<T> type, String id) {
     return dbEntityCache.get(type, id);
   }
@@ -255,6 +335,18 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
   }
 
+  /**
+   * Removes a persistent entity from the entity cache unless it was changed, e.g. to release
+   * an entity which was only loaded to read it. Entities with changes remain in the cache, so
+   * that the changes are flushed.
+   */
+  public void evictUnchanged(DbEntity entity) {
+    CachedDbEntity cachedEntity = dbEntityCache.getCachedEntity(entity);
+    if (cachedEntity != null && cachedEntity.getEntityState() == PERSISTENT && !cachedEntity.isDirty()) {
+      dbEntityCache.remove(cachedEntity);
+    }
+  }
+
   public void lock(String statement) {
     lock(statement, null);
   }
@@ -279,6 +371,9 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
     // flush the db operation manager
     flushDbOperationManager();
+
+    // the operations are executed; a subsequent flush in the same command must not repeat them
+    dbOperationManager = new DbOperationManager();
   }
 
   public void setIgnoreForeignKeysForNextFlush(boolean ignoreForeignKeysForNextFlush) {
@@ -288,14 +383,31 @@ public class DbEntityManager implements Session, EntityLoadListener {
   protected void flushDbOperationManager() {
     // obtain totally ordered operation list from operation manager
     List<DbOperation> operationsToFlush = dbOperationManager.calculateFlush();
+
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (processEngineConfiguration != null && processEngineConfiguration.isAuthorizationPermissionProjectionEnabled()) {
+      operationsToFlush.addAll(getAuthorizationPermissionOperations(operationsToFlush));
+    }
     LOG.databaseFlushSummary(operationsToFlush);
 
+    CommandProfileRecording profileRecording = CommandProfiler.getCurrentRecording();
+    if (profileRecording != null) {
+      profileRecording.operationsFlushed(operationsToFlush);
+    }
+
     // If we want to delete all table data as bulk operation, on tables which have self references,
     // We need to turn the foreign key check off on MySQL and MariaDB.
     // On other databases we have to do nothing, the mapped statement will be empty.
     if (isIgnoreForeignKeysForNextFlush) {
       persistenceSession.executeNonEmptyUpdateStmt(TOGGLE_FOREIGN_KEY_STMT, false);
     }
+    if (secondLevelCache != null) {
+      invalidateSecondLevelCache(operationsToFlush);
+    }
+    if (processEngineConfiguration != null && processEngineConfiguration.getAuthorizationDecisionCache() != null) {
+      invalidateAuthorizationDecisionCache(processEngineConfiguration.getAuthorizationDecisionCache(), operationsToFlush);
+    }
+
     // execute the flush
     try {
       for (DbOperation dbOperation : operationsToFlush) {
@@ -308,6 +420,14 @@ public class DbEntityManager implements Session, EntityLoadListener {
           handleOptimisticLockingException(dbOperation);
         }
       }
+
+      // operations added to a JDBC batch are executed now
+      List<DbOperation> batchedOperations = persistenceSession.flushOperations();
+      for (DbOperation batchedOperation : batchedOperations) {
+        if (batchedOperation.isFailed()) {
+          handleOptimisticLockingException(batchedOperation);
+        }
+      }
     } finally {
       if (isIgnoreForeignKeysForNextFlush) {
         persistenceSession.executeNonEmptyUpdateStmt(TOGGLE_FOREIGN_KEY_STMT, true);
@@ -316,6 +436,126 @@ public class DbEntityManager implements Session, EntityLoadListener {
     }
   }
 
+  /**
+   * Evicts the entities which are updated or deleted by the given operations from the
+   * second level cache. They are evicted again when the transaction is committed, since
+   * other commands may have cached the previous state in the meantime.
+   */
+  protected void invalidateSecondLevelCache(List<DbOperation> operations) {
+    final List<DbOperation> invalidatingOperations = new ArrayList<DbOperation>();
+
+    for (DbOperation operation : operations) {
+      if (operation.getOperationType() != INSERT && secondLevelCache.isCached(operation.getEntityType())) {
+        invalidatingOperations.add(operation);
+      }
+    }
+
+    if (!invalidatingOperations.isEmpty()) {
+      final List<String> evictedIds = new ArrayList<String>();
+      final List<Class<?>> evictedTypes = new ArrayList<Class<?>>();
+
+      for (DbOperation operation : invalidatingOperations) {
+        evictedTypes.add(operation.getEntityType());
+        evictedIds.add(operation instanceof DbEntityOperation ? ((DbEntityOperation) operation).getEntity().getId() : null);
+      }
+
+      evictFromSecondLevelCache(evictedTypes, evictedIds);
+
+      Context.getCommandContext()
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+          public void execute(CommandContext commandContext) {
+            evictFromSecondLevelCache(evictedTypes, evictedIds);
+          }
+        });
+    }
+  }
+
+  /**
+   * Invalidates the cached authorization decisions if authorizations or memberships are changed.
+   * The cache is invalidated again when the transaction completes, since other transactions
+   * could have cached decisions based on the previous state in the meantime.
+   */
+  protected void invalidateAuthorizationDecisionCache(final AuthorizationDecisionCache authorizationDecisionCache, List<DbOperation> operations) {
+    for (DbOperation operation : operations) {
+      Class<? extends DbEntity> entityType = operation.getEntityType();
+
+      if (AuthorizationEntity.class.equals(entityType)
+          || MembershipEntity.class.equals(entityType)
+          || TenantMembershipEntity.class.equals(entityType)) {
+
+        authorizationDecisionCache.invalidate();
+
+        TransactionListener invalidationListener = new TransactionListener() {
+          public void execute(CommandContext commandContext) {
+            authorizationDecisionCache.invalidate();
+          }
+        };
+        TransactionContext transactionContext = Context.getCommandContext().getTransactionContext();
+        transactionContext.addTransactionListener(TransactionState.COMMITTED, invalidationListener);
+        transactionContext.addTransactionListener(TransactionState.ROLLED_BACK, invalidationListener);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns the operations which keep the authorization permission projection in sync
+   * with the authorizations changed by the given operations. They are executed after
+   * the given operations, so that the rows of an updated authorization are deleted
+   * before its new rows are inserted.
+   */
+  protected List<DbOperation> getAuthorizationPermissionOperations(List<DbOperation> operations) {
+    List<DbOperation> permissionOperations = new ArrayList<DbOperation>();
+
+    for (DbOperation operation : operations) {
+      if (!AuthorizationEntity.class.equals(operation.getEntityType())) {
+        continue;
+      }
+
+      if (operation instanceof DbEntityOperation) {
+        AuthorizationEntity authorization = (AuthorizationEntity) ((DbEntityOperation) operation).getEntity();
+
+        if (operation.getOperationType() != INSERT) {
+          permissionOperations.add(new DbBulkOperation(DELETE_BULK, AuthorizationPermissionEntity.class,
+              "deleteAuthorizationPermissionsByAuthorizationId", authorization.getId()));
+        }
+
+        if (operation.getOperationType() != DELETE) {
+          for (AuthorizationPermissionEntity permission : AuthorizationPermissionEntity.fromAuthorization(authorization)) {
+            permission.setId(idGenerator.getNextId());
+
+            DbEntityOperation insertOperation = new DbEntityOperation();
+            insertOperation.setEntity(permission);
+            insertOperation.setOperationType(INSERT);
+            permissionOperations.add(insertOperation);
+          }
+        }
+      }
+      else if (operation.getOperationType() == DELETE_BULK
+          && "deleteAuthorizationsForResourceId".equals(((DbBulkOperation) operation).getStatement())) {
+        permissionOperations.add(new DbBulkOperation(DELETE_BULK, AuthorizationPermissionEntity.class,
+            "deleteAuthorizationPermissionsForResourceId", ((DbBulkOperation) operation).getParameter()));
+      }
+    }
+
+    return permissionOperations;
+  }
+
+  /**
+   * @param ids the ids of the entities to evict, a null id evicts all entities of the type
+   */
+  protected void evictFromSecondLevelCache(List<Class<?>> entityTypes, List<String> ids) {
+    for (int i = 0; i < entityTypes.size(); i++) {
+      String id = ids.get(i);
+      if (id != null) {
+        secondLevelCache.remove(entityTypes.get(i), id);
+      } else {
+        secondLevelCache.clear(entityTypes.get(i));
+      }
+    }
+  }
+
   public void flushEntity(DbEntity entity) {
     CachedDbEntity cachedEntity = dbEntityCache.getCachedEntity(entity);
     if (cachedEntity != null) {
@@ -359,6 +599,9 @@ public class DbEntityManager implements Session, EntityLoadListener {
 
   protected void flushCachedEntity(CachedDbEntity cachedDbEntity) {
 
+    // the persistent state is only obtained once per flush since it is computed on every call
+    Object persistentState = null;
+
     if(cachedDbEntity.getEntityState() == TRANSIENT) {
       // latest state of references in cache is relevant when determining insertion order
       cachedDbEntity.determineEntityReferences();
@@ -367,9 +610,15 @@ public class DbEntityManager implements Session, EntityLoadListener {
       // mark PERSISTENT
       cachedDbEntity.setEntityState(PERSISTENT);
 
-    } else if(cachedDbEntity.getEntityState() == PERSISTENT && cachedDbEntity.isDirty()) {
-      // object is dirty -> perform UPDATE
-      performEntityOperation(cachedDbEntity, UPDATE);
+    } else if(cachedDbEntity.getEntityState() == PERSISTENT) {
+      persistentState = cachedDbEntity.getEntity().getPersistentState();
+      if (cachedDbEntity.isDirty(persistentState)) {
+        // object is dirty -> perform UPDATE
+        DbEntityOperation dbOperation = performEntityOperation(cachedDbEntity, UPDATE);
+        if (cachedDbEntity.getEntity() instanceof HasDbPartialUpdate) {
+          dbOperation.setChangedProperties(cachedDbEntity.getChangedProperties(persistentState));
+        }
+      }
 
     } else if(cachedDbEntity.getEntityState() == MERGED) {
       // perform UPDATE
@@ -393,7 +642,11 @@ public class DbEntityManager implements Session, EntityLoadListener {
     // if object is PERSISTENT after flush
     if(cachedDbEntity.getEntityState() == PERSISTENT) {
       // make a new copy
-      cachedDbEntity.makeCopy();
+      if (persistentState != null) {
+        cachedDbEntity.makeCopy(persistentState);
+      } else {
+        cachedDbEntity.makeCopy();
+      }
       // update cached references
       cachedDbEntity.determineEntityReferences();
     }
@@ -458,12 +711,13 @@ public class DbEntityManager implements Session, EntityLoadListener {
     return bulkOperation;
   }
 
-  protected void performEntityOperation(CachedDbEntity cachedDbEntity, DbOperationType type) {
+  protected DbEntityOperation performEntityOperation(CachedDbEntity cachedDbEntity, DbOperationType type) {
     DbEntityOperation dbOperation = new DbEntityOperation();
     dbOperation.setEntity(cachedDbEntity.getEntity());
     dbOperation.setFlushRelevantEntityReferences(cachedDbEntity.getFlushRelevantEntityReferences());
     dbOperation.setOperationType(type);
     dbOperationManager.addOperation(dbOperation);
+    return dbOperation;
   }
 
   public void close() {
@@ -517,6 +771,14 @@ public class DbEntityManager implements Session, EntityLoadListener {
     this.dbEntityCache = dbEntityCache;
   }
 
+  public DbEntitySecondLevelCache getSecondLevelCache() {
+    return secondLevelCache;
+  }
+
+  public void setSecondLevelCache(DbEntitySecondLevelCache secondLevelCache) {
+    this.secondLevelCache = secondLevelCache;
+  }
+
   // query factory methods ////////////////////////////////////////////////////
 
   public DeploymentQueryImpl createDeploymentQuery() {
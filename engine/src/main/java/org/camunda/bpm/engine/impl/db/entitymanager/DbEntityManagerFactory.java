@@ -16,6 +16,7 @@ package org.camunda.bpm.engine.impl.db.entitymanager;
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.PersistenceSession;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntitySecondLevelCache;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 
 /**
@@ -24,9 +25,15 @@ import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 public class DbEntityManagerFactory implements SessionFactory {
 
   protected IdGenerator idGenerator;
+  protected DbEntitySecondLevelCache secondLevelCache;
 
   public DbEntityManagerFactory(IdGenerator idGenerator) {
+    this(idGenerator, null);
+  }
+
+  public DbEntityManagerFactory(IdGenerator idGenerator, DbEntitySecondLevelCache secondLevelCache) {
     this.idGenerator = idGenerator;
+    this.secondLevelCache = secondLevelCache;
   }
 
   public Class<?> getSessionType() {
@@ -35,7 +42,9 @@ public class DbEntityManagerFactory implements SessionFactory {
 
   public DbEntityManager openSession() {
     PersistenceSession persistenceSession = Context.getCommandContext().getSession(PersistenceSession.class);
-    return new DbEntityManager(idGenerator, persistenceSession);
+    DbEntityManager dbEntityManager = new DbEntityManager(idGenerator, persistenceSession);
+    dbEntityManager.setSecondLevelCache(secondLevelCache);
+    return dbEntityManager;
   }
 
 }
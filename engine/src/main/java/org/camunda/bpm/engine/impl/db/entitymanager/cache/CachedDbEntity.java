@@ -17,6 +17,7 @@ import java.util.Set;
 
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.HasDbReferences;
+import org.camunda.bpm.engine.impl.db.PersistentStateSnapshot;
 import org.camunda.bpm.engine.impl.db.entitymanager.Recyclable;
 
 /**
@@ -50,7 +51,27 @@ public class CachedDbEntity implements Recyclable {
    * @return true if the entity is dirty (state has changed since it was put into the cache)
    */
   public boolean isDirty() {
-    return !dbEntity.getPersistentState().equals(copy);
+    return isDirty(dbEntity.getPersistentState());
+  }
+
+  /**
+   * Allows checking whether this entity is dirty with a persistent state the caller has
+   * already obtained from the entity, see {@link #makeCopy(Object)}.
+   */
+  public boolean isDirty(Object persistentState) {
+    return !persistentState.equals(copy);
+  }
+
+  /**
+   * @return the names of the properties which changed since the copy was made or null
+   *   if they cannot be determined, e.g. because the entity was forced dirty
+   * @see PersistentStateSnapshot#getChangedProperties(PersistentStateSnapshot)
+   */
+  public Set<String> getChangedProperties(Object persistentState) {
+    if (persistentState instanceof PersistentStateSnapshot && copy instanceof PersistentStateSnapshot) {
+      return ((PersistentStateSnapshot) persistentState).getChangedProperties((PersistentStateSnapshot) copy);
+    }
+    return null;
   }
 
   public void forceSetDirty() {
@@ -59,7 +80,16 @@ public class CachedDbEntity implements Recyclable {
   }
 
   public void makeCopy() {
-    copy = dbEntity.getPersistentState();
+    makeCopy(dbEntity.getPersistentState());
+  }
+
+  /**
+   * Uses the given persistent state as copy. Must be the current persistent state of
+   * the entity, this allows checking for and resetting dirty state with a single
+   * invocation of {@link DbEntity#getPersistentState()}.
+   */
+  public void makeCopy(Object persistentState) {
+    copy = persistentState;
   }
 
   public String toString() {
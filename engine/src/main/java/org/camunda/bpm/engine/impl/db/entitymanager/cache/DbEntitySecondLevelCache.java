@@ -0,0 +1,238 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.CacheFactory;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.commons.utils.cache.Cache;
+
+/**
+ * An engine-wide cache for entities which rarely change. In contrast to the
+ * {@link DbEntityCache}, it is shared by all command contexts.
+ *
+ * <p>The cache keeps serialized copies of the entities as they were loaded from the
+ * database, every lookup returns a new copy. This way, commands never share entity
+ * instances and changes of a command never become visible to other commands before
+ * they are flushed.</p>
+ *
+ * <p>Entities are evicted when this engine updates or deletes them, see
+ * {@link org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager}. Changes made by other
+ * engines of a cluster are not noticed: a stale copy is used until it expires, and an update
+ * of a stale copy fails with an optimistic locking exception since its revision is outdated,
+ * which evicts it as well.</p>
+ *
+ * <p>A command may load an entity before another command commits a change of it and
+ * put the loaded state into the cache after the entity was evicted. To not keep such a
+ * stale copy, every eviction records the generation in which the entity was evicted. A copy
+ * is only cached if it was loaded after the last eviction of the entity and if no copy of
+ * a later revision is cached. The recorded evictions are discarded once there are more
+ * than the capacity of the cache, which then only rejects copies loaded before.</p>
+ */
+public class DbEntitySecondLevelCache {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  /** the caches per entity type, not modified after construction */
+  protected Map<Class<?>, EntityTypeCache> entityTypeCaches = new HashMap<Class<?>, EntityTypeCache>();
+
+  public DbEntitySecondLevelCache(CacheFactory cacheFactory, List<SecondLevelCacheConfiguration> configurations) {
+    for (SecondLevelCacheConfiguration configuration : configurations) {
+      Cache<String, CacheEntry> cache = cacheFactory.createCache(configuration.getCapacity());
+      entityTypeCaches.put(configuration.getEntityType(), new EntityTypeCache(cache, configuration.getCapacity(), configuration.getTimeToLive()));
+    }
+  }
+
+  public boolean isCached(Class<?> entityType) {
+    return entityTypeCaches.containsKey(entityType);
+  }
+
+  /**
+   * @return the current generation of the entity type which must be passed to
+   *   {@link #put(DbEntity, long)} when caching an entity that is loaded afterwards
+   */
+  public long getGeneration(Class<?> entityType) {
+    EntityTypeCache entityTypeCache = entityTypeCaches.get(entityType);
+    return entityTypeCache != null ? entityTypeCache.generation.get() : 0;
+  }
+
+  /**
+   * @return a copy of the cached entity or null if the entity is not cached or expired
+   */
+  public <T extends DbEntity> T get(Class<T> entityType, String id) {
+    EntityTypeCache entityTypeCache = entityTypeCaches.get(entityType);
+    if (entityTypeCache == null) {
+      return null;
+    }
+
+    CacheEntry entry = entityTypeCache.cache.get(id);
+    if (entry == null) {
+      return null;
+    }
+
+    if (entry.expirationTime > 0 && entry.expirationTime <= ClockUtil.getCurrentTime().getTime()) {
+      entityTypeCache.cache.remove(id);
+      return null;
+    }
+
+    try {
+      ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(entry.serializedEntity));
+      return entityType.cast(in.readObject());
+
+    } catch (Exception e) {
+      LOG.secondLevelCacheCopyFailed(entityType, id, e);
+      entityTypeCache.cache.remove(id);
+      return null;
+    }
+  }
+
+  /**
+   * Caches a copy of the given entity if its type is cached and the entity was not
+   * evicted since the given generation. Must be invoked with the state of the
+   * entity as it was loaded from the database.
+   */
+  public void put(DbEntity entity, long generation) {
+    EntityTypeCache entityTypeCache = entityTypeCaches.get(entity.getClass());
+    if (entityTypeCache == null || !entityTypeCache.isLoadedAfterEviction(entity.getId(), generation)) {
+      return;
+    }
+
+    byte[] serializedEntity;
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      ObjectOutputStream out = new ObjectOutputStream(bytes);
+      out.writeObject(entity);
+      out.close();
+      serializedEntity = bytes.toByteArray();
+
+    } catch (IOException e) {
+      LOG.secondLevelCacheCopyFailed(entity.getClass(), entity.getId(), e);
+      return;
+    }
+
+    long expirationTime = 0;
+    if (entityTypeCache.timeToLive > 0) {
+      expirationTime = ClockUtil.getCurrentTime().getTime() + entityTypeCache.timeToLive;
+    }
+
+    int revision = entity instanceof HasDbRevision ? ((HasDbRevision) entity).getRevision() : 0;
+    entityTypeCache.put(entity.getId(), new CacheEntry(serializedEntity, revision, expirationTime), generation);
+  }
+
+  public void remove(Class<?> entityType, String id) {
+    EntityTypeCache entityTypeCache = entityTypeCaches.get(entityType);
+    if (entityTypeCache != null) {
+      entityTypeCache.evict(id);
+    }
+  }
+
+  public void clear(Class<?> entityType) {
+    EntityTypeCache entityTypeCache = entityTypeCaches.get(entityType);
+    if (entityTypeCache != null) {
+      entityTypeCache.evictAll();
+    }
+  }
+
+  public void clear() {
+    for (EntityTypeCache entityTypeCache : entityTypeCaches.values()) {
+      entityTypeCache.evictAll();
+    }
+  }
+
+
+  protected static class EntityTypeCache {
+
+    protected final Cache<String, CacheEntry> cache;
+    protected final int capacity;
+    protected final long timeToLive;
+
+    /** incremented by every eviction of an entity of the type */
+    protected final AtomicLong generation = new AtomicLong();
+
+    /** the generation of the last eviction per entity id, guarded by this */
+    protected final Map<String, Long> evictionGenerations = new HashMap<String, Long>();
+
+    /** copies loaded before this generation are not cached, guarded by this */
+    protected long minimumGeneration = 0;
+
+    public EntityTypeCache(Cache<String, CacheEntry> cache, int capacity, long timeToLive) {
+      this.cache = cache;
+      this.capacity = capacity;
+      this.timeToLive = timeToLive;
+    }
+
+    protected synchronized boolean isLoadedAfterEviction(String id, long loadGeneration) {
+      if (loadGeneration < minimumGeneration) {
+        return false;
+      }
+      Long evictionGeneration = evictionGenerations.get(id);
+      return evictionGeneration == null || loadGeneration >= evictionGeneration;
+    }
+
+    /**
+     * Checked again while holding the lock, since an eviction may have happened
+     * while the entity was serialized.
+     */
+    protected synchronized void put(String id, CacheEntry entry, long loadGeneration) {
+      if (!isLoadedAfterEviction(id, loadGeneration)) {
+        return;
+      }
+      CacheEntry cachedEntry = cache.get(id);
+      if (cachedEntry == null || cachedEntry.revision <= entry.revision) {
+        cache.put(id, entry);
+      }
+    }
+
+    protected synchronized void evict(String id) {
+      if (evictionGenerations.size() >= capacity) {
+        evictionGenerations.clear();
+        minimumGeneration = generation.get() + 1;
+      }
+      evictionGenerations.put(id, generation.incrementAndGet());
+      cache.remove(id);
+    }
+
+    protected synchronized void evictAll() {
+      evictionGenerations.clear();
+      minimumGeneration = generation.incrementAndGet();
+      cache.clear();
+    }
+  }
+
+  protected static class CacheEntry {
+
+    protected final byte[] serializedEntity;
+    protected final int revision;
+    protected final long expirationTime;
+
+    public CacheEntry(byte[] serializedEntity, int revision, long expirationTime) {
+      this.serializedEntity = serializedEntity;
+      this.revision = revision;
+      this.expirationTime = expirationTime;
+    }
+  }
+
+}
@@ -0,0 +1,69 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager.cache;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+
+/**
+ * Configures the second level cache for one entity type, see {@link DbEntitySecondLevelCache}.
+ */
+public class SecondLevelCacheConfiguration {
+
+  protected Class<? extends DbEntity> entityType;
+
+  /**
+   * The maximal number of cached entities of the type, the least recently used
+   * entities are evicted first.
+   */
+  protected int capacity;
+
+  /**
+   * The number of milliseconds a cached entity is used before it is loaded from
+   * the database again. A value of 0 or less means that entities do not expire.
+   */
+  protected long timeToLive;
+
+  public SecondLevelCacheConfiguration() {
+  }
+
+  public SecondLevelCacheConfiguration(Class<? extends DbEntity> entityType, int capacity, long timeToLive) {
+    this.entityType = entityType;
+    this.capacity = capacity;
+    this.timeToLive = timeToLive;
+  }
+
+  public Class<? extends DbEntity> getEntityType() {
+    return entityType;
+  }
+
+  public void setEntityType(Class<? extends DbEntity> entityType) {
+    this.entityType = entityType;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public void setCapacity(int capacity) {
+    this.capacity = capacity;
+  }
+
+  public long getTimeToLive() {
+    return timeToLive;
+  }
+
+  public void setTimeToLive(long timeToLive) {
+    this.timeToLive = timeToLive;
+  }
+
+}
@@ -32,6 +32,11 @@ public class DbEntityOperation extends DbOperation {
 
   protected Set<String> flushRelevantEntityReferences;
 
+  /**
+   * The properties changed by an UPDATE or null if all properties are written.
+   */
+  protected Set<String> changedProperties;
+
   /**
    * Indicates whether the operation failed to execute due to OptimisticLocking
    */
@@ -39,6 +44,7 @@ public class DbEntityOperation extends DbOperation {
 
   public void recycle() {
     entity = null;
+    changedProperties = null;
     super.recycle();
   }
 
@@ -67,6 +73,14 @@ public class DbEntityOperation extends DbOperation {
     return flushRelevantEntityReferences;
   }
 
+  public Set<String> getChangedProperties() {
+    return changedProperties;
+  }
+
+  public void setChangedProperties(Set<String> changedProperties) {
+    this.changedProperties = changedProperties;
+  }
+
   public String toString() {
     return operationType + " " + ClassNameUtil.getClassNameWithoutPackage(entity)+"["+entity.getId()+"]";
   }
@@ -29,21 +29,37 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 
+import org.apache.ibatis.executor.BatchExecutorException;
+import org.apache.ibatis.executor.BatchResult;
 import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+import org.apache.ibatis.transaction.Transaction;
+import org.apache.ibatis.transaction.managed.ManagedTransaction;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.AbstractPersistenceSession;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.HasDbPartialUpdate;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
 import org.camunda.bpm.engine.impl.util.IoUtil;
 import org.camunda.bpm.engine.impl.util.ReflectUtil;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 
 
 /**
@@ -65,18 +81,43 @@ public class DbSqlSession extends AbstractPersistenceSession {
   protected String connectionMetadataDefaultCatalog = null;
   protected String connectionMetadataDefaultSchema = null;
 
+  protected boolean isJdbcBatchProcessing;
+
+  /** operations which have been added to the current JDBC batch, in statement order */
+  protected List<DbOperation> batchedOperations = new ArrayList<DbOperation>();
+
+  /** results of batched operations which were executed before a non-operation statement */
+  protected List<BatchResult> executedBatchResults = new ArrayList<BatchResult>();
+
+  /** executes statements which must not be batched if JDBC batch processing is enabled */
+  protected SqlSession nonBatchSqlSession;
+
   public DbSqlSession(DbSqlSessionFactory dbSqlSessionFactory) {
     this.dbSqlSessionFactory = dbSqlSessionFactory;
-    this.sqlSession = dbSqlSessionFactory
-      .getSqlSessionFactory()
-      .openSession();
+    this.isJdbcBatchProcessing = dbSqlSessionFactory.isJdbcBatchProcessing();
+    if (isJdbcBatchProcessing) {
+      this.sqlSession = dbSqlSessionFactory
+        .getSqlSessionFactory()
+        .openSession(ExecutorType.BATCH);
+    } else {
+      this.sqlSession = dbSqlSessionFactory
+        .getSqlSessionFactory()
+        .openSession();
+    }
   }
 
   public DbSqlSession(DbSqlSessionFactory dbSqlSessionFactory, Connection connection, String catalog, String schema) {
     this.dbSqlSessionFactory = dbSqlSessionFactory;
-    this.sqlSession = dbSqlSessionFactory
-      .getSqlSessionFactory()
-      .openSession(connection);
+    this.isJdbcBatchProcessing = dbSqlSessionFactory.isJdbcBatchProcessing();
+    if (isJdbcBatchProcessing) {
+      this.sqlSession = dbSqlSessionFactory
+        .getSqlSessionFactory()
+        .openSession(ExecutorType.BATCH, connection);
+    } else {
+      this.sqlSession = dbSqlSessionFactory
+        .getSqlSessionFactory()
+        .openSession(connection);
+    }
     this.connectionMetadataDefaultCatalog = catalog;
     this.connectionMetadataDefaultSchema = schema;
   }
@@ -92,6 +133,17 @@ public class DbSqlSession extends AbstractPersistenceSession {
     return resultList;
   }
 
+  public void selectStreaming(String statement, Object parameter, final QueryResultHandler<Object> resultHandler) {
+    statement = dbSqlSessionFactory.mapStatement(statement);
+    sqlSession.select(statement, parameter, new ResultHandler() {
+      public void handleResult(ResultContext context) {
+        resultHandler.handleResult(context.getResultObject());
+        // the results of statements executed by the handler must not pile up in the local cache of the session
+        sqlSession.clearCache();
+      }
+    });
+  }
+
   @SuppressWarnings("unchecked")
   public <T extends DbEntity> T selectById(Class<T> type, String id) {
     String selectStatement = dbSqlSessionFactory.getSelectStatement(type);
@@ -118,7 +170,8 @@ public class DbSqlSession extends AbstractPersistenceSession {
     // Id using the DbIdGenerator while performing a deployment.
     if (!DbSqlSessionFactory.H2.equals(dbSqlSessionFactory.getDatabaseType())) {
       String mappedStatement = dbSqlSessionFactory.mapStatement(statement);
-      sqlSession.update(mappedStatement, parameter);
+      // the lock must be acquired now and not when the batch is executed
+      executeNonOperationStatement(mappedStatement, parameter);
     }
   }
 
@@ -137,8 +190,16 @@ public class DbSqlSession extends AbstractPersistenceSession {
     // execute the insert
     executeInsertEntity(insertStatement, dbEntity);
 
+    if (isJdbcBatchProcessing) {
+      batchedOperations.add(operation);
+    } else {
+      postProcessInsert(operation);
+    }
+  }
+
+  protected void postProcessInsert(DbEntityOperation operation) {
     // perform post insert actions on entity
-    entityInserted(dbEntity);
+    entityInserted(operation.getEntity());
   }
 
   protected void executeInsertEntity(String insertStatement, Object parameter) {
@@ -172,6 +233,16 @@ public class DbSqlSession extends AbstractPersistenceSession {
     // execute the delete
     int nrOfRowsDeleted = executeDelete(deleteStatement, dbEntity);
 
+    if (isJdbcBatchProcessing) {
+      batchedOperations.add(operation);
+    } else {
+      postProcessDelete(operation, nrOfRowsDeleted);
+    }
+  }
+
+  protected void postProcessDelete(DbEntityOperation operation, int nrOfRowsDeleted) {
+    DbEntity dbEntity = operation.getEntity();
+
     // It only makes sense to check for optimistic locking exceptions for objects that actually have a revision
     if (dbEntity instanceof HasDbRevision && nrOfRowsDeleted == 0) {
       operation.setFailed(true);
@@ -200,6 +271,10 @@ public class DbSqlSession extends AbstractPersistenceSession {
     LOG.executeDatabaseBulkOperation("DELETE", statement, parameter);
 
     executeDelete(statement, parameter);
+
+    if (isJdbcBatchProcessing) {
+      batchedOperations.add(operation);
+    }
   }
 
   // update ////////////////////////////////////////
@@ -214,8 +289,35 @@ public class DbSqlSession extends AbstractPersistenceSession {
 
     LOG.executeDatabaseOperation("UPDATE", dbEntity);
 
+    boolean isPartialUpdate = dbEntity instanceof HasDbPartialUpdate
+        && dbSqlSessionFactory.isDbEntityPartialUpdate();
+    if (isPartialUpdate) {
+      Set<String> changedProperties = operation.getChangedProperties();
+      if (changedProperties != null && dbSqlSessionFactory.registerPartialUpdate(updateStatement, changedProperties)) {
+        ((HasDbPartialUpdate) dbEntity).setChangedProperties(changedProperties);
+      }
+    }
+
     // execute update
-    int numOfRowsUpdated = executeUpdate(updateStatement, dbEntity);
+    int numOfRowsUpdated;
+    try {
+      numOfRowsUpdated = executeOperationUpdate(updateStatement, dbEntity);
+    } finally {
+      if (isPartialUpdate) {
+        // the statement is bound at this point, also when it is added to a batch
+        ((HasDbPartialUpdate) dbEntity).setChangedProperties(null);
+      }
+    }
+
+    if (isJdbcBatchProcessing) {
+      batchedOperations.add(operation);
+    } else {
+      postProcessUpdate(operation, numOfRowsUpdated);
+    }
+  }
+
+  protected void postProcessUpdate(DbEntityOperation operation, int numOfRowsUpdated) {
+    DbEntity dbEntity = operation.getEntity();
 
     if (dbEntity instanceof HasDbRevision) {
       if(numOfRowsUpdated != 1) {
@@ -233,10 +335,23 @@ public class DbSqlSession extends AbstractPersistenceSession {
     entityUpdated(dbEntity);
   }
 
+  /**
+   * Executes the statement of an operation, i.e. adds it to the JDBC batch if
+   * batch processing is enabled.
+   */
+  protected int executeOperationUpdate(String updateStatement, Object parameter) {
+    updateStatement = dbSqlSessionFactory.mapStatement(updateStatement);
+    return sqlSession.update(updateStatement, parameter);
+  }
+
+  /**
+   * Executes the statement right away and returns the number of affected rows, also
+   * if JDBC batch processing is enabled.
+   */
   @Override
   public int executeUpdate(String updateStatement, Object parameter) {
     updateStatement = dbSqlSessionFactory.mapStatement(updateStatement);
-    return sqlSession.update(updateStatement, parameter);
+    return executeNonOperationStatement(updateStatement, parameter);
   }
 
   @Override
@@ -248,7 +363,7 @@ public class DbSqlSession extends AbstractPersistenceSession {
     if (mappedStatement.getBoundSql(parameter).getSql().isEmpty())
       return 0;
 
-    return sqlSession.update(updateStmt, parameter);
+    return executeNonOperationStatement(updateStmt, parameter);
   }
 
   protected void entityUpdated(final DbEntity entity) {
@@ -262,7 +377,11 @@ public class DbSqlSession extends AbstractPersistenceSession {
 
     LOG.executeDatabaseBulkOperation("UPDATE", statement, parameter);
 
-    executeUpdate(statement, parameter);
+    executeOperationUpdate(statement, parameter);
+
+    if (isJdbcBatchProcessing) {
+      batchedOperations.add(operation);
+    }
   }
 
   // flush ////////////////////////////////////////////////////////////////////
@@ -271,7 +390,155 @@ public class DbSqlSession extends AbstractPersistenceSession {
     // nothing to do
   }
 
+  public List<DbOperation> flushOperations() {
+    if (batchedOperations.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<DbOperation> operations = batchedOperations;
+    batchedOperations = new ArrayList<DbOperation>();
+
+    List<BatchResult> batchResults = executedBatchResults;
+    executedBatchResults = new ArrayList<BatchResult>();
+    try {
+      batchResults.addAll(sqlSession.flushStatements());
+    } catch (Exception e) {
+      throw LOG.flushDbOperationException(operations, findFailedBatchOperation(operations, batchResults, e), e);
+    }
+
+    applyBatchResults(operations, batchResults);
+
+    return operations;
+  }
+
+  /**
+   * Maps the update counts of the executed batches back to the operations. MyBatis
+   * groups consecutive executions of the same statement into one {@link BatchResult}
+   * with one update count per execution, so the update counts are in the same order
+   * as the operations were added to the batch.
+   */
+  protected void applyBatchResults(List<DbOperation> operations, List<BatchResult> batchResults) {
+    Iterator<DbOperation> operationIt = operations.iterator();
+
+    for (BatchResult batchResult : batchResults) {
+      for (int updateCount : batchResult.getUpdateCounts()) {
+        if (!operationIt.hasNext()) {
+          throw LOG.wrongBatchResultsSizeException(operations);
+        }
+        DbOperation operation = operationIt.next();
+        postProcessBatchedOperation(operation, updateCount);
+      }
+    }
+
+    if (operationIt.hasNext()) {
+      throw LOG.wrongBatchResultsSizeException(operations);
+    }
+  }
+
+  protected void postProcessBatchedOperation(DbOperation operation, int updateCount) {
+    DbOperationType operationType = operation.getOperationType();
+
+    if (updateCount == Statement.SUCCESS_NO_INFO && isOptimisticLockingChecked(operation)) {
+      // the driver does not report the affected rows (e.g. older Oracle drivers), so a
+      // concurrent modification could not be detected
+      throw LOG.batchUpdateCountNotReportedException(operation);
+    }
+
+    if (operationType == DbOperationType.INSERT) {
+      postProcessInsert((DbEntityOperation) operation);
+
+    } else if (operationType == DbOperationType.UPDATE) {
+      postProcessUpdate((DbEntityOperation) operation, updateCount);
+
+    } else if (operationType == DbOperationType.DELETE) {
+      postProcessDelete((DbEntityOperation) operation, updateCount);
+
+    }
+  }
+
+  /**
+   * Whether the update count of the operation is needed to detect a concurrent modification.
+   * Inserts and bulk operations do not depend on it.
+   */
+  protected boolean isOptimisticLockingChecked(DbOperation operation) {
+    DbOperationType operationType = operation.getOperationType();
+    return (operationType == DbOperationType.UPDATE || operationType == DbOperationType.DELETE)
+        && ((DbEntityOperation) operation).getEntity() instanceof HasDbRevision;
+  }
+
+  /**
+   * Returns the first operation of the batch which failed to execute or the
+   * first operation if the failed batch cannot be determined.
+   */
+  protected DbOperation findFailedBatchOperation(List<DbOperation> operations, List<BatchResult> executedBatchResults, Exception exception) {
+    Throwable cause = exception;
+    while (cause != null && !(cause instanceof BatchExecutorException)) {
+      cause = cause.getCause();
+    }
+
+    int failedOperationIndex = 0;
+    for (BatchResult executedBatchResult : executedBatchResults) {
+      failedOperationIndex += executedBatchResult.getParameterObjects().size();
+    }
+    if (cause != null) {
+      for (BatchResult successfulBatchResult : ((BatchExecutorException) cause).getSuccessfulBatchResults()) {
+        failedOperationIndex += successfulBatchResult.getParameterObjects().size();
+      }
+    }
+
+    return operations.get(Math.min(failedOperationIndex, operations.size() - 1));
+  }
+
+  /**
+   * Statements which are not part of a flush (e.g. locks) must take effect
+   * immediately, so they are not added to the JDBC batch. Statements of operations
+   * which are already in the batch are executed before, to keep the order. Their
+   * results are kept until the operations are post-processed by {@link #flushOperations()},
+   * so that the results stay aligned with the operations.
+   */
+  protected int executeNonOperationStatement(String mappedStatement, Object parameter) {
+    if (!isJdbcBatchProcessing) {
+      return sqlSession.update(mappedStatement, parameter);
+    }
+
+    if (!batchedOperations.isEmpty()) {
+      try {
+        executedBatchResults.addAll(sqlSession.flushStatements());
+      } catch (Exception e) {
+        List<DbOperation> operations = batchedOperations;
+        List<BatchResult> batchResults = executedBatchResults;
+        batchedOperations = new ArrayList<DbOperation>();
+        executedBatchResults = new ArrayList<BatchResult>();
+        throw LOG.flushDbOperationException(operations, findFailedBatchOperation(operations, batchResults, e), e);
+      }
+    }
+
+    // a statement executed as a batch may not report the affected rows
+    int numOfRowsUpdated = getNonBatchSqlSession().update(mappedStatement, parameter);
+    // the batch session does not notice the update, so it must not return cached results
+    sqlSession.clearCache();
+    return numOfRowsUpdated;
+  }
+
+  /**
+   * Returns a session without JDBC batching on the connection of this session. Its
+   * transaction neither commits nor closes the connection, this is left to the
+   * session which owns the connection.
+   */
+  protected SqlSession getNonBatchSqlSession() {
+    if (nonBatchSqlSession == null) {
+      Configuration configuration = dbSqlSessionFactory.getSqlSessionFactory().getConfiguration();
+      Transaction transaction = new ManagedTransaction(sqlSession.getConnection(), false);
+      nonBatchSqlSession = new DefaultSqlSession(configuration, configuration.newExecutor(transaction, ExecutorType.SIMPLE));
+    }
+    return nonBatchSqlSession;
+  }
+
   public void close() {
+    if (nonBatchSqlSession != null) {
+      nonBatchSqlSession.close();
+      nonBatchSqlSession = null;
+    }
     sqlSession.close();
   }
 
@@ -280,6 +547,8 @@ public class DbSqlSession extends AbstractPersistenceSession {
   }
 
   public void rollback() {
+    batchedOperations.clear();
+    executedBatchResults.clear();
     sqlSession.rollback();
   }
 
@@ -14,9 +14,13 @@
 package org.camunda.bpm.engine.impl.db.sql;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.camunda.bpm.engine.impl.cfg.IdGenerator;
@@ -70,6 +74,11 @@ public class DbSqlSessionFactory implements SessionFactory {
 
   public static final Map<String, Map<String, String>> dbSpecificConstants = new HashMap<String, Map<String, String>>();
 
+  /**
+   * Databases which can skip rows locked by other transactions when selecting rows for update
+   */
+  protected static final Set<String> databasesSupportingSkipLocked = new HashSet<String>(Arrays.asList(POSTGRES, ORACLE, MYSQL, MARIADB, MSSQL));
+
   static {
 
     String defaultOrderBy = "order by ${orderBy}";
@@ -131,6 +140,7 @@ public class DbSqlSessionFactory implements SessionFactory {
       databaseSpecificIfNull.put(mysqlLikeDatabase, "IFNULL");
       
       addDatabaseSpecificStatement(mysqlLikeDatabase, "toggleForeignKey", "toggleForeignKey_mysql");
+      addDatabaseSpecificStatement(mysqlLikeDatabase, "insertAuthorizationPermissionsForPermission", "insertAuthorizationPermissionsForPermission_mysql");
       addDatabaseSpecificStatement(mysqlLikeDatabase, "selectProcessDefinitionsByQueryCriteria", "selectProcessDefinitionsByQueryCriteria_mysql");
       addDatabaseSpecificStatement(mysqlLikeDatabase, "selectProcessDefinitionCountByQueryCriteria", "selectProcessDefinitionCountByQueryCriteria_mysql");
       addDatabaseSpecificStatement(mysqlLikeDatabase, "selectDeploymentsByQueryCriteria", "selectDeploymentsByQueryCriteria_mysql");
@@ -170,6 +180,8 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement(POSTGRES, "insertByteArray", "insertByteArray_postgres");
     addDatabaseSpecificStatement(POSTGRES, "updateByteArray", "updateByteArray_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectByteArray", "selectByteArray_postgres");
+    addDatabaseSpecificStatement(POSTGRES, "insertHistoryEventBuffer", "insertHistoryEventBuffer_postgres");
+    addDatabaseSpecificStatement(POSTGRES, "selectHistoryEventBuffersToDrain", "selectHistoryEventBuffersToDrain_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectResourceByDeploymentIdAndResourceName", "selectResourceByDeploymentIdAndResourceName_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectResourceByDeploymentIdAndResourceNames", "selectResourceByDeploymentIdAndResourceNames_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectResourceByDeploymentIdAndResourceId", "selectResourceByDeploymentIdAndResourceId_postgres");
@@ -226,6 +238,8 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement(ORACLE, "selectHistoricTaskInstanceDurationReport", "selectHistoricTaskInstanceDurationReport_oracle");
     addDatabaseSpecificStatement(ORACLE, "selectHistoricTaskInstanceCountByTaskNameReport", "selectHistoricTaskInstanceCountByTaskNameReport_oracle");
     addDatabaseSpecificStatement(ORACLE, "selectFilterByQueryCriteria", "selectFilterByQueryCriteria_oracleDb2");
+    addDatabaseSpecificStatement(ORACLE, "selectNextJobsToExecuteSkipLocked", "selectNextJobsToExecuteSkipLocked_oracle");
+    addDatabaseSpecificStatement(ORACLE, "insertHistoryEventBuffer", "insertHistoryEventBuffer_oracle");
 
     constants = new HashMap<String, String>();
     constants.put("constant.event", "cast('event' as nvarchar2(255))");
@@ -259,6 +273,7 @@ public class DbSqlSessionFactory implements SessionFactory {
     databaseSpecificIfNull.put(DB2, "NVL");
 
     addDatabaseSpecificStatement(DB2, "selectMeterLogAggregatedByTimeInterval", "selectMeterLogAggregatedByTimeInterval_db2_or_mssql");
+    addDatabaseSpecificStatement(DB2, "insertAuthorizationPermissionsForPermission", "insertAuthorizationPermissionsForPermission_db2");
     addDatabaseSpecificStatement(DB2, "selectExecutionByNativeQuery", "selectExecutionByNativeQuery_mssql_or_db2");
     addDatabaseSpecificStatement(DB2, "selectHistoricActivityInstanceByNativeQuery", "selectHistoricActivityInstanceByNativeQuery_mssql_or_db2");
     addDatabaseSpecificStatement(DB2, "selectHistoricCaseActivityInstanceByNativeQuery", "selectHistoricCaseActivityInstanceByNativeQuery_mssql_or_db2");
@@ -301,6 +316,7 @@ public class DbSqlSessionFactory implements SessionFactory {
     databaseSpecificFalseConstant.put(MSSQL, "0");
     databaseSpecificIfNull.put(MSSQL, "ISNULL");
     addDatabaseSpecificStatement(MSSQL, "selectMeterLogAggregatedByTimeInterval", "selectMeterLogAggregatedByTimeInterval_db2_or_mssql");
+    addDatabaseSpecificStatement(MSSQL, "insertAuthorizationPermissionsForPermission", "insertAuthorizationPermissionsForPermission_mssql");
     addDatabaseSpecificStatement(MSSQL, "selectExecutionByNativeQuery", "selectExecutionByNativeQuery_mssql_or_db2");
     addDatabaseSpecificStatement(MSSQL, "selectHistoricActivityInstanceByNativeQuery", "selectHistoricActivityInstanceByNativeQuery_mssql_or_db2");
     addDatabaseSpecificStatement(MSSQL, "selectHistoricCaseActivityInstanceByNativeQuery", "selectHistoricCaseActivityInstanceByNativeQuery_mssql_or_db2");
@@ -310,6 +326,7 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement(MSSQL, "selectTaskByNativeQuery", "selectTaskByNativeQuery_mssql_or_db2");
     addDatabaseSpecificStatement(MSSQL, "selectUserByNativeQuery", "selectUserByNativeQuery_mssql_or_db2");
     addDatabaseSpecificStatement(MSSQL, "lockDeploymentLockProperty", "lockDeploymentLockProperty_mssql");
+    addDatabaseSpecificStatement(MSSQL, "selectNextJobsToExecuteSkipLocked", "selectNextJobsToExecuteSkipLocked_mssql");
     addDatabaseSpecificStatement(MSSQL, "selectEventSubscriptionsByNameAndExecution", "selectEventSubscriptionsByNameAndExecution_mssql");
     addDatabaseSpecificStatement(MSSQL, "selectEventSubscriptionsByExecutionAndType", "selectEventSubscriptionsByExecutionAndType_mssql");
     addDatabaseSpecificStatement(MSSQL, "selectHistoricDecisionInstancesByNativeQuery", "selectHistoricDecisionInstancesByNativeQuery_mssql_or_db2");
@@ -317,6 +334,8 @@ public class DbSqlSessionFactory implements SessionFactory {
     constants = new HashMap<String, String>();
     constants.put("constant.event", "'event'");
     constants.put("constant.op_message", "NEW_VALUE_ + '_|_' + PROPERTY_");
+    // the order by clause is part of limitBetween on mssql
+    constants.put("constant.orderBy", "${orderBy}");
     constants.put("constant.datepart.quarter", "QUARTER");
     constants.put("constant.datepart.month", "MONTH");
     constants.put("constant.null.startTime", "null START_TIME_");
@@ -343,6 +362,16 @@ public class DbSqlSessionFactory implements SessionFactory {
   protected boolean isDbHistoryUsed = true;
   protected boolean cmmnEnabled = true;
   protected boolean dmnEnabled = true;
+  protected boolean jdbcBatchProcessing = false;
+  protected boolean dbEntityPartialUpdate = false;
+
+  /**
+   * The maximal number of distinct sets of changed properties which are written by partial
+   * updates per update statement. Each set results in a different SQL string which has to be
+   * prepared by the database, so that updates with other sets write all columns instead.
+   */
+  protected int maxPartialUpdatesPerStatement = 64;
+  protected ConcurrentMap<String, Set<Set<String>>> partialUpdates = new ConcurrentHashMap<String, Set<Set<String>>>();
 
   public Class< ? > getSessionType() {
     return DbSqlSession.class;
@@ -430,6 +459,14 @@ public class DbSqlSessionFactory implements SessionFactory {
     return databaseType;
   }
 
+  /**
+   * @return true if the database can skip rows which are locked by other transactions
+   *   when selecting rows for update
+   */
+  public boolean isSkipLockedSupported() {
+    return databasesSupportingSkipLocked.contains(databaseType);
+  }
+
 
   public Map<String, String> getStatementMappings() {
     return statementMappings;
@@ -512,6 +549,63 @@ public class DbSqlSessionFactory implements SessionFactory {
     this.dmnEnabled = dmnEnabled;
   }
 
+  /**
+   * Registers the given set of changed properties for a partial update with the given
+   * statement unless the maximal number of sets for the statement is reached.
+   *
+   * @return true if the partial update can be performed, false if all columns must be written
+   */
+  public boolean registerPartialUpdate(String updateStatement, Set<String> changedProperties) {
+    Set<Set<String>> statementPartialUpdates = partialUpdates.get(updateStatement);
+    if (statementPartialUpdates == null) {
+      Set<Set<String>> newStatementPartialUpdates = Collections.newSetFromMap(new ConcurrentHashMap<Set<String>, Boolean>());
+      statementPartialUpdates = partialUpdates.putIfAbsent(updateStatement, newStatementPartialUpdates);
+      if (statementPartialUpdates == null) {
+        statementPartialUpdates = newStatementPartialUpdates;
+      }
+    }
+
+    if (statementPartialUpdates.contains(changedProperties)) {
+      return true;
+    }
+
+    // the size check and the insert must be atomic so that the limit is not exceeded
+    synchronized (statementPartialUpdates) {
+      if (statementPartialUpdates.contains(changedProperties)) {
+        return true;
+      } else if (statementPartialUpdates.size() < maxPartialUpdatesPerStatement) {
+        statementPartialUpdates.add(changedProperties);
+        return true;
+      } else {
+        return false;
+      }
+    }
+  }
+
+  public boolean isJdbcBatchProcessing() {
+    return jdbcBatchProcessing;
+  }
+
+  public void setJdbcBatchProcessing(boolean jdbcBatchProcessing) {
+    this.jdbcBatchProcessing = jdbcBatchProcessing;
+  }
+
+  public boolean isDbEntityPartialUpdate() {
+    return dbEntityPartialUpdate;
+  }
+
+  public void setDbEntityPartialUpdate(boolean dbEntityPartialUpdate) {
+    this.dbEntityPartialUpdate = dbEntityPartialUpdate;
+  }
+
+  public int getMaxPartialUpdatesPerStatement() {
+    return maxPartialUpdatesPerStatement;
+  }
+
+  public void setMaxPartialUpdatesPerStatement(int maxPartialUpdatesPerStatement) {
+    this.maxPartialUpdatesPerStatement = maxPartialUpdatesPerStatement;
+  }
+
   public void setDatabaseTablePrefix(String databaseTablePrefix) {
     this.databaseTablePrefix = databaseTablePrefix;
   }
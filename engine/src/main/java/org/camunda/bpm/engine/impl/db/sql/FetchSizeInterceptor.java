@@ -0,0 +1,62 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.sql;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Properties;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
+
+/**
+ * MyBatis plugin which sets the JDBC fetch size of a statement to the
+ * {@link ListQueryParameterObject#getFetchSize() fetch size} of its parameter object.
+ * Statements with other parameters keep the fetch size of their mapping.
+ *
+ * The plugin is stateless, so it can be part of a shared SqlSessionFactory.
+ */
+@Intercepts({
+  @Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class })
+})
+public class FetchSizeInterceptor implements Interceptor {
+
+  public Object intercept(Invocation invocation) throws Throwable {
+    Statement statement = (Statement) invocation.proceed();
+
+    StatementHandler statementHandler = (StatementHandler) invocation.getTarget();
+    Object parameter = statementHandler.getParameterHandler().getParameterObject();
+    if (parameter instanceof ListQueryParameterObject) {
+      int fetchSize = ((ListQueryParameterObject) parameter).getFetchSize();
+      if (fetchSize > 0) {
+        statement.setFetchSize(fetchSize);
+      }
+    }
+
+    return statement;
+  }
+
+  public Object plugin(Object target) {
+    return Plugin.wrap(target, this);
+  }
+
+  public void setProperties(Properties properties) {
+    // no properties
+  }
+
+}
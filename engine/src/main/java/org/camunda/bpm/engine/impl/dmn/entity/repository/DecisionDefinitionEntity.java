@@ -40,6 +40,7 @@ public class DecisionDefinitionEntity extends DmnDecisionImpl implements Decisio
   protected String tenantId;
   protected String decisionRequirementsDefinitionId;
   protected String decisionRequirementsDefinitionKey;
+  protected Integer historyTimeToLive;
 
   // firstVersion is true, when version == 1 or when
   // this definition does not have any previous definitions
@@ -139,6 +140,14 @@ public class DecisionDefinitionEntity extends DmnDecisionImpl implements Decisio
     this.tenantId = tenantId;
   }
 
+  public Integer getHistoryTimeToLive() {
+    return historyTimeToLive;
+  }
+
+  public void setHistoryTimeToLive(Integer historyTimeToLive) {
+    this.historyTimeToLive = historyTimeToLive;
+  }
+
   public String getDecisionRequirementsDefinitionId() {
     return decisionRequirementsDefinitionId;
   }
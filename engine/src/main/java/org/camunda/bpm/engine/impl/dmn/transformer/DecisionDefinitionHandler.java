@@ -32,6 +32,7 @@ public class DecisionDefinitionHandler extends DmnDecisionTransformHandler {
 
     String category = context.getModelInstance().getDefinitions().getNamespace();
     decisionDefinition.setCategory(category);
+    decisionDefinition.setHistoryTimeToLive(decision.getCamundaHistoryTimeToLive());
 
     return decisionDefinition;
   }
@@ -0,0 +1,40 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.externaltask;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * Notifies the {@link ExternalTaskCreationObserver}s of the process engine
+ * about an external task created in the committed transaction.
+ */
+public class ExternalTaskCreatedNotification implements TransactionListener {
+
+  protected final String topicName;
+  protected final List<ExternalTaskCreationObserver> observers;
+
+  public ExternalTaskCreatedNotification(String topicName, List<ExternalTaskCreationObserver> observers) {
+    this.topicName = topicName;
+    this.observers = observers;
+  }
+
+  public void execute(CommandContext commandContext) {
+    for (ExternalTaskCreationObserver observer : observers) {
+      observer.externalTaskCreated(topicName);
+    }
+  }
+
+}
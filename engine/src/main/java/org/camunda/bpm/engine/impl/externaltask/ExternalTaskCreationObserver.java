@@ -0,0 +1,34 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.externaltask;
+
+/**
+ * Is notified after a transaction that created external tasks committed.
+ * Allows components like long-polling fetch and lock requests to react on new
+ * external tasks without querying the database.
+ */
+public interface ExternalTaskCreationObserver {
+
+  /**
+   * Called after the transaction that created an external task for the given topic committed.
+   * Implementations must not block.
+   */
+  void externalTaskCreated(String topicName);
+
+  /**
+   * Called when the process engine is closed, so that the observer can release
+   * the resources it holds for the process engine.
+   */
+  void processEngineClosed();
+
+}
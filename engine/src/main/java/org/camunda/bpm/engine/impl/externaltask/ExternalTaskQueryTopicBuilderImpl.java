@@ -14,7 +14,7 @@ package org.camunda.bpm.engine.impl.externaltask;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -48,7 +48,7 @@ public class ExternalTaskQueryTopicBuilderImpl implements ExternalTaskQueryTopic
     this.workerId = workerId;
     this.maxTasks = maxTasks;
     this.usePriority = usePriority;
-    this.instructions = new HashMap<String, TopicFetchInstruction>();
+    this.instructions = new LinkedHashMap<String, TopicFetchInstruction>();
   }
 
   public List<LockedExternalTask> execute() {
@@ -87,4 +87,9 @@ public class ExternalTaskQueryTopicBuilderImpl implements ExternalTaskQueryTopic
     return this;
   }
 
+  public ExternalTaskQueryTopicBuilder maxTasks(int maxTasks) {
+    currentInstruction.setMaxTasks(maxTasks);
+    return this;
+  }
+
 }
@@ -27,6 +27,7 @@ public class TopicFetchInstruction implements Serializable {
   protected List<String> variablesToFetch;
   protected long lockDuration;
   protected boolean deserializeVariables = false;
+  protected Integer maxTasks;
 
   public TopicFetchInstruction(String topicName, long lockDuration) {
     this.topicName = topicName;
@@ -57,4 +58,16 @@ public class TopicFetchInstruction implements Serializable {
     this.deserializeVariables = deserializeVariables;
   }
 
+  /**
+   * @return the maximum number of tasks to fetch for this topic or null if
+   * the number is only limited by the overall limit of the fetch
+   */
+  public Integer getMaxTasks() {
+    return maxTasks;
+  }
+
+  public void setMaxTasks(Integer maxTasks) {
+    this.maxTasks = maxTasks;
+  }
+
 }
@@ -0,0 +1,315 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Timer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cmd.ExecuteFilterCountCmd;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.identity.Authentication;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.commons.utils.cache.Cache;
+
+/**
+ * <p>Engine-wide cache of filter counts, keyed by the filter and the user, groups and
+ * tenants of the authentication. The callers decide how old a cached count may be.</p>
+ *
+ * <p>Concurrent requests for the same key wait for a single count query instead of
+ * executing their own. Counts which were requested since their last computation are
+ * recomputed in the background, so that polling clients are usually served from the
+ * cache; counts which were not requested in the meantime are evicted instead.</p>
+ *
+ * <p>Cached counts of a filter are evicted when this engine changes the filter. A count
+ * which was computed while the counts of its filter were evicted is not cached. Changes of
+ * the counted entities and of authorizations are not tracked, they become visible once
+ * the count is recomputed.</p>
+ */
+public class FilterCountCache {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected CommandExecutor commandExecutor;
+  protected IdentityService identityService;
+  protected Cache<String, CountEntry> cache;
+  protected MetricsRegistry metricsRegistry;
+
+  protected ConcurrentMap<String, FutureTask<Long>> pendingCounts = new ConcurrentHashMap<String, FutureTask<Long>>();
+
+  /** incremented by every invalidation */
+  protected AtomicLong generation = new AtomicLong();
+
+  /** the generation of the last invalidation per filter id */
+  protected ConcurrentMap<String, Long> invalidationGenerations = new ConcurrentHashMap<String, Long>();
+
+  protected long refreshIntervalInMillis = 5000;
+  private Timer timer;
+
+  public FilterCountCache(CommandExecutor commandExecutor, IdentityService identityService, Cache<String, CountEntry> cache, MetricsRegistry metricsRegistry) {
+    this.commandExecutor = commandExecutor;
+    this.identityService = identityService;
+    this.cache = cache;
+    this.metricsRegistry = metricsRegistry;
+  }
+
+  public void start() {
+    if (refreshIntervalInMillis > 0) {
+      timer = new Timer("Camunda Filter Count Refresher", true);
+      timer.schedule(new FilterCountRefreshTask(this), refreshIntervalInMillis, refreshIntervalInMillis);
+    }
+  }
+
+  public void stop() {
+    if (timer != null) {
+      timer.cancel();
+      timer = null;
+    }
+  }
+
+  /**
+   * Returns the count of the filter for the current authentication.
+   *
+   * @param maxStaleness the maximum age in milliseconds of a cached count which may be returned
+   */
+  public Long getCount(String filterId, long maxStaleness) {
+    Authentication authentication = identityService.getCurrentAuthentication();
+    String key = createKey(filterId, authentication);
+    long now = ClockUtil.getCurrentTime().getTime();
+
+    CountEntry entry = cache.get(key);
+    if (entry != null && isInvalidatedSince(entry.filterId, entry.generation)) {
+      cache.remove(key);
+      entry = null;
+    }
+
+    if (entry != null && maxStaleness > 0 && now - entry.countTime <= maxStaleness) {
+      entry.lastAccessTime = now;
+      markOccurrence(Metrics.FILTER_COUNT_CACHE_HIT);
+      return entry.count;
+    }
+    else {
+      markOccurrence(Metrics.FILTER_COUNT_CACHE_MISS);
+      return computeCount(key, filterId, authentication);
+    }
+  }
+
+  /**
+   * Evicts all cached counts of the filter.
+   */
+  public synchronized void invalidate(String filterId) {
+    invalidationGenerations.put(filterId, generation.incrementAndGet());
+
+    for (String key : new ArrayList<String>(cache.keySet())) {
+      CountEntry entry = cache.get(key);
+      if (entry != null && entry.filterId.equals(filterId)) {
+        cache.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Recomputes the counts which were requested since they were computed and evicts the others.
+   */
+  public void refresh() {
+    for (String key : new ArrayList<String>(cache.keySet())) {
+      CountEntry entry = cache.get(key);
+      if (entry == null) {
+        continue;
+      }
+
+      if (entry.lastAccessTime < entry.countTime) {
+        cache.remove(key);
+      }
+      else {
+        refresh(key, entry);
+      }
+    }
+  }
+
+  protected void refresh(String key, CountEntry entry) {
+    Authentication authentication = entry.authentication;
+    try {
+      if (authentication != null) {
+        identityService.setAuthentication(authentication);
+      }
+      computeCount(key, entry.filterId, authentication);
+    }
+    catch (RuntimeException e) {
+      // e.g. the filter was deleted or is no longer readable; the next
+      // request computes the count itself and gets the exception
+      LOG.couldNotRefreshFilterCount(entry.filterId, e);
+      cache.remove(key);
+    }
+    finally {
+      identityService.clearAuthentication();
+    }
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  /**
+   * Executes the count query unless the same count is already being executed
+   * by another thread, in which case the result of that execution is returned.
+   */
+  protected Long computeCount(String key, final String filterId, Authentication authentication) {
+    FutureTask<Long> countTask = new FutureTask<Long>(new Callable<Long>() {
+      public Long call() {
+        return commandExecutor.execute(new ExecuteFilterCountCmd(filterId));
+      }
+    });
+
+    FutureTask<Long> pendingCount = pendingCounts.putIfAbsent(key, countTask);
+    if (pendingCount == null) {
+      long countTime = ClockUtil.getCurrentTime().getTime();
+      // the generation must be read before the count is executed to detect concurrent invalidations
+      long generation = this.generation.get();
+      try {
+        countTask.run();
+        Long count = getCountResult(countTask);
+
+        if (!isInvalidatedSince(filterId, generation)) {
+          CountEntry previousEntry = cache.get(key);
+          long lastAccessTime = previousEntry != null ? previousEntry.lastAccessTime : countTime;
+          cache.put(key, new CountEntry(filterId, authentication, count, generation, countTime, lastAccessTime));
+        }
+
+        return count;
+      }
+      finally {
+        pendingCounts.remove(key, countTask);
+      }
+    }
+    else {
+      return getCountResult(pendingCount);
+    }
+  }
+
+  protected boolean isInvalidatedSince(String filterId, long generation) {
+    Long invalidationGeneration = invalidationGenerations.get(filterId);
+    return invalidationGeneration != null && invalidationGeneration > generation;
+  }
+
+  protected Long getCountResult(FutureTask<Long> countTask) {
+    try {
+      return countTask.get();
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessEngineException("Interrupted while waiting for the count of a filter", e);
+    }
+    catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      else {
+        throw new ProcessEngineException(cause);
+      }
+    }
+  }
+
+  protected String createKey(String filterId, Authentication authentication) {
+    StringBuilder key = new StringBuilder();
+    appendString(key, filterId);
+
+    if (authentication != null) {
+      appendString(key, authentication.getUserId());
+      appendSortedStrings(key, authentication.getGroupIds());
+      appendSortedStrings(key, authentication.getTenantIds());
+    }
+
+    return key.toString();
+  }
+
+  protected void appendSortedStrings(StringBuilder key, List<String> strings) {
+    if (strings == null) {
+      key.append("-1:");
+    }
+    else {
+      List<String> sortedStrings = new ArrayList<String>(strings);
+      Collections.sort(sortedStrings);
+
+      key.append(sortedStrings.size()).append(':');
+      for (String string : sortedStrings) {
+        appendString(key, string);
+      }
+    }
+  }
+
+  protected void appendString(StringBuilder key, String string) {
+    if (string == null) {
+      key.append("-1:");
+    }
+    else {
+      key.append(string.length()).append(':').append(string);
+    }
+  }
+
+  protected void markOccurrence(String name) {
+    if (metricsRegistry != null) {
+      metricsRegistry.markOccurrence(name);
+    }
+  }
+
+  public long getRefreshIntervalInMillis() {
+    return refreshIntervalInMillis;
+  }
+
+  public void setRefreshIntervalInMillis(long refreshIntervalInMillis) {
+    this.refreshIntervalInMillis = refreshIntervalInMillis;
+  }
+
+  public static class CountEntry {
+
+    protected final String filterId;
+    protected final Authentication authentication;
+    protected final Long count;
+    protected final long generation;
+    protected final long countTime;
+    protected volatile long lastAccessTime;
+
+    public CountEntry(String filterId, Authentication authentication, Long count, long generation, long countTime, long lastAccessTime) {
+      this.filterId = filterId;
+      this.authentication = authentication;
+      this.count = count;
+      this.generation = generation;
+      this.countTime = countTime;
+      this.lastAccessTime = lastAccessTime;
+    }
+
+  }
+
+}
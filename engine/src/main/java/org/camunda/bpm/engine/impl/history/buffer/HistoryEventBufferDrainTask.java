@@ -0,0 +1,74 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.buffer;
+
+import java.util.TimerTask;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cmd.DrainHistoryEventBufferCmd;
+import org.camunda.bpm.engine.impl.cmd.GetHistoryEventBufferLagCmd;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+
+/**
+ * Drains the history event buffer until it is empty. Each command writes up
+ * to <code>drainBatchSize</code> buffer rows, so the history inserts of many
+ * transactions are flushed together.
+ */
+public class HistoryEventBufferDrainTask extends TimerTask {
+
+  private final static EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected CommandExecutor commandExecutor;
+  protected HistoryEventHandler historyEventHandler;
+  protected int drainBatchSize;
+  protected long maxLagInMillis;
+
+  public HistoryEventBufferDrainTask(CommandExecutor commandExecutor, HistoryEventHandler historyEventHandler,
+      int drainBatchSize, long maxLagInMillis) {
+    this.commandExecutor = commandExecutor;
+    this.historyEventHandler = historyEventHandler;
+    this.drainBatchSize = drainBatchSize;
+    this.maxLagInMillis = maxLagInMillis;
+  }
+
+  public void run() {
+    try {
+      drain();
+    }
+    catch(Exception e) {
+      try {
+        LOG.couldNotDrainHistoryEventBuffer(e);
+      }
+      catch (Exception ex) {
+        // ignore if log can't be written
+      }
+    }
+  }
+
+  public synchronized void drain() {
+    if (maxLagInMillis > 0) {
+      long lag = commandExecutor.execute(new GetHistoryEventBufferLagCmd());
+      if (lag > maxLagInMillis) {
+        LOG.historyEventBufferLagExceeded(lag, maxLagInMillis);
+      }
+    }
+
+    int drainedBuffers;
+    do {
+      drainedBuffers = commandExecutor.execute(new DrainHistoryEventBufferCmd(historyEventHandler, drainBatchSize));
+    } while (drainedBuffers >= drainBatchSize);
+  }
+
+}
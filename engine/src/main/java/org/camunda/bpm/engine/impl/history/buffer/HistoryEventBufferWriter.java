@@ -0,0 +1,99 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.buffer;
+
+import java.util.Timer;
+
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+
+/**
+ * Periodically drains the history event buffer into the history tables.
+ */
+public class HistoryEventBufferWriter {
+
+  protected CommandExecutor commandExecutor;
+  protected HistoryEventHandler historyEventHandler;
+
+  protected long drainIntervalInMillis = 1000;
+  protected int drainBatchSize = 100;
+  protected long maxLagInMillis = 0;
+
+  protected HistoryEventBufferDrainTask drainTask;
+  private Timer timer;
+
+  public HistoryEventBufferWriter(CommandExecutor commandExecutor, HistoryEventHandler historyEventHandler) {
+    this.commandExecutor = commandExecutor;
+    this.historyEventHandler = historyEventHandler;
+  }
+
+  protected void initDrainTask() {
+    drainTask = new HistoryEventBufferDrainTask(commandExecutor, historyEventHandler, drainBatchSize, maxLagInMillis);
+  }
+
+  public void start() {
+    initDrainTask();
+    timer = new Timer("Camunda History Event Buffer Writer", true);
+    timer.schedule(drainTask, drainIntervalInMillis, drainIntervalInMillis);
+  }
+
+  public void stop() {
+    if(timer != null) {
+      // cancel the timer
+      timer.cancel();
+      timer = null;
+      // write the remaining events manually for the last time
+      drainTask.run();
+    }
+  }
+
+  public void drainNow() {
+    if (drainTask == null) {
+      initDrainTask();
+    }
+    drainTask.drain();
+  }
+
+  public CommandExecutor getCommandExecutor() {
+    return commandExecutor;
+  }
+
+  public HistoryEventHandler getHistoryEventHandler() {
+    return historyEventHandler;
+  }
+
+  public long getDrainIntervalInMillis() {
+    return drainIntervalInMillis;
+  }
+
+  public void setDrainIntervalInMillis(long drainIntervalInMillis) {
+    this.drainIntervalInMillis = drainIntervalInMillis;
+  }
+
+  public int getDrainBatchSize() {
+    return drainBatchSize;
+  }
+
+  public void setDrainBatchSize(int drainBatchSize) {
+    this.drainBatchSize = drainBatchSize;
+  }
+
+  public long getMaxLagInMillis() {
+    return maxLagInMillis;
+  }
+
+  public void setMaxLagInMillis(long maxLagInMillis) {
+    this.maxLagInMillis = maxLagInMillis;
+  }
+
+}
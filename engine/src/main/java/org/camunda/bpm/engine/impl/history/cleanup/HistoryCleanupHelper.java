@@ -0,0 +1,106 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.cleanup;
+
+import java.util.Calendar;
+import java.util.Date;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+
+/**
+ * Calculations on the daily batch window of the history cleanup. The window
+ * is configured by a start and an end time in the format <code>HH:mm</code>
+ * and may span midnight (e.g. 22:00 - 06:00).
+ */
+public final class HistoryCleanupHelper {
+
+  private HistoryCleanupHelper() {
+  }
+
+  public static boolean isBatchWindowConfigured(ProcessEngineConfigurationImpl configuration) {
+    return configuration.getHistoryCleanupBatchWindowStartTime() != null;
+  }
+
+  /**
+   * @return true if the given date lies within the batch window or if no batch window is configured
+   */
+  public static boolean isWithinBatchWindow(Date date, ProcessEngineConfigurationImpl configuration) {
+    if (!isBatchWindowConfigured(configuration)) {
+      return true;
+    }
+
+    int start = parseTimeOfDay(configuration.getHistoryCleanupBatchWindowStartTime());
+    int end = parseTimeOfDay(configuration.getHistoryCleanupBatchWindowEndTime());
+    int now = getMinuteOfDay(date);
+
+    if (start < end) {
+      return start <= now && now < end;
+    }
+    else if (start > end) {
+      // the window spans midnight
+      return now >= start || now < end;
+    }
+    else {
+      return true;
+    }
+  }
+
+  /**
+   * @return the first start of the batch window after the given date
+   */
+  public static Date getNextBatchWindowStartTime(Date date, ProcessEngineConfigurationImpl configuration) {
+    int start = parseTimeOfDay(configuration.getHistoryCleanupBatchWindowStartTime());
+
+    Calendar calendar = Calendar.getInstance();
+    calendar.setTime(date);
+    calendar.set(Calendar.HOUR_OF_DAY, start / 60);
+    calendar.set(Calendar.MINUTE, start % 60);
+    calendar.set(Calendar.SECOND, 0);
+    calendar.set(Calendar.MILLISECOND, 0);
+
+    if (!calendar.getTime().after(date)) {
+      calendar.add(Calendar.DATE, 1);
+    }
+
+    return calendar.getTime();
+  }
+
+  /**
+   * @return the minutes since midnight represented by a time in the format <code>HH:mm</code>
+   */
+  public static int parseTimeOfDay(String time) {
+    String[] parts = time != null ? time.trim().split(":") : new String[0];
+    if (parts.length == 2) {
+      try {
+        int hours = Integer.parseInt(parts[0]);
+        int minutes = Integer.parseInt(parts[1]);
+        if (hours >= 0 && hours < 24 && minutes >= 0 && minutes < 60) {
+          return hours * 60 + minutes;
+        }
+      } catch (NumberFormatException e) {
+        // handled below
+      }
+    }
+
+    throw new ProcessEngineException("Invalid time of day for the history cleanup batch window: '" + time
+        + "'. Expected format is HH:mm.");
+  }
+
+  protected static int getMinuteOfDay(Date date) {
+    Calendar calendar = Calendar.getInstance();
+    calendar.setTime(date);
+    return calendar.get(Calendar.HOUR_OF_DAY) * 60 + calendar.get(Calendar.MINUTE);
+  }
+
+}
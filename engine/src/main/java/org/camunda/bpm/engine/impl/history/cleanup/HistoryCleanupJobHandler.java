@@ -0,0 +1,157 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.cleanup;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.history.cleanup.HistoryCleanupJobHandler.HistoryCleanupJobConfiguration;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorLogger;
+import org.camunda.bpm.engine.impl.jobexecutor.JobHandler;
+import org.camunda.bpm.engine.impl.jobexecutor.JobHandlerConfiguration;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryCleanupManager;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.Metrics;
+
+/**
+ * Job handler for the history cleanup job. Each execution removes at most
+ * {@link ProcessEngineConfigurationImpl#getHistoryCleanupBatchSize() batch size}
+ * historic instances whose history time to live expired and creates the
+ * follow-up job:
+ *
+ * <ul>
+ *   <li>due immediately, if the batch was full and the job may still run
+ *   (it was triggered manually or the batch window is open)</li>
+ *   <li>due at the next start of the batch window, if one is configured</li>
+ *   <li>none otherwise, i.e. a manually triggered cleanup without batch window is finished</li>
+ * </ul>
+ */
+public class HistoryCleanupJobHandler implements JobHandler<HistoryCleanupJobConfiguration> {
+
+  private final static JobExecutorLogger LOG = ProcessEngineLogger.JOB_EXECUTOR_LOGGER;
+
+  public static final String TYPE = "history-cleanup";
+
+  public static final HistoryCleanupJobDeclaration JOB_DECLARATION = new HistoryCleanupJobDeclaration();
+
+  public String getType() {
+    return TYPE;
+  }
+
+  public void execute(HistoryCleanupJobConfiguration configuration, ExecutionEntity execution, CommandContext commandContext, String tenantId) {
+    ProcessEngineConfigurationImpl engineConfiguration = commandContext.getProcessEngineConfiguration();
+    int batchSize = engineConfiguration.getHistoryCleanupBatchSize();
+
+    Date now = ClockUtil.getCurrentTime();
+    boolean mayRun = configuration.isImmediatelyDue()
+        || HistoryCleanupHelper.isWithinBatchWindow(now, engineConfiguration);
+
+    int removedInstances = 0;
+    if (mayRun) {
+      removedInstances = cleanUpHistory(commandContext, batchSize);
+    }
+
+    if (mayRun && removedInstances >= batchSize) {
+      // there may be more to remove
+      scheduleJob(commandContext, configuration.isImmediatelyDue(), now);
+    }
+    else if (HistoryCleanupHelper.isBatchWindowConfigured(engineConfiguration)) {
+      scheduleJob(commandContext, false, HistoryCleanupHelper.getNextBatchWindowStartTime(now, engineConfiguration));
+    }
+  }
+
+  protected int cleanUpHistory(CommandContext commandContext, int batchSize) {
+    ProcessEngineConfigurationImpl engineConfiguration = commandContext.getProcessEngineConfiguration();
+    HistoryCleanupManager historyCleanupManager = commandContext.getHistoryCleanupManager();
+
+    List<String> processInstanceIds = historyCleanupManager.findHistoricProcessInstanceIdsForCleanup(batchSize);
+    int removedProcessInstances = historyCleanupManager.deleteHistoricProcessInstancesByIds(processInstanceIds);
+    int remaining = batchSize - processInstanceIds.size();
+
+    int removedDecisionInstances = 0;
+    if (engineConfiguration.isDmnEnabled() && remaining > 0) {
+      List<String> decisionInstanceIds = historyCleanupManager.findHistoricDecisionInstanceIdsForCleanup(remaining);
+      removedDecisionInstances = historyCleanupManager.deleteHistoricDecisionInstancesByIds(decisionInstanceIds);
+      remaining -= decisionInstanceIds.size();
+    }
+
+    int removedCaseInstances = 0;
+    if (engineConfiguration.isCmmnEnabled() && remaining > 0) {
+      List<String> caseInstanceIds = historyCleanupManager.findHistoricCaseInstanceIdsForCleanup(remaining);
+      removedCaseInstances = historyCleanupManager.deleteHistoricCaseInstancesByIds(caseInstanceIds);
+      remaining -= caseInstanceIds.size();
+    }
+
+    LOG.debugHistoryCleanupRemovedInstances(removedProcessInstances, removedDecisionInstances, removedCaseInstances);
+
+    if (engineConfiguration.isMetricsEnabled()) {
+      engineConfiguration.getMetricsRegistry()
+        .markOccurrence(Metrics.HISTORY_CLEANUP_REMOVED_PROCESS_INSTANCES, removedProcessInstances);
+      engineConfiguration.getMetricsRegistry()
+        .markOccurrence(Metrics.HISTORY_CLEANUP_REMOVED_DECISION_INSTANCES, removedDecisionInstances);
+      engineConfiguration.getMetricsRegistry()
+        .markOccurrence(Metrics.HISTORY_CLEANUP_REMOVED_CASE_INSTANCES, removedCaseInstances);
+    }
+
+    return batchSize - remaining;
+  }
+
+  /**
+   * Creates a new history cleanup job which is due at the given date.
+   */
+  public static JobEntity scheduleJob(CommandContext commandContext, boolean immediatelyDue, Date dueDate) {
+    JobEntity job = JOB_DECLARATION.createJobInstance(new HistoryCleanupJobConfiguration(immediatelyDue));
+    job.setDuedate(dueDate);
+
+    commandContext.getJobManager().insertAndHintJobExecutor(job);
+    LOG.debugHistoryCleanupScheduled(dueDate);
+
+    return job;
+  }
+
+  public HistoryCleanupJobConfiguration newConfiguration(String canonicalString) {
+    return new HistoryCleanupJobConfiguration(HistoryCleanupJobConfiguration.IMMEDIATELY_DUE.equals(canonicalString));
+  }
+
+  public void onDelete(HistoryCleanupJobConfiguration configuration, JobEntity jobEntity) {
+    // do nothing
+  }
+
+  public static class HistoryCleanupJobConfiguration implements JobHandlerConfiguration {
+
+    public static final String IMMEDIATELY_DUE = "immediatelyDue";
+
+    /**
+     * True if the cleanup was triggered manually and runs regardless of the batch window.
+     */
+    protected boolean immediatelyDue;
+
+    public HistoryCleanupJobConfiguration(boolean immediatelyDue) {
+      this.immediatelyDue = immediatelyDue;
+    }
+
+    public boolean isImmediatelyDue() {
+      return immediatelyDue;
+    }
+
+    public String toCanonicalString() {
+      return immediatelyDue ? IMMEDIATELY_DUE : "";
+    }
+  }
+
+}
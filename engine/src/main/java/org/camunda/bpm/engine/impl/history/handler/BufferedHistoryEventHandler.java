@@ -0,0 +1,77 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.history.event.HistoricDecisionEvaluationEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.util.EnsureUtil;
+
+/**
+ * A {@link HistoryEventHandler} which does not write history events to the
+ * history tables as part of the transaction which produces them. Instead, all
+ * events of a transaction are serialized into a single row of the history event
+ * buffer (<code>ACT_RU_HIST_BUFFER</code>) which is committed together with the
+ * runtime changes. The buffer is drained asynchronously into the history tables
+ * by the {@link org.camunda.bpm.engine.impl.history.buffer.HistoryEventBufferWriter},
+ * which passes the events to the delegate handler.
+ *
+ * <p>History becomes eventually consistent: history queries only return the
+ * events of a transaction once its buffer row was drained. Buffer rows are
+ * drained in the order in which they were flushed, which keeps the events of a
+ * process instance in order as long as the clocks of the cluster nodes are
+ * synchronized.</p>
+ *
+ * <p>Decision evaluation events are passed to the delegate right away since
+ * they carry typed variable values which are not serialized into the buffer.</p>
+ */
+public class BufferedHistoryEventHandler implements HistoryEventHandler {
+
+  protected HistoryEventHandler delegate;
+
+  public BufferedHistoryEventHandler(HistoryEventHandler delegate) {
+    EnsureUtil.ensureNotNull("History event handler", delegate);
+    this.delegate = delegate;
+  }
+
+  public void handleEvent(HistoryEvent historyEvent) {
+    if (isBuffered(historyEvent)) {
+      Context.getCommandContext()
+        .getHistoryEventBufferManager()
+        .addEvent(historyEvent);
+    }
+    else {
+      delegate.handleEvent(historyEvent);
+    }
+  }
+
+  public void handleEvents(List<HistoryEvent> historyEvents) {
+    for (HistoryEvent historyEvent : historyEvents) {
+      handleEvent(historyEvent);
+    }
+  }
+
+  protected boolean isBuffered(HistoryEvent historyEvent) {
+    return !(historyEvent instanceof HistoricDecisionEvaluationEvent);
+  }
+
+  /**
+   * @return the handler which writes the drained events
+   */
+  public HistoryEventHandler getDelegate() {
+    return delegate;
+  }
+
+}
@@ -18,6 +18,7 @@ import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.history.event.HistoricCaseActivityInstanceEventEntity;
 import org.camunda.bpm.engine.impl.history.event.HistoricCaseInstanceEventEntity;
 import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 
 /**
  * @author Sebastian Menski
@@ -56,9 +57,15 @@ public class CacheAwareCmmnHistoryEventProducer extends DefaultCmmnHistoryEventP
 
   /** find a cached entity by primary key */
   protected <T extends HistoryEvent> T findInCache(Class<T> type, String id) {
-    return Context.getCommandContext()
-      .getDbEntityManager()
-      .getCachedEntity(type, id);
+    CommandContext commandContext = Context.getCommandContext();
+    T cachedEvent = commandContext.getDbEntityManager().getCachedEntity(type, id);
+
+    if (cachedEvent == null && Context.getProcessEngineConfiguration().isHistoryEventBufferEnabled()) {
+      // events which were handled in this command are kept in the history event buffer
+      cachedEvent = commandContext.getHistoryEventBufferManager().findBufferedEvent(type, id);
+    }
+
+    return cachedEvent;
   }
 
 }
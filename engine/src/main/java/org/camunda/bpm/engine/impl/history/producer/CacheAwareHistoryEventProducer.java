@@ -17,6 +17,7 @@ import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.history.event.*;
 import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
 import org.camunda.bpm.engine.runtime.Incident;
 
@@ -89,9 +90,15 @@ public class CacheAwareHistoryEventProducer extends DefaultHistoryEventProducer
 
   /** find a cached entity by primary key */
   protected <T extends HistoryEvent> T findInCache(Class<T> type, String id) {
-    return Context.getCommandContext()
-      .getDbEntityManager()
-      .getCachedEntity(type, id);
+    CommandContext commandContext = Context.getCommandContext();
+    T cachedEvent = commandContext.getDbEntityManager().getCachedEntity(type, id);
+
+    if (cachedEvent == null && Context.getProcessEngineConfiguration().isHistoryEventBufferEnabled()) {
+      // events which were handled in this command are kept in the history event buffer
+      cachedEvent = commandContext.getHistoryEventBufferManager().findBufferedEvent(type, id);
+    }
+
+    return cachedEvent;
   }
 
 }
@@ -36,6 +36,7 @@ import org.camunda.bpm.engine.impl.identity.ReadOnlyIdentityProvider;
 import org.camunda.bpm.engine.impl.identity.WritableIdentityProvider;
 import org.camunda.bpm.engine.impl.jobexecutor.FailedJobCommandFactory;
 import org.camunda.bpm.engine.impl.persistence.entity.*;
+import org.camunda.bpm.engine.management.Metrics;
 
 import java.util.*;
 import java.util.concurrent.Callable;
@@ -55,6 +56,7 @@ public class CommandContext {
   protected boolean userOperationLogEnabled = true;
   protected boolean tenantCheckEnabled = true;
   protected boolean restrictUserOperationLogToAuthenticatedUsers;
+  protected boolean processInstanceGraphPrefetchEnabled;
 
   protected TransactionContext transactionContext;
   protected Map<Class< ? >, SessionFactory> sessionFactories;
@@ -199,9 +201,16 @@ public class CommandContext {
   }
 
   protected void flushSessions() {
+    long startTime = System.nanoTime();
+
     for (int i = 0; i< sessionList.size(); i++) {
       sessionList.get(i).flush();
     }
+
+    if (processEngineConfiguration.isMetricsEnabled()) {
+      processEngineConfiguration.getMetricsRegistry()
+        .updateHistogram(Metrics.FLUSH_DURATION, (System.nanoTime() - startTime) / 1000000);
+    }
   }
 
   protected void closeSessions(CommandInvocationContext commandInvocationContext) {
@@ -268,6 +277,18 @@ public class CommandContext {
     return getSession(MeterLogManager.class);
   }
 
+  public AuthorizationPermissionManager getAuthorizationPermissionManager() {
+    return getSession(AuthorizationPermissionManager.class);
+  }
+
+  public HistoryEventBufferManager getHistoryEventBufferManager() {
+    return getSession(HistoryEventBufferManager.class);
+  }
+
+  public HistoryCleanupManager getHistoryCleanupManager() {
+    return getSession(HistoryCleanupManager.class);
+  }
+
   public IdentityLinkManager getIdentityLinkManager() {
     return getSession(IdentityLinkManager.class);
   }
@@ -566,6 +587,23 @@ public class CommandContext {
     this.restrictUserOperationLogToAuthenticatedUsers = restrictUserOperationLogToAuthenticatedUsers;
   }
 
+  public void enableProcessInstanceGraphPrefetch() {
+    processInstanceGraphPrefetchEnabled = true;
+  }
+
+  /**
+   * @return true if initializing the execution tree of a process instance also loads the
+   *   event subscriptions, variables, tasks, jobs, incidents and external tasks of the
+   *   process instance
+   */
+  public boolean isProcessInstanceGraphPrefetchEnabled() {
+    return processInstanceGraphPrefetchEnabled;
+  }
+
+  public void setProcessInstanceGraphPrefetchEnabled(boolean processInstanceGraphPrefetchEnabled) {
+    this.processInstanceGraphPrefetchEnabled = processInstanceGraphPrefetchEnabled;
+  }
+
   public String getOperationId() {
     if (operationId == null) {
       operationId = Context.getProcessEngineConfiguration().getIdGenerator().getNextId();
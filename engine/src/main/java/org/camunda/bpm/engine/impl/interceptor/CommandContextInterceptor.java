@@ -18,6 +18,7 @@ import org.camunda.bpm.engine.delegate.ProcessEngineServicesAware;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cmd.CommandLogger;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.management.Metrics;
 
 /**
  * <p>Interceptor used for opening the {@link CommandContext} and {@link CommandInvocationContext}.</p>
@@ -83,6 +84,7 @@ public class CommandContextInterceptor extends CommandInterceptor {
     }
 
     boolean openNew = (context == null);
+    long startTime = openNew ? System.nanoTime() : 0;
 
     CommandInvocationContext commandInvocationContext = new CommandInvocationContext(command);
     Context.setCommandInvocationContext(commandInvocationContext);
@@ -100,6 +102,10 @@ public class CommandContextInterceptor extends CommandInterceptor {
       Context.setCommandContext(context);
       Context.setProcessEngineConfiguration(processEngineConfiguration);
 
+      if (isProcessInstanceGraphPrefetchCommand(command)) {
+        context.enableProcessInstanceGraphPrefetch();
+      }
+
       // delegate to next interceptor in chain
       return next.execute(command);
 
@@ -111,6 +117,7 @@ public class CommandContextInterceptor extends CommandInterceptor {
         if (openNew) {
           LOG.closingCommandContext();
           context.close(commandInvocationContext);
+          logCommandDuration(startTime);
         } else {
           commandInvocationContext.rethrow();
         }
@@ -124,6 +131,24 @@ public class CommandContextInterceptor extends CommandInterceptor {
     return null;
   }
 
+  protected boolean isProcessInstanceGraphPrefetchCommand(Command<?> command) {
+    if (processEngineConfiguration.isProcessInstanceGraphPrefetchEnabled()) {
+      for (Class<?> commandType : processEngineConfiguration.getProcessInstanceGraphPrefetchCommands()) {
+        if (commandType.isInstance(command)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  protected void logCommandDuration(long startTime) {
+    if (processEngineConfiguration != null && processEngineConfiguration.isMetricsEnabled()) {
+      processEngineConfiguration.getMetricsRegistry()
+        .updateHistogram(Metrics.COMMAND_DURATION, (System.nanoTime() - startTime) / 1000000);
+    }
+  }
+
   protected boolean isFromSameEngine(CommandContext existingCommandContext) {
     return processEngineConfiguration == existingCommandContext.getProcessEngineConfiguration();
   }
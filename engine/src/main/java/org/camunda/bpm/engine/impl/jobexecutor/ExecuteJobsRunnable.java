@@ -52,12 +52,16 @@ public class ExecuteJobsRunnable implements Runnable {
 
         String nextJobId = currentProcessorJobQueue.remove(0);
         if(jobExecutor.isActive()) {
+          long startTime = System.nanoTime();
           try {
              executeJob(nextJobId, commandExecutor);
           }
           catch(Throwable t) {
             LOG.exceptionWhileExecutingJob(nextJobId, t);
           }
+          finally {
+            jobExecutor.logJobExecutionTime(processEngine, (System.nanoTime() - startTime) / 1000000);
+          }
         } else {
             try {
               unlockJob(nextJobId, commandExecutor);
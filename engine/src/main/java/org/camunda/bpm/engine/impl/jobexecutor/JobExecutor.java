@@ -13,12 +13,14 @@
 
 package org.camunda.bpm.engine.impl.jobexecutor;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CopyOnWriteArrayList;
 import org.camunda.bpm.engine.impl.ProcessEngineImpl;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.cmd.UnlockJobCmd;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.management.Metrics;
@@ -108,6 +110,44 @@ public abstract class JobExecutor {
     }
   }
 
+  /**
+   * Executes a job that the given process engine created and locked for this job executor.
+   * If the job cannot be executed right away, it is unlocked and left to job acquisition.
+   */
+  public void executeHandedOffJob(String jobId, ProcessEngineImpl processEngine) {
+    LOG.debugHandingOffJob(processEngine.getName(), jobId);
+
+    if (!isActive || !submitHandedOffJobs(Collections.singletonList(jobId), processEngine)) {
+      LOG.handedOffJobRejected(jobId);
+      try {
+        processEngine.getProcessEngineConfiguration()
+          .getCommandExecutorTxRequiresNew()
+          .execute(new UnlockJobCmd(jobId));
+      }
+      catch (Throwable t) {
+        LOG.exceptionWhileUnlockingJob(jobId, t);
+      }
+      jobWasAdded();
+    }
+  }
+
+  /**
+   * @return true, if the job executor can execute jobs that are handed off to it
+   * by {@link #executeHandedOffJob(String, ProcessEngineImpl)}
+   */
+  public boolean isHandOffSupported() {
+    return false;
+  }
+
+  /**
+   * Submits handed off jobs for execution without blocking the calling thread.
+   *
+   * @return false, if the jobs were not accepted for execution
+   */
+  protected boolean submitHandedOffJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    return false;
+  }
+
   public synchronized void registerProcessEngine(ProcessEngineImpl processEngine) {
     processEngines.add(processEngine);
 
@@ -165,6 +205,22 @@ public abstract class JobExecutor {
     }
   }
 
+  public void logJobExecutionTime(ProcessEngineImpl engine, long durationMillis) {
+    if (engine != null && engine.getProcessEngineConfiguration().isMetricsEnabled()) {
+      engine.getProcessEngineConfiguration()
+        .getMetricsRegistry()
+        .updateHistogram(Metrics.JOB_EXECUTION_TIME, durationMillis);
+    }
+  }
+
+  public void logAcquisitionCycleTime(ProcessEngineImpl engine, long durationMillis) {
+    if (engine != null && engine.getProcessEngineConfiguration().isMetricsEnabled()) {
+      engine.getProcessEngineConfiguration()
+        .getMetricsRegistry()
+        .updateHistogram(Metrics.JOB_ACQUISITION_CYCLE_TIME, durationMillis);
+    }
+  }
+
   public void logRejectedExecution(ProcessEngineImpl engine, int numJobs) {
     if (engine != null && engine.getProcessEngineConfiguration().isMetricsEnabled()) {
       engine.getProcessEngineConfiguration()
@@ -13,6 +13,7 @@
 package org.camunda.bpm.engine.impl.jobexecutor;
 
 import java.util.Collection;
+import java.util.Date;
 
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
@@ -169,4 +170,25 @@ public class JobExecutorLogger extends ProcessEngineLogger {
         "026", "No job found with id '{}'", jobId));
   }
 
+  public void debugHandingOffJob(String processEngine, String jobId) {
+    logDebug(
+        "027", "Handing off job '{}' created by process engine '{}' to the job executor", jobId, processEngine);
+  }
+
+  public void handedOffJobRejected(String jobId) {
+    logDebug(
+        "028", "Handed off job '{}' was rejected by the job executor. Unlocking it for job acquisition.", jobId);
+  }
+
+  public void debugHistoryCleanupRemovedInstances(int processInstances, int decisionInstances, int caseInstances) {
+    logDebug(
+        "029", "History cleanup removed {} process instances, {} decision instances and {} case instances",
+        processInstances, decisionInstances, caseInstances);
+  }
+
+  public void debugHistoryCleanupScheduled(Date dueDate) {
+    logDebug(
+        "030", "Scheduled the next history cleanup job for {}", dueDate);
+  }
+
 }
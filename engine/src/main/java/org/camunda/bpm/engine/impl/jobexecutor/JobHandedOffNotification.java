@@ -0,0 +1,39 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * Hands a job that was created and locked in the committed transaction
+ * directly to the job executor, bypassing job acquisition.
+ */
+public class JobHandedOffNotification implements TransactionListener {
+
+  protected final String jobId;
+  protected final JobExecutor jobExecutor;
+  protected final ProcessEngineImpl processEngine;
+
+  public JobHandedOffNotification(String jobId, JobExecutor jobExecutor, ProcessEngineImpl processEngine) {
+    this.jobId = jobId;
+    this.jobExecutor = jobExecutor;
+    this.processEngine = processEngine;
+  }
+
+  public void execute(CommandContext commandContext) {
+    jobExecutor.executeHandedOffJob(jobId, processEngine);
+  }
+
+}
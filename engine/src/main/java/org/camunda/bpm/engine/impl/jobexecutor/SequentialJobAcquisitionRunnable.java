@@ -139,7 +139,9 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
 
     if (numJobsToAcquire > 0) {
       jobExecutor.logAcquisitionAttempt(currentProcessEngine);
+      long startTime = System.nanoTime();
       acquiredJobs = commandExecutor.execute(jobExecutor.getAcquireJobsCmd(numJobsToAcquire));
+      jobExecutor.logAcquisitionCycleTime(currentProcessEngine, (System.nanoTime() - startTime) / 1000000);
     }
     else {
       acquiredJobs = new AcquiredJobs(numJobsToAcquire);
@@ -46,6 +46,25 @@ public class ThreadPoolJobExecutor extends JobExecutor {
     }
   }
 
+  @Override
+  public boolean isHandOffSupported() {
+    return true;
+  }
+
+  @Override
+  protected boolean submitHandedOffJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    try {
+      threadPoolExecutor.execute(getExecuteJobsRunnable(jobIds, processEngine));
+      return true;
+
+    } catch (RejectedExecutionException e) {
+
+      logRejectedExecution(processEngine, jobIds.size());
+      return false;
+
+    }
+  }
+
   // getters / setters
 
   public ThreadPoolExecutor getThreadPoolExecutor() {
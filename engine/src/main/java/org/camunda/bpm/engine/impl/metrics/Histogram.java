@@ -0,0 +1,117 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the distribution of durations (in milliseconds) such as the duration
+ * of commands or job executions.
+ *
+ * The values are counted in buckets with exponentially growing bounds (four
+ * buckets per power of two), so a percentile computed from a
+ * {@link HistogramSnapshot} deviates at most 25% from the exact value.
+ * Recording a value does not allocate and only touches a single bucket, the
+ * striped sum and, if it is a new maximum, the max value.
+ */
+public class Histogram {
+
+  /** largest bucket bound, roughly one hour; larger values are counted in the overflow bucket */
+  protected static final long MAX_BUCKET_BOUND = 60L * 60 * 1000;
+
+  protected static final long[] BUCKET_BOUNDS = createBucketBounds();
+
+  protected String name;
+
+  /** one bucket per bound plus the overflow bucket */
+  protected AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length + 1);
+  protected StripedCounter sum = new StripedCounter();
+  protected AtomicLong max = new AtomicLong(0);
+
+  public Histogram(String name) {
+    this.name = name;
+  }
+
+  public void update(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+
+    buckets.incrementAndGet(bucketIndex(value));
+    sum.add(value);
+
+    long currentMax = max.get();
+    while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+      currentMax = max.get();
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public HistogramSnapshot getSnapshot() {
+    long[] counts = new long[buckets.length()];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = buckets.get(i);
+    }
+    return new HistogramSnapshot(BUCKET_BOUNDS, counts, sum.get(), max.get());
+  }
+
+  /**
+   * Returns the values recorded since the last reset and resets the histogram.
+   * Values recorded concurrently end up either in the returned snapshot or in
+   * the next one.
+   */
+  public HistogramSnapshot getSnapshotAndClear() {
+    long[] counts = new long[buckets.length()];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = buckets.getAndSet(i, 0);
+    }
+    return new HistogramSnapshot(BUCKET_BOUNDS, counts, sum.getAndClear(), max.getAndSet(0));
+  }
+
+  protected static int bucketIndex(long value) {
+    int index = Arrays.binarySearch(BUCKET_BOUNDS, value);
+    // binary search returns (-(insertion point) - 1) if the value is not a bound
+    return index >= 0 ? index : -index - 1;
+  }
+
+  protected static long[] createBucketBounds() {
+    List<Long> bounds = new ArrayList<Long>();
+    bounds.add(0L);
+    for (long power = 1; power <= MAX_BUCKET_BOUND; power <<= 1) {
+      for (int quarter = 4; quarter < 8; quarter++) {
+        long bound = power * quarter / 4;
+        if (bound > bounds.get(bounds.size() - 1)) {
+          bounds.add(bound);
+        }
+      }
+    }
+
+    long[] result = new long[bounds.size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = bounds.get(i);
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,80 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+/**
+ * Immutable state of a {@link Histogram} at a point in time.
+ */
+public class HistogramSnapshot {
+
+  protected final long[] bucketBounds;
+  protected final long[] counts;
+  protected final long count;
+  protected final long sum;
+  protected final long max;
+
+  public HistogramSnapshot(long[] bucketBounds, long[] counts, long sum, long max) {
+    this.bucketBounds = bucketBounds;
+    this.counts = counts;
+    this.sum = sum;
+    this.max = max;
+
+    long count = 0;
+    for (long bucketCount : counts) {
+      count += bucketCount;
+    }
+    this.count = count;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getSum() {
+    return sum;
+  }
+
+  public long getMax() {
+    return max;
+  }
+
+  public long getMean() {
+    return count > 0 ? sum / count : 0;
+  }
+
+  /**
+   * @param quantile the quantile between 0 and 1, e.g. 0.95 for the 95th percentile
+   * @return the upper bound of the bucket containing the given quantile, never
+   * larger than the maximum recorded value
+   */
+  public long getValueAtQuantile(double quantile) {
+    if (count == 0) {
+      return 0;
+    }
+
+    long rank = (long) Math.ceil(quantile * count);
+    if (rank < 1) {
+      rank = 1;
+    }
+
+    long seen = 0;
+    for (int i = 0; i < counts.length; i++) {
+      seen += counts[i];
+      if (seen >= rank) {
+        return i < bucketBounds.length ? Math.min(bucketBounds[i], max) : max;
+      }
+    }
+    return max;
+  }
+
+}
@@ -12,17 +12,15 @@
  */
 package org.camunda.bpm.engine.impl.metrics;
 
-import java.util.concurrent.atomic.AtomicLong;
-
 /**
- * A Meter implementation based on AtomicLong
+ * A Meter implementation based on a {@link StripedCounter}
  *
  * @author Daniel Meyer
  *
  */
 public class Meter {
 
-  protected AtomicLong counter = new AtomicLong(0);
+  protected StripedCounter counter = new StripedCounter();
 
   protected String name;
 
@@ -31,11 +29,11 @@ public class Meter {
   }
 
   public void mark() {
-    counter.incrementAndGet();
+    counter.add(1);
   }
 
   public void markTimes(long times) {
-    counter.addAndGet(times);
+    counter.add(times);
   }
 
   public String getName() {
@@ -47,7 +45,7 @@ public class Meter {
   }
 
   public long getAndClear() {
-    return counter.getAndSet(0);
+    return counter.getAndClear();
   }
 
   public long get() {
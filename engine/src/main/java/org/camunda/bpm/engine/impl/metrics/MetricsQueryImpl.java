@@ -78,7 +78,7 @@ public class MetricsQueryImpl extends ListQueryParameterObject implements Serial
    *
    * Note: this enables to quit with the enum distinction
    */
-  protected Command<Object> callback;
+  protected Command<?> callback;
 
   @Override
   public List<MetricIntervalValue> interval() {
@@ -111,12 +111,24 @@ public class MetricsQueryImpl extends ListQueryParameterObject implements Serial
     return (Long) commandExecutor.execute(this);
   }
 
+  public long max() {
+    callback = new Command<Long>() {
+      @Override
+      public Long execute(CommandContext commandContext) {
+        return commandContext.getMeterLogManager()
+          .executeSelectMax(MetricsQueryImpl.this);
+      }
+    };
+
+    return (Long) commandExecutor.execute(this);
+  }
+
   @Override
   public Object execute(CommandContext commandContext) {
     if (callback != null) {
       return callback.execute(commandContext);
     }
-    throw new ProcessEngineException("Query can't be executed. Use either sum or interval to query the metrics.");
+    throw new ProcessEngineException("Query can't be executed. Use either sum, max or interval to query the metrics.");
   }
 
   @Override
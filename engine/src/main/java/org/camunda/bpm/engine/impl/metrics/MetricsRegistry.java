@@ -22,6 +22,7 @@ import java.util.Map;
 public class MetricsRegistry {
 
   protected Map<String, Meter> meters = new HashMap<String, Meter>();
+  protected Map<String, Histogram> histograms = new HashMap<String, Histogram>();
 
   public Meter getMeterByName(String name) {
     return meters.get(name);
@@ -49,4 +50,30 @@ public class MetricsRegistry {
     return meter;
   }
 
+  public Histogram getHistogramByName(String name) {
+    return histograms.get(name);
+  }
+
+  public Map<String, Histogram> getHistograms() {
+    return histograms;
+  }
+
+  /**
+   * Records a duration in milliseconds in the histogram with the given name.
+   * Does nothing if no such histogram exists.
+   */
+  public void updateHistogram(String name, long durationMillis) {
+    Histogram histogram = histograms.get(name);
+
+    if (histogram != null) {
+      histogram.update(durationMillis);
+    }
+  }
+
+  public Histogram createHistogram(String name) {
+    Histogram histogram = new Histogram(name);
+    histograms.put(name, histogram);
+    return histogram;
+  }
+
 }
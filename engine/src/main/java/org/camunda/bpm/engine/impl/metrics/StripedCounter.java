@@ -0,0 +1,79 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter which spreads concurrent updates over several cells to avoid
+ * contention on a single memory location. Threads are assigned to a cell by
+ * their id, the cells are padded so that neighbouring cells do not share a
+ * cache line.
+ *
+ * Reading the value sums up all cells and is therefore more expensive than
+ * updating it.
+ */
+public class StripedCounter {
+
+  /** number of longs between two cells, 8 * 8 bytes cover a 64 byte cache line */
+  protected static final int PADDING = 8;
+
+  protected static final int MAX_STRIPES = 64;
+
+  protected final AtomicLongArray cells;
+  protected final int mask;
+
+  public StripedCounter() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  public StripedCounter(int concurrencyLevel) {
+    int stripes = 1;
+    while (stripes < concurrencyLevel && stripes < MAX_STRIPES) {
+      stripes <<= 1;
+    }
+    this.mask = stripes - 1;
+    this.cells = new AtomicLongArray(stripes * PADDING);
+  }
+
+  public void add(long value) {
+    cells.addAndGet(cellIndex(), value);
+  }
+
+  public long get() {
+    long sum = 0;
+    for (int i = 0; i < cells.length(); i += PADDING) {
+      sum += cells.get(i);
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the current value and resets the counter. Each cell is reset
+   * atomically, so no concurrent update gets lost: it is either contained in
+   * the returned value or remains in the counter.
+   */
+  public long getAndClear() {
+    long sum = 0;
+    for (int i = 0; i < cells.length(); i += PADDING) {
+      sum += cells.getAndSet(i, 0);
+    }
+    return sum;
+  }
+
+  protected int cellIndex() {
+    long threadId = Thread.currentThread().getId();
+    return ((int) (threadId ^ (threadId >>> 32)) & mask) * PADDING;
+  }
+
+}
@@ -13,6 +13,7 @@
 package org.camunda.bpm.engine.impl.metrics.reporter;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.TimerTask;
 
@@ -20,11 +21,14 @@ import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.metrics.Histogram;
+import org.camunda.bpm.engine.impl.metrics.HistogramSnapshot;
 import org.camunda.bpm.engine.impl.metrics.Meter;
 import org.camunda.bpm.engine.impl.metrics.MetricsLogger;
 import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.impl.persistence.entity.MeterLogEntity;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.Metrics;
 
 /**
  *
@@ -69,6 +73,13 @@ public class MetricsCollectionTask extends TimerTask {
 
     }
 
+    for (Histogram histogram : metricsRegistry.getHistograms().values()) {
+      HistogramSnapshot snapshot = histogram.getSnapshotAndClear();
+      if (snapshot.getCount() > 0) {
+        collectHistogram(histogram.getName(), snapshot, logs);
+      }
+    }
+
     commandExecutor.execute(new Command<Void>() {
 
       public Void execute(CommandContext commandContext) {
@@ -80,6 +91,16 @@ public class MetricsCollectionTask extends TimerTask {
     });
   }
 
+  protected void collectHistogram(String name, HistogramSnapshot snapshot, List<MeterLogEntity> logs) {
+    Date timestamp = ClockUtil.getCurrentTime();
+    logs.add(new MeterLogEntity(name + Metrics.HISTOGRAM_COUNT, reporterId, snapshot.getCount(), timestamp));
+    logs.add(new MeterLogEntity(name + Metrics.HISTOGRAM_SUM, reporterId, snapshot.getSum(), timestamp));
+    logs.add(new MeterLogEntity(name + Metrics.HISTOGRAM_P50, reporterId, snapshot.getValueAtQuantile(0.5), timestamp));
+    logs.add(new MeterLogEntity(name + Metrics.HISTOGRAM_P95, reporterId, snapshot.getValueAtQuantile(0.95), timestamp));
+    logs.add(new MeterLogEntity(name + Metrics.HISTOGRAM_P99, reporterId, snapshot.getValueAtQuantile(0.99), timestamp));
+    logs.add(new MeterLogEntity(name + Metrics.HISTOGRAM_MAX, reporterId, snapshot.getMax(), timestamp));
+  }
+
   public String getReporter() {
     return reporterId;
   }
@@ -0,0 +1,36 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the daemon threads which parse deployment resources in parallel.
+ */
+public class DeploymentParsingThreadFactory implements ThreadFactory {
+
+  protected final String namePrefix;
+  protected final AtomicInteger threadNumber = new AtomicInteger(1);
+
+  public DeploymentParsingThreadFactory(String processEngineName) {
+    this.namePrefix = "camunda-deployment-parser-" + processEngineName + "-";
+  }
+
+  public Thread newThread(Runnable runnable) {
+    Thread thread = new Thread(runnable, namePrefix + threadNumber.getAndIncrement());
+    thread.setDaemon(true);
+    return thread;
+  }
+
+}
@@ -0,0 +1,179 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.camunda.bpm.engine.impl.util.xml.ElementSerializer;
+
+/**
+ * Stores the element trees of parsed deployment resources in a directory, so that
+ * the resources of existing deployments can be restored without parsing and validating
+ * the XML again, for example after a restart of the node.
+ *
+ * <p>A cache file is identified by the deployment id and the checksum of the resource
+ * content. Files which cannot be read are deleted and the caller falls back to parsing
+ * the resource.</p>
+ */
+public class ParsedResourceFileCache {
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected static final int FILE_FORMAT_MARKER = 0xCA3DA001;
+  protected static final int FILE_FORMAT_VERSION = 1;
+
+  protected static final String CHECKSUM_ALGORITHM = "SHA-1";
+  protected static final String FILE_SUFFIX = ".parsed";
+
+  protected File directory;
+
+  public ParsedResourceFileCache(File directory) {
+    this.directory = directory;
+  }
+
+  /**
+   * @return the cached element tree of the resource or null if the resource is not cached
+   */
+  public Element load(String deploymentId, byte[] resourceBytes) {
+    File file = getFile(deploymentId, resourceBytes);
+    if (!file.isFile()) {
+      return null;
+    }
+
+    Element rootElement = null;
+    boolean isCorrupt = false;
+
+    FileInputStream inputStream = null;
+    try {
+      inputStream = new FileInputStream(file);
+      FileChannel channel = inputStream.getChannel();
+      ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, channel.size());
+
+      if (buffer.getInt() != FILE_FORMAT_MARKER || buffer.getInt() != FILE_FORMAT_VERSION) {
+        throw new IllegalArgumentException("Unknown file format");
+      }
+
+      rootElement = ElementSerializer.deserialize(buffer);
+
+      if (buffer.hasRemaining()) {
+        throw new IllegalArgumentException("Unexpected content after the element tree");
+      }
+
+    } catch (Exception e) {
+      LOG.couldNotReadParsedResourceCacheFile(file.getAbsolutePath(), e);
+      isCorrupt = true;
+
+    } finally {
+      IoUtil.closeSilently(inputStream);
+    }
+
+    if (isCorrupt) {
+      file.delete();
+    }
+
+    return rootElement;
+  }
+
+  public void store(String deploymentId, byte[] resourceBytes, Element rootElement) {
+    File file = getFile(deploymentId, resourceBytes);
+    if (file.isFile()) {
+      return;
+    }
+
+    byte[] content = ElementSerializer.serialize(rootElement);
+    ByteBuffer header = ByteBuffer.allocate(8);
+    header.putInt(FILE_FORMAT_MARKER);
+    header.putInt(FILE_FORMAT_VERSION);
+
+    // write to a temporary file first, so that concurrent readers never see a partially written file
+    File temporaryFile = null;
+    FileOutputStream outputStream = null;
+    try {
+      temporaryFile = File.createTempFile(file.getName(), ".tmp", directory);
+      outputStream = new FileOutputStream(temporaryFile);
+      outputStream.write(header.array());
+      outputStream.write(content);
+      outputStream.close();
+      outputStream = null;
+
+      if (!temporaryFile.renameTo(file) && !file.isFile()) {
+        throw new IOException("Could not rename " + temporaryFile.getName());
+      }
+
+    } catch (IOException e) {
+      LOG.couldNotWriteParsedResourceCacheFile(file.getAbsolutePath(), e);
+
+    } finally {
+      IoUtil.closeSilently(outputStream);
+      if (temporaryFile != null && temporaryFile.isFile()) {
+        temporaryFile.delete();
+      }
+    }
+  }
+
+  /**
+   * Deletes the cache files of all resources of the deployment.
+   */
+  public void remove(String deploymentId) {
+    String prefix = getFilePrefix(deploymentId);
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        if (file.getName().startsWith(prefix)) {
+          file.delete();
+        }
+      }
+    }
+  }
+
+  public File getDirectory() {
+    return directory;
+  }
+
+  protected File getFile(String deploymentId, byte[] resourceBytes) {
+    return new File(directory, getFilePrefix(deploymentId) + checksum(resourceBytes) + FILE_SUFFIX);
+  }
+
+  protected String getFilePrefix(String deploymentId) {
+    return deploymentId.replaceAll("[^A-Za-z0-9._]", "_") + "-";
+  }
+
+  protected String checksum(byte[] bytes) {
+    try {
+      byte[] digest = MessageDigest.getInstance(CHECKSUM_ALGORITHM).digest(bytes);
+      StringBuilder checksum = new StringBuilder();
+      for (byte b : digest) {
+        checksum.append(Character.forDigit((b >> 4) & 0xF, 16));
+        checksum.append(Character.forDigit(b & 0xF, 16));
+      }
+      return checksum.toString();
+
+    } catch (NoSuchAlgorithmException e) {
+      throw new ProcessEngineException("Cannot lookup " + CHECKSUM_ALGORITHM + " algorithm");
+    }
+  }
+
+}
@@ -75,6 +75,7 @@ import org.camunda.bpm.engine.impl.VariableInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.batch.BatchQueryImpl;
 import org.camunda.bpm.engine.impl.batch.BatchStatisticsQueryImpl;
 import org.camunda.bpm.engine.impl.batch.history.HistoricBatchQueryImpl;
+import org.camunda.bpm.engine.impl.cfg.auth.AuthorizationDecisionCache;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.AuthorizationCheck;
 import org.camunda.bpm.engine.impl.db.CompositePermissionCheck;
@@ -287,6 +288,22 @@ public class AuthorizationManager extends AbstractManager {
       return true;
     }
 
+    AuthorizationDecisionCache decisionCache = getAuthorizationDecisionCache();
+    if (decisionCache == null) {
+      return isAuthorizedInDatabase(userId, groupIds, permissionChecks);
+    }
+
+    String key = decisionCache.createKey(userId, groupIds, permissionChecks);
+    Boolean isAuthorized = decisionCache.get(key);
+    if (isAuthorized == null) {
+      long generation = decisionCache.getGeneration();
+      isAuthorized = isAuthorizedInDatabase(userId, groupIds, permissionChecks);
+      decisionCache.put(key, isAuthorized, generation);
+    }
+    return isAuthorized;
+  }
+
+  protected boolean isAuthorizedInDatabase(String userId, List<String> groupIds, List<PermissionCheck> permissionChecks) {
     List<String> filteredGroupIds = filterAuthenticatedGroupIds(groupIds);
 
     boolean isRevokeAuthorizationCheckEnabled = isRevokeAuthCheckEnabled(userId, groupIds);
@@ -294,6 +311,10 @@ public class AuthorizationManager extends AbstractManager {
     return getDbEntityManager().selectBoolean("isUserAuthorizedForResource", authCheck);
   }
 
+  protected AuthorizationDecisionCache getAuthorizationDecisionCache() {
+    return Context.getProcessEngineConfiguration().getAuthorizationDecisionCache();
+  }
+
   protected boolean isRevokeAuthCheckEnabled(String userId, List<String> groupIds) {
     Boolean isRevokeAuthCheckEnabled = this.isRevokeAuthCheckUsed;
 
@@ -321,6 +342,22 @@ public class AuthorizationManager extends AbstractManager {
   }
 
   public boolean isAuthorized(String userId, List<String> groupIds, CompositePermissionCheck compositePermissionCheck) {
+    AuthorizationDecisionCache decisionCache = getAuthorizationDecisionCache();
+    if (decisionCache == null) {
+      return isAuthorizedInDatabase(userId, groupIds, compositePermissionCheck);
+    }
+
+    String key = decisionCache.createKey(userId, groupIds, compositePermissionCheck);
+    Boolean isAuthorized = decisionCache.get(key);
+    if (isAuthorized == null) {
+      long generation = decisionCache.getGeneration();
+      isAuthorized = isAuthorizedInDatabase(userId, groupIds, compositePermissionCheck);
+      decisionCache.put(key, isAuthorized, generation);
+    }
+    return isAuthorized;
+  }
+
+  protected boolean isAuthorizedInDatabase(String userId, List<String> groupIds, CompositePermissionCheck compositePermissionCheck) {
     List<String> filteredGroupIds = filterAuthenticatedGroupIds(groupIds);
 
     boolean isRevokeAuthorizationCheckEnabled = isRevokeAuthCheckEnabled(userId, groupIds);
@@ -366,6 +403,8 @@ public class AuthorizationManager extends AbstractManager {
     authCheck.setAuthorizationCheckEnabled(true);
     authCheck.setAuthGroupIds(filterAuthenticatedGroupIds(authGroupIds));
     authCheck.setRevokeAuthorizationCheckEnabled(isRevokeAuthCheckEnabled(authUserId, authGroupIds));
+    authCheck.setPermissionProjectionEnabled(Context.getProcessEngineConfiguration().isAuthorizationPermissionProjectionEnabled()
+        && getCommandContext().getAuthorizationPermissionManager().isAuthorizationPermissionProjectionUpToDate());
   }
 
   @Override
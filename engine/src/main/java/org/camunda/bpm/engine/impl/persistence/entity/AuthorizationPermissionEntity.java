@@ -0,0 +1,156 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_REVOKE;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+
+/**
+ * A single permission granted by a global or grant authorization. The rows of
+ * this entity form a projection of <code>ACT_RU_AUTHORIZATION</code> with one
+ * row per granted permission bit, so that authorization checks in queries can
+ * match the permission by equality instead of a bitwise comparison.
+ */
+public class AuthorizationPermissionEntity implements DbEntity, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String id;
+  protected String authorizationId;
+  protected int authorizationType;
+  protected String userId;
+  protected String groupId;
+  protected Integer resourceType;
+  protected String resourceId;
+  protected int permission;
+
+  public AuthorizationPermissionEntity() {
+  }
+
+  public AuthorizationPermissionEntity(AuthorizationEntity authorization, int permission) {
+    this.authorizationId = authorization.getId();
+    this.authorizationType = authorization.getAuthorizationType();
+    this.userId = authorization.getUserId();
+    this.groupId = authorization.getGroupId();
+    this.resourceType = authorization.getResourceType();
+    this.resourceId = authorization.getResourceId();
+    this.permission = permission;
+  }
+
+  /**
+   * @return one entity for each permission bit granted by the given
+   * authorization; revoke authorizations grant nothing
+   */
+  public static List<AuthorizationPermissionEntity> fromAuthorization(AuthorizationEntity authorization) {
+    List<AuthorizationPermissionEntity> permissions = new ArrayList<AuthorizationPermissionEntity>();
+
+    if (authorization.getAuthorizationType() != AUTH_TYPE_REVOKE) {
+      int perms = authorization.getPermissions();
+      for (int bit = 1; bit > 0 && bit <= perms; bit <<= 1) {
+        if ((perms & bit) == bit) {
+          permissions.add(new AuthorizationPermissionEntity(authorization, bit));
+        }
+      }
+    }
+
+    return permissions;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getAuthorizationId() {
+    return authorizationId;
+  }
+
+  public void setAuthorizationId(String authorizationId) {
+    this.authorizationId = authorizationId;
+  }
+
+  public int getAuthorizationType() {
+    return authorizationType;
+  }
+
+  public void setAuthorizationType(int authorizationType) {
+    this.authorizationType = authorizationType;
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public void setUserId(String userId) {
+    this.userId = userId;
+  }
+
+  public String getGroupId() {
+    return groupId;
+  }
+
+  public void setGroupId(String groupId) {
+    this.groupId = groupId;
+  }
+
+  public Integer getResourceType() {
+    return resourceType;
+  }
+
+  public void setResourceType(Integer resourceType) {
+    this.resourceType = resourceType;
+  }
+
+  public String getResourceId() {
+    return resourceId;
+  }
+
+  public void setResourceId(String resourceId) {
+    this.resourceId = resourceId;
+  }
+
+  public int getPermission() {
+    return permission;
+  }
+
+  public void setPermission(int permission) {
+    this.permission = permission;
+  }
+
+  public Object getPersistentState() {
+    // entity is immutable
+    return AuthorizationPermissionEntity.class;
+  }
+
+  public String toString() {
+    return this.getClass().getSimpleName()
+           + "[id=" + id
+           + ", authorizationId=" + authorizationId
+           + ", authorizationType=" + authorizationType
+           + ", userId=" + userId
+           + ", groupId=" + groupId
+           + ", resourceType=" + resourceType
+           + ", resourceId=" + resourceId
+           + ", permission=" + permission
+           + "]";
+  }
+
+}
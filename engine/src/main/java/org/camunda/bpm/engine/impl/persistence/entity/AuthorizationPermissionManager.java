@@ -0,0 +1,122 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.cfg.auth.AuthorizationPermissionProjectionStatus;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.persistence.AbstractManager;
+
+/**
+ * Manages the authorization permission projection. The projection is kept in
+ * sync with the authorizations when the entity manager flushes, see
+ * {@link AuthorizationPermissionEntity}.
+ *
+ * <p>Whether the projection is up to date is recorded in the property
+ * {@value #PROJECTION_PROPERTY}. The projection is built and the property is
+ * written while holding the exclusive deployment lock, so that engines of a
+ * cluster which start at the same time do not build it concurrently. Authorization
+ * checks only use the projection while the property exists, see
+ * {@link AuthorizationPermissionProjectionStatus}.
+ */
+public class AuthorizationPermissionManager extends AbstractManager {
+
+  public static final String PROJECTION_PROPERTY = "authorization.permission.projection";
+
+  /**
+   * Builds the projection unless it is already up to date. Called when an engine with
+   * the projection enabled is built.
+   */
+  public void ensureAuthorizationPermissionsBuilt() {
+    PropertyManager propertyManager = getCommandContext().getPropertyManager();
+    propertyManager.acquireExclusiveLock();
+
+    if (propertyManager.findPropertyById(PROJECTION_PROPERTY) == null) {
+      buildAuthorizationPermissions();
+      getDbEntityManager().insert(new PropertyEntity(PROJECTION_PROPERTY, "true"));
+      invalidateStatus();
+    }
+  }
+
+  /**
+   * Replaces the whole projection with the permissions granted by the current
+   * authorizations, regardless of whether it is marked as up to date.
+   */
+  public void rebuildAuthorizationPermissions() {
+    PropertyManager propertyManager = getCommandContext().getPropertyManager();
+    propertyManager.acquireExclusiveLock();
+
+    buildAuthorizationPermissions();
+
+    if (propertyManager.findPropertyById(PROJECTION_PROPERTY) == null) {
+      getDbEntityManager().insert(new PropertyEntity(PROJECTION_PROPERTY, "true"));
+      invalidateStatus();
+    }
+  }
+
+  /**
+   * Marks the projection as outdated. Called when an engine with the projection
+   * disabled is built, since authorizations changed by that engine are not projected.
+   * The next engine built with the projection enabled rebuilds it.
+   */
+  public void invalidateAuthorizationPermissions() {
+    if (getCommandContext().getPropertyManager().findPropertyById(PROJECTION_PROPERTY) != null) {
+      getDbEntityManager().delete(PropertyEntity.class, "deletePropertyByName", PROJECTION_PROPERTY);
+    }
+  }
+
+  /**
+   * @return true if the projection is marked as up to date; the state is read from
+   *   the database once the state recorded by this engine has expired
+   */
+  public boolean isAuthorizationPermissionProjectionUpToDate() {
+    AuthorizationPermissionProjectionStatus status = Context.getProcessEngineConfiguration().getAuthorizationPermissionProjectionStatus();
+    if (status == null) {
+      return false;
+    }
+
+    Boolean isUpToDate = status.get();
+    if (isUpToDate == null) {
+      long generation = status.getGeneration();
+      isUpToDate = getCommandContext().getPropertyManager().findPropertyById(PROJECTION_PROPERTY) != null;
+      status.put(isUpToDate, generation);
+    }
+    return isUpToDate;
+  }
+
+  /**
+   * Inserts the rows of the projection with one statement per permission bit, so that
+   * the authorizations are not loaded into memory.
+   */
+  protected void buildAuthorizationPermissions() {
+    getDbSqlSession().executeUpdate("deleteAllAuthorizationPermissions", null);
+
+    for (int permission = 1; permission > 0; permission <<= 1) {
+      Map<String, Object> parameters = new HashMap<String, Object>();
+      parameters.put("permission", permission);
+      // the id must not collide with the ids of the rows inserted when authorizations change
+      parameters.put("idSuffix", ":" + permission);
+      getDbSqlSession().executeUpdate("insertAuthorizationPermissionsForPermission", parameters);
+    }
+  }
+
+  protected void invalidateStatus() {
+    AuthorizationPermissionProjectionStatus status = Context.getProcessEngineConfiguration().getAuthorizationPermissionProjectionStatus();
+    if (status != null) {
+      status.invalidate();
+    }
+  }
+
+}
@@ -25,6 +25,7 @@ import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionDefinitionManag
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionRequirementsDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.impl.persistence.deploy.cache.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.ParsedResourceFileCache;
 import org.camunda.bpm.engine.repository.CaseDefinition;
 import org.camunda.bpm.engine.repository.DecisionDefinition;
 import org.camunda.bpm.engine.repository.DecisionRequirementsDefinition;
@@ -109,6 +110,11 @@ public class DeploymentManager extends AbstractManager {
 
     getResourceManager().deleteResourcesByDeploymentId(deploymentId);
 
+    ParsedResourceFileCache parsedResourceCache = Context.getProcessEngineConfiguration().getParsedResourceCache();
+    if (parsedResourceCache != null) {
+      parsedResourceCache.remove(deploymentId);
+    }
+
     deleteAuthorizations(Resources.DEPLOYMENT, deploymentId);
     getDbEntityManager().delete(DeploymentEntity.class, "deleteDeployment", deploymentId);
 
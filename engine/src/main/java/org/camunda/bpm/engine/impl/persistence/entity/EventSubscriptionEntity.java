@@ -52,6 +52,7 @@ public class EventSubscriptionEntity implements EventSubscription, DbEntity, Has
   protected String configuration;
   protected Date created;
   protected String tenantId;
+  protected String correlationKey;
 
   // runtime state /////////////////////////////
   protected ExecutionEntity execution;
@@ -162,6 +163,7 @@ public class EventSubscriptionEntity implements EventSubscription, DbEntity, Has
     persistentState.put("configuration", configuration);
     persistentState.put("activityId", activityId);
     persistentState.put("eventName", eventName);
+    persistentState.put("correlationKey", correlationKey);
     return persistentState;
   }
 
@@ -316,6 +318,14 @@ public class EventSubscriptionEntity implements EventSubscription, DbEntity, Has
     this.tenantId = tenantId;
   }
 
+  public String getCorrelationKey() {
+    return correlationKey;
+  }
+
+  public void setCorrelationKey(String correlationKey) {
+    this.correlationKey = correlationKey;
+  }
+
   @Override
   public int hashCode() {
     final int prime = 31;
@@ -352,6 +362,7 @@ public class EventSubscriptionEntity implements EventSubscription, DbEntity, Has
            + ", activityId=" + activityId
            + ", tenantId=" + tenantId
            + ", configuration=" + configuration
+           + ", correlationKey=" + correlationKey
            + ", revision=" + revision
            + ", created=" + created
            + "]";
@@ -258,6 +258,17 @@ public class EventSubscriptionManager extends AbstractManager {
     return getDbEntityManager().selectList("selectEventSubscriptionsByProcessInstanceId", processInstanceId);
   }
 
+  /**
+   * @return <code>true</code> if there is a subscription to the given message whose correlation key
+   *   was not built from the variables of the given key prefix and must be matched by the variable values
+   */
+  public boolean hasMessageEventSubscriptionsWithoutCorrelationKeyPrefix(String messageName, String correlationKeyPrefix) {
+    Map<String, String> params = new HashMap<String, String>();
+    params.put("messageName", messageName);
+    params.put("correlationKeyPattern", correlationKeyPrefix + "%");
+    return getDbEntityManager().selectBoolean("selectMessageEventSubscriptionWithoutCorrelationKeyPrefixExists", params);
+  }
+
   /**
    * @return the message start event subscriptions with the given message name (from any tenant)
    *
@@ -18,6 +18,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -26,6 +27,7 @@ import org.camunda.bpm.engine.ProcessEngineServices;
 import org.camunda.bpm.engine.delegate.ExecutionListener;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.bpmn.behavior.NoneStartEventActivityBehavior;
+import org.camunda.bpm.engine.impl.bpmn.helper.BpmnProperties;
 import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParse;
 import org.camunda.bpm.engine.impl.bpmn.parser.EventSubscriptionDeclaration;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
@@ -45,7 +47,10 @@ import org.camunda.bpm.engine.impl.core.variable.scope.VariableStore.VariablesPr
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.db.HasDbReferences;
+import org.camunda.bpm.engine.impl.db.HasDbPartialUpdate;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.db.PersistentStateSnapshot;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.event.EventType;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
@@ -91,7 +96,7 @@ import org.camunda.bpm.model.xml.type.ModelElementType;
  * @author Daniel Meyer
  * @author Falko Menge
  */
-public class ExecutionEntity extends PvmExecutionImpl implements Execution, ProcessInstance, DbEntity, HasDbRevision, HasDbReferences, VariablesProvider<VariableInstanceEntity> {
+public class ExecutionEntity extends PvmExecutionImpl implements Execution, ProcessInstance, DbEntity, HasDbRevision, HasDbReferences, HasDbPartialUpdate, VariablesProvider<VariableInstanceEntity> {
 
   private static final long serialVersionUID = 1L;
 
@@ -107,6 +112,16 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   public static final int SUB_CASE_INSTANCE_STATE_BIT = 7;
   public static final int EXTERNAL_TASKS_BIT = 8;
 
+  /** the names of the fields of the persistent state, see {@link #getPersistentState()} */
+  protected static final String[] PERSISTENT_STATE_PROPERTIES = {
+      "processDefinitionId", "businessKey", "activityId", "activityInstanceId", "isActive",
+      "isConcurrent", "isScope", "isEventScope", "parentId", "superExecutionId",
+      "superCaseExecutionId", "caseInstanceId", "suspensionState", "cachedEntityState",
+      "sequenceCounter" };
+
+  /** the properties changed by the current partial update, see {@link HasDbPartialUpdate} */
+  protected transient Set<String> changedProperties;
+
   // current position /////////////////////////////////////////////////////////
 
   /**
@@ -1282,10 +1297,71 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
    *
    */
   protected void ensureExecutionTreeInitialized() {
-    List<ExecutionEntity> executions = Context.getCommandContext()
+    CommandContext commandContext = Context.getCommandContext();
+
+    if (commandContext.isProcessInstanceGraphPrefetchEnabled()) {
+      ensureProcessInstanceGraphInitialized(commandContext);
+    }
+    else {
+      List<ExecutionEntity> executions = commandContext
+        .getExecutionManager()
+        .findExecutionsByProcessInstanceId(processInstanceId);
+
+      findProcessInstance(executions).restoreProcessInstance(executions, null, null, null, null, null, null);
+    }
+  }
+
+  /**
+   * Initializes the execution tree together with the event subscriptions, variables, tasks,
+   * jobs, incidents and external tasks of the process instance, using one query per entity
+   * type instead of one query per execution and entity type.
+   *
+   * The referenced entities are loaded before the executions so that the executions they
+   * belong to are part of the tree. Entities which were deleted by the current command are
+   * left out, collections which are already initialized are kept.
+   */
+  protected void ensureProcessInstanceGraphInitialized(CommandContext commandContext) {
+    DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+
+    List<EventSubscriptionEntity> eventSubscriptions = dbEntityManager.pruneDeletedEntities(commandContext
+      .getEventSubscriptionManager()
+      .findEventSubscriptionsByProcessInstanceId(processInstanceId));
+    List<VariableInstanceEntity> variables = dbEntityManager.pruneDeletedEntities(commandContext
+      .getVariableInstanceManager()
+      .findVariableInstancesByProcessInstanceId(processInstanceId));
+    List<TaskEntity> tasks = dbEntityManager.pruneDeletedEntities(commandContext
+      .getTaskManager()
+      .findTasksByProcessInstanceId(processInstanceId));
+    List<JobEntity> jobs = dbEntityManager.pruneDeletedEntities(commandContext
+      .getJobManager()
+      .findJobsByProcessInstanceId(processInstanceId));
+    List<IncidentEntity> incidents = dbEntityManager.pruneDeletedEntities(commandContext
+      .getIncidentManager()
+      .findIncidentsByProcessInstance(processInstanceId));
+    List<ExternalTaskEntity> externalTasks = dbEntityManager.pruneDeletedEntities(commandContext
+      .getExternalTaskManager()
+      .findExternalTasksByProcessInstanceId(processInstanceId));
+
+    List<ExecutionEntity> executions = commandContext
       .getExecutionManager()
       .findExecutionsByProcessInstanceId(processInstanceId);
 
+    // an execution may have been removed concurrently after its event subscriptions were loaded
+    Set<String> executionIds = new HashSet<String>();
+    for (ExecutionEntity execution : executions) {
+      executionIds.add(execution.getId());
+    }
+    Iterator<EventSubscriptionEntity> eventSubscriptionIt = eventSubscriptions.iterator();
+    while (eventSubscriptionIt.hasNext()) {
+      if (!executionIds.contains(eventSubscriptionIt.next().getExecutionId())) {
+        eventSubscriptionIt.remove();
+      }
+    }
+
+    findProcessInstance(executions).restoreProcessInstance(executions, eventSubscriptions, variables, tasks, jobs, incidents, externalTasks);
+  }
+
+  protected ExecutionEntity findProcessInstance(List<ExecutionEntity> executions) {
     ExecutionEntity processInstance = isProcessInstanceExecution() ? this : null;
 
     if(processInstance == null) {
@@ -1296,7 +1372,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       }
     }
 
-    processInstance.restoreProcessInstance(executions, null, null, null, null, null, null);
+    return processInstance;
   }
 
   /**
@@ -1348,6 +1424,18 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       if(execution.eventSubscriptions == null && eventSubscriptions != null) {
         execution.eventSubscriptions = new ArrayList<EventSubscriptionEntity>();
       }
+      if(execution.tasks == null && tasks != null) {
+        execution.tasks = new ArrayList<TaskEntity>();
+      }
+      if(execution.jobs == null && jobs != null) {
+        execution.jobs = new ArrayList<JobEntity>();
+      }
+      if(execution.incidents == null && incidents != null) {
+        execution.incidents = new ArrayList<IncidentEntity>();
+      }
+      if(execution.externalTasks == null && externalTasks != null) {
+        execution.externalTasks = new ArrayList<ExternalTaskEntity>();
+      }
       if(variables != null) {
         execution.variableStore.setVariablesProvider(
             new VariableCollectionProvider<VariableInstanceEntity>(variablesByScope.get(execution.id)));
@@ -1385,15 +1473,19 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     if (jobs != null) {
       for (JobEntity job : jobs) {
         ExecutionEntity execution = executionsMap.get(job.getExecutionId());
-        job.setExecution(execution);
+        if (execution != null) {
+          job.setExecution(execution);
+        }
       }
     }
 
     if (tasks != null) {
       for (TaskEntity task : tasks) {
         ExecutionEntity execution = executionsMap.get(task.getExecutionId());
-        task.setExecution(execution);
-        execution.addTask(task);
+        if (execution != null) {
+          task.setExecution(execution);
+          execution.addTask(task);
+        }
 
         if(variables != null) {
           task.variableStore.setVariablesProvider(new VariableCollectionProvider<VariableInstanceEntity>(variablesByScope.get(task.id)));
@@ -1405,15 +1497,19 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     if (incidents != null) {
       for (IncidentEntity incident : incidents) {
         ExecutionEntity execution = executionsMap.get(incident.getExecutionId());
-        incident.setExecution(execution);
+        if (execution != null) {
+          incident.setExecution(execution);
+        }
       }
     }
 
     if (externalTasks != null) {
       for (ExternalTaskEntity externalTask : externalTasks) {
         ExecutionEntity execution = executionsMap.get(externalTask.getExecutionId());
-        externalTask.setExecution(execution);
-        execution.addExternalTask(externalTask);
+        if (execution != null) {
+          externalTask.setExecution(execution);
+          execution.addExternalTask(externalTask);
+        }
       }
     }
   }
@@ -1422,23 +1518,30 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   // persistent state /////////////////////////////////////////////////////////
 
   public Object getPersistentState() {
-    Map<String, Object> persistentState = new HashMap<String, Object>();
-    persistentState.put("processDefinitionId", this.processDefinitionId);
-    persistentState.put("businessKey", businessKey);
-    persistentState.put("activityId", this.activityId);
-    persistentState.put("activityInstanceId", this.activityInstanceId);
-    persistentState.put("isActive", this.isActive);
-    persistentState.put("isConcurrent", this.isConcurrent);
-    persistentState.put("isScope", this.isScope);
-    persistentState.put("isEventScope", this.isEventScope);
-    persistentState.put("parentId", parentId);
-    persistentState.put("superExecution", this.superExecutionId);
-    persistentState.put("superCaseExecutionId", this.superCaseExecutionId);
-    persistentState.put("caseInstanceId", this.caseInstanceId);
-    persistentState.put("suspensionState", this.suspensionState);
-    persistentState.put("cachedEntityState", getCachedEntityState());
-    persistentState.put("sequenceCounter", getSequenceCounter());
-    return persistentState;
+    return new PersistentStateSnapshot(PERSISTENT_STATE_PROPERTIES, new Object[] {
+        processDefinitionId,
+        businessKey,
+        activityId,
+        activityInstanceId,
+        isActive,
+        isConcurrent,
+        isScope,
+        isEventScope,
+        parentId,
+        superExecutionId,
+        superCaseExecutionId,
+        caseInstanceId,
+        suspensionState,
+        getCachedEntityState(),
+        getSequenceCounter() });
+  }
+
+  public Set<String> getChangedProperties() {
+    return changedProperties;
+  }
+
+  public void setChangedProperties(Set<String> changedProperties) {
+    this.changedProperties = changedProperties;
   }
 
   public void insert() {
@@ -1637,7 +1740,10 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   }
 
   public void addExternalTask(ExternalTaskEntity externalTask) {
-    getExternalTasksInternal().add(externalTask);
+    List<ExternalTaskEntity> externalTasksInternal = getExternalTasksInternal();
+    if (!externalTasksInternal.contains(externalTask)) {
+      externalTasksInternal.add(externalTask);
+    }
   }
 
   public void removeExternalTask(ExternalTaskEntity externalTask) {
@@ -1678,6 +1784,13 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
 
     listeners.add((VariableInstanceLifecycleListener) new VariableListenerInvocationListener(this));
 
+    if (isProcessInstanceExecution() && getProcessDefinition() != null) {
+      List<String> correlationKeyVariables = getProcessDefinition().getProperties().get(BpmnProperties.CORRELATION_KEY_VARIABLES);
+      if (!correlationKeyVariables.isEmpty()) {
+        listeners.add((VariableInstanceLifecycleListener) new VariableInstanceCorrelationKeyListener(this, correlationKeyVariables));
+      }
+    }
+
     listeners.addAll((List) registeredVariableListeners);
 
     return listeners;
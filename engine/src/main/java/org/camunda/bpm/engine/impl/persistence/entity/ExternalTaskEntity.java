@@ -13,7 +13,7 @@
 package org.camunda.bpm.engine.impl.persistence.entity;
 
 import java.util.Date;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.camunda.bpm.engine.EntityTypes;
@@ -21,10 +21,14 @@ import org.camunda.bpm.engine.delegate.BpmnError;
 import org.camunda.bpm.engine.externaltask.ExternalTask;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.bpmn.behavior.ExternalTaskActivityBehavior;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.db.PersistentStateSnapshot;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskCreatedNotification;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskCreationObserver;
 import org.camunda.bpm.engine.impl.incident.IncidentContext;
 import org.camunda.bpm.engine.impl.incident.IncidentHandler;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
@@ -187,27 +191,22 @@ public class ExternalTaskEntity implements ExternalTask, DbEntity, HasDbRevision
   }
 
   public Object getPersistentState() {
-    Map<String, Object> persistentState = new  HashMap<String, Object>();
-    persistentState.put("topic", topicName);
-    persistentState.put("workerId", workerId);
-    persistentState.put("lockExpirationTime", lockExpirationTime);
-    persistentState.put("retries", retries);
-    persistentState.put("errorMessage", errorMessage);
-    persistentState.put("executionId", executionId);
-    persistentState.put("processInstanceId", processInstanceId);
-    persistentState.put("processDefinitionId", processDefinitionId);
-    persistentState.put("processDefinitionKey", processDefinitionKey);
-    persistentState.put("activityId", activityId);
-    persistentState.put("activityInstanceId", activityInstanceId);
-    persistentState.put("suspensionState", suspensionState);
-    persistentState.put("tenantId", tenantId);
-    persistentState.put("priority", priority);
-
-    if(errorDetailsByteArrayId != null) {
-      persistentState.put("errorDetailsByteArrayId", errorDetailsByteArrayId);
-    }
-
-    return persistentState;
+    return new PersistentStateSnapshot(
+        topicName,
+        workerId,
+        lockExpirationTime,
+        retries,
+        errorMessage,
+        executionId,
+        processInstanceId,
+        processDefinitionId,
+        processDefinitionKey,
+        activityId,
+        activityInstanceId,
+        suspensionState,
+        tenantId,
+        priority,
+        errorDetailsByteArrayId);
   }
 
   public void insert() {
@@ -446,10 +445,20 @@ public class ExternalTaskEntity implements ExternalTask, DbEntity, HasDbRevision
 
     externalTask.insert();
     externalTask.produceHistoricExternalTaskCreatedEvent();
+    externalTask.notifyExternalTaskCreationObservers();
 
     return externalTask;
   }
 
+  protected void notifyExternalTaskCreationObservers() {
+    List<ExternalTaskCreationObserver> observers = Context.getProcessEngineConfiguration().getExternalTaskCreationObservers();
+    if (observers != null && !observers.isEmpty()) {
+      Context.getCommandContext()
+        .getTransactionContext()
+        .addTransactionListener(TransactionState.COMMITTED, new ExternalTaskCreatedNotification(topicName, observers));
+    }
+  }
+
   protected void produceHistoricExternalTaskCreatedEvent() {
     CommandContext commandContext = Context.getCommandContext();
     commandContext.getHistoricExternalTaskLogManager().fireExternalTaskCreatedEvent(this);
@@ -26,7 +26,12 @@ import java.util.List;
 import org.camunda.bpm.engine.filter.Filter;
 import org.camunda.bpm.engine.impl.AbstractQuery;
 import org.camunda.bpm.engine.impl.QueryValidators.StoredQueryValidator;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.filter.FilterCountCache;
 import org.camunda.bpm.engine.impl.filter.FilterQueryImpl;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 
 /**
@@ -52,6 +57,7 @@ public class FilterManager extends AbstractManager {
     else {
       checkAuthorization(UPDATE, FILTER, filter.getId());
       getDbEntityManager().merge((FilterEntity) filter);
+      invalidateFilterCounts(filter.getId());
     }
 
     return filter;
@@ -67,6 +73,8 @@ public class FilterManager extends AbstractManager {
     deleteAuthorizations(FILTER, filterId);
     // delete the filter itself
     getDbEntityManager().delete(filter);
+
+    invalidateFilterCounts(filterId);
   }
 
   public FilterEntity findFilterById(String filterId) {
@@ -90,6 +98,20 @@ public class FilterManager extends AbstractManager {
     return (Long) getDbEntityManager().selectOne("selectFilterCountByQueryCriteria", filterQuery);
   }
 
+  /**
+   * Evicts the cached counts of the filter once the transaction is committed.
+   */
+  protected void invalidateFilterCounts(final String filterId) {
+    final FilterCountCache filterCountCache = Context.getProcessEngineConfiguration().getFilterCountCache();
+    if (filterCountCache != null) {
+      getCommandContext().getTransactionContext().addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+        public void execute(CommandContext commandContext) {
+          filterCountCache.invalidate(filterId);
+        }
+      });
+    }
+  }
+
   // authorization utils /////////////////////////////////
 
   protected void createDefaultAuthorizations(Filter filter) {
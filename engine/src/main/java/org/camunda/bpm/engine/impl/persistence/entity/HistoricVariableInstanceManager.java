@@ -22,6 +22,7 @@ import org.camunda.bpm.engine.history.HistoricVariableInstanceQuery;
 import org.camunda.bpm.engine.impl.HistoricVariableInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.persistence.AbstractHistoricManager;
+import org.camunda.bpm.engine.query.QueryResultHandler;
 
 
 /**
@@ -87,6 +88,12 @@ public class HistoricVariableInstanceManager extends AbstractHistoricManager {
     return getDbEntityManager().selectList("selectHistoricVariableInstanceByQueryCriteria", historicProcessVariableQuery, page);
   }
 
+  @SuppressWarnings("unchecked")
+  public void iterateHistoricVariableInstancesByQueryCriteria(HistoricVariableInstanceQueryImpl historicProcessVariableQuery, QueryResultHandler<? super HistoricVariableInstance> resultHandler) {
+    configureQuery(historicProcessVariableQuery);
+    getDbEntityManager().selectStreaming("selectHistoricVariableInstanceByQueryCriteria", historicProcessVariableQuery, (QueryResultHandler<Object>) resultHandler);
+  }
+
   public HistoricVariableInstanceEntity findHistoricVariableInstanceByVariableInstanceId(String variableInstanceId) {
     return (HistoricVariableInstanceEntity) getDbEntityManager().selectOne("selectHistoricVariableInstanceByVariableInstanceId", variableInstanceId);
   }
@@ -0,0 +1,185 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.Direction;
+import org.camunda.bpm.engine.impl.QueryOrderingProperty;
+import org.camunda.bpm.engine.impl.QueryPropertyImpl;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSession;
+import org.camunda.bpm.engine.impl.persistence.AbstractHistoricManager;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Finds historic instances whose history time to live has expired and removes
+ * them together with their dependent history in set-based statements.
+ *
+ * <p>The removal time of an instance is its end time (evaluation time for
+ * decision instances, close time for case instances) plus the history time
+ * to live of its definition. Definitions are grouped by their time to live,
+ * so the removal time can be calculated once per group instead of with database
+ * specific date arithmetic.</p>
+ *
+ * <p>The DELETE statements are executed immediately and in a fixed order so
+ * that byte arrays are removed before the rows which reference them.</p>
+ */
+public class HistoryCleanupManager extends AbstractHistoricManager {
+
+  protected static final QueryOrderingProperty END_TIME_ORDERING_PROPERTY =
+      new QueryOrderingProperty(new QueryPropertyImpl("END_TIME_"), Direction.ASCENDING);
+  protected static final QueryOrderingProperty EVAL_TIME_ORDERING_PROPERTY =
+      new QueryOrderingProperty(new QueryPropertyImpl("EVAL_TIME_"), Direction.ASCENDING);
+  protected static final QueryOrderingProperty CLOSE_TIME_ORDERING_PROPERTY =
+      new QueryOrderingProperty(new QueryPropertyImpl("CLOSE_TIME_"), Direction.ASCENDING);
+
+  protected static final String[] PROCESS_INSTANCE_CLEANUP_STATEMENTS = {
+    "deleteHistoricDetailByteArraysByProcessInstanceIds",
+    "deleteHistoricDetailsByProcessInstanceIds",
+    "deleteHistoricVariableInstanceByteArraysByProcessInstanceIds",
+    "deleteHistoricVariableInstancesByProcessInstanceIds",
+    "deleteCommentsByProcessInstanceIds",
+    "deleteAttachmentByteArraysByProcessInstanceIds",
+    "deleteAttachmentsByProcessInstanceIds",
+    "deleteHistoricIdentityLinksByProcessInstanceIds",
+    "deleteHistoricTaskInstancesByProcessInstanceIds",
+    "deleteHistoricActivityInstancesByProcessInstanceIds",
+    "deleteHistoricIncidentsByProcessInstanceIds",
+    "deleteHistoricJobLogByteArraysByProcessInstanceIds",
+    "deleteHistoricJobLogsByProcessInstanceIds",
+    "deleteHistoricExternalTaskLogByteArraysByProcessInstanceIds",
+    "deleteHistoricExternalTaskLogsByProcessInstanceIds"
+  };
+
+  protected static final String[] DECISION_INSTANCE_CLEANUP_STATEMENTS = {
+    "deleteHistoricDecisionInputByteArraysByDecisionInstanceIds",
+    "deleteHistoricDecisionInputsByDecisionInstanceIds",
+    "deleteHistoricDecisionOutputByteArraysByDecisionInstanceIds",
+    "deleteHistoricDecisionOutputsByDecisionInstanceIds"
+  };
+
+  protected static final String[] CASE_INSTANCE_CLEANUP_STATEMENTS = {
+    "deleteHistoricDetailByteArraysByCaseInstanceIds",
+    "deleteHistoricDetailsByCaseInstanceIds",
+    "deleteHistoricVariableInstanceByteArraysByCaseInstanceIds",
+    "deleteHistoricVariableInstancesByCaseInstanceIds",
+    "deleteCommentsByCaseInstanceIds",
+    "deleteAttachmentByteArraysByCaseInstanceIds",
+    "deleteAttachmentsByCaseInstanceIds",
+    "deleteHistoricIdentityLinksByCaseInstanceIds",
+    "deleteHistoricTaskInstancesByCaseInstanceIds",
+    "deleteHistoricCaseActivityInstancesByCaseInstanceIds"
+  };
+
+  // process instances ////////////////////////////////////////////
+
+  public List<String> findHistoricProcessInstanceIdsForCleanup(int maxResults) {
+    return findInstanceIdsForCleanup("selectProcessDefinitionHistoryTimeToLiveValues",
+        "selectHistoricProcessInstanceIdsForCleanup", END_TIME_ORDERING_PROPERTY, maxResults);
+  }
+
+  /**
+   * @return the number of removed historic process instances
+   */
+  public int deleteHistoricProcessInstancesByIds(List<String> processInstanceIds) {
+    return deleteInstances(PROCESS_INSTANCE_CLEANUP_STATEMENTS, "deleteHistoricProcessInstancesByIds", processInstanceIds);
+  }
+
+  // decision instances ///////////////////////////////////////////
+
+  public List<String> findHistoricDecisionInstanceIdsForCleanup(int maxResults) {
+    return findInstanceIdsForCleanup("selectDecisionDefinitionHistoryTimeToLiveValues",
+        "selectHistoricDecisionInstanceIdsForCleanup", EVAL_TIME_ORDERING_PROPERTY, maxResults);
+  }
+
+  /**
+   * @return the number of removed historic decision instances
+   */
+  public int deleteHistoricDecisionInstancesByIds(List<String> decisionInstanceIds) {
+    return deleteInstances(DECISION_INSTANCE_CLEANUP_STATEMENTS, "deleteHistoricDecisionInstancesByIds", decisionInstanceIds);
+  }
+
+  // case instances ///////////////////////////////////////////////
+
+  public List<String> findHistoricCaseInstanceIdsForCleanup(int maxResults) {
+    return findInstanceIdsForCleanup("selectCaseDefinitionHistoryTimeToLiveValues",
+        "selectHistoricCaseInstanceIdsForCleanup", CLOSE_TIME_ORDERING_PROPERTY, maxResults);
+  }
+
+  /**
+   * @return the number of removed historic case instances
+   */
+  public int deleteHistoricCaseInstancesByIds(List<String> caseInstanceIds) {
+    return deleteInstances(CASE_INSTANCE_CLEANUP_STATEMENTS, "deleteHistoricCaseInstancesByIds", caseInstanceIds);
+  }
+
+  // helper ///////////////////////////////////////////////////////
+
+  @SuppressWarnings("unchecked")
+  protected List<String> findInstanceIdsForCleanup(String timeToLiveStatement, String idStatement,
+      QueryOrderingProperty orderingProperty, int maxResults) {
+
+    if (!isHistoryEnabled() || maxResults <= 0) {
+      return Collections.emptyList();
+    }
+
+    List<Integer> timeToLiveValues = getDbEntityManager().selectList(timeToLiveStatement);
+    if (timeToLiveValues.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<Map<String, Object>> removalTimeGroups = new ArrayList<Map<String, Object>>();
+    for (Integer timeToLive : timeToLiveValues) {
+      Map<String, Object> group = new HashMap<String, Object>();
+      group.put("timeToLive", timeToLive);
+      group.put("removalTime", calculateRemovalTime(timeToLive));
+      removalTimeGroups.add(group);
+    }
+
+    ListQueryParameterObject parameter = new ListQueryParameterObject(removalTimeGroups, 0, maxResults);
+    parameter.getOrderingProperties().add(orderingProperty);
+
+    return getDbEntityManager().selectList(idStatement, parameter);
+  }
+
+  /**
+   * Instances which ended before the returned time have outlived the given time to live.
+   */
+  protected Date calculateRemovalTime(int timeToLiveInDays) {
+    Calendar calendar = Calendar.getInstance();
+    calendar.setTime(ClockUtil.getCurrentTime());
+    calendar.add(Calendar.DATE, -timeToLiveInDays);
+    return calendar.getTime();
+  }
+
+  protected int deleteInstances(String[] dependentStatements, String instanceStatement, List<String> instanceIds) {
+    if (instanceIds.isEmpty()) {
+      return 0;
+    }
+
+    DbSqlSession dbSqlSession = getDbSqlSession();
+    for (String statement : dependentStatements) {
+      dbSqlSession.executeUpdate(statement, instanceIds);
+    }
+
+    return dbSqlSession.executeUpdate(instanceStatement, instanceIds);
+  }
+
+}
@@ -0,0 +1,245 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+
+/**
+ * A row of the history event buffer. It holds all history events which were
+ * produced by a single transaction and is inserted together with the runtime
+ * changes of that transaction.
+ *
+ * <p>The events are serialized when the row is flushed, so that changes made
+ * to an event after it was handled (e.g. the end time of an activity instance
+ * which was started in the same transaction) are part of the row.</p>
+ *
+ * <p>The sequence of a row is assigned by the database when the row is inserted,
+ * by an identity column or a database sequence, so it is unique and increases with
+ * the order of the inserts. A transaction which continues the work of another one
+ * (e.g. completes a task created by it) reads the committed state of the other
+ * transaction before it inserts its row, so its row gets a greater sequence,
+ * regardless of the engine or node which executes it.</p>
+ */
+public class HistoryEventBufferEntity implements DbEntity, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
+
+  protected String id;
+  protected Long sequence;
+  protected Date createTime;
+  protected int eventCount;
+  protected byte[] events;
+
+  protected transient List<HistoryEvent> bufferedEvents;
+  protected transient List<String> bufferedEventTypes;
+
+  public HistoryEventBufferEntity() {
+  }
+
+  public HistoryEventBufferEntity(Date createTime) {
+    this.createTime = createTime;
+    this.bufferedEvents = new ArrayList<HistoryEvent>();
+    this.bufferedEventTypes = new ArrayList<String>();
+  }
+
+  /**
+   * Adds an event to this buffer. The event type is remembered as it was at
+   * this point since it decides whether the event is inserted or merged when
+   * the buffer is drained.
+   *
+   * @return false if the buffer was already written and cannot take further events
+   */
+  public boolean addEvent(HistoryEvent event) {
+    if (isWritten()) {
+      return false;
+    }
+
+    if (!containsEvent(event)) {
+      bufferedEvents.add(event);
+      bufferedEventTypes.add(event.getEventType());
+    }
+    return true;
+  }
+
+  public boolean containsEvent(HistoryEvent event) {
+    if (bufferedEvents != null) {
+      for (HistoryEvent bufferedEvent : bufferedEvents) {
+        if (bufferedEvent == event) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T extends HistoryEvent> T findEvent(Class<T> type, String id) {
+    if (bufferedEvents != null && id != null) {
+      for (HistoryEvent bufferedEvent : bufferedEvents) {
+        if (type.isAssignableFrom(bufferedEvent.getClass()) && id.equals(bufferedEvent.getId())) {
+          return (T) bufferedEvent;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return true if the events of this buffer were serialized, i.e. the row
+   * was inserted or loaded from the database
+   */
+  public boolean isWritten() {
+    return events != null;
+  }
+
+  public List<HistoryEvent> getBufferedEvents() {
+    if (bufferedEvents == null) {
+      deserializeEvents();
+    }
+    return bufferedEvents;
+  }
+
+  /**
+   * @return the event types the buffered events had when they were handled,
+   * in the same order as {@link #getBufferedEvents()}
+   */
+  public List<String> getBufferedEventTypes() {
+    if (bufferedEventTypes == null) {
+      deserializeEvents();
+    }
+    return bufferedEventTypes;
+  }
+
+  protected void serializeEvents() {
+    ObjectOutputStream outputStream = null;
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      outputStream = new ObjectOutputStream(bytes);
+      outputStream.writeObject(bufferedEvents);
+      outputStream.writeObject(bufferedEventTypes);
+      outputStream.flush();
+      events = bytes.toByteArray();
+      eventCount = bufferedEvents.size();
+    }
+    catch (IOException e) {
+      throw LOG.serializeHistoryEventBufferException(id, e);
+    }
+    finally {
+      IoUtil.closeSilently(outputStream);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected void deserializeEvents() {
+    if (events == null) {
+      bufferedEvents = Collections.emptyList();
+      bufferedEventTypes = Collections.emptyList();
+      return;
+    }
+
+    ObjectInputStream inputStream = null;
+    try {
+      inputStream = new ObjectInputStream(new ByteArrayInputStream(events));
+      bufferedEvents = (List<HistoryEvent>) inputStream.readObject();
+      bufferedEventTypes = (List<String>) inputStream.readObject();
+    }
+    catch (Exception e) {
+      throw LOG.deserializeHistoryEventBufferException(id, e);
+    }
+    finally {
+      IoUtil.closeSilently(inputStream);
+    }
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  /**
+   * @return the sequence of a row which was loaded from the database, null
+   *   for a row which was created by this command
+   */
+  public Long getSequence() {
+    return sequence;
+  }
+
+  public void setSequence(Long sequence) {
+    this.sequence = sequence;
+  }
+
+  public Date getCreateTime() {
+    return createTime;
+  }
+
+  public void setCreateTime(Date createTime) {
+    this.createTime = createTime;
+  }
+
+  public int getEventCount() {
+    if (events == null && bufferedEvents != null) {
+      return bufferedEvents.size();
+    }
+    return eventCount;
+  }
+
+  public void setEventCount(int eventCount) {
+    this.eventCount = eventCount;
+  }
+
+  public byte[] getEvents() {
+    if (events == null && bufferedEvents != null) {
+      serializeEvents();
+    }
+    return events;
+  }
+
+  public void setEvents(byte[] events) {
+    this.events = events;
+  }
+
+  public Object getPersistentState() {
+    // immutable
+    return HistoryEventBufferEntity.class;
+  }
+
+  public String toString() {
+    return this.getClass().getSimpleName()
+        + "[id=" + id
+        + ", sequence=" + sequence
+        + ", createTime=" + createTime
+        + ", eventCount=" + getEventCount()
+        + "]";
+  }
+
+}
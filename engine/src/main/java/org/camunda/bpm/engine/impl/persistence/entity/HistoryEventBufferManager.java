@@ -0,0 +1,101 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.Direction;
+import org.camunda.bpm.engine.impl.QueryOrderingProperty;
+import org.camunda.bpm.engine.impl.QueryPropertyImpl;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.persistence.AbstractManager;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Manages the rows of the history event buffer. Within a command all history
+ * events are collected in a single row which is inserted when the command
+ * context is flushed.
+ */
+public class HistoryEventBufferManager extends AbstractManager {
+
+  public static final QueryOrderingProperty SEQUENCE_ORDERING_PROPERTY =
+      new QueryOrderingProperty(new QueryPropertyImpl("SEQUENCE_"), Direction.ASCENDING);
+
+  public void addEvent(HistoryEvent event) {
+    getCurrentBuffer().addEvent(event);
+  }
+
+  /**
+   * @return the buffered event of this command with the given type and id or
+   * null if no such event was buffered
+   */
+  public <T extends HistoryEvent> T findBufferedEvent(Class<T> type, String id) {
+    List<HistoryEventBufferEntity> buffers = getDbEntityManager().getCachedEntitiesByType(HistoryEventBufferEntity.class);
+
+    T writtenEvent = null;
+    for (HistoryEventBufferEntity buffer : buffers) {
+      T event = buffer.findEvent(type, id);
+      if (event != null) {
+        if (!buffer.isWritten()) {
+          // the buffer which is not flushed yet holds the most recent state
+          return event;
+        }
+        writtenEvent = event;
+      }
+    }
+    return writtenEvent;
+  }
+
+  /**
+   * @return the buffer of this command which can still take events; a new
+   * buffer is created if there is none or the existing ones were already
+   * flushed
+   */
+  protected HistoryEventBufferEntity getCurrentBuffer() {
+    List<HistoryEventBufferEntity> buffers = getDbEntityManager().getCachedEntitiesByType(HistoryEventBufferEntity.class);
+    for (HistoryEventBufferEntity buffer : buffers) {
+      if (!buffer.isWritten()) {
+        return buffer;
+      }
+    }
+
+    HistoryEventBufferEntity buffer = new HistoryEventBufferEntity(ClockUtil.getCurrentTime());
+    getDbEntityManager().insert(buffer);
+    return buffer;
+  }
+
+  @SuppressWarnings("unchecked")
+  public List<HistoryEventBufferEntity> findBuffersToDrain(int maxResults) {
+    ListQueryParameterObject parameter = new ListQueryParameterObject(null, 0, maxResults);
+    parameter.getOrderingProperties().add(SEQUENCE_ORDERING_PROPERTY);
+    return getDbEntityManager().selectList("selectHistoryEventBuffersToDrain", parameter);
+  }
+
+  /**
+   * Deletes the buffer row immediately. The affected row count tells whether
+   * this command claimed the buffer or whether it was drained concurrently.
+   *
+   * @return true if the row was deleted by this command
+   */
+  public boolean claimBuffer(HistoryEventBufferEntity buffer) {
+    int deletedRows = getDbSqlSession().executeUpdate("deleteHistoryEventBuffer", buffer.getId());
+    return deletedRows == 1;
+  }
+
+  public Date findOldestBufferCreateTime() {
+    return (Date) getDbEntityManager().selectOne("selectOldestHistoryEventBufferCreateTime", null);
+  }
+
+}
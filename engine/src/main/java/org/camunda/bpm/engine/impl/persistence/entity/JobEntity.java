@@ -18,16 +18,18 @@ import static org.camunda.bpm.engine.impl.util.StringUtil.toByteArray;
 
 import java.io.Serializable;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.HasDbPartialUpdate;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.db.PersistentStateSnapshot;
 import org.camunda.bpm.engine.impl.incident.IncidentContext;
 import org.camunda.bpm.engine.impl.incident.IncidentHandler;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
@@ -49,7 +51,7 @@ import org.camunda.bpm.engine.runtime.Job;
  * @author Dave Syer
  * @author Frederik Heremans
  */
-public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRevision {
+public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRevision, HasDbPartialUpdate {
 
   private final static EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
 
@@ -65,6 +67,15 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
 
   private static final long serialVersionUID = 1L;
 
+  /** the names of the fields of the persistent state, see {@link #getPersistentState()} */
+  protected static final String[] PERSISTENT_STATE_PROPERTIES = {
+      "executionId", "lockOwner", "lockExpirationTime", "retries", "duedate", "exceptionMessage",
+      "suspensionState", "processDefinitionId", "jobDefinitionId", "deploymentId",
+      "jobHandlerConfiguration", "priority", "tenantId", "exceptionByteArrayId" };
+
+  /** the properties changed by the current partial update, see {@link HasDbPartialUpdate} */
+  protected transient Set<String> changedProperties;
+
   protected String id;
   protected int revision;
 
@@ -191,24 +202,29 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   }
 
   public Object getPersistentState() {
-    Map<String, Object> persistentState = new HashMap<String, Object>();
-    persistentState.put("executionId", executionId);
-    persistentState.put("lockOwner", lockOwner);
-    persistentState.put("lockExpirationTime", lockExpirationTime);
-    persistentState.put("retries", retries);
-    persistentState.put("duedate", duedate);
-    persistentState.put("exceptionMessage", exceptionMessage);
-    persistentState.put("suspensionState", suspensionState);
-    persistentState.put("processDefinitionId", processDefinitionId);
-    persistentState.put("jobDefinitionId", jobDefinitionId);
-    persistentState.put("deploymentId", deploymentId);
-    persistentState.put("jobHandlerConfiguration", jobHandlerConfiguration);
-    persistentState.put("priority", priority);
-    persistentState.put("tenantId", tenantId);
-    if(exceptionByteArrayId != null) {
-      persistentState.put("exceptionByteArrayId", exceptionByteArrayId);
-    }
-    return persistentState;
+    return new PersistentStateSnapshot(PERSISTENT_STATE_PROPERTIES, new Object[] {
+        executionId,
+        lockOwner,
+        lockExpirationTime,
+        retries,
+        duedate,
+        exceptionMessage,
+        suspensionState,
+        processDefinitionId,
+        jobDefinitionId,
+        deploymentId,
+        jobHandlerConfiguration,
+        priority,
+        tenantId,
+        exceptionByteArrayId });
+  }
+
+  public Set<String> getChangedProperties() {
+    return changedProperties;
+  }
+
+  public void setChangedProperties(Set<String> changedProperties) {
+    this.changedProperties = changedProperties;
   }
 
   public int getRevisionNext() {
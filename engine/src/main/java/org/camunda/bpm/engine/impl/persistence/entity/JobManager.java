@@ -14,6 +14,7 @@
 package org.camunda.bpm.engine.impl.persistence.entity;
 
 import org.camunda.bpm.engine.impl.*;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionListener;
 import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
@@ -113,6 +114,13 @@ public class JobManager extends AbstractManager {
       job.setLockExpirationTime(new Date(currentTime.getTime() + jobExecutor.getLockTimeInMillis()));
       job.setLockOwner(jobExecutor.getLockOwner());
       transactionListener = new ExclusiveJobAddedNotification(job.getId(), jobExecutorContext);
+    } else if (isHandOffToJobExecutorPossible(job, jobExecutor)) {
+      // lock job & hand it to the job executor after commit
+      Date currentTime = ClockUtil.getCurrentTime();
+      job.setLockExpirationTime(new Date(currentTime.getTime() + jobExecutor.getLockTimeInMillis()));
+      job.setLockOwner(jobExecutor.getLockOwner());
+      ProcessEngineImpl processEngine = Context.getProcessEngineConfiguration().getProcessEngine();
+      transactionListener = new JobHandedOffNotification(job.getId(), jobExecutor, processEngine);
     } else {
       // notify job executor:
       transactionListener = new MessageAddedNotification(jobExecutor);
@@ -122,6 +130,31 @@ public class JobManager extends AbstractManager {
       .addTransactionListener(TransactionState.COMMITTED, transactionListener);
   }
 
+  protected boolean isHandOffToJobExecutorPossible(JobEntity job, JobExecutor jobExecutor) {
+    ProcessEngineConfigurationImpl configuration = Context.getProcessEngineConfiguration();
+    if (!configuration.isJobExecutorHandOffLocalJobs()
+        || !jobExecutor.isHandOffSupported()
+        || !jobExecutor.hasRegisteredEngine(configuration.getProcessEngine())) {
+      return false;
+    }
+
+    if (job.isSuspended() || job.isExclusive() || job.getRetries() <= 0) {
+      return false;
+    }
+
+    Date duedate = job.getDuedate();
+    if (duedate != null && duedate.after(ClockUtil.getCurrentTime())) {
+      return false;
+    }
+
+    if (configuration.isJobExecutorDeploymentAware()) {
+      String deploymentId = job.getDeploymentId();
+      return deploymentId != null && configuration.getRegisteredDeployments().contains(deploymentId);
+    }
+
+    return true;
+  }
+
   protected boolean areInSameProcessInstance(JobEntity job1, JobEntity job2) {
     if (job1 == null || job2 == null) {
       return false;
@@ -176,7 +209,14 @@ public class JobManager extends AbstractManager {
     // don't apply default sorting
     params.put("applyOrdering", !orderingProperties.isEmpty());
 
-    return getDbEntityManager().selectList("selectNextJobsToExecute", params, page);
+    String statement = "selectNextJobsToExecute";
+    if (Context.getProcessEngineConfiguration().isJobExecutorAcquireWithSkipLocked()
+        && Context.getProcessEngineConfiguration().getDbSqlSessionFactory().isSkipLockedSupported()) {
+      // jobs locked by concurrent acquisitions are skipped instead of failing on update
+      statement = "selectNextJobsToExecuteSkipLocked";
+    }
+
+    return getDbEntityManager().selectList(statement, params, page);
   }
 
   @SuppressWarnings("unchecked")
@@ -194,6 +234,11 @@ public class JobManager extends AbstractManager {
     return getDbEntityManager().selectList("selectJobsByJobDefinitionId", jobDefinitionId);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<JobEntity> findJobsByHandlerType(String handlerType) {
+    return getDbEntityManager().selectList("selectJobsByHandlerType", handlerType);
+  }
+
   @SuppressWarnings("unchecked")
   public List<TimerEntity> findUnlockedTimersByDuedate(Date duedate, Page page) {
     final String query = "selectUnlockedTimersByDuedate";
@@ -34,6 +34,7 @@ public class MeterLogManager extends AbstractManager {
 
   public static final String SELECT_METER_INTERVAL = "selectMeterLogAggregatedByTimeInterval";
   public static final String SELECT_METER_SUM = "selectMeterLogSum";
+  public static final String SELECT_METER_MAX = "selectMeterLogMax";
   public static final String DELETE_ALL_METER = "deleteAllMeterLogEntries";
   public static final String DELETE_ALL_METER_BY_TIMESTAMP_AND_REPORTER = "deleteMeterLogEntriesByTimestampAndReporter";
 
@@ -59,6 +60,13 @@ public class MeterLogManager extends AbstractManager {
     return result;
   }
 
+  public Long executeSelectMax(MetricsQueryImpl query) {
+    // values which are not reported yet are not considered since a
+    // histogram snapshot cannot be taken without resetting it
+    Long result = (Long) getDbEntityManager().selectOne(SELECT_METER_MAX, query);
+    return result != null ? result : 0;
+  }
+
   public List<MetricIntervalValue> executeSelectInterval(MetricsQueryImpl query) {
     List<MetricIntervalValue> intervalResult = getDbEntityManager().selectList(SELECT_METER_INTERVAL, query);
     intervalResult = intervalResult != null ? intervalResult : new ArrayList<MetricIntervalValue>();
@@ -69,8 +77,12 @@ public class MeterLogManager extends AbstractManager {
       String queryName = query.getName();
       //we have to add all unlogged metrics to last interval
       if (queryName != null) {
-        MetricIntervalEntity intervalEntity = (MetricIntervalEntity) intervalResult.get(0);
-        intervalEntity.setValue(intervalEntity.getValue() + metrics.get(queryName).get());
+        Meter meter = metrics.get(queryName);
+        // values reported for histograms have no meter
+        if (meter != null) {
+          MetricIntervalEntity intervalEntity = (MetricIntervalEntity) intervalResult.get(0);
+          intervalEntity.setValue(intervalEntity.getValue() + meter.get());
+        }
       } else {
         Set<String> metricNames = metrics.keySet();
         Date lastIntervalTimestamp = intervalResult.get(0).getTimestamp();
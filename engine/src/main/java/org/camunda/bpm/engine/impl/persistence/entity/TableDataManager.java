@@ -86,6 +86,7 @@ public class TableDataManager extends AbstractManager {
     persistentObjectToTableNameMap.put(FilterEntity.class, "ACT_RU_FILTER");
 
     persistentObjectToTableNameMap.put(MeterLogEntity.class, "ACT_RU_METER_LOG");
+    persistentObjectToTableNameMap.put(HistoryEventBufferEntity.class, "ACT_RU_HIST_BUFFER");
     // repository
     persistentObjectToTableNameMap.put(DeploymentEntity.class, "ACT_RE_DEPLOYMENT");
     persistentObjectToTableNameMap.put(ProcessDefinitionEntity.class, "ACT_RE_PROCDEF");
@@ -134,6 +135,7 @@ public class TableDataManager extends AbstractManager {
     persistentObjectToTableNameMap.put(UserEntity.class, "ACT_ID_USER");
     persistentObjectToTableNameMap.put(IdentityInfoEntity.class, "ACT_ID_INFO");
     persistentObjectToTableNameMap.put(AuthorizationEntity.class, "ACT_RU_AUTHORIZATION");
+    persistentObjectToTableNameMap.put(AuthorizationPermissionEntity.class, "ACT_RU_AUTH_PERM");
 
 
     // general
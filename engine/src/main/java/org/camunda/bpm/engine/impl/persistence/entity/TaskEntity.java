@@ -36,7 +36,9 @@ import org.camunda.bpm.engine.impl.core.variable.scope.VariableStore;
 import org.camunda.bpm.engine.impl.core.variable.scope.VariableStore.VariablesProvider;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
+import org.camunda.bpm.engine.impl.db.HasDbPartialUpdate;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.db.PersistentStateSnapshot;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
@@ -76,7 +78,7 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
  * @author Falko Menge
  * @author Deivarayan Azhagappan
  */
-public class TaskEntity extends AbstractVariableScope implements Task, DelegateTask, Serializable, DbEntity, HasDbRevision, CommandContextListener, VariablesProvider<VariableInstanceEntity> {
+public class TaskEntity extends AbstractVariableScope implements Task, DelegateTask, Serializable, DbEntity, HasDbRevision, HasDbPartialUpdate, CommandContextListener, VariablesProvider<VariableInstanceEntity> {
 
   protected static final EnginePersistenceLogger LOG = ProcessEngineLogger.PERSISTENCE_LOGGER;
 
@@ -85,6 +87,15 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
 
   private static final long serialVersionUID = 1L;
 
+  /** the names of the fields of the persistent state, see {@link #getPersistentState()} */
+  protected static final String[] PERSISTENT_STATE_PROPERTIES = {
+      "assignee", "owner", "name", "priority", "executionId", "processDefinitionId",
+      "caseExecutionId", "caseInstanceId", "caseDefinitionId", "createTime", "description",
+      "dueDate", "followUpDate", "parentTaskId", "delegationState", "tenantId", "suspensionState" };
+
+  /** the properties changed by the current partial update, see {@link HasDbPartialUpdate} */
+  protected transient Set<String> changedProperties;
+
   protected String id;
   protected int revision;
 
@@ -365,51 +376,32 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
 
   @Override
   public Object getPersistentState() {
-    Map<String, Object> persistentState = new  HashMap<String, Object>();
-    persistentState.put("assignee", this.assignee);
-    persistentState.put("owner", this.owner);
-    persistentState.put("name", this.name);
-    persistentState.put("priority", this.priority);
-    if (executionId != null) {
-      persistentState.put("executionId", this.executionId);
-    }
-    if (processDefinitionId != null) {
-      persistentState.put("processDefinitionId", this.processDefinitionId);
-    }
-    if (caseExecutionId != null) {
-      persistentState.put("caseExecutionId", this.caseExecutionId);
-    }
-    if (caseInstanceId != null) {
-      persistentState.put("caseInstanceId", this.caseInstanceId);
-    }
-    if (caseDefinitionId != null) {
-      persistentState.put("caseDefinitionId", this.caseDefinitionId);
-    }
-    if (createTime != null) {
-      persistentState.put("createTime", this.createTime);
-    }
-    if(description != null) {
-      persistentState.put("description", this.description);
-    }
-    if(dueDate != null) {
-      persistentState.put("dueDate", this.dueDate);
-    }
-    if(followUpDate != null) {
-      persistentState.put("followUpDate", this.followUpDate);
-    }
-    if (parentTaskId != null) {
-      persistentState.put("parentTaskId", this.parentTaskId);
-    }
-    if (delegationState != null) {
-      persistentState.put("delegationState", this.delegationState);
-    }
-    if (tenantId != null) {
-      persistentState.put("tenantId", this.tenantId);
-    }
-
-    persistentState.put("suspensionState", this.suspensionState);
-
-    return persistentState;
+    return new PersistentStateSnapshot(PERSISTENT_STATE_PROPERTIES, new Object[] {
+        assignee,
+        owner,
+        name,
+        priority,
+        executionId,
+        processDefinitionId,
+        caseExecutionId,
+        caseInstanceId,
+        caseDefinitionId,
+        createTime,
+        description,
+        dueDate,
+        followUpDate,
+        parentTaskId,
+        delegationState,
+        tenantId,
+        suspensionState });
+  }
+
+  public Set<String> getChangedProperties() {
+    return changedProperties;
+  }
+
+  public void setChangedProperties(Set<String> changedProperties) {
+    this.changedProperties = changedProperties;
   }
 
   @Override
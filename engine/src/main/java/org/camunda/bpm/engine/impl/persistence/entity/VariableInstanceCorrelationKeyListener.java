@@ -0,0 +1,99 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.bpmn.parser.EventSubscriptionDeclaration;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.core.variable.scope.AbstractVariableScope;
+import org.camunda.bpm.engine.impl.core.variable.scope.VariableInstanceLifecycleListener;
+import org.camunda.bpm.engine.impl.event.EventType;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
+
+/**
+ * Recomputes the correlation keys of the message event subscriptions of a process instance
+ * if a process instance variable which is a correlation key is created, updated or deleted.
+ * The keys were computed from the previous values and would not match anymore.
+ *
+ * <p>Both the persisted subscriptions and the ones created in the current command are
+ * updated. Only subscriptions whose key actually changes are flushed.</p>
+ *
+ * @see org.camunda.bpm.engine.impl.runtime.MessageCorrelationKey
+ */
+public class VariableInstanceCorrelationKeyListener implements VariableInstanceLifecycleListener<VariableInstanceEntity> {
+
+  protected ExecutionEntity processInstance;
+  protected List<String> correlationKeyVariables;
+
+  public VariableInstanceCorrelationKeyListener(ExecutionEntity processInstance, List<String> correlationKeyVariables) {
+    this.processInstance = processInstance;
+    this.correlationKeyVariables = correlationKeyVariables;
+  }
+
+  public void onCreate(VariableInstanceEntity variableInstance, AbstractVariableScope sourceScope) {
+    updateCorrelationKeys(variableInstance, false);
+  }
+
+  public void onDelete(VariableInstanceEntity variableInstance, AbstractVariableScope sourceScope) {
+    // the variable is removed from the scope after the listeners are invoked
+    updateCorrelationKeys(variableInstance, true);
+  }
+
+  public void onUpdate(VariableInstanceEntity variableInstance, AbstractVariableScope sourceScope) {
+    updateCorrelationKeys(variableInstance, false);
+  }
+
+  protected void updateCorrelationKeys(VariableInstanceEntity variableInstance, boolean isDeleted) {
+    String variableName = variableInstance.getName();
+    if (!correlationKeyVariables.contains(variableName)) {
+      return;
+    }
+
+    CommandContext commandContext = Context.getCommandContext();
+    if (commandContext == null) {
+      return;
+    }
+
+    if (!commandContext.getDbEntityManager().getDbEntityCache().isTransient(processInstance)) {
+      // fetch the persisted subscriptions into the cache
+      commandContext.getEventSubscriptionManager().findEventSubscriptionsByProcessInstanceId(processInstance.getId());
+    }
+
+    List<EventSubscriptionEntity> eventSubscriptions = commandContext.getDbEntityManager().getCachedEntitiesByType(EventSubscriptionEntity.class);
+    for (EventSubscriptionEntity eventSubscription : eventSubscriptions) {
+      if (processInstance.getId().equals(eventSubscription.getProcessInstanceId())
+          && eventSubscription.isSubscriptionForEventType(EventType.MESSAGE)) {
+
+        EventSubscriptionDeclaration declaration = getDeclaration(eventSubscription);
+        if (declaration != null && declaration.hasCorrelationKeys() && declaration.getCorrelationKeys().contains(variableName)) {
+          if (isDeleted) {
+            eventSubscription.setCorrelationKey(declaration.resolveCorrelationKeyWithoutVariable(processInstance, variableName));
+          } else {
+            eventSubscription.setCorrelationKey(declaration.resolveCorrelationKey(processInstance));
+          }
+        }
+      }
+    }
+  }
+
+  protected EventSubscriptionDeclaration getDeclaration(EventSubscriptionEntity eventSubscription) {
+    ActivityImpl activity = eventSubscription.getActivity();
+    if (activity == null) {
+      return null;
+    }
+    return EventSubscriptionDeclaration.getDeclarationsForScope(activity.getEventScope()).get(activity.getId());
+  }
+
+}
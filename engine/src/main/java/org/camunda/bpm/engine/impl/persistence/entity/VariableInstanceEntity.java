@@ -13,8 +13,6 @@
 package org.camunda.bpm.engine.impl.persistence.entity;
 
 import java.io.Serializable;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.concurrent.Callable;
 
 import org.camunda.bpm.application.InvocationContext;
@@ -29,6 +27,7 @@ import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.DbEntityLifecycleAware;
 import org.camunda.bpm.engine.impl.db.EnginePersistenceLogger;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.db.PersistentStateSnapshot;
 import org.camunda.bpm.engine.impl.persistence.entity.util.ByteArrayField;
 import org.camunda.bpm.engine.impl.persistence.entity.util.TypedValueField;
 import org.camunda.bpm.engine.impl.persistence.entity.util.TypedValueUpdateListener;
@@ -147,36 +146,21 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public Object getPersistentState() {
-    Map<String, Object> persistentState = new HashMap<String, Object>();
-    if (typedValueField.getSerializerName() != null) {
-      persistentState.put("serializerName", typedValueField.getSerializerName());
-    }
-    if (longValue != null) {
-      persistentState.put("longValue", longValue);
-    }
-    if (doubleValue != null) {
-      persistentState.put("doubleValue", doubleValue);
-    }
-    if (textValue != null) {
-      persistentState.put("textValue", textValue);
-    }
-    if (textValue2 != null) {
-      persistentState.put("textValue2", textValue2);
-    }
-    if (byteArrayField.getByteArrayId() != null) {
-      persistentState.put("byteArrayValueId", byteArrayField.getByteArrayId());
-    }
-
-    persistentState.put("sequenceCounter", getSequenceCounter());
-    persistentState.put("concurrentLocal", isConcurrentLocal);
-    persistentState.put("executionId", executionId);
-    persistentState.put("taskId", taskId);
-    persistentState.put("caseExecutionId", caseExecutionId);
-    persistentState.put("caseInstanceId", caseInstanceId);
-    persistentState.put("tenantId", tenantId);
-    persistentState.put("processInstanceId", processInstanceId);
-
-    return persistentState;
+    return new PersistentStateSnapshot(
+        typedValueField.getSerializerName(),
+        longValue,
+        doubleValue,
+        textValue,
+        textValue2,
+        byteArrayField.getByteArrayId(),
+        getSequenceCounter(),
+        isConcurrentLocal,
+        executionId,
+        taskId,
+        caseExecutionId,
+        caseInstanceId,
+        tenantId,
+        processInstanceId);
   }
 
   public int getRevisionNext() {
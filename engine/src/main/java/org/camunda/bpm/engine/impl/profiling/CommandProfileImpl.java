@@ -0,0 +1,160 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.profiling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.management.CommandProfile;
+import org.camunda.bpm.engine.management.StatementProfile;
+
+/**
+ * Aggregate of all recordings of one command class. Recordings are added
+ * under the monitor of the aggregate, readers get a copy via {@link #copy()}.
+ */
+public class CommandProfileImpl implements CommandProfile {
+
+  protected String commandName;
+  protected long invocationCount;
+  protected long failureCount;
+  protected long totalDurationNanos;
+  protected long maxDurationNanos;
+  protected Map<String, StatementProfileImpl> statements = new HashMap<String, StatementProfileImpl>();
+  protected Map<String, Long> flushedEntities = new HashMap<String, Long>();
+  protected long entityCacheHits;
+  protected long entityCacheMisses;
+
+  public CommandProfileImpl(String commandName) {
+    this.commandName = commandName;
+  }
+
+  public synchronized void addRecording(CommandProfileRecording recording, long durationNanos, boolean failed) {
+    invocationCount++;
+    if (failed) {
+      failureCount++;
+    }
+    totalDurationNanos += durationNanos;
+    maxDurationNanos = Math.max(maxDurationNanos, durationNanos);
+
+    for (StatementProfileImpl recordedStatement : recording.getStatements().values()) {
+      StatementProfileImpl statement = statements.get(recordedStatement.getStatementId());
+      if (statement == null) {
+        statements.put(recordedStatement.getStatementId(), new StatementProfileImpl(recordedStatement));
+      }
+      else {
+        statement.add(recordedStatement);
+      }
+    }
+
+    for (Entry<String, Long> flushed : recording.getFlushedEntities().entrySet()) {
+      Long count = flushedEntities.get(flushed.getKey());
+      flushedEntities.put(flushed.getKey(), count == null ? flushed.getValue() : count + flushed.getValue());
+    }
+
+    entityCacheHits += recording.getEntityCacheHits();
+    entityCacheMisses += recording.getEntityCacheMisses();
+  }
+
+  public synchronized CommandProfileImpl copy() {
+    CommandProfileImpl copy = new CommandProfileImpl(commandName);
+    copy.invocationCount = invocationCount;
+    copy.failureCount = failureCount;
+    copy.totalDurationNanos = totalDurationNanos;
+    copy.maxDurationNanos = maxDurationNanos;
+    for (StatementProfileImpl statement : statements.values()) {
+      copy.statements.put(statement.getStatementId(), new StatementProfileImpl(statement));
+    }
+    copy.flushedEntities.putAll(flushedEntities);
+    copy.entityCacheHits = entityCacheHits;
+    copy.entityCacheMisses = entityCacheMisses;
+    return copy;
+  }
+
+  public String getCommandName() {
+    return commandName;
+  }
+
+  public long getInvocationCount() {
+    return invocationCount;
+  }
+
+  public long getFailureCount() {
+    return failureCount;
+  }
+
+  public long getTotalDuration() {
+    return TimeUnit.NANOSECONDS.toMillis(totalDurationNanos);
+  }
+
+  public long getTotalDurationNanos() {
+    return totalDurationNanos;
+  }
+
+  public long getMaxDuration() {
+    return TimeUnit.NANOSECONDS.toMillis(maxDurationNanos);
+  }
+
+  /**
+   * @return the statements ordered by descending total duration
+   */
+  public List<StatementProfile> getStatementProfiles() {
+    List<StatementProfileImpl> result = new ArrayList<StatementProfileImpl>(statements.values());
+    Collections.sort(result, new Comparator<StatementProfileImpl>() {
+      public int compare(StatementProfileImpl o1, StatementProfileImpl o2) {
+        return Long.valueOf(o2.getTotalDurationNanos()).compareTo(o1.getTotalDurationNanos());
+      }
+    });
+    return new ArrayList<StatementProfile>(result);
+  }
+
+  public Map<String, Long> getFlushedEntities() {
+    return Collections.unmodifiableMap(flushedEntities);
+  }
+
+  public long getEntityCacheHits() {
+    return entityCacheHits;
+  }
+
+  public long getEntityCacheMisses() {
+    return entityCacheMisses;
+  }
+
+  public double getEntityCacheHitRatio() {
+    long lookups = entityCacheHits + entityCacheMisses;
+    return lookups > 0 ? (double) entityCacheHits / lookups : 0;
+  }
+
+  public String toString() {
+    long statementCount = 0;
+    for (StatementProfileImpl statement : statements.values()) {
+      statementCount += statement.getExecutionCount();
+    }
+
+    return commandName
+        + "[invocations=" + invocationCount
+        + ", failures=" + failureCount
+        + ", totalDuration=" + getTotalDuration()
+        + "ms, maxDuration=" + getMaxDuration()
+        + "ms, statements=" + statementCount
+        + ", flushedEntities=" + flushedEntities
+        + ", entityCacheHitRatio=" + getEntityCacheHitRatio()
+        + "]";
+  }
+
+}
@@ -0,0 +1,112 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.profiling;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+
+/**
+ * Collects the profiling data of a single command execution. A recording is
+ * bound to the thread executing the command and is therefore not thread-safe.
+ *
+ * @see CommandProfiler#getCurrentRecording()
+ */
+public class CommandProfileRecording {
+
+  protected String commandName;
+  protected long startTime;
+
+  protected Map<String, StatementProfileImpl> statements = new HashMap<String, StatementProfileImpl>();
+  protected Map<String, Long> flushedEntities = new HashMap<String, Long>();
+  protected long entityCacheHits;
+  protected long entityCacheMisses;
+
+  public CommandProfileRecording(String commandName) {
+    this.commandName = commandName;
+    this.startTime = System.nanoTime();
+  }
+
+  public void statementExecuted(String statementId, long durationNanos, long rows) {
+    StatementProfileImpl statement = getStatement(statementId);
+    statement.executionCount++;
+    statement.totalDurationNanos += durationNanos;
+    statement.rowCount += rows;
+  }
+
+  /**
+   * Accounts the execution of a statement which was added to a JDBC batch. The
+   * time and rows are accounted by {@link #batchFlushed(String, long, long)}.
+   */
+  public void statementBatched(String statementId) {
+    getStatement(statementId).executionCount++;
+  }
+
+  public void batchFlushed(String statementId, long durationNanos, long rows) {
+    StatementProfileImpl statement = getStatement(statementId);
+    statement.totalDurationNanos += durationNanos;
+    statement.rowCount += rows;
+  }
+
+  public void operationsFlushed(List<DbOperation> operations) {
+    for (DbOperation operation : operations) {
+      String entityName = operation.getEntityType().getSimpleName();
+      Long count = flushedEntities.get(entityName);
+      flushedEntities.put(entityName, count == null ? 1L : count + 1);
+    }
+  }
+
+  public void entityCacheHit() {
+    entityCacheHits++;
+  }
+
+  public void entityCacheMiss() {
+    entityCacheMisses++;
+  }
+
+  protected StatementProfileImpl getStatement(String statementId) {
+    StatementProfileImpl statement = statements.get(statementId);
+    if (statement == null) {
+      statement = new StatementProfileImpl(statementId);
+      statements.put(statementId, statement);
+    }
+    return statement;
+  }
+
+  public String getCommandName() {
+    return commandName;
+  }
+
+  public long getDurationNanos() {
+    return System.nanoTime() - startTime;
+  }
+
+  public Map<String, StatementProfileImpl> getStatements() {
+    return statements;
+  }
+
+  public Map<String, Long> getFlushedEntities() {
+    return flushedEntities;
+  }
+
+  public long getEntityCacheHits() {
+    return entityCacheHits;
+  }
+
+  public long getEntityCacheMisses() {
+    return entityCacheMisses;
+  }
+
+}
@@ -0,0 +1,146 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.profiling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.management.CommandProfile;
+
+/**
+ * Aggregates profiling data per command class. Profiling is started and
+ * stopped at runtime; while it is active every n-th command (the sampling rate)
+ * passing the {@link CommandProfilingInterceptor} is recorded.
+ *
+ * The recording of the current thread is held in a thread local so that the
+ * persistence layer can account statements and entities without access to
+ * the profiler. The thread local is only consulted while at least one profiler
+ * is active.
+ */
+public class CommandProfiler {
+
+  protected static final ThreadLocal<CommandProfileRecording> CURRENT_RECORDING = new ThreadLocal<CommandProfileRecording>();
+
+  protected static final AtomicInteger ACTIVE_PROFILERS = new AtomicInteger(0);
+
+  protected volatile boolean active = false;
+  protected volatile int samplingRate = 1;
+
+  protected AtomicLong invocationCounter = new AtomicLong(0);
+  protected ConcurrentMap<String, CommandProfileImpl> profiles = new ConcurrentHashMap<String, CommandProfileImpl>();
+
+  /**
+   * @return the recording of the command executed by the current thread or
+   * <code>null</code> if the command is not profiled
+   */
+  public static CommandProfileRecording getCurrentRecording() {
+    if (ACTIVE_PROFILERS.get() == 0) {
+      return null;
+    }
+    return CURRENT_RECORDING.get();
+  }
+
+  /**
+   * @param samplingRate record every n-th command, 1 records all commands
+   */
+  public synchronized void start(int samplingRate) {
+    if (samplingRate < 1) {
+      throw new ProcessEngineException("Invalid sampling rate for command profiling: " + samplingRate + ", must be at least 1");
+    }
+    this.samplingRate = samplingRate;
+
+    if (!active) {
+      active = true;
+      ACTIVE_PROFILERS.incrementAndGet();
+    }
+  }
+
+  public synchronized void stop() {
+    if (active) {
+      active = false;
+      ACTIVE_PROFILERS.decrementAndGet();
+    }
+  }
+
+  public boolean isActive() {
+    return active;
+  }
+
+  public int getSamplingRate() {
+    return samplingRate;
+  }
+
+  /**
+   * @return true if the next command should be recorded
+   */
+  public boolean shouldSample() {
+    if (!active) {
+      return false;
+    }
+    int rate = samplingRate;
+    return rate == 1 || invocationCounter.incrementAndGet() % rate == 0;
+  }
+
+  public CommandProfileRecording startRecording(Command<?> command) {
+    CommandProfileRecording recording = new CommandProfileRecording(command.getClass().getName());
+    CURRENT_RECORDING.set(recording);
+    return recording;
+  }
+
+  public void endRecording(CommandProfileRecording recording, boolean failed) {
+    CURRENT_RECORDING.remove();
+
+    String commandName = recording.getCommandName();
+    CommandProfileImpl profile = profiles.get(commandName);
+    if (profile == null) {
+      CommandProfileImpl newProfile = new CommandProfileImpl(commandName);
+      profile = profiles.putIfAbsent(commandName, newProfile);
+      if (profile == null) {
+        profile = newProfile;
+      }
+    }
+
+    profile.addRecording(recording, recording.getDurationNanos(), failed);
+  }
+
+  /**
+   * @return a copy of the profiles ordered by descending total duration
+   */
+  public List<CommandProfile> getProfiles() {
+    List<CommandProfileImpl> result = new ArrayList<CommandProfileImpl>();
+    for (CommandProfileImpl profile : profiles.values()) {
+      result.add(profile.copy());
+    }
+
+    Collections.sort(result, new Comparator<CommandProfileImpl>() {
+      public int compare(CommandProfileImpl o1, CommandProfileImpl o2) {
+        return Long.valueOf(o2.getTotalDurationNanos()).compareTo(o1.getTotalDurationNanos());
+      }
+    });
+
+    return new ArrayList<CommandProfile>(result);
+  }
+
+  public void reset() {
+    profiles.clear();
+  }
+
+}
@@ -0,0 +1,52 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.profiling;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
+
+/**
+ * Records the execution of sampled commands with the {@link CommandProfiler}.
+ * Commands executed while another command is recorded on the same thread are
+ * accounted to the outer command.
+ */
+public class CommandProfilingInterceptor extends CommandInterceptor {
+
+  protected CommandProfiler commandProfiler;
+
+  public CommandProfilingInterceptor(CommandProfiler commandProfiler) {
+    this.commandProfiler = commandProfiler;
+  }
+
+  public <T> T execute(Command<T> command) {
+    if (CommandProfiler.getCurrentRecording() != null || !commandProfiler.shouldSample()) {
+      return next.execute(command);
+    }
+
+    CommandProfileRecording recording = commandProfiler.startRecording(command);
+    boolean failed = true;
+    try {
+      T result = next.execute(command);
+      failed = false;
+      return result;
+    }
+    finally {
+      commandProfiler.endRecording(recording, failed);
+    }
+  }
+
+  public CommandProfiler getCommandProfiler() {
+    return commandProfiler;
+  }
+
+}
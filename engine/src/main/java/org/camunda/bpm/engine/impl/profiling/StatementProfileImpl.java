@@ -0,0 +1,74 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.profiling;
+
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.management.StatementProfile;
+
+/**
+ * Mutable counters of a single statement. Instances are either confined to
+ * the thread of a {@link CommandProfileRecording} or guarded by the
+ * {@link CommandProfileImpl} they belong to.
+ */
+public class StatementProfileImpl implements StatementProfile {
+
+  protected String statementId;
+  protected long executionCount;
+  protected long totalDurationNanos;
+  protected long rowCount;
+
+  public StatementProfileImpl(String statementId) {
+    this.statementId = statementId;
+  }
+
+  public StatementProfileImpl(StatementProfileImpl other) {
+    this(other.statementId);
+    add(other);
+  }
+
+  public void add(StatementProfileImpl other) {
+    executionCount += other.executionCount;
+    totalDurationNanos += other.totalDurationNanos;
+    rowCount += other.rowCount;
+  }
+
+  public String getStatementId() {
+    return statementId;
+  }
+
+  public long getExecutionCount() {
+    return executionCount;
+  }
+
+  public long getTotalDuration() {
+    return TimeUnit.NANOSECONDS.toMillis(totalDurationNanos);
+  }
+
+  public long getTotalDurationNanos() {
+    return totalDurationNanos;
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  public String toString() {
+    return statementId
+        + "[executions=" + executionCount
+        + ", totalDuration=" + getTotalDuration()
+        + "ms, rows=" + rowCount
+        + "]";
+  }
+
+}
@@ -0,0 +1,120 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.profiling;
+
+import java.util.List;
+import java.util.Properties;
+
+import org.apache.ibatis.executor.BatchExecutor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * MyBatis plugin which accounts the statements executed by a profiled command
+ * to its {@link CommandProfileRecording}. Statements added to a JDBC batch are
+ * counted when they are added; their time and affected rows are accounted when
+ * the batch is flushed. The time of a batch is split among its statements by
+ * the number of executions.
+ *
+ * The plugin is stateless, so it can be part of a shared SqlSessionFactory.
+ */
+@Intercepts({
+  @Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+  @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+  @Signature(type = Executor.class, method = "flushStatements", args = {})
+})
+public class StatementProfilingInterceptor implements Interceptor {
+
+  public Object intercept(Invocation invocation) throws Throwable {
+    CommandProfileRecording recording = CommandProfiler.getCurrentRecording();
+    if (recording == null) {
+      return invocation.proceed();
+    }
+
+    long startTime = System.nanoTime();
+    Object result = invocation.proceed();
+    long duration = System.nanoTime() - startTime;
+
+    String methodName = invocation.getMethod().getName();
+    if ("query".equals(methodName)) {
+      MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+      long rows = result instanceof List ? ((List<?>) result).size() : 0;
+      recording.statementExecuted(getStatementId(statement), duration, rows);
+    }
+    else if ("update".equals(methodName)) {
+      MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+      int rows = (Integer) result;
+      if (rows == BatchExecutor.BATCH_UPDATE_RETURN_VALUE) {
+        recording.statementBatched(getStatementId(statement));
+      }
+      else {
+        recording.statementExecuted(getStatementId(statement), duration, rows);
+      }
+    }
+    else {
+      batchFlushed(recording, (List<?>) result, duration);
+    }
+
+    return result;
+  }
+
+  protected void batchFlushed(CommandProfileRecording recording, List<?> batchResults, long duration) {
+    if (batchResults == null || batchResults.isEmpty()) {
+      return;
+    }
+
+    long executions = 0;
+    for (Object batchResult : batchResults) {
+      executions += ((BatchResult) batchResult).getUpdateCounts().length;
+    }
+
+    for (Object result : batchResults) {
+      BatchResult batchResult = (BatchResult) result;
+      int[] updateCounts = batchResult.getUpdateCounts();
+
+      long rows = 0;
+      for (int updateCount : updateCounts) {
+        // negative values indicate that the driver does not know the count
+        if (updateCount > 0) {
+          rows += updateCount;
+        }
+      }
+
+      long batchDuration = executions > 0 ? duration * updateCounts.length / executions : 0;
+      recording.batchFlushed(getStatementId(batchResult.getMappedStatement()), batchDuration, rows);
+    }
+  }
+
+  protected String getStatementId(MappedStatement statement) {
+    // the engine references statements without namespace
+    String id = statement.getId();
+    return id.substring(id.lastIndexOf('.') + 1);
+  }
+
+  public Object plugin(Object target) {
+    return Plugin.wrap(target, this);
+  }
+
+  public void setProperties(Properties properties) {
+    // no properties
+  }
+
+}
@@ -15,6 +15,7 @@ package org.camunda.bpm.engine.impl.runtime;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -79,10 +80,64 @@ public class DefaultCorrelationHandler implements CorrelationHandler {
 
   protected List<CorrelationHandlerResult> correlateMessageToExecutions(CommandContext commandContext, String messageName, CorrelationSet correlationSet) {
 
+    List<Execution> matchingExecutions;
+
+    String correlationKey = null;
+    if (messageName != null) {
+      correlationKey = MessageCorrelationKey.fromVariableValues(correlationSet.getCorrelationKeys());
+    }
+
+    if (correlationKey != null) {
+      // subscriptions of messages which declare the given variables as correlation keys
+      // are looked up by key, all others by the variable values
+      ExecutionQueryImpl indexedQuery = createExecutionQuery(messageName, correlationSet, false);
+      indexedQuery.messageEventSubscriptionCorrelationKey(messageName, correlationKey);
+
+      Map<String, Execution> executions = new LinkedHashMap<String, Execution>();
+      for (Execution execution : indexedQuery.evaluateExpressionsAndExecuteList(commandContext, null)) {
+        executions.put(execution.getId(), execution);
+      }
+
+      // the variables are only joined if there are subscriptions which are not keyed by these variables
+      String correlationKeyPrefix = MessageCorrelationKey.getPrefix(correlationSet.getCorrelationKeys().keySet());
+      if (commandContext.getEventSubscriptionManager().hasMessageEventSubscriptionsWithoutCorrelationKeyPrefix(messageName, correlationKeyPrefix)) {
+        ExecutionQueryImpl query = createExecutionQuery(messageName, correlationSet, true);
+        query.messageEventSubscriptionWithoutCorrelationKeyPrefix(messageName, correlationKeyPrefix);
+
+        for (Execution execution : query.evaluateExpressionsAndExecuteList(commandContext, null)) {
+          executions.put(execution.getId(), execution);
+        }
+      }
+      matchingExecutions = new ArrayList<Execution>(executions.values());
+
+    } else {
+      ExecutionQueryImpl query = createExecutionQuery(messageName, correlationSet, true);
+
+      if (messageName != null) {
+        query.messageEventSubscriptionName(messageName);
+      } else {
+        query.messageEventSubscription();
+      }
+
+      matchingExecutions = query.evaluateExpressionsAndExecuteList(commandContext, null);
+    }
+
+    List<CorrelationHandlerResult> result = new ArrayList<CorrelationHandlerResult>(matchingExecutions.size());
+
+    for (Execution matchingExecution : matchingExecutions) {
+      CorrelationHandlerResult correlationResult = CorrelationHandlerResult.matchedExecution((ExecutionEntity) matchingExecution);
+      result.add(correlationResult);
+    }
+
+    return result;
+  }
+
+  protected ExecutionQueryImpl createExecutionQuery(String messageName, CorrelationSet correlationSet, boolean includeProcessVariables) {
+
     ExecutionQueryImpl query = new ExecutionQueryImpl();
 
     Map<String, Object> correlationKeys = correlationSet.getCorrelationKeys();
-    if (correlationKeys != null) {
+    if (correlationKeys != null && includeProcessVariables) {
       for (Map.Entry<String, Object> correlationKey : correlationKeys.entrySet()) {
         query.processVariableValueEquals(correlationKey.getKey(), correlationKey.getValue());
       }
@@ -105,12 +160,6 @@ public class DefaultCorrelationHandler implements CorrelationHandler {
       query.processInstanceId(processInstanceId);
     }
 
-    if (messageName != null) {
-      query.messageEventSubscriptionName(messageName);
-    } else {
-      query.messageEventSubscription();
-    }
-
     if (correlationSet.isTenantIdSet) {
       String tenantId = correlationSet.getTenantId();
       if (tenantId != null) {
@@ -123,16 +172,7 @@ public class DefaultCorrelationHandler implements CorrelationHandler {
     // restrict to active executions
     query.active();
 
-    List<Execution> matchingExecutions = query.evaluateExpressionsAndExecuteList(commandContext, null);
-
-    List<CorrelationHandlerResult> result = new ArrayList<CorrelationHandlerResult>(matchingExecutions.size());
-
-    for (Execution matchingExecution : matchingExecutions) {
-      CorrelationHandlerResult correlationResult = CorrelationHandlerResult.matchedExecution((ExecutionEntity) matchingExecution);
-      result.add(correlationResult);
-    }
-
-    return result;
+    return query;
   }
 
   @Override
@@ -0,0 +1,54 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.runtime;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkResult;
+import org.camunda.bpm.engine.runtime.MessageCorrelationResult;
+
+public class MessageCorrelationBulkResultImpl implements MessageCorrelationBulkResult {
+
+  protected final List<MessageCorrelationResult> results;
+  protected final RuntimeException exception;
+
+  protected MessageCorrelationBulkResultImpl(List<MessageCorrelationResult> results, RuntimeException exception) {
+    this.results = results;
+    this.exception = exception;
+  }
+
+  public static MessageCorrelationBulkResult successful(List<MessageCorrelationResult> results) {
+    return new MessageCorrelationBulkResultImpl(results, null);
+  }
+
+  public static MessageCorrelationBulkResult failed(RuntimeException exception) {
+    return new MessageCorrelationBulkResultImpl(Collections.<MessageCorrelationResult>emptyList(), exception);
+  }
+
+  @Override
+  public boolean isSuccessful() {
+    return exception == null;
+  }
+
+  @Override
+  public List<MessageCorrelationResult> getResults() {
+    return results;
+  }
+
+  @Override
+  public RuntimeException getException() {
+    return exception;
+  }
+
+}
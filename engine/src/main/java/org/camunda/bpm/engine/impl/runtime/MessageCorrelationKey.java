@@ -0,0 +1,142 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.runtime;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.delegate.VariableScope;
+import org.camunda.bpm.engine.impl.digest._apacheCommonsCodec.Base64;
+
+/**
+ * Computes the value of the correlation key column of message event subscriptions.
+ *
+ * <p>A correlation key consists of a hash of the (sorted) variable names followed
+ * by a hash of the names and their values. The name part allows a correlation to
+ * tell apart subscriptions that were indexed by the same set of variables, the
+ * value part is looked up by equality.</p>
+ *
+ * <p>Only string, integral number, double, boolean and date values are supported.
+ * Short, integer and long values with the same numeric value produce the same key.
+ * If a value is of another type, no key is computed and the subscription is matched
+ * by the variable values. If a variable is not set, the subscription only gets the
+ * prefix of the key, which matches no correlation by these variables.</p>
+ *
+ * <p>A key is computed from the values of the process instance variables when a
+ * subscription is created. If one of these variables is changed later on, the keys of
+ * the subscriptions of the process instance are recomputed.</p>
+ *
+ * @see org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceCorrelationKeyListener
+ * @see org.camunda.bpm.engine.impl.bpmn.parser.EventSubscriptionDeclaration#setCorrelationKeys(java.util.List)
+ */
+public class MessageCorrelationKey {
+
+  public static final String HASH_ALGORITHM = "SHA-1";
+
+  public static final char SEPARATOR = ':';
+
+  /**
+   * @return the correlation key for the values the given variables have locally in the given scope
+   *   or <code>null</code> if a variable is not set or has an unsupported value
+   */
+  public static String fromVariables(Collection<String> variableNames, VariableScope variableScope) {
+    SortedMap<String, String> values = new TreeMap<String, String>();
+    for (String variableName : variableNames) {
+      String value = toKeyValue(variableScope.getVariableLocal(variableName));
+      if (value == null) {
+        return null;
+      }
+      values.put(variableName, value);
+    }
+    return createKey(values);
+  }
+
+  /**
+   * @return the correlation key for the given variable values or <code>null</code>
+   *   if there are none or a value is not supported
+   */
+  public static String fromVariableValues(Map<String, Object> variables) {
+    if (variables == null || variables.isEmpty()) {
+      return null;
+    }
+
+    SortedMap<String, String> values = new TreeMap<String, String>();
+    for (Map.Entry<String, Object> variable : variables.entrySet()) {
+      String value = toKeyValue(variable.getValue());
+      if (value == null) {
+        return null;
+      }
+      values.put(variable.getKey(), value);
+    }
+    return createKey(values);
+  }
+
+  /**
+   * @return the prefix shared by all correlation keys built from the given variable names
+   */
+  public static String getPrefix(Collection<String> variableNames) {
+    StringBuilder names = new StringBuilder();
+    for (String variableName : new TreeSet<String>(variableNames)) {
+      names.append(variableName).append('\u0000');
+    }
+    return hash(names.toString()) + SEPARATOR;
+  }
+
+  protected static String createKey(SortedMap<String, String> values) {
+    StringBuilder content = new StringBuilder();
+    for (Map.Entry<String, String> value : values.entrySet()) {
+      content.append(value.getKey()).append('\u0000')
+        .append(value.getValue()).append('\u0000');
+    }
+    return getPrefix(values.keySet()) + hash(content.toString());
+  }
+
+  protected static String toKeyValue(Object value) {
+    if (value instanceof String) {
+      return "s" + value;
+    } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+      return "l" + ((Number) value).longValue();
+    } else if (value instanceof Double) {
+      return "d" + value;
+    } else if (value instanceof Boolean) {
+      return "b" + value;
+    } else if (value instanceof Date) {
+      return "t" + ((Date) value).getTime();
+    } else {
+      return null;
+    }
+  }
+
+  protected static String hash(String content) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+      byte[] hash = digest.digest(content.getBytes("UTF-8"));
+      return new String(Base64.encodeBase64(hash));
+
+    } catch (NoSuchAlgorithmException e) {
+      throw new ProcessEngineException("Cannot lookup " + HASH_ALGORITHM + " algorithm");
+
+    } catch (UnsupportedEncodingException e) {
+      throw new ProcessEngineException("UnsupportedEncodingException while calculating correlation key");
+    }
+  }
+
+}
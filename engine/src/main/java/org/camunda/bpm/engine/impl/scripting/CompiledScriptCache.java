@@ -0,0 +1,141 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.scripting;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.ScriptCompilationException;
+import org.camunda.bpm.engine.impl.ProcessEngineLogger;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.commons.utils.cache.Cache;
+import org.camunda.commons.utils.cache.ConcurrentLruCache;
+
+/**
+ * <p>Engine-wide cache of compiled scripts which is shared by all process definitions.
+ * Scripts are identified by their language, the script engine they were compiled with and
+ * a digest of their source, so scripts which are loaded from resources or evaluated from
+ * expressions at runtime are only compiled once per distinct source.</p>
+ *
+ * <p>A compiled script is shared between threads, so only scripts of engines whose factory
+ * declares a <code>THREADING</code> parameter are cached. These are the same engines
+ * which are cached by the {@link org.camunda.bpm.engine.impl.scripting.engine.ScriptEngineResolver}.
+ * The least recently used scripts are evicted once the capacity is reached.</p>
+ */
+public class CompiledScriptCache {
+
+  private final static ScriptLogger LOG = ProcessEngineLogger.SCRIPT_LOGGER;
+
+  protected static final String DIGEST_ALGORITHM = "SHA-1";
+
+  protected Cache<String, CompiledScript> cache;
+  protected MetricsRegistry metricsRegistry;
+
+  public CompiledScriptCache(int capacity, MetricsRegistry metricsRegistry) {
+    this.cache = new ConcurrentLruCache<String, CompiledScript>(capacity);
+    this.metricsRegistry = metricsRegistry;
+  }
+
+  /**
+   * @return the compiled script or null if the script engine does not support
+   *   compilation or is not thread-safe
+   * @throws ScriptCompilationException if the script cannot be compiled
+   */
+  public CompiledScript getCompiledScript(ScriptEngine scriptEngine, String language, String source) {
+    if (!isCachable(scriptEngine)) {
+      return null;
+    }
+
+    String key = createKey(scriptEngine, language, source);
+    CompiledScript compiledScript = cache.get(key);
+
+    if (compiledScript != null && compiledScript.getEngine() == scriptEngine) {
+      markOccurrence(Metrics.SCRIPT_CACHE_HIT);
+      return compiledScript;
+    }
+
+    markOccurrence(Metrics.SCRIPT_CACHE_MISS);
+    compiledScript = compile((Compilable) scriptEngine, language, source);
+    cache.put(key, compiledScript);
+
+    return compiledScript;
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  /**
+   * Returns true if scripts of the engine can be compiled and the compiled
+   * scripts may be used concurrently.
+   */
+  public static boolean isCachable(ScriptEngine scriptEngine) {
+    return scriptEngine instanceof Compilable
+        && !scriptEngine.getFactory().getLanguageName().equalsIgnoreCase("ecmascript")
+        && scriptEngine.getFactory().getParameter("THREADING") != null;
+  }
+
+  protected CompiledScript compile(Compilable scriptEngine, String language, String source) {
+    try {
+      CompiledScript compiledScript = scriptEngine.compile(source);
+
+      LOG.debugCompiledScriptUsing(language);
+
+      return compiledScript;
+
+    } catch (ScriptException e) {
+      throw new ScriptCompilationException("Unable to compile script: " + e.getMessage(), e);
+    }
+  }
+
+  protected String createKey(ScriptEngine scriptEngine, String language, String source) {
+    return language + ":" + System.identityHashCode(scriptEngine) + ":" + digest(source);
+  }
+
+  protected String digest(String source) {
+    try {
+      byte[] digest = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(source.getBytes("UTF-8"));
+      StringBuilder hex = new StringBuilder();
+      for (byte b : digest) {
+        hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+        hex.append(Character.forDigit(b & 0xF, 16));
+      }
+      return hex.toString();
+
+    } catch (NoSuchAlgorithmException e) {
+      throw new ProcessEngineException("Cannot lookup " + DIGEST_ALGORITHM + " algorithm");
+
+    } catch (UnsupportedEncodingException e) {
+      throw new ProcessEngineException("UnsupportedEncodingException while creating the script digest");
+    }
+  }
+
+  protected void markOccurrence(String name) {
+    if (metricsRegistry != null) {
+      metricsRegistry.markOccurrence(name);
+    }
+  }
+
+}
@@ -14,12 +14,15 @@
 package org.camunda.bpm.engine.impl.scripting;
 
 import javax.script.Bindings;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
 
 import org.camunda.bpm.engine.ScriptEvaluationException;
 import org.camunda.bpm.engine.delegate.Expression;
 import org.camunda.bpm.engine.delegate.VariableScope;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
 
 /**
  * A script which is dynamically determined during the execution.
@@ -38,7 +41,11 @@ public abstract class DynamicExecutableScript extends ExecutableScript {
 
   public Object evaluate(ScriptEngine scriptEngine, VariableScope variableScope, Bindings bindings) {
     String source = getScriptSource(variableScope);
+    CompiledScript compiledScript = getCompiledScript(scriptEngine, source);
     try {
+      if (compiledScript != null) {
+        return compiledScript.eval(bindings);
+      }
       return scriptEngine.eval(source, bindings);
     }
     catch (ScriptException e) {
@@ -46,6 +53,24 @@ public abstract class DynamicExecutableScript extends ExecutableScript {
     }
   }
 
+  /**
+   * Returns the compiled script from the compiled script cache or null if
+   * the cache is disabled or the script cannot be cached.
+   */
+  protected CompiledScript getCompiledScript(ScriptEngine scriptEngine, String source) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    CompiledScriptCache compiledScriptCache = processEngineConfiguration.getCompiledScriptCache();
+
+    if (compiledScriptCache != null
+        && processEngineConfiguration.isEnableScriptCompilation()
+        && processEngineConfiguration.isEnableScriptEngineCaching()) {
+      return compiledScriptCache.getCompiledScript(scriptEngine, language, source);
+    }
+    else {
+      return null;
+    }
+  }
+
   protected String evaluateExpression(VariableScope variableScope) {
     return (String) scriptExpression.getValue(variableScope);
   }
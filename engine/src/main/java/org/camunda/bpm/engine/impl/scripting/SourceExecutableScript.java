@@ -86,6 +86,12 @@ public class SourceExecutableScript extends CompiledExecutableScript {
   }
 
   public CompiledScript compile(ScriptEngine scriptEngine, String language, String src) {
+    CompiledScriptCache compiledScriptCache = Context.getProcessEngineConfiguration().getCompiledScriptCache();
+    if (compiledScriptCache != null && CompiledScriptCache.isCachable(scriptEngine)) {
+      // share the compiled script with all other scripts with the same source
+      return compiledScriptCache.getCompiledScript(scriptEngine, language, src);
+    }
+
     if(scriptEngine instanceof Compilable && !scriptEngine.getFactory().getLanguageName().equalsIgnoreCase("ecmascript")) {
       Compilable compilingEngine = (Compilable) scriptEngine;
 
@@ -0,0 +1,132 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.util.xml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Map.Entry;
+
+/**
+ * Writes an {@link Element} tree in a compact binary form and restores it again,
+ * which is considerably cheaper than parsing and validating the original XML.
+ * Strings are stored as length-prefixed UTF-8 bytes, a length of -1 denotes
+ * <code>null</code>.
+ */
+public class ElementSerializer {
+
+  protected static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  public static byte[] serialize(Element rootElement) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+      writeElement(out, rootElement);
+      out.flush();
+      return bytes.toByteArray();
+
+    } catch (IOException e) {
+      // cannot happen when writing to a byte array
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * @throws RuntimeException (for example {@link java.nio.BufferUnderflowException}) if the
+   *   buffer does not contain a valid element tree
+   */
+  public static Element deserialize(ByteBuffer buffer) {
+    return readElement(buffer);
+  }
+
+  protected static void writeElement(DataOutputStream out, Element element) throws IOException {
+    writeString(out, element.uri);
+    writeString(out, element.tagName);
+    out.writeInt(element.line);
+    out.writeInt(element.column);
+    writeString(out, element.text.toString());
+
+    out.writeInt(element.attributeMap.size());
+    for (Entry<String, Attribute> attribute : element.attributeMap.entrySet()) {
+      writeString(out, attribute.getKey());
+      writeString(out, attribute.getValue().getName());
+      writeString(out, attribute.getValue().getValue());
+      writeString(out, attribute.getValue().getUri());
+    }
+
+    out.writeInt(element.elements.size());
+    for (Element child : element.elements) {
+      writeElement(out, child);
+    }
+  }
+
+  protected static Element readElement(ByteBuffer buffer) {
+    String uri = readString(buffer);
+    String tagName = readString(buffer);
+
+    Element element = new Element(uri, tagName, tagName, null, null);
+    element.line = buffer.getInt();
+    element.column = buffer.getInt();
+    element.appendText(readString(buffer));
+
+    int attributeCount = readCount(buffer);
+    for (int i = 0; i < attributeCount; i++) {
+      String key = readString(buffer);
+      String name = readString(buffer);
+      String value = readString(buffer);
+      String attributeUri = readString(buffer);
+      element.attributeMap.put(key, new Attribute(name, value, attributeUri));
+    }
+
+    int childCount = readCount(buffer);
+    for (int i = 0; i < childCount; i++) {
+      element.add(readElement(buffer));
+    }
+
+    return element;
+  }
+
+  protected static void writeString(DataOutputStream out, String value) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+    } else {
+      byte[] bytes = value.getBytes(UTF_8);
+      out.writeInt(bytes.length);
+      out.write(bytes);
+    }
+  }
+
+  protected static String readString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length == -1) {
+      return null;
+    }
+    if (length < 0 || length > buffer.remaining()) {
+      throw new IllegalArgumentException("Invalid string length " + length);
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, UTF_8);
+  }
+
+  protected static int readCount(ByteBuffer buffer) {
+    int count = buffer.getInt();
+    if (count < 0 || count > buffer.remaining()) {
+      throw new IllegalArgumentException("Invalid element count " + count);
+    }
+    return count;
+  }
+
+}
@@ -106,6 +106,15 @@ public class Parse extends DefaultHandler {
     return this;
   }
 
+  /**
+   * Uses an element tree which was restored from a previous parse of the
+   * same source instead of parsing and validating the source again.
+   */
+  public Parse sourceElement(Element rootElement) {
+    this.rootElement = rootElement;
+    return this;
+  }
+
   protected void setStreamSource(StreamSource streamSource) {
     if (this.streamSource!=null) {
       throw LOG.multipleSourcesException(this.streamSource, streamSource);
@@ -114,15 +123,29 @@ public class Parse extends DefaultHandler {
   }
 
   public Parse execute() {
+    if (rootElement != null) {
+      // the element tree was provided by #sourceElement
+      return this;
+    }
+
     try {
       InputStream inputStream = streamSource.getInputStream();
 
-      if (schemaResource == null) { // must be done before parser is created
-        parser.getSaxParserFactory().setNamespaceAware(false);
-        parser.getSaxParserFactory().setValidating(false);
+      SAXParser saxParser;
+      SAXParserFactory saxParserFactory = parser.getSaxParserFactory();
+      // the factory is shared by concurrent parses, so it must be configured
+      // and used to create the parser atomically
+      synchronized (saxParserFactory) {
+        if (schemaResource == null) { // must be done before parser is created
+          saxParserFactory.setNamespaceAware(false);
+          saxParserFactory.setValidating(false);
+        } else {
+          saxParserFactory.setNamespaceAware(true);
+          saxParserFactory.setValidating(true);
+        }
+
+        saxParser = parser.getSaxParser();
       }
-
-      SAXParser saxParser = parser.getSaxParser();
       if (schemaResource != null) {
         saxParser.setProperty(JAXP_SCHEMA_LANGUAGE, W3C_XML_SCHEMA);
         saxParser.setProperty(JAXP_SCHEMA_SOURCE, schemaResource);
@@ -193,13 +216,15 @@ public class Parse extends DefaultHandler {
 
   public void setSchemaResource(String schemaResource) {
     SAXParserFactory saxParserFactory = parser.getSaxParserFactory();
-    saxParserFactory.setNamespaceAware(true);
-    saxParserFactory.setValidating(true);
-    try {
-      saxParserFactory.setFeature("http://xml.org/sax/features/namespace-prefixes", true);
-    }
-    catch (Exception e) {
-      LOG.unableToSetSchemaResource(e);
+    synchronized (saxParserFactory) {
+      saxParserFactory.setNamespaceAware(true);
+      saxParserFactory.setValidating(true);
+      try {
+        saxParserFactory.setFeature("http://xml.org/sax/features/namespace-prefixes", true);
+      }
+      catch (Exception e) {
+        LOG.unableToSetSchemaResource(e);
+      }
     }
     this.schemaResource = schemaResource;
   }
@@ -0,0 +1,77 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.management;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated profiling data of all sampled executions of one command class.
+ *
+ * @see org.camunda.bpm.engine.ManagementService#startCommandProfiling(int)
+ * @since 7.7
+ */
+public interface CommandProfile {
+
+  /**
+   * @return the fully qualified class name of the command
+   */
+  String getCommandName();
+
+  /**
+   * @return the number of sampled executions
+   */
+  long getInvocationCount();
+
+  /**
+   * @return the number of sampled executions which failed with an exception
+   */
+  long getFailureCount();
+
+  /**
+   * @return the summed up wall time of all sampled executions in milliseconds
+   */
+  long getTotalDuration();
+
+  /**
+   * @return the wall time of the slowest sampled execution in milliseconds
+   */
+  long getMaxDuration();
+
+  /**
+   * @return the SQL statements executed by the command, one entry per MyBatis statement id
+   */
+  List<StatementProfile> getStatementProfiles();
+
+  /**
+   * @return the number of entities flushed to the database, by simple class name of the entity
+   */
+  Map<String, Long> getFlushedEntities();
+
+  /**
+   * @return the number of entity lookups by id which were answered by the entity cache
+   * of the command context
+   */
+  long getEntityCacheHits();
+
+  /**
+   * @return the number of entity lookups by id which had to query the database
+   */
+  long getEntityCacheMisses();
+
+  /**
+   * @return the ratio of entity cache hits to all entity lookups by id, or 0 if there were no lookups
+   */
+  double getEntityCacheHitRatio();
+
+}
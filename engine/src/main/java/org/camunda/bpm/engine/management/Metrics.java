@@ -56,4 +56,83 @@ public class Metrics {
    */
   public final static String EXECUTED_DECISION_ELEMENTS = "executed-decision-elements";
 
+  /**
+   * Number of historic process instances removed by the history cleanup.
+   */
+  public final static String HISTORY_CLEANUP_REMOVED_PROCESS_INSTANCES = "history-cleanup-removed-process-instances";
+
+  /**
+   * Number of historic decision instances removed by the history cleanup.
+   */
+  public final static String HISTORY_CLEANUP_REMOVED_DECISION_INSTANCES = "history-cleanup-removed-decision-instances";
+
+  /**
+   * Number of historic case instances removed by the history cleanup.
+   */
+  public final static String HISTORY_CLEANUP_REMOVED_CASE_INSTANCES = "history-cleanup-removed-case-instances";
+
+  /**
+   * Number of authorization checks which were answered by the authorization decision cache.
+   * Only recorded if the cache is enabled in the process engine configuration.
+   */
+  public final static String AUTHORIZATION_CACHE_HIT = "authorization-cache-hit";
+  /**
+   * Number of authorization checks which were not found in the authorization decision cache.
+   */
+  public final static String AUTHORIZATION_CACHE_MISS = "authorization-cache-miss";
+
+  /**
+   * Number of filter counts which were answered by the filter count cache. Only recorded if
+   * the cache is enabled in the process engine configuration.
+   */
+  public final static String FILTER_COUNT_CACHE_HIT = "filter-count-cache-hit";
+  /**
+   * Number of filter counts which were computed because no sufficiently recent count was cached.
+   */
+  public final static String FILTER_COUNT_CACHE_MISS = "filter-count-cache-miss";
+
+  /**
+   * Number of scripts which were found in the compiled script cache. Only recorded if
+   * the compiled script cache is enabled in the process engine configuration.
+   */
+  public final static String SCRIPT_CACHE_HIT = "script-cache-hit";
+  /**
+   * Number of scripts which were compiled because they were not found in the compiled script cache.
+   */
+  public final static String SCRIPT_CACHE_MISS = "script-cache-miss";
+
+  /**
+   * Duration in milliseconds of commands executed in a new command context.
+   * Like all histograms it is only recorded if histogram metrics are enabled in
+   * the process engine configuration and is reported as several values, see
+   * {@link #HISTOGRAM_P95}.
+   */
+  public final static String COMMAND_DURATION = "command-duration";
+  /**
+   * Duration in milliseconds of executing a single job by the job executor.
+   */
+  public final static String JOB_EXECUTION_TIME = "job-execution-time";
+  /**
+   * Duration in milliseconds of a single job acquisition by the job executor.
+   */
+  public final static String JOB_ACQUISITION_CYCLE_TIME = "job-acquisition-cycle-time";
+  /**
+   * Duration in milliseconds of flushing the sessions of a command context,
+   * i.e. the time spent writing changes to the database.
+   */
+  public final static String FLUSH_DURATION = "flush-duration";
+
+  /**
+   * Suffixes of the values reported for a histogram such as {@link #COMMAND_DURATION}.
+   * A value is stored with the name of the histogram followed by the suffix, e.g.
+   * <code>command-duration.p95</code>, and covers the reporting interval. Percentiles
+   * and maximums of several intervals or reporters can be combined with
+   * {@link MetricsQuery#max()}, counts and sums with {@link MetricsQuery#sum()}.
+   */
+  public final static String HISTOGRAM_COUNT = ".count";
+  public final static String HISTOGRAM_SUM = ".sum";
+  public final static String HISTOGRAM_P50 = ".p50";
+  public final static String HISTOGRAM_P95 = ".p95";
+  public final static String HISTOGRAM_P99 = ".p99";
+  public final static String HISTOGRAM_MAX = ".max";
 }
@@ -91,4 +91,13 @@ public interface MetricsQuery {
    */
   long sum();
 
+  /**
+   * Returns the largest value logged for the selected metric, e.g. the worst
+   * 95th percentile of a histogram over all reporters and reporting intervals.
+   * Values which are not logged to the database yet are not considered.
+   *
+   * @return the maximum value or 0 if no value is logged
+   */
+  long max();
+
 }
\ No newline at end of file
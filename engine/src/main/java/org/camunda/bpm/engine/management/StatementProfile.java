@@ -0,0 +1,43 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.management;
+
+/**
+ * Aggregated executions of one SQL statement within a {@link CommandProfile}.
+ *
+ * @since 7.7
+ */
+public interface StatementProfile {
+
+  /**
+   * @return the id of the MyBatis statement, e.g. <code>selectJob</code>
+   */
+  String getStatementId();
+
+  /**
+   * @return the number of executions of the statement
+   */
+  long getExecutionCount();
+
+  /**
+   * @return the time spent executing the statement in milliseconds. Statements
+   * executed as part of a JDBC batch are accounted when the batch is flushed.
+   */
+  long getTotalDuration();
+
+  /**
+   * @return the number of rows returned by a select or affected by an insert, update or delete
+   */
+  long getRowCount();
+
+}
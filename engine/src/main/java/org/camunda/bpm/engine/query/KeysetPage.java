@@ -0,0 +1,32 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.query;
+
+import java.util.List;
+
+/**
+ * A page of query results which was selected by keyset pagination, i.e. by
+ * the position of the last result of the previous page instead of an offset.
+ */
+public interface KeysetPage<U> {
+
+  /** The results of the page. */
+  List<U> getResults();
+
+  /**
+   * The opaque token which selects the next page, or <code>null</code> if
+   * the page contains less results than requested and is the last one.
+   */
+  String getContinuationToken();
+
+}
@@ -0,0 +1,27 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.query;
+
+/**
+ * Receives the results of a query one by one while they are read from the
+ * database, so that a large result does not have to be held in memory.
+ */
+public interface QueryResultHandler<U> {
+
+  /**
+   * Handles a single result. The handler is invoked inside the command which
+   * executes the query, i.e. while the database result set is still open.
+   */
+  void handleResult(U result);
+
+}
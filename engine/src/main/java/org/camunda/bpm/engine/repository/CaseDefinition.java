@@ -18,4 +18,10 @@ package org.camunda.bpm.engine.repository;
  */
 public interface CaseDefinition extends ResourceDefinition {
 
+  /**
+   * Number of days the history of a closed case instance of this definition
+   * is kept, or <code>null</code> if it is never cleaned up.
+   */
+  Integer getHistoryTimeToLive();
+
 }
@@ -33,4 +33,10 @@ public interface DecisionDefinition extends ResourceDefinition {
    */
   String getDecisionRequirementsDefinitionKey();
 
+  /**
+   * Number of days historic decision instances of this definition are kept
+   * after their evaluation, or <code>null</code> if they are never cleaned up.
+   */
+  Integer getHistoryTimeToLive();
+
 }
@@ -44,4 +44,11 @@ public interface ProcessDefinition extends ResourceDefinition {
   /** Version tag of the process definition. */
   String getVersionTag();
 
+  /**
+   * History time to live in days. Once a process instance of this definition
+   * has ended for longer than that, its history is removed by the history
+   * cleanup. <code>null</code> means the history is kept forever.
+   */
+  Integer getHistoryTimeToLive();
+
 }
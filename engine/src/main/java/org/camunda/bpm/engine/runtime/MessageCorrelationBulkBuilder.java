@@ -0,0 +1,67 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.runtime;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.MismatchingMessageCorrelationException;
+
+/**
+ * <p>A fluent builder to correlate many messages with few transactions.</p>
+ *
+ * <p>The correlations are executed in the order in which they were added, in chunks
+ * of {@link #chunkSize(int)} correlations per transaction. A correlation observes the
+ * changes of the correlations executed before it.</p>
+ *
+ * <p>A failing correlation does not affect the results of the others: if a correlation
+ * fails with a {@link MismatchingMessageCorrelationException}, the remaining correlations of
+ * the chunk are executed as usual. If it fails with any other exception, the transaction of
+ * the chunk is rolled back, the correlations before the failed one are executed again and
+ * the failure is reported for the failed correlation only.</p>
+ *
+ * @since 7.7
+ */
+public interface MessageCorrelationBulkBuilder {
+
+  /**
+   * Adds a correlation of a message to exactly one execution or process definition,
+   * as performed by {@link MessageCorrelationBuilder#correlateWithResult()}.
+   *
+   * @param messageCorrelation a builder obtained by {@link org.camunda.bpm.engine.RuntimeService#createMessageCorrelation(String)}
+   *   whose correlation criteria and variables are set
+   */
+  MessageCorrelationBulkBuilder correlate(MessageCorrelationBuilder messageCorrelation);
+
+  /**
+   * Adds a correlation of a message to all matching executions and process definitions,
+   * as performed by {@link MessageCorrelationBuilder#correlateAllWithResult()}.
+   *
+   * @param messageCorrelation a builder obtained by {@link org.camunda.bpm.engine.RuntimeService#createMessageCorrelation(String)}
+   *   whose correlation criteria and variables are set
+   */
+  MessageCorrelationBulkBuilder correlateAll(MessageCorrelationBuilder messageCorrelation);
+
+  /**
+   * Sets the maximum number of correlations executed in one transaction. Defaults
+   * to the <code>messageCorrelationBulkChunkSize</code> of the process engine configuration.
+   */
+  MessageCorrelationBulkBuilder chunkSize(int chunkSize);
+
+  /**
+   * Executes the correlations.
+   *
+   * @return one result per added correlation, in the order in which they were added
+   */
+  List<MessageCorrelationBulkResult> execute();
+
+}
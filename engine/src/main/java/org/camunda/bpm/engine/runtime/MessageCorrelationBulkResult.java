@@ -0,0 +1,40 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.runtime;
+
+import java.util.List;
+
+/**
+ * The result of one correlation of a {@link MessageCorrelationBulkBuilder}.
+ *
+ * @since 7.7
+ */
+public interface MessageCorrelationBulkResult {
+
+  /**
+   * @return true if the message was correlated, false if the correlation failed
+   */
+  boolean isSuccessful();
+
+  /**
+   * @return the results of the correlation; contains one element for a single correlation,
+   *   any number of elements for a correlation to all matches and none if the correlation failed
+   */
+  List<MessageCorrelationResult> getResults();
+
+  /**
+   * @return the exception the correlation failed with or <code>null</code> if it was successful
+   */
+  RuntimeException getException();
+
+}
@@ -19,6 +19,8 @@ import java.util.List;
 import org.camunda.bpm.engine.BadUserRequestException;
 import org.camunda.bpm.engine.ProcessEngineConfiguration;
 import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.exception.NotValidException;
+import org.camunda.bpm.engine.query.KeysetPage;
 import org.camunda.bpm.engine.query.Query;
 import org.camunda.bpm.engine.variable.type.ValueType;
 
@@ -834,4 +836,23 @@ public interface TaskQuery extends Query<TaskQuery, Task>{
   /** Order by tenant id (needs to be followed by {@link #asc()} or {@link #desc()}).
    * Note that the ordering of tasks without tenant id is database-specific. */
   TaskQuery orderByTenantId();
+
+  /**
+   * <p>Executes the query and returns at most <code>maxResults</code> results which follow
+   * the last result of the page the continuation token was returned with. Unlike
+   * {@link #listPage(int, int)}, the database does not have to read and skip the results
+   * of all previous pages, which makes this the method of choice to iterate over large
+   * result sets.</p>
+   *
+   * <p>The query must either have no ordering or a single ordering out of
+   * {@link #orderByTaskId()}, {@link #orderByTaskCreateTime()} and {@link #orderByTaskPriority()}.
+   * The results are additionally ordered by id in the same direction. All pages have
+   * to be requested with the same criteria and ordering.</p>
+   *
+   * @param continuationToken the token returned with the previous page or <code>null</code> to request the first page
+   * @param maxResults the maximum number of results of the page
+   * @throws NotValidException if the query is ordered differently or the continuation token is invalid
+   */
+  KeysetPage<Task> listKeysetPage(String continuationToken, int maxResults);
+
 }
@@ -11,6 +11,7 @@ create table ACT_RE_CASE_DEF (
     RESOURCE_NAME_ varchar(4000),
     DGRM_RESOURCE_NAME_ varchar(4000),
     TENANT_ID_ varchar(64),
+    HISTORY_TTL_ integer,
     primary key (ID_)
 );
 
@@ -10,6 +10,7 @@ create table ACT_RE_CASE_DEF (
     RESOURCE_NAME_ nvarchar(4000),
     DGRM_RESOURCE_NAME_ nvarchar(4000),
     TENANT_ID_ nvarchar(64),
+    HISTORY_TTL_ int,
     primary key (ID_)
 );
 
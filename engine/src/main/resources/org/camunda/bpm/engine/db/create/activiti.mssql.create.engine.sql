@@ -115,6 +115,7 @@ create table ACT_RE_PROCDEF (
     SUSPENSION_STATE_ tinyint,
     TENANT_ID_ nvarchar(64),
     VERSION_TAG_ nvarchar(64),
+    HISTORY_TTL_ int,
     primary key (ID_)
 );
 
@@ -188,6 +189,7 @@ create table ACT_RU_EVENT_SUBSCR (
     CONFIGURATION_ nvarchar(255),
     CREATED_ datetime2 not null,
     TENANT_ID_ nvarchar(64),
+    CORRELATION_KEY_ nvarchar(64),
     primary key (ID_)
 );
 
@@ -242,6 +244,27 @@ create table ACT_RU_METER_LOG (
   primary key (ID_)
 );
 
+create table ACT_RU_HIST_BUFFER (
+  ID_ nvarchar(64) not null,
+  SEQUENCE_ numeric(19,0) identity(1,1) not null,
+  CREATE_TIME_ datetime2 not null,
+  EVENT_COUNT_ int,
+  EVENTS_ image,
+  primary key (ID_)
+);
+
+create table ACT_RU_AUTH_PERM (
+  ID_ nvarchar(64) not null,
+  AUTH_ID_ nvarchar(64) not null,
+  TYPE_ int not null,
+  GROUP_ID_ nvarchar(255),
+  USER_ID_ nvarchar(255),
+  RESOURCE_TYPE_ int not null,
+  RESOURCE_ID_ nvarchar(64),
+  PERMS_ int not null,
+  primary key (ID_)
+);
+
 create table ACT_RU_EXT_TASK (
   ID_ nvarchar(64) not null,
   REV_ integer not null,
@@ -485,6 +508,15 @@ create index ACT_IDX_DEPLOYMENT_TENANT_ID on ACT_RE_DEPLOYMENT(TENANT_ID_);
 create index ACT_IDX_JOBDEF_PROC_DEF_ID ON ACT_RU_JOBDEF(PROC_DEF_ID_);
 create index ACT_IDX_JOB_HANDLER_TYPE ON ACT_RU_JOB(HANDLER_TYPE_);
 create index ACT_IDX_EVENT_SUBSCR_EVT_NAME ON ACT_RU_EVENT_SUBSCR(EVENT_NAME_);
+create index ACT_IDX_EVENT_SUBSCR_CORR_KEY ON ACT_RU_EVENT_SUBSCR(CORRELATION_KEY_);
+
+-- history event buffer --
+create unique index ACT_IDX_HIST_BUFFER_SEQ ON ACT_RU_HIST_BUFFER(SEQUENCE_);
+
+-- authorization permission projection --
+create index ACT_IDX_AUTH_PERM_AUTH_ID ON ACT_RU_AUTH_PERM(AUTH_ID_);
+create index ACT_IDX_AUTH_PERM_USER ON ACT_RU_AUTH_PERM(RESOURCE_TYPE_, PERMS_, USER_ID_);
+create index ACT_IDX_AUTH_PERM_GROUP ON ACT_RU_AUTH_PERM(RESOURCE_TYPE_, PERMS_, GROUP_ID_);
 create index ACT_IDX_PROCDEF_DEPLOYMENT_ID ON ACT_RE_PROCDEF(DEPLOYMENT_ID_);
 create index ACT_IDX_PROCDEF_TENANT_ID ON ACT_RE_PROCDEF(TENANT_ID_);
 create index ACT_IDX_PROCDEF_VER_TAG ON ACT_RE_PROCDEF(VERSION_TAG_);
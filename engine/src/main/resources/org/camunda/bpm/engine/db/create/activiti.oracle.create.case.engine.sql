@@ -11,6 +11,7 @@ create table ACT_RE_CASE_DEF (
     RESOURCE_NAME_ NVARCHAR2(2000),
     DGRM_RESOURCE_NAME_ NVARCHAR2(2000),
     TENANT_ID_ NVARCHAR2(64),
+    HISTORY_TTL_ INTEGER,
     primary key (ID_)
 );
 
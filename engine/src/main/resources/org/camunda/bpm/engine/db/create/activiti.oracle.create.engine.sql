@@ -115,6 +115,7 @@ create table ACT_RE_PROCDEF (
     SUSPENSION_STATE_ INTEGER,
     TENANT_ID_ NVARCHAR2(64),
     VERSION_TAG_ NVARCHAR2(64),
+    HISTORY_TTL_ INTEGER,
     primary key (ID_)
 );
 
@@ -188,6 +189,7 @@ create table ACT_RU_EVENT_SUBSCR (
     CONFIGURATION_ NVARCHAR2(255),
     CREATED_ TIMESTAMP(6) not null,
     TENANT_ID_ NVARCHAR2(64),
+    CORRELATION_KEY_ NVARCHAR2(64),
     primary key (ID_)
 );
 
@@ -242,6 +244,29 @@ create table ACT_RU_METER_LOG (
   primary key (ID_)
 );
 
+create sequence ACT_SEQ_HIST_BUFFER start with 1 increment by 1 order;
+
+create table ACT_RU_HIST_BUFFER (
+  ID_ NVARCHAR2(64) not null,
+  SEQUENCE_ NUMBER(19,0) not null,
+  CREATE_TIME_ TIMESTAMP(6) not null,
+  EVENT_COUNT_ INTEGER,
+  EVENTS_ BLOB,
+  primary key (ID_)
+);
+
+create table ACT_RU_AUTH_PERM (
+  ID_ NVARCHAR2(64) not null,
+  AUTH_ID_ NVARCHAR2(64) not null,
+  TYPE_ integer not null,
+  GROUP_ID_ NVARCHAR2(255),
+  USER_ID_ NVARCHAR2(255),
+  RESOURCE_TYPE_ integer not null,
+  RESOURCE_ID_ NVARCHAR2(64),
+  PERMS_ integer not null,
+  primary key (ID_)
+);
+
 create table ACT_RU_EXT_TASK (
   ID_ NVARCHAR2(64) not null,
   REV_ integer not null,
@@ -501,6 +526,15 @@ create index ACT_IDX_DEPLOYMENT_TENANT_ID on ACT_RE_DEPLOYMENT(TENANT_ID_, 0);
 create index ACT_IDX_JOBDEF_PROC_DEF_ID ON ACT_RU_JOBDEF(PROC_DEF_ID_);
 create index ACT_IDX_JOB_HANDLER_TYPE ON ACT_RU_JOB(HANDLER_TYPE_);
 create index ACT_IDX_EVENT_SUBSCR_EVT_NAME ON ACT_RU_EVENT_SUBSCR(EVENT_NAME_);
+create index ACT_IDX_EVENT_SUBSCR_CORR_KEY ON ACT_RU_EVENT_SUBSCR(CORRELATION_KEY_);
+
+-- history event buffer --
+create unique index ACT_IDX_HIST_BUFFER_SEQ ON ACT_RU_HIST_BUFFER(SEQUENCE_);
+
+-- authorization permission projection --
+create index ACT_IDX_AUTH_PERM_AUTH_ID ON ACT_RU_AUTH_PERM(AUTH_ID_);
+create index ACT_IDX_AUTH_PERM_USER ON ACT_RU_AUTH_PERM(RESOURCE_TYPE_, PERMS_, USER_ID_);
+create index ACT_IDX_AUTH_PERM_GROUP ON ACT_RU_AUTH_PERM(RESOURCE_TYPE_, PERMS_, GROUP_ID_);
 create index ACT_IDX_PROCDEF_DEPLOYMENT_ID ON ACT_RE_PROCDEF(DEPLOYMENT_ID_);
 create index ACT_IDX_PROCDEF_TENANT_ID ON ACT_RE_PROCDEF(TENANT_ID_, 0);
 create index ACT_IDX_PROCDEF_VER_TAG ON ACT_RE_PROCDEF(VERSION_TAG_);
@@ -6,6 +6,7 @@ drop index ACT_IDX_HI_CAS_A_I_END on ACT_HI_CASEACTINST;
 drop index ACT_IDX_HI_CAS_A_I_COMP on ACT_HI_CASEACTINST;
 drop index ACT_IDX_HI_CAS_A_I_CASEINST on ACT_HI_CASEACTINST;
 drop index ACT_IDX_HI_CAS_A_I_TENANT_ID on ACT_HI_CASEACTINST;
+drop index ACT_IDX_HI_CAS_A_I_CASEINST on ACT_HI_CASEACTINST;
 
 drop table if exists ACT_HI_CASEINST;
 drop table if exists ACT_HI_CASEACTINST;
@@ -116,6 +116,10 @@ drop index ACT_IDX_DEPLOYMENT_NAME on ACT_RE_DEPLOYMENT;
 drop index ACT_IDX_JOBDEF_PROC_DEF_ID ON ACT_RU_JOBDEF;
 drop index ACT_IDX_JOB_HANDLER_TYPE ON ACT_RU_JOB;
 drop index ACT_IDX_EVENT_SUBSCR_EVT_NAME ON ACT_RU_EVENT_SUBSCR;
+drop index ACT_IDX_EVENT_SUBSCR_CORR_KEY ON ACT_RU_EVENT_SUBSCR;
+drop index ACT_IDX_AUTH_PERM_AUTH_ID ON ACT_RU_AUTH_PERM;
+drop index ACT_IDX_AUTH_PERM_USER ON ACT_RU_AUTH_PERM;
+drop index ACT_IDX_AUTH_PERM_GROUP ON ACT_RU_AUTH_PERM;
 drop index ACT_IDX_PROCDEF_DEPLOYMENT_ID ON ACT_RE_PROCDEF;
 
 drop index ACT_IDX_EXT_TASK_TENANT_ID on ACT_RU_EXT_TASK;
@@ -156,5 +160,7 @@ drop table if exists ACT_RU_INCIDENT;
 drop table if exists ACT_RU_AUTHORIZATION;
 drop table if exists ACT_RU_FILTER;
 drop table if exists ACT_RU_METER_LOG;
+drop table if exists ACT_RU_HIST_BUFFER;
+drop table if exists ACT_RU_AUTH_PERM;
 drop table if exists ACT_RU_EXT_TASK;
 drop table if exists ACT_RU_BATCH;
@@ -5,6 +5,7 @@ drop index ACT_HI_CASEACTINST.ACT_IDX_HI_CAS_A_I_CREATE;
 drop index ACT_HI_CASEACTINST.ACT_IDX_HI_CAS_A_I_END;
 drop index ACT_HI_CASEACTINST.ACT_IDX_HI_CAS_A_I_COMP;
 drop index ACT_HI_CASEACTINST.ACT_IDX_HI_CAS_A_I_TENANT_ID;
+drop index ACT_HI_CASEACTINST.ACT_IDX_HI_CAS_A_I_CASEINST;
 
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_HI_CASEINST') drop table ACT_HI_CASEINST;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_HI_CASEACTINST') drop table ACT_HI_CASEACTINST;
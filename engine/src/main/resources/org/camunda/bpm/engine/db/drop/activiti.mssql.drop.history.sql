@@ -13,6 +13,7 @@ drop index ACT_HI_ACTINST.ACT_IDX_HI_ACT_INST_PROC_DEF_KEY;
 
 drop index ACT_HI_TASKINST.ACT_IDX_HI_TASK_INST_TENANT_ID;
 drop index ACT_HI_TASKINST.ACT_IDX_HI_TASK_INST_PROC_DEF_KEY;
+drop index ACT_HI_TASKINST.ACT_IDX_HI_TASKINST_PROCINST;
 
 drop index ACT_HI_DETAIL.ACT_IDX_HI_DETAIL_PROC_INST;
 drop index ACT_HI_DETAIL.ACT_IDX_HI_DETAIL_ACT_INST;
@@ -28,6 +29,7 @@ drop index ACT_HI_IDENTITYLINK.ACT_IDX_HI_IDENT_LNK_USER;
 drop index ACT_HI_IDENTITYLINK.ACT_IDX_HI_IDENT_LNK_GROUP;
 drop index ACT_HI_IDENTITYLINK.ACT_IDX_HI_IDENT_LNK_TENANT_ID;
 drop index ACT_HI_IDENTITYLINK.ACT_IDX_HI_IDENT_LNK_PROC_DEF_KEY;
+drop index ACT_HI_IDENTITYLINK.ACT_IDX_HI_IDENT_LNK_TASK;
 
 drop index ACT_HI_VARINST.ACT_IDX_HI_PROCVAR_PROC_INST;
 drop index ACT_HI_VARINST.ACT_IDX_HI_PROCVAR_NAME_TYPE;
@@ -37,6 +39,7 @@ drop index ACT_HI_VARINST.ACT_IDX_HI_VAR_INST_PROC_DEF_KEY;
 
 drop index ACT_HI_INCIDENT.ACT_IDX_HI_INCIDENT_TENANT_ID;
 drop index ACT_HI_INCIDENT.ACT_IDX_HI_INCIDENT_PROC_DEF_KEY;
+drop index ACT_HI_INCIDENT.ACT_IDX_HI_INCIDENT_PROCINST;
 
 drop index ACT_HI_JOB_LOG.ACT_IDX_HI_JOB_LOG_PROCINST;
 drop index ACT_HI_JOB_LOG.ACT_IDX_HI_JOB_LOG_PROCDEF;
@@ -13,6 +13,7 @@ drop index ACT_IDX_HI_ACT_INST_PROC_DEF_KEY on ACT_HI_ACTINST;
 
 drop index ACT_IDX_HI_TASK_INST_TENANT_ID on ACT_HI_TASKINST;
 drop index ACT_IDX_HI_TASK_INST_PROC_DEF_KEY on ACT_HI_TASKINST;
+drop index ACT_IDX_HI_TASKINST_PROCINST on ACT_HI_TASKINST;
 
 drop index ACT_IDX_HI_DETAIL_PROC_INST on ACT_HI_DETAIL;
 drop index ACT_IDX_HI_DETAIL_ACT_INST on ACT_HI_DETAIL;
@@ -28,6 +29,7 @@ drop index ACT_IDX_HI_IDENT_LNK_USER on ACT_HI_IDENTITYLINK;
 drop index ACT_IDX_HI_IDENT_LNK_GROUP on ACT_HI_IDENTITYLINK;
 drop index ACT_IDX_HI_IDENT_LNK_TENANT_ID on ACT_HI_IDENTITYLINK;
 drop index ACT_IDX_HI_IDENT_LNK_PROC_DEF_KEY on ACT_HI_IDENTITYLINK;
+drop index ACT_IDX_HI_IDENT_LNK_TASK on ACT_HI_IDENTITYLINK;
 
 drop index ACT_IDX_HI_PROCVAR_PROC_INST on ACT_HI_VARINST;
 drop index ACT_IDX_HI_PROCVAR_NAME_TYPE on ACT_HI_VARINST;
@@ -37,6 +39,7 @@ drop index ACT_IDX_HI_VAR_INST_PROC_DEF_KEY on ACT_HI_VARINST;
 
 drop index ACT_IDX_HI_INCIDENT_TENANT_ID on ACT_HI_INCIDENT;
 drop index ACT_IDX_HI_INCIDENT_PROC_DEF_KEY on ACT_HI_INCIDENT;
+drop index ACT_IDX_HI_INCIDENT_PROCINST on ACT_HI_INCIDENT;
 
 drop index ACT_IDX_HI_JOB_LOG_PROCINST on ACT_HI_JOB_LOG;
 drop index ACT_IDX_HI_JOB_LOG_PROCDEF on ACT_HI_JOB_LOG;
@@ -5,6 +5,7 @@ drop index ACT_IDX_HI_CAS_A_I_CREATE;
 drop index ACT_IDX_HI_CAS_A_I_END;
 drop index ACT_IDX_HI_CAS_A_I_COMP;
 drop index ACT_IDX_HI_CAS_A_I_TENANT_ID;
+drop index ACT_IDX_HI_CAS_A_I_CASEINST;
 
 drop table ACT_HI_CASEINST;
 drop table ACT_HI_CASEACTINST;
@@ -142,6 +142,11 @@ drop index ACT_IDX_DEPLOYMENT_NAME;
 drop index ACT_IDX_JOBDEF_PROC_DEF_ID;
 drop index ACT_IDX_JOB_HANDLER_TYPE;
 drop index ACT_IDX_EVENT_SUBSCR_EVT_NAME;
+drop index ACT_IDX_EVENT_SUBSCR_CORR_KEY;
+drop index ACT_IDX_HIST_BUFFER_SEQ;
+drop index ACT_IDX_AUTH_PERM_AUTH_ID;
+drop index ACT_IDX_AUTH_PERM_USER;
+drop index ACT_IDX_AUTH_PERM_GROUP;
 drop index ACT_IDX_PROCDEF_DEPLOYMENT_ID;
 
 drop index ACT_IDX_EXT_TASK_TENANT_ID;
@@ -179,6 +184,8 @@ drop table ACT_RU_INCIDENT;
 drop table ACT_RU_AUTHORIZATION;
 drop table ACT_RU_FILTER;
 drop table ACT_RU_METER_LOG;
+drop table ACT_RU_HIST_BUFFER;
+drop table ACT_RU_AUTH_PERM;
 drop table ACT_RU_EXT_TASK;
 drop table ACT_RU_BATCH;
 
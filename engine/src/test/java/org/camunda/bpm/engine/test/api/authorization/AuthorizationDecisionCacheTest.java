@@ -0,0 +1,226 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.authorization;
+
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_GRANT;
+import static org.camunda.bpm.engine.authorization.Permissions.READ;
+import static org.camunda.bpm.engine.authorization.Resources.PROCESS_DEFINITION;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.AuthorizationService;
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.authorization.Authorization;
+import org.camunda.bpm.engine.identity.Group;
+import org.camunda.bpm.engine.identity.User;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.auth.AuthorizationDecisionCache;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class AuthorizationDecisionCacheTest {
+
+  protected static final String USER_ID = "demo";
+  protected static final String GROUP_ID = "accounting";
+  protected static final String DEFINITION_KEY = "aProcess";
+  protected static final long TIME_TO_LIVE = 5000;
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setAuthorizationDecisionCacheEnabled(true);
+      configuration.setAuthorizationDecisionCacheTimeToLive(TIME_TO_LIVE);
+      configuration.setMetricsEnabled(true);
+      return configuration;
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected AuthorizationService authorizationService;
+  protected IdentityService identityService;
+  protected AuthorizationDecisionCache decisionCache;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    authorizationService = engineRule.getAuthorizationService();
+    identityService = engineRule.getIdentityService();
+    decisionCache = processEngineConfiguration.getAuthorizationDecisionCache();
+
+    User user = identityService.newUser(USER_ID);
+    identityService.saveUser(user);
+    Group group = identityService.newGroup(GROUP_ID);
+    identityService.saveGroup(group);
+
+    processEngineConfiguration.setAuthorizationEnabled(true);
+    decisionCache.invalidate();
+    getMeterValueAndClear(Metrics.AUTHORIZATION_CACHE_HIT);
+    getMeterValueAndClear(Metrics.AUTHORIZATION_CACHE_MISS);
+  }
+
+  @After
+  public void tearDown() {
+    processEngineConfiguration.setAuthorizationEnabled(false);
+    ClockUtil.reset();
+
+    for (Authorization authorization : authorizationService.createAuthorizationQuery().list()) {
+      authorizationService.deleteAuthorization(authorization.getId());
+    }
+    identityService.deleteUser(USER_ID);
+    identityService.deleteGroup(GROUP_ID);
+    engineRule.getManagementService().deleteMetrics(null);
+  }
+
+  @Test
+  public void testRepeatedCheckIsServedFromCache() {
+    // given
+    createGrantAuthorization(USER_ID, null);
+
+    // when
+    assertTrue(isUserAuthorized(USER_ID));
+    assertTrue(isUserAuthorized(USER_ID));
+    assertTrue(isUserAuthorized(USER_ID));
+
+    // then
+    assertEquals(1, getMeterValueAndClear(Metrics.AUTHORIZATION_CACHE_MISS));
+    assertEquals(2, getMeterValueAndClear(Metrics.AUTHORIZATION_CACHE_HIT));
+    assertEquals(1, decisionCache.size());
+  }
+
+  @Test
+  public void testCreateAuthorizationInvalidatesCache() {
+    // given
+    assertFalse(isUserAuthorized(USER_ID));
+
+    // when
+    createGrantAuthorization(USER_ID, null);
+
+    // then
+    assertEquals(0, decisionCache.size());
+    assertTrue(isUserAuthorized(USER_ID));
+  }
+
+  @Test
+  public void testDeleteAuthorizationInvalidatesCache() {
+    // given
+    Authorization authorization = createGrantAuthorization(USER_ID, null);
+    assertTrue(isUserAuthorized(USER_ID));
+
+    // when
+    authorizationService.deleteAuthorization(authorization.getId());
+
+    // then
+    assertFalse(isUserAuthorized(USER_ID));
+  }
+
+  @Test
+  public void testMembershipChangesInvalidateCache() {
+    // given
+    createGrantAuthorization(null, GROUP_ID);
+    assertFalse(isUserAuthorized(USER_ID));
+
+    // when
+    identityService.createMembership(USER_ID, GROUP_ID);
+
+    // then
+    assertTrue(isUserAuthorized(USER_ID));
+
+    // when
+    identityService.deleteMembership(USER_ID, GROUP_ID);
+
+    // then
+    assertFalse(isUserAuthorized(USER_ID));
+  }
+
+  @Test
+  public void testCachedDecisionExpires() {
+    // given
+    Date now = ClockUtil.getCurrentTime();
+    ClockUtil.setCurrentTime(now);
+    createGrantAuthorization(USER_ID, null);
+    assertTrue(isUserAuthorized(USER_ID));
+    getMeterValueAndClear(Metrics.AUTHORIZATION_CACHE_MISS);
+
+    // when
+    ClockUtil.setCurrentTime(new Date(now.getTime() + TIME_TO_LIVE + 1));
+
+    // then
+    assertTrue(isUserAuthorized(USER_ID));
+    assertEquals(1, getMeterValueAndClear(Metrics.AUTHORIZATION_CACHE_MISS));
+    assertEquals(0, getMeterValueAndClear(Metrics.AUTHORIZATION_CACHE_HIT));
+  }
+
+  @Test
+  public void testDecisionComputedBeforeInvalidationIsNotCached() {
+    // given
+    long generation = decisionCache.getGeneration();
+    String key = "key";
+
+    // when
+    decisionCache.invalidate();
+    decisionCache.put(key, true, generation);
+
+    // then
+    assertEquals(0, decisionCache.size());
+  }
+
+  protected Authorization createGrantAuthorization(String userId, String groupId) {
+    Authorization authorization = authorizationService.createNewAuthorization(AUTH_TYPE_GRANT);
+    authorization.setUserId(userId);
+    authorization.setGroupId(groupId);
+    authorization.setResource(PROCESS_DEFINITION);
+    authorization.setResourceId(DEFINITION_KEY);
+    authorization.addPermission(READ);
+    authorizationService.saveAuthorization(authorization);
+    return authorization;
+  }
+
+  protected boolean isUserAuthorized(final String userId) {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Boolean>() {
+      public Boolean execute(CommandContext commandContext) {
+        List<String> groupIds = identityService.createGroupQuery().groupMember(userId).list().isEmpty()
+            ? null : Arrays.asList(GROUP_ID);
+        return commandContext.getAuthorizationManager()
+            .isAuthorized(userId, groupIds, READ, PROCESS_DEFINITION, DEFINITION_KEY);
+      }
+    });
+  }
+
+  protected long getMeterValueAndClear(String name) {
+    MetricsRegistry metricsRegistry = processEngineConfiguration.getMetricsRegistry();
+    return metricsRegistry.getMeterByName(name).getAndClear();
+  }
+
+}
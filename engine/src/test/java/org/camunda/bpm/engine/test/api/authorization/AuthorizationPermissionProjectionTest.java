@@ -0,0 +1,411 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.authorization;
+
+import static org.camunda.bpm.engine.authorization.Authorization.ANY;
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_GRANT;
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_REVOKE;
+import static org.camunda.bpm.engine.authorization.Permissions.ALL;
+import static org.camunda.bpm.engine.authorization.Permissions.READ;
+import static org.camunda.bpm.engine.authorization.Permissions.READ_TASK;
+import static org.camunda.bpm.engine.authorization.Permissions.UPDATE;
+import static org.camunda.bpm.engine.authorization.Resources.PROCESS_DEFINITION;
+import static org.camunda.bpm.engine.authorization.Resources.TASK;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.AuthorizationService;
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.authorization.Authorization;
+import org.camunda.bpm.engine.authorization.Permission;
+import org.camunda.bpm.engine.authorization.Resource;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.InvalidateAuthorizationPermissionsCmd;
+import org.camunda.bpm.engine.impl.cmd.RebuildAuthorizationPermissionsCmd;
+import org.camunda.bpm.engine.impl.db.AuthorizationCheck;
+import org.camunda.bpm.engine.impl.db.PermissionCheck;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationPermissionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationPermissionManager;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class AuthorizationPermissionProjectionTest {
+
+  protected static final String USER_ID = "demo";
+  protected static final String GROUP_ID = "accounting";
+  protected static final String PROCESS_KEY = "oneTaskProcess";
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setAuthorizationPermissionProjectionEnabled(true);
+      return configuration;
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected AuthorizationService authorizationService;
+  protected IdentityService identityService;
+  protected ManagementService managementService;
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    authorizationService = engineRule.getAuthorizationService();
+    identityService = engineRule.getIdentityService();
+    managementService = engineRule.getManagementService();
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+  }
+
+  @After
+  public void tearDown() {
+    processEngineConfiguration.setAuthorizationEnabled(false);
+    identityService.clearAuthentication();
+    ClockUtil.reset();
+
+    for (Authorization authorization : authorizationService.createAuthorizationQuery().list()) {
+      authorizationService.deleteAuthorization(authorization.getId());
+    }
+    for (Task task : taskService.createTaskQuery().list()) {
+      if (task.getProcessInstanceId() == null) {
+        taskService.deleteTask(task.getId(), true);
+      }
+    }
+  }
+
+  @Test
+  public void testGrantCreatesOnePermissionPerBit() {
+    // when
+    Authorization authorization = createGrant(USER_ID, null, TASK, ANY, READ, UPDATE);
+
+    // then
+    List<AuthorizationPermissionEntity> permissions = findPermissions();
+    assertEquals(2, permissions.size());
+    for (AuthorizationPermissionEntity permission : permissions) {
+      assertEquals(authorization.getId(), permission.getAuthorizationId());
+      assertEquals(USER_ID, permission.getUserId());
+      assertEquals(TASK.resourceType(), permission.getResourceType().intValue());
+      assertEquals(ANY, permission.getResourceId());
+      assertTrue(permission.getPermission() == READ.getValue() || permission.getPermission() == UPDATE.getValue());
+    }
+  }
+
+  @Test
+  public void testGrantAllPermissions() {
+    // when
+    createGrant(USER_ID, null, TASK, ANY, ALL);
+
+    // then
+    assertEquals(31, findPermissions().size());
+  }
+
+  @Test
+  public void testRevokeCreatesNoPermission() {
+    // when
+    Authorization revoke = authorizationService.createNewAuthorization(AUTH_TYPE_REVOKE);
+    revoke.setUserId(USER_ID);
+    revoke.setResource(TASK);
+    revoke.setResourceId(ANY);
+    revoke.removePermission(READ);
+    authorizationService.saveAuthorization(revoke);
+
+    // then
+    assertEquals(0, findPermissions().size());
+  }
+
+  @Test
+  public void testUpdateReplacesPermissions() {
+    // given
+    Authorization authorization = createGrant(USER_ID, null, TASK, ANY, READ);
+
+    // when
+    authorization.addPermission(UPDATE);
+    authorization.setResourceId("aTaskId");
+    authorizationService.saveAuthorization(authorization);
+
+    // then
+    List<AuthorizationPermissionEntity> permissions = findPermissions();
+    assertEquals(2, permissions.size());
+    for (AuthorizationPermissionEntity permission : permissions) {
+      assertEquals("aTaskId", permission.getResourceId());
+    }
+  }
+
+  @Test
+  public void testDeleteRemovesPermissions() {
+    // given
+    Authorization authorization = createGrant(USER_ID, null, TASK, ANY, READ, UPDATE);
+
+    // when
+    authorizationService.deleteAuthorization(authorization.getId());
+
+    // then
+    assertEquals(0, findPermissions().size());
+  }
+
+  @Test
+  public void testDeleteOfResourceRemovesPermissions() {
+    // given
+    Task task = taskService.newTask();
+    taskService.saveTask(task);
+    createGrant(USER_ID, null, TASK, task.getId(), READ);
+    processEngineConfiguration.setAuthorizationEnabled(true);
+
+    // when
+    taskService.deleteTask(task.getId(), true);
+
+    // then
+    assertEquals(0, findPermissions().size());
+  }
+
+  @Test
+  public void testRebuildRestoresPermissions() {
+    // given
+    createGrant(USER_ID, null, TASK, ANY, READ, UPDATE);
+    createGrant(null, GROUP_ID, PROCESS_DEFINITION, ANY, READ);
+
+    deleteAllPermissions();
+    assertEquals(0, findPermissions().size());
+
+    // when
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new RebuildAuthorizationPermissionsCmd());
+
+    // then
+    assertEquals(3, findPermissions().size());
+  }
+
+  @Test
+  public void testRebuildEqualsMaintainedPermissions() {
+    // given
+    createGrant(USER_ID, null, TASK, ANY, ALL);
+    createGrant(null, GROUP_ID, PROCESS_DEFINITION, PROCESS_KEY, READ, UPDATE);
+    Authorization revoke = authorizationService.createNewAuthorization(AUTH_TYPE_REVOKE);
+    revoke.setUserId(USER_ID);
+    revoke.setResource(TASK);
+    revoke.setResourceId("aTaskId");
+    revoke.removePermission(READ);
+    authorizationService.saveAuthorization(revoke);
+
+    Set<String> maintainedPermissions = describePermissions(findPermissions());
+    assertEquals(33, maintainedPermissions.size());
+
+    // when
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new RebuildAuthorizationPermissionsCmd());
+
+    // then
+    List<AuthorizationPermissionEntity> rebuiltPermissions = findPermissions();
+    assertEquals(maintainedPermissions, describePermissions(rebuiltPermissions));
+
+    Set<String> ids = new HashSet<String>();
+    for (AuthorizationPermissionEntity permission : rebuiltPermissions) {
+      ids.add(permission.getId());
+    }
+    assertEquals(33, ids.size());
+  }
+
+  @Test
+  public void testProjectionIsNotUsedOnceMarkedAsOutdated() {
+    // given
+    testRule.deploy("org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml");
+    runtimeService.startProcessInstanceByKey(PROCESS_KEY);
+    createGrant(USER_ID, null, TASK, ANY, READ);
+
+    processEngineConfiguration.setAuthorizationEnabled(true);
+    identityService.setAuthentication(USER_ID, null);
+
+    Date now = new Date();
+    ClockUtil.setCurrentTime(now);
+    assertEquals(1, taskService.createTaskQuery().count());
+
+    // when an engine with the projection disabled marks the projection as outdated
+    // and changes authorizations without maintaining it
+    deleteAllPermissions();
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new InvalidateAuthorizationPermissionsCmd());
+
+    // then the projection is used until the recorded state expires
+    assertEquals(0, taskService.createTaskQuery().count());
+
+    ClockUtil.setCurrentTime(new Date(now.getTime() + processEngineConfiguration.getAuthorizationPermissionProjectionStatusTimeToLive() + 1));
+    assertEquals(1, taskService.createTaskQuery().count());
+  }
+
+  @Test
+  public void testUpToDateProjectionIsNotRebuiltOnEngineBuild() {
+    // given
+    createGrant(USER_ID, null, TASK, ANY, READ);
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new RebuildAuthorizationPermissionsCmd());
+
+    deleteAllPermissions();
+
+    // when
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new RebuildAuthorizationPermissionsCmd(false));
+
+    // then
+    assertEquals(0, findPermissions().size());
+  }
+
+  @Test
+  public void testInvalidatedProjectionIsRebuiltOnEngineBuild() {
+    // given
+    createGrant(USER_ID, null, TASK, ANY, READ);
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new RebuildAuthorizationPermissionsCmd());
+
+    deleteAllPermissions();
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new InvalidateAuthorizationPermissionsCmd());
+    assertNull(findProjectionProperty());
+
+    // when
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new RebuildAuthorizationPermissionsCmd(false));
+
+    // then
+    assertEquals(1, findPermissions().size());
+    assertNotNull(findProjectionProperty());
+  }
+
+  @Test
+  public void testTaskQueryWithPermissionProjection() {
+    // given
+    testRule.deploy("org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml");
+    runtimeService.startProcessInstanceByKey(PROCESS_KEY);
+    runtimeService.startProcessInstanceByKey(PROCESS_KEY);
+
+    Task standaloneTask = taskService.newTask();
+    taskService.saveTask(standaloneTask);
+
+    createGrant(USER_ID, null, TASK, standaloneTask.getId(), READ);
+    createGrant(null, GROUP_ID, PROCESS_DEFINITION, PROCESS_KEY, READ_TASK);
+
+    processEngineConfiguration.setAuthorizationEnabled(true);
+
+    // then
+    identityService.setAuthentication(USER_ID, null);
+    assertEquals(1, taskService.createTaskQuery().count());
+    assertEquals(standaloneTask.getId(), taskService.createTaskQuery().singleResult().getId());
+
+    identityService.setAuthentication(USER_ID, Arrays.asList(GROUP_ID));
+    assertEquals(3, taskService.createTaskQuery().count());
+    assertEquals(3, taskService.createTaskQuery().list().size());
+
+    identityService.setAuthentication("anotherUser", null);
+    assertEquals(0, taskService.createTaskQuery().count());
+
+    // the query is answered from the projection
+    deleteAllPermissions();
+    identityService.setAuthentication(USER_ID, Arrays.asList(GROUP_ID));
+    assertEquals(0, taskService.createTaskQuery().count());
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new RebuildAuthorizationPermissionsCmd());
+    assertEquals(3, taskService.createTaskQuery().count());
+  }
+
+  @Test
+  public void testProjectionIsNotApplicableToCombinedPermissions() {
+    AuthorizationCheck authCheck = new AuthorizationCheck();
+    authCheck.setPermissionProjectionEnabled(true);
+
+    PermissionCheck singlePermission = new PermissionCheck();
+    singlePermission.setPermission(READ);
+    singlePermission.setResource(TASK);
+    authCheck.addAtomicPermissionCheck(singlePermission);
+    assertTrue(authCheck.isPermissionProjectionApplicable());
+
+    PermissionCheck allPermissions = new PermissionCheck();
+    allPermissions.setPermission(ALL);
+    allPermissions.setResource(TASK);
+    authCheck.addAtomicPermissionCheck(allPermissions);
+    assertFalse(authCheck.isPermissionProjectionApplicable());
+  }
+
+  protected Authorization createGrant(String userId, String groupId, Resource resource, String resourceId, Permission... permissions) {
+    Authorization authorization = authorizationService.createNewAuthorization(AUTH_TYPE_GRANT);
+    authorization.setUserId(userId);
+    authorization.setGroupId(groupId);
+    authorization.setResource(resource);
+    authorization.setResourceId(resourceId);
+    for (Permission permission : permissions) {
+      authorization.addPermission(permission);
+    }
+    authorizationService.saveAuthorization(authorization);
+    return authorization;
+  }
+
+  protected void deleteAllPermissions() {
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getDbSqlSession().executeUpdate("deleteAllAuthorizationPermissions", null);
+        return null;
+      }
+    });
+  }
+
+  protected PropertyEntity findProjectionProperty() {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<PropertyEntity>() {
+      public PropertyEntity execute(CommandContext commandContext) {
+        return commandContext.getPropertyManager().findPropertyById(AuthorizationPermissionManager.PROJECTION_PROPERTY);
+      }
+    });
+  }
+
+  protected Set<String> describePermissions(List<AuthorizationPermissionEntity> permissions) {
+    Set<String> descriptions = new HashSet<String>();
+    for (AuthorizationPermissionEntity permission : permissions) {
+      descriptions.add(permission.getAuthorizationId() + "|" + permission.getAuthorizationType()
+          + "|" + permission.getUserId() + "|" + permission.getGroupId()
+          + "|" + permission.getResourceType() + "|" + permission.getResourceId()
+          + "|" + permission.getPermission());
+    }
+    return descriptions;
+  }
+
+  protected List<AuthorizationPermissionEntity> findPermissions() {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<List<AuthorizationPermissionEntity>>() {
+      @SuppressWarnings("unchecked")
+      public List<AuthorizationPermissionEntity> execute(CommandContext commandContext) {
+        return commandContext.getDbEntityManager().selectList("selectAuthorizationPermissions");
+      }
+    });
+  }
+
+}
@@ -0,0 +1,86 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.cfg;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.DbIdGenerator;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class DbIdGeneratorTest {
+
+  @Rule
+  public ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+
+  protected DbIdGenerator idGenerator;
+
+  @Before
+  public void setUp() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+
+    idGenerator = new DbIdGenerator();
+    idGenerator.setIdBlockSize(3);
+    idGenerator.setMaxIdBlockSize(24);
+    idGenerator.setStripes(4);
+    idGenerator.setCommandExecutor(processEngineConfiguration.getCommandExecutorTxRequiresNew());
+  }
+
+  @Test
+  public void testIdsAreIncreasingWithinThread() {
+    long previousId = Long.parseLong(idGenerator.getNextId());
+
+    for (int i = 0; i < 100; i++) {
+      long id = Long.parseLong(idGenerator.getNextId());
+      assertTrue(id > previousId);
+      previousId = id;
+    }
+  }
+
+  @Test
+  public void testIdsAreUniqueAcrossThreads() throws InterruptedException {
+    final Set<String> ids = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    final int idsPerThread = 500;
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 8; i++) {
+      Thread thread = new Thread() {
+        public void run() {
+          for (int j = 0; j < idsPerThread; j++) {
+            ids.add(idGenerator.getNextId());
+          }
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(8 * idsPerThread, ids.size());
+  }
+
+}
@@ -22,6 +22,7 @@ import org.camunda.bpm.engine.externaltask.ExternalTask;
 import org.camunda.bpm.engine.externaltask.ExternalTaskQueryBuilder;
 import org.camunda.bpm.engine.externaltask.LockedExternalTask;
 import org.camunda.bpm.engine.history.HistoricIncident;
+import org.camunda.bpm.engine.impl.externaltask.ExternalTaskCreationObserver;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
@@ -36,8 +37,11 @@ import org.camunda.bpm.engine.variable.Variables;
 import org.joda.time.DateTime;
 import org.junit.Assert;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.camunda.bpm.engine.test.util.ActivityInstanceAssert.assertThat;
 import static org.camunda.bpm.engine.test.util.ActivityInstanceAssert.describeActivityInstanceTree;
@@ -77,6 +81,35 @@ public class ExternalTaskServiceTest extends PluggableProcessEngineTestCase {
   }
 
 
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testCreationObserverNotifiedAfterCommit() {
+    // given
+    final List<String> createdTopics = new ArrayList<String>();
+    ExternalTaskCreationObserver observer = new ExternalTaskCreationObserver() {
+      public void externalTaskCreated(String topicName) {
+        // the task is visible to other transactions when the observer is notified
+        assertEquals(1, externalTaskService.createExternalTaskQuery().topicName(topicName).count());
+        createdTopics.add(topicName);
+      }
+
+      public void processEngineClosed() {
+      }
+    };
+    processEngineConfiguration.getExternalTaskCreationObservers().add(observer);
+
+    try {
+      // when
+      runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+
+      // then
+      assertEquals(1, createdTopics.size());
+      assertEquals(TOPIC_NAME, createdTopics.get(0));
+    }
+    finally {
+      processEngineConfiguration.getExternalTaskCreationObservers().remove(observer);
+    }
+  }
+
   @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
   public void testFetch() {
     // given
@@ -288,6 +321,70 @@ public class ExternalTaskServiceTest extends PluggableProcessEngineTestCase {
     assertEquals("topic2", topic2Tasks.get(0).getTopicName());
   }
 
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
+  public void testFetchWithTopicMaxTasks() {
+    // given
+    for (int i = 0; i < 5; i++) {
+      runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    }
+
+    // when
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(10, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .maxTasks(2)
+      .execute();
+
+    // then
+    assertEquals(2, externalTasks.size());
+    assertEquals(2, externalTaskService.createExternalTaskQuery().locked().count());
+  }
+
+  @Deployment(resources = {
+    "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml",
+    "org/camunda/bpm/engine/test/api/externaltask/ExternalTaskServiceTest.testFetchTopicSelection.bpmn20.xml"
+  })
+  public void testFetchSharesMaxTasksBetweenTopics() {
+    // given a topic with many tasks and two topics with few tasks
+    for (int i = 0; i < 5; i++) {
+      runtimeService.startProcessInstanceByKey("oneExternalTaskProcess");
+    }
+    for (int i = 0; i < 2; i++) {
+      runtimeService.startProcessInstanceByKey("twoTopicsProcess");
+    }
+
+    // when
+    List<LockedExternalTask> externalTasks = externalTaskService.fetchAndLock(4, WORKER_ID)
+      .topic(TOPIC_NAME, LOCK_TIME)
+      .maxTasks(4)
+      .topic("topic1", LOCK_TIME)
+      .topic("topic2", LOCK_TIME)
+      .execute();
+
+    // then the tasks are shared between the topics
+    assertEquals(4, externalTasks.size());
+
+    Map<String, Integer> tasksByTopic = new HashMap<String, Integer>();
+    for (LockedExternalTask task : externalTasks) {
+      Integer count = tasksByTopic.get(task.getTopicName());
+      tasksByTopic.put(task.getTopicName(), count == null ? 1 : count + 1);
+    }
+    assertEquals(Integer.valueOf(2), tasksByTopic.get(TOPIC_NAME));
+    assertEquals(Integer.valueOf(1), tasksByTopic.get("topic1"));
+    assertEquals(Integer.valueOf(1), tasksByTopic.get("topic2"));
+  }
+
+  public void testFetchWithNegativeTopicMaxTasks() {
+    try {
+      externalTaskService.fetchAndLock(5, WORKER_ID)
+        .topic(TOPIC_NAME, LOCK_TIME)
+        .maxTasks(-1)
+        .execute();
+      fail("exception expected");
+    } catch (ProcessEngineException e) {
+      assertTextPresent("maxTasks", e.getMessage());
+    }
+  }
+
   @Deployment(resources = "org/camunda/bpm/engine/test/api/externaltask/oneExternalTaskProcess.bpmn20.xml")
   public void testFetchWithoutTopicName() {
     // given
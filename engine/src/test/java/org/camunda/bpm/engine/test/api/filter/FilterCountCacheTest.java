@@ -0,0 +1,267 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.filter;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.FilterService;
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.filter.Filter;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.filter.FilterCountCache;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.commons.utils.cache.ConcurrentLruCache;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class FilterCountCacheTest {
+
+  protected static final String USER_ID = "kermit";
+  protected static final String ANOTHER_USER_ID = "fozzie";
+  protected static final long MAX_STALENESS = 5000;
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setFilterCountCacheEnabled(true);
+      // the test triggers the refresh itself
+      configuration.setFilterCountCacheRefreshInterval(0);
+      configuration.setMetricsEnabled(true);
+      return configuration;
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected FilterService filterService;
+  protected TaskService taskService;
+  protected IdentityService identityService;
+  protected FilterCountCache filterCountCache;
+
+  protected Filter filter;
+  protected List<String> taskIds = new ArrayList<String>();
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    filterService = engineRule.getFilterService();
+    taskService = engineRule.getTaskService();
+    identityService = engineRule.getIdentityService();
+    filterCountCache = processEngineConfiguration.getFilterCountCache();
+
+    filter = filterService.newTaskFilter("myTasks");
+    filter.setQuery(taskService.createTaskQuery().taskAssigneeExpression("${currentUser()}"));
+    filterService.saveFilter(filter);
+
+    filterCountCache.clear();
+    getMeterValueAndClear(Metrics.FILTER_COUNT_CACHE_HIT);
+    getMeterValueAndClear(Metrics.FILTER_COUNT_CACHE_MISS);
+  }
+
+  @After
+  public void tearDown() {
+    identityService.clearAuthentication();
+    ClockUtil.reset();
+
+    for (String taskId : taskIds) {
+      taskService.deleteTask(taskId, true);
+    }
+    filterService.deleteFilter(filter.getId());
+    engineRule.getManagementService().deleteMetrics(null);
+  }
+
+  @Test
+  public void testRepeatedCountIsServedFromCache() {
+    // given
+    createTask(USER_ID);
+    identityService.setAuthenticatedUserId(USER_ID);
+
+    // when
+    assertEquals(1L, (long) filterService.count(filter.getId(), MAX_STALENESS));
+    createTask(USER_ID);
+
+    // then the second task is not counted yet
+    assertEquals(1L, (long) filterService.count(filter.getId(), MAX_STALENESS));
+    assertEquals(1, getMeterValueAndClear(Metrics.FILTER_COUNT_CACHE_MISS));
+    assertEquals(1, getMeterValueAndClear(Metrics.FILTER_COUNT_CACHE_HIT));
+
+    // and the uncached count is not affected
+    assertEquals(2L, (long) filterService.count(filter.getId()));
+  }
+
+  @Test
+  public void testStaleCountIsRecomputed() {
+    // given
+    ClockUtil.setCurrentTime(new Date(0));
+    createTask(USER_ID);
+    identityService.setAuthenticatedUserId(USER_ID);
+    assertEquals(1L, (long) filterService.count(filter.getId(), MAX_STALENESS));
+    createTask(USER_ID);
+
+    // when
+    ClockUtil.setCurrentTime(new Date(MAX_STALENESS + 1));
+
+    // then
+    assertEquals(2L, (long) filterService.count(filter.getId(), MAX_STALENESS));
+    assertEquals(2, getMeterValueAndClear(Metrics.FILTER_COUNT_CACHE_MISS));
+  }
+
+  @Test
+  public void testZeroMaxStalenessAlwaysCounts() {
+    // given
+    createTask(USER_ID);
+    identityService.setAuthenticatedUserId(USER_ID);
+    filterService.count(filter.getId(), MAX_STALENESS);
+    createTask(USER_ID);
+
+    // when
+    long count = filterService.count(filter.getId(), 0);
+
+    // then
+    assertEquals(2L, count);
+    assertEquals(0, getMeterValueAndClear(Metrics.FILTER_COUNT_CACHE_HIT));
+  }
+
+  @Test
+  public void testCountsAreCachedPerUser() {
+    // given
+    createTask(USER_ID);
+    createTask(ANOTHER_USER_ID);
+    createTask(ANOTHER_USER_ID);
+
+    // when
+    identityService.setAuthenticatedUserId(USER_ID);
+    long count = filterService.count(filter.getId(), MAX_STALENESS);
+    identityService.setAuthenticatedUserId(ANOTHER_USER_ID);
+    long anotherCount = filterService.count(filter.getId(), MAX_STALENESS);
+
+    // then
+    assertEquals(1L, count);
+    assertEquals(2L, anotherCount);
+    assertEquals(2, filterCountCache.size());
+  }
+
+  @Test
+  public void testSavingFilterInvalidatesCounts() {
+    // given
+    createTask(USER_ID);
+    createTask(ANOTHER_USER_ID);
+    identityService.setAuthenticatedUserId(USER_ID);
+    assertEquals(1L, (long) filterService.count(filter.getId(), MAX_STALENESS));
+
+    // when
+    filter.setQuery(taskService.createTaskQuery());
+    filterService.saveFilter(filter);
+
+    // then
+    assertEquals(0, filterCountCache.size());
+    assertEquals(2L, (long) filterService.count(filter.getId(), MAX_STALENESS));
+  }
+
+  @Test
+  public void testCountComputedDuringInvalidationIsNotCached() {
+    // given a cache whose filter is changed while a count is executed
+    final CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+    final FilterCountCache[] invalidatedCache = new FilterCountCache[1];
+    invalidatedCache[0] = new FilterCountCache(new CommandExecutor() {
+      public <T> T execute(Command<T> command) {
+        T result = commandExecutor.execute(command);
+        invalidatedCache[0].invalidate(filter.getId());
+        return result;
+      }
+    }, identityService, new ConcurrentLruCache<String, FilterCountCache.CountEntry>(10), null);
+
+    createTask(USER_ID);
+    identityService.setAuthenticatedUserId(USER_ID);
+
+    // when
+    assertEquals(1L, (long) invalidatedCache[0].getCount(filter.getId(), MAX_STALENESS));
+
+    // then the count is not cached
+    assertEquals(0, invalidatedCache[0].size());
+  }
+
+  @Test
+  public void testRefreshRecomputesRequestedCounts() {
+    // given
+    ClockUtil.setCurrentTime(new Date(0));
+    createTask(USER_ID);
+    identityService.setAuthenticatedUserId(USER_ID);
+    filterService.count(filter.getId(), MAX_STALENESS);
+    createTask(USER_ID);
+
+    // when the count is requested again and refreshed afterwards
+    ClockUtil.setCurrentTime(new Date(1000));
+    assertEquals(1L, (long) filterService.count(filter.getId(), MAX_STALENESS));
+    ClockUtil.setCurrentTime(new Date(2000));
+    identityService.clearAuthentication();
+    filterCountCache.refresh();
+
+    // then the refreshed count was computed for the cached user
+    identityService.setAuthenticatedUserId(USER_ID);
+    assertEquals(2L, (long) filterService.count(filter.getId(), MAX_STALENESS));
+    assertEquals(2, getMeterValueAndClear(Metrics.FILTER_COUNT_CACHE_HIT));
+  }
+
+  @Test
+  public void testRefreshEvictsCountsWhichWereNotRequested() {
+    // given
+    ClockUtil.setCurrentTime(new Date(0));
+    createTask(USER_ID);
+    identityService.setAuthenticatedUserId(USER_ID);
+    filterService.count(filter.getId(), MAX_STALENESS);
+
+    // when the count is refreshed twice without being requested in between
+    ClockUtil.setCurrentTime(new Date(1000));
+    filterCountCache.refresh();
+    ClockUtil.setCurrentTime(new Date(2000));
+    filterCountCache.refresh();
+
+    // then
+    assertEquals(0, filterCountCache.size());
+  }
+
+  protected void createTask(String assignee) {
+    Task task = taskService.newTask();
+    task.setAssignee(assignee);
+    taskService.saveTask(task);
+    taskIds.add(task.getId());
+  }
+
+  protected long getMeterValueAndClear(String name) {
+    MetricsRegistry metricsRegistry = processEngineConfiguration.getMetricsRegistry();
+    return metricsRegistry.getMeterByName(name).getAndClear();
+  }
+
+}
@@ -0,0 +1,188 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.mgmt.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collection;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.metrics.Histogram;
+import org.camunda.bpm.engine.impl.metrics.HistogramSnapshot;
+import org.camunda.bpm.engine.impl.metrics.Meter;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.metrics.StripedCounter;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class HistogramMetricsTest {
+
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+
+  @Before
+  public void init() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+
+    // the same as enabling the histogram metrics in the configuration
+    MetricsRegistry metricsRegistry = processEngineConfiguration.getMetricsRegistry();
+    metricsRegistry.createHistogram(Metrics.COMMAND_DURATION);
+    metricsRegistry.createHistogram(Metrics.JOB_EXECUTION_TIME);
+    metricsRegistry.createHistogram(Metrics.JOB_ACQUISITION_CYCLE_TIME);
+    metricsRegistry.createHistogram(Metrics.FLUSH_DURATION);
+
+    clearMetrics();
+  }
+
+  @After
+  public void removeHistograms() {
+    clearMetrics();
+    processEngineConfiguration.getMetricsRegistry().getHistograms().clear();
+  }
+
+  protected void clearMetrics() {
+    MetricsRegistry metricsRegistry = processEngineConfiguration.getMetricsRegistry();
+    for (Meter meter : metricsRegistry.getMeters().values()) {
+      meter.getAndClear();
+    }
+    for (Histogram histogram : metricsRegistry.getHistograms().values()) {
+      histogram.getSnapshotAndClear();
+    }
+    managementService.deleteMetrics(null);
+  }
+
+  @Test
+  public void testStripedCounter() throws InterruptedException {
+    final StripedCounter counter = new StripedCounter(4);
+
+    Thread[] threads = new Thread[8];
+    for (int i = 0; i < threads.length; i++) {
+      threads[i] = new Thread() {
+        public void run() {
+          for (int j = 0; j < 1000; j++) {
+            counter.add(1);
+          }
+        }
+      };
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(8000, counter.get());
+    assertEquals(8000, counter.getAndClear());
+    assertEquals(0, counter.get());
+  }
+
+  @Test
+  public void testHistogramPercentiles() {
+    Histogram histogram = new Histogram("test");
+    for (int i = 1; i <= 100; i++) {
+      histogram.update(i);
+    }
+
+    HistogramSnapshot snapshot = histogram.getSnapshotAndClear();
+
+    assertEquals(100, snapshot.getCount());
+    assertEquals(5050, snapshot.getSum());
+    assertEquals(100, snapshot.getMax());
+    assertEquals(50, snapshot.getMean());
+    assertWithinBucketPrecision(50, snapshot.getValueAtQuantile(0.5));
+    assertWithinBucketPrecision(95, snapshot.getValueAtQuantile(0.95));
+    assertEquals(100, snapshot.getValueAtQuantile(1.0));
+
+    // the histogram is reset
+    assertEquals(0, histogram.getSnapshot().getCount());
+    assertEquals(0, histogram.getSnapshot().getValueAtQuantile(0.5));
+  }
+
+  @Test
+  public void testHistogramOverflow() {
+    Histogram histogram = new Histogram("test");
+    histogram.update(24L * 60 * 60 * 1000);
+    histogram.update(-1);
+
+    HistogramSnapshot snapshot = histogram.getSnapshot();
+    assertEquals(2, snapshot.getCount());
+    assertEquals(0, snapshot.getValueAtQuantile(0.5));
+    assertEquals(24L * 60 * 60 * 1000, snapshot.getValueAtQuantile(0.99));
+  }
+
+  @Test
+  public void testReportHistograms() {
+    // given
+    testRule.deploy(Bpmn.createExecutableProcess("testProcess")
+        .startEvent()
+        .manualTask()
+        .endEvent()
+        .done());
+    clearMetrics();
+
+    // when
+    for (int i = 0; i < 5; i++) {
+      runtimeService.startProcessInstanceByKey("testProcess");
+    }
+    Collection<Histogram> histograms = processEngineConfiguration.getMetricsRegistry().getHistograms().values();
+    long recordedCommands = processEngineConfiguration.getMetricsRegistry()
+        .getHistogramByName(Metrics.COMMAND_DURATION).getSnapshot().getCount();
+    assertTrue(recordedCommands >= 5);
+    assertEquals(4, histograms.size());
+
+    processEngineConfiguration.getDbMetricsReporter().reportNow();
+
+    // then
+    long count = managementService.createMetricsQuery()
+        .name(Metrics.COMMAND_DURATION + Metrics.HISTOGRAM_COUNT)
+        .sum();
+    assertEquals(recordedCommands, count);
+
+    long max = managementService.createMetricsQuery()
+        .name(Metrics.COMMAND_DURATION + Metrics.HISTOGRAM_MAX)
+        .max();
+    long p95 = managementService.createMetricsQuery()
+        .name(Metrics.COMMAND_DURATION + Metrics.HISTOGRAM_P95)
+        .max();
+    assertTrue(p95 <= max);
+
+    assertEquals(1, managementService.createMetricsQuery()
+        .name(Metrics.FLUSH_DURATION + Metrics.HISTOGRAM_P50)
+        .interval().size());
+  }
+
+  protected void assertWithinBucketPrecision(long expected, long actual) {
+    assertTrue("expected " + actual + " to be close to " + expected,
+        actual >= expected && actual <= expected * 1.25);
+  }
+
+}
@@ -0,0 +1,192 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.mgmt.profiling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.StartProcessInstanceCmd;
+import org.camunda.bpm.engine.management.CommandProfile;
+import org.camunda.bpm.engine.management.StatementProfile;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class CommandProfilingTest {
+
+  protected static final BpmnModelInstance ONE_TASK_PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask()
+      .endEvent()
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setCommandProfilingEnabled(true);
+      return configuration;
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ManagementService managementService;
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+
+  @Before
+  public void init() {
+    managementService = engineRule.getManagementService();
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+
+    testRule.deploy(ONE_TASK_PROCESS);
+  }
+
+  @After
+  public void stopProfiling() {
+    managementService.stopCommandProfiling();
+    managementService.resetCommandProfiles();
+  }
+
+  @Test
+  public void testProfileCommands() {
+    // given
+    managementService.startCommandProfiling(1);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process");
+    runtimeService.startProcessInstanceByKey("process");
+    Task task = taskService.createTaskQuery().listPage(0, 1).get(0);
+    taskService.complete(task.getId());
+
+    // then
+    CommandProfile profile = getProfile(StartProcessInstanceCmd.class.getName());
+    assertNotNull(profile);
+    assertEquals(2, profile.getInvocationCount());
+    assertEquals(0, profile.getFailureCount());
+    assertTrue(profile.getMaxDuration() <= profile.getTotalDuration());
+
+    // the process instance, its execution tree and the task are flushed
+    assertEquals(Long.valueOf(2), profile.getFlushedEntities().get("TaskEntity"));
+    assertTrue(profile.getFlushedEntities().get("ExecutionEntity") >= 2);
+
+    // the process definition is looked up in the database
+    StatementProfile statement = getStatement(profile, "selectLatestProcessDefinitionByKey");
+    assertNotNull(statement);
+    assertEquals(2, statement.getExecutionCount());
+    assertEquals(2, statement.getRowCount());
+
+    // inserts are accounted even if they are executed in a JDBC batch
+    StatementProfile insertTask = getStatement(profile, "insertTask");
+    assertNotNull(insertTask);
+    assertEquals(2, insertTask.getExecutionCount());
+  }
+
+  @Test
+  public void testProfileEntityCache() {
+    // given
+    runtimeService.startProcessInstanceByKey("process");
+    String taskId = taskService.createTaskQuery().singleResult().getId();
+    managementService.startCommandProfiling(1);
+
+    // when
+    taskService.complete(taskId);
+
+    // then the task and its execution are selected by id, later lookups hit the cache
+    CommandProfile profile = getProfile("org.camunda.bpm.engine.impl.cmd.CompleteTaskCmd");
+    assertNotNull(profile);
+    assertTrue(profile.getEntityCacheMisses() > 0);
+    assertTrue(profile.getEntityCacheHits() > 0);
+    assertTrue(profile.getEntityCacheHitRatio() > 0 && profile.getEntityCacheHitRatio() < 1);
+  }
+
+  @Test
+  public void testSampling() {
+    // given
+    managementService.startCommandProfiling(2);
+
+    // when
+    for (int i = 0; i < 4; i++) {
+      runtimeService.startProcessInstanceByKey("process");
+    }
+
+    // then
+    assertEquals(2, getProfile(StartProcessInstanceCmd.class.getName()).getInvocationCount());
+  }
+
+  @Test
+  public void testStopAndResetProfiling() {
+    managementService.startCommandProfiling(1);
+    runtimeService.startProcessInstanceByKey("process");
+    managementService.stopCommandProfiling();
+
+    runtimeService.startProcessInstanceByKey("process");
+    assertEquals(1, getProfile(StartProcessInstanceCmd.class.getName()).getInvocationCount());
+
+    managementService.resetCommandProfiles();
+    assertEquals(0, managementService.getCommandProfiles().size());
+  }
+
+  @Test
+  public void testInvalidSamplingRate() {
+    try {
+      managementService.startCommandProfiling(0);
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      assertTrue(e.getMessage().contains("sampling rate"));
+    }
+  }
+
+  protected CommandProfile getProfile(String commandName) {
+    List<CommandProfile> profiles = managementService.getCommandProfiles();
+    for (CommandProfile profile : profiles) {
+      if (profile.getCommandName().equals(commandName)) {
+        return profile;
+      }
+    }
+    return null;
+  }
+
+  protected StatementProfile getStatement(CommandProfile profile, String statementId) {
+    for (StatementProfile statement : profile.getStatementProfiles()) {
+      if (statement.getStatementId().equals(statementId)) {
+        return statement;
+      }
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,190 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.bpmn.parser.AbstractBpmnParseListener;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParseListener;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.util.xml.Element;
+import org.camunda.bpm.engine.repository.DeploymentBuilder;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class ParallelDeploymentParsingTest {
+
+  protected static final int PROCESS_COUNT = 10;
+
+  protected static final String INVALID_PROCESS =
+      "<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+    + "<definitions xmlns=\"http://www.omg.org/spec/BPMN/20100524/MODEL\" targetNamespace=\"test\">"
+    + "  <process id=\"invalidProcess\" isExecutable=\"true\">"
+    + "    <startEvent id=\"start\" />"
+    + "    <sequenceFlow id=\"flow\" sourceRef=\"start\" targetRef=\"unknownActivity\" />"
+    + "  </process>"
+    + "</definitions>";
+
+  protected static Set<String> parsingThreads = Collections.synchronizedSet(new HashSet<String>());
+  protected static AtomicInteger parsedProcesses = new AtomicInteger();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setDeploymentParsingParallelism(4);
+
+      List<BpmnParseListener> parseListeners = new ArrayList<BpmnParseListener>();
+      parseListeners.add(new AbstractBpmnParseListener() {
+        public void parseProcess(Element processElement, ProcessDefinitionEntity processDefinition) {
+          parsingThreads.add(Thread.currentThread().getName());
+          parsedProcesses.incrementAndGet();
+        }
+      });
+      configuration.setCustomPostBPMNParseListeners(parseListeners);
+      return configuration;
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RepositoryService repositoryService;
+  protected RuntimeService runtimeService;
+
+  @Before
+  public void init() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    repositoryService = engineRule.getRepositoryService();
+    runtimeService = engineRule.getRuntimeService();
+
+    parsingThreads.clear();
+    parsedProcesses.set(0);
+  }
+
+  @Test
+  public void testParseResourcesInParallel() {
+    // given
+    assertNotNull(processEngineConfiguration.getDeploymentParsingExecutor());
+
+    // when
+    testRule.deploy(createDeploymentWithProcesses());
+
+    // then
+    List<ProcessDefinition> processDefinitions = repositoryService.createProcessDefinitionQuery().list();
+    assertEquals(PROCESS_COUNT, processDefinitions.size());
+
+    for (ProcessDefinition processDefinition : processDefinitions) {
+      assertEquals(processDefinition.getKey() + ".bpmn", processDefinition.getResourceName());
+    }
+
+    // the resources were not parsed by the thread which executed the deployment
+    assertFalse(parsingThreads.isEmpty());
+    for (String threadName : parsingThreads) {
+      assertTrue(threadName.startsWith("camunda-deployment-parser-"));
+    }
+  }
+
+  @Test
+  public void testMergeJobDeclarationsOfAllResources() {
+    // given
+    DeploymentBuilder deploymentBuilder = createDeploymentWithProcesses();
+    for (int i = 0; i < 3; i++) {
+      deploymentBuilder.addModelInstance("timerProcess" + i + ".bpmn", Bpmn.createExecutableProcess("timerProcess" + i)
+          .startEvent()
+            .timerWithDuration("PT1H")
+          .endEvent()
+          .done());
+    }
+
+    // when
+    testRule.deploy(deploymentBuilder);
+
+    // then a timer start event job was created for each process
+    assertEquals(3, engineRule.getManagementService().createJobQuery().timers().count());
+  }
+
+  @Test
+  public void testFailDeploymentIfOneResourceIsInvalid() {
+    // given
+    DeploymentBuilder deploymentBuilder = createDeploymentWithProcesses()
+        .addString("invalidProcess.bpmn", INVALID_PROCESS);
+
+    // when
+    try {
+      deploymentBuilder.deploy();
+      fail("exception expected");
+
+    } catch (ProcessEngineException e) {
+      // then
+      assertTrue(e.getMessage().contains("unknownActivity"));
+    }
+
+    assertEquals(0, repositoryService.createDeploymentQuery().count());
+    assertEquals(0, repositoryService.createProcessDefinitionQuery().count());
+  }
+
+  @Test
+  public void testResolveOnlyRequiredResourceOnCacheMiss() {
+    // given
+    testRule.deploy(createDeploymentWithProcesses());
+    processEngineConfiguration.getDeploymentCache().discardProcessDefinitionCache();
+    parsedProcesses.set(0);
+
+    // when
+    runtimeService.startProcessInstanceByKey("process0");
+
+    // then only the resource of the process is parsed again
+    assertEquals(1, parsedProcesses.get());
+    assertEquals(1, runtimeService.createProcessInstanceQuery().count());
+  }
+
+  protected DeploymentBuilder createDeploymentWithProcesses() {
+    DeploymentBuilder deploymentBuilder = repositoryService.createDeployment();
+    for (int i = 0; i < PROCESS_COUNT; i++) {
+      deploymentBuilder.addModelInstance("process" + i + ".bpmn", Bpmn.createExecutableProcess("process" + i)
+          .startEvent()
+          .userTask()
+          .endEvent()
+          .done());
+    }
+    return deploymentBuilder;
+  }
+
+}
@@ -0,0 +1,190 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.repository;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.engine.repository.Deployment;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class ParsedResourceCacheTest {
+
+  protected static final File CACHE_DIRECTORY = new File(System.getProperty("java.io.tmpdir"), "camunda-parsed-resource-cache-test");
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setParsedResourceCacheDirectory(CACHE_DIRECTORY.getAbsolutePath());
+      return configuration;
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RepositoryService repositoryService;
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+
+  @Before
+  public void init() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    repositoryService = engineRule.getRepositoryService();
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+  }
+
+  @After
+  public void clearCacheDirectory() {
+    for (File file : CACHE_DIRECTORY.listFiles()) {
+      file.delete();
+    }
+  }
+
+  @Test
+  public void testStoreParsedResourceOnDeployment() {
+    // when
+    Deployment deployment = testRule.deploy(createProcess("task"));
+
+    // then
+    assertEquals(1, getCacheFiles(deployment).length);
+  }
+
+  @Test
+  public void testRestoreParsedResourceOnCacheMiss() throws IOException {
+    // given two versions of a process
+    Deployment deployment = testRule.deploy(createProcess("firstTask"));
+    Deployment secondDeployment = testRule.deploy(createProcess("secondTask"));
+
+    // and the cache file of the first version contains the second version
+    File cacheFile = getCacheFiles(deployment)[0];
+    copyFile(getCacheFiles(secondDeployment)[0], cacheFile);
+
+    processEngineConfiguration.getDeploymentCache().discardProcessDefinitionCache();
+
+    // when
+    runtimeService.startProcessInstanceById(getProcessDefinition(deployment).getId());
+
+    // then the process definition was restored from the cache file
+    Task task = taskService.createTaskQuery().singleResult();
+    assertEquals("secondTask", task.getTaskDefinitionKey());
+  }
+
+  @Test
+  public void testParseResourceIfCacheFileIsCorrupt() throws IOException {
+    // given
+    Deployment deployment = testRule.deploy(createProcess("task"));
+
+    File cacheFile = getCacheFiles(deployment)[0];
+    writeFile(cacheFile, new byte[] { 1, 2, 3 });
+
+    processEngineConfiguration.getDeploymentCache().discardProcessDefinitionCache();
+
+    // when
+    runtimeService.startProcessInstanceById(getProcessDefinition(deployment).getId());
+
+    // then
+    Task task = taskService.createTaskQuery().singleResult();
+    assertEquals("task", task.getTaskDefinitionKey());
+
+    // and the cache file was written again
+    assertTrue(cacheFile.length() > 3);
+  }
+
+  @Test
+  public void testRemoveCacheFilesOnDeploymentDeletion() {
+    // given
+    Deployment deployment = repositoryService.createDeployment()
+      .addModelInstance("process.bpmn", createProcess("task"))
+      .deploy();
+
+    assertEquals(1, getCacheFiles(deployment).length);
+
+    // when
+    repositoryService.deleteDeployment(deployment.getId(), true);
+
+    // then
+    assertEquals(0, getCacheFiles(deployment).length);
+  }
+
+  protected BpmnModelInstance createProcess(String taskId) {
+    return Bpmn.createExecutableProcess("process")
+        .startEvent()
+        .userTask(taskId)
+        .endEvent()
+        .done();
+  }
+
+  protected ProcessDefinition getProcessDefinition(Deployment deployment) {
+    ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery()
+        .deploymentId(deployment.getId())
+        .singleResult();
+    assertNotNull(processDefinition);
+    return processDefinition;
+  }
+
+  protected File[] getCacheFiles(final Deployment deployment) {
+    return CACHE_DIRECTORY.listFiles(new FileFilter() {
+      public boolean accept(File file) {
+        return file.getName().startsWith(deployment.getId() + "-");
+      }
+    });
+  }
+
+  protected void copyFile(File source, File target) throws IOException {
+    FileInputStream inputStream = new FileInputStream(source);
+    try {
+      writeFile(target, IoUtil.readInputStream(inputStream, source.getName()));
+    } finally {
+      IoUtil.closeSilently(inputStream);
+    }
+  }
+
+  protected void writeFile(File file, byte[] content) throws IOException {
+    FileOutputStream outputStream = new FileOutputStream(file);
+    try {
+      outputStream.write(content);
+    } finally {
+      IoUtil.closeSilently(outputStream);
+    }
+  }
+
+}
@@ -0,0 +1,161 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.camunda.bpm.engine.test.api.runtime;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.MismatchingMessageCorrelationException;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBuilder;
+import org.camunda.bpm.engine.runtime.MessageCorrelationBulkResult;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.variable.Variables;
+
+public class MessageCorrelationBulkTest extends PluggableProcessEngineTestCase {
+
+  protected static final String PROCESS = "org/camunda/bpm/engine/test/api/runtime/MessageCorrelationBulkTest.bpmn20.xml";
+
+  @Deployment(resources = PROCESS)
+  public void testCorrelateMessages() {
+    List<ProcessInstance> processInstances = startProcessInstances(5);
+
+    List<MessageCorrelationBulkResult> results = runtimeService.createMessageCorrelationBulk()
+      .correlate(firstMessage(processInstances.get(0)))
+      .correlate(firstMessage(processInstances.get(1)))
+      .correlate(firstMessage(processInstances.get(2)))
+      .correlate(firstMessage(processInstances.get(3)))
+      .correlate(firstMessage(processInstances.get(4)))
+      .chunkSize(2)
+      .execute();
+
+    assertEquals(5, results.size());
+    for (int i = 0; i < results.size(); i++) {
+      MessageCorrelationBulkResult result = results.get(i);
+      assertTrue(result.isSuccessful());
+      assertNull(result.getException());
+      assertEquals(1, result.getResults().size());
+      assertEquals(processInstances.get(i).getId(), result.getResults().get(0).getExecution().getProcessInstanceId());
+    }
+
+    assertEquals(5, runtimeService.createExecutionQuery().messageEventSubscriptionName("secondMessage").count());
+  }
+
+  @Deployment(resources = PROCESS)
+  public void testCorrelateSubsequentMessagesToSameProcessInstance() {
+    ProcessInstance processInstance = startProcessInstances(1).get(0);
+
+    List<MessageCorrelationBulkResult> results = runtimeService.createMessageCorrelationBulk()
+      .correlate(firstMessage(processInstance))
+      .correlate(runtimeService.createMessageCorrelation("secondMessage").processInstanceId(processInstance.getId()))
+      .execute();
+
+    assertTrue(results.get(0).isSuccessful());
+    assertTrue(results.get(1).isSuccessful());
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+  }
+
+  @Deployment(resources = PROCESS)
+  public void testMismatchingCorrelation() {
+    List<ProcessInstance> processInstances = startProcessInstances(2);
+
+    List<MessageCorrelationBulkResult> results = runtimeService.createMessageCorrelationBulk()
+      .correlate(firstMessage(processInstances.get(0)))
+      .correlate(runtimeService.createMessageCorrelation("secondMessage").processInstanceId(processInstances.get(1).getId()))
+      .correlate(firstMessage(processInstances.get(1)))
+      .execute();
+
+    assertTrue(results.get(0).isSuccessful());
+    assertFalse(results.get(1).isSuccessful());
+    assertTrue(results.get(1).getException() instanceof MismatchingMessageCorrelationException);
+    assertTrue(results.get(1).getResults().isEmpty());
+    assertTrue(results.get(2).isSuccessful());
+
+    assertEquals(2, runtimeService.createExecutionQuery().messageEventSubscriptionName("secondMessage").count());
+  }
+
+  @Deployment(resources = PROCESS)
+  public void testFailingCorrelationIsIsolated() {
+    List<ProcessInstance> processInstances = startProcessInstances(4);
+
+    List<MessageCorrelationBulkResult> results = runtimeService.createMessageCorrelationBulk()
+      .correlate(firstMessage(processInstances.get(0)))
+      .correlate(firstMessage(processInstances.get(1)))
+      .correlate(firstMessage(processInstances.get(2)).setVariable("fail", true))
+      .correlate(firstMessage(processInstances.get(3)))
+      .execute();
+
+    assertTrue(results.get(0).isSuccessful());
+    assertTrue(results.get(1).isSuccessful());
+    assertFalse(results.get(2).isSuccessful());
+    assertTrue(results.get(2).getException() instanceof ProcessEngineException);
+    assertEquals(FailingDelegate.EXCEPTION_MESSAGE, results.get(2).getException().getMessage());
+    assertTrue(results.get(3).isSuccessful());
+
+    // the rolled back correlations were executed again exactly once
+    assertEquals(3, runtimeService.createExecutionQuery().messageEventSubscriptionName("secondMessage").count());
+    assertEquals(1, runtimeService.createExecutionQuery()
+        .processInstanceId(processInstances.get(2).getId())
+        .messageEventSubscriptionName("firstMessage")
+        .count());
+  }
+
+  @Deployment(resources = PROCESS)
+  public void testCorrelateAll() {
+    startProcessInstances(3);
+
+    List<MessageCorrelationBulkResult> results = runtimeService.createMessageCorrelationBulk()
+      .correlateAll(runtimeService.createMessageCorrelation("firstMessage").setVariable("fail", false))
+      .correlateAll(runtimeService.createMessageCorrelation("secondMessage"))
+      .execute();
+
+    assertEquals(3, results.get(0).getResults().size());
+    assertEquals(3, results.get(1).getResults().size());
+    assertEquals(3, taskService.createTaskQuery().count());
+  }
+
+  public void testInvalidChunkSize() {
+    try {
+      runtimeService.createMessageCorrelationBulk().chunkSize(0);
+      fail("expected exception");
+    } catch (ProcessEngineException e) {
+      assertTextPresent("chunkSize", e.getMessage());
+    }
+  }
+
+  public void testCorrelationWithProcessDefinitionId() {
+    try {
+      runtimeService.createMessageCorrelationBulk()
+        .correlate(runtimeService.createMessageCorrelation("firstMessage").processDefinitionId("aProcessDefinitionId"));
+      fail("expected exception");
+    } catch (ProcessEngineException e) {
+      // expected
+    }
+  }
+
+  protected List<ProcessInstance> startProcessInstances(int count) {
+    List<ProcessInstance> processInstances = new ArrayList<ProcessInstance>();
+    for (int i = 0; i < count; i++) {
+      processInstances.add(runtimeService.startProcessInstanceByKey("process", Variables.createVariables().putValue("fail", false)));
+    }
+    return processInstances;
+  }
+
+  protected MessageCorrelationBuilder firstMessage(ProcessInstance processInstance) {
+    return runtimeService.createMessageCorrelation("firstMessage").processInstanceId(processInstance.getId());
+  }
+
+}
@@ -0,0 +1,246 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.camunda.bpm.engine.test.api.runtime;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.MismatchingMessageCorrelationException;
+import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
+import org.camunda.bpm.engine.impl.runtime.MessageCorrelationKey;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.EventSubscription;
+import org.camunda.bpm.engine.runtime.MessageCorrelationResult;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.variable.Variables;
+
+public class MessageCorrelationKeyTest extends PluggableProcessEngineTestCase {
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/runtime/MessageCorrelationKeyTest.bpmn20.xml")
+  public void testCorrelationKeyOfSubscription() {
+    Map<String, Object> variables = Variables.createVariables()
+        .putValue("invoiceId", 42)
+        .putValue("customer", "Kermit");
+    ProcessInstance indexedInstance = runtimeService.startProcessInstanceByKey("indexedProcess", variables);
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("process", variables);
+
+    assertEquals(MessageCorrelationKey.fromVariableValues(variables), getCorrelationKey(indexedInstance));
+    assertNull(getCorrelationKey(instance));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/runtime/MessageCorrelationKeyTest.bpmn20.xml")
+  public void testCorrelationKeyPrefixIfVariableIsMissing() {
+    ProcessInstance indexedInstance = runtimeService.startProcessInstanceByKey("indexedProcess",
+        Variables.createVariables().putValue("invoiceId", 42));
+
+    assertEquals(MessageCorrelationKey.getPrefix(Arrays.asList("invoiceId", "customer")), getCorrelationKey(indexedInstance));
+
+    // the subscription is still found by a subset of the variable values
+    MessageCorrelationResult result = runtimeService.createMessageCorrelation("newInvoiceMessage")
+      .processInstanceVariableEquals("invoiceId", 42)
+      .correlateWithResult();
+
+    assertEquals(indexedInstance.getId(), result.getExecution().getProcessInstanceId());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/runtime/MessageCorrelationKeyTest.bpmn20.xml")
+  public void testCorrelateByCorrelationKey() {
+    ProcessInstance kermitInstance = runtimeService.startProcessInstanceByKey("indexedProcess",
+        Variables.createVariables().putValue("invoiceId", 42).putValue("customer", "Kermit"));
+    ProcessInstance gonzoInstance = runtimeService.startProcessInstanceByKey("indexedProcess",
+        Variables.createVariables().putValue("invoiceId", 42).putValue("customer", "Gonzo"));
+
+    // integral numbers are compared by their value
+    MessageCorrelationResult result = runtimeService.createMessageCorrelation("newInvoiceMessage")
+      .processInstanceVariableEquals("invoiceId", 42L)
+      .processInstanceVariableEquals("customer", "Gonzo")
+      .correlateWithResult();
+
+    assertEquals(gonzoInstance.getId(), result.getExecution().getProcessInstanceId());
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(gonzoInstance.getId()).count());
+    assertEquals(0, taskService.createTaskQuery().processInstanceId(kermitInstance.getId()).count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/runtime/MessageCorrelationKeyTest.bpmn20.xml")
+  public void testCorrelateBySubsetOfCorrelationKeys() {
+    ProcessInstance kermitInstance = runtimeService.startProcessInstanceByKey("indexedProcess",
+        Variables.createVariables().putValue("invoiceId", 42).putValue("customer", "Kermit"));
+    runtimeService.startProcessInstanceByKey("indexedProcess",
+        Variables.createVariables().putValue("invoiceId", 43).putValue("customer", "Kermit"));
+
+    MessageCorrelationResult result = runtimeService.createMessageCorrelation("newInvoiceMessage")
+      .processInstanceVariableEquals("invoiceId", 42)
+      .correlateWithResult();
+
+    assertEquals(kermitInstance.getId(), result.getExecution().getProcessInstanceId());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/runtime/MessageCorrelationKeyTest.bpmn20.xml")
+  public void testCorrelateAllToIndexedAndNotIndexedSubscriptions() {
+    Map<String, Object> variables = Variables.createVariables()
+        .putValue("invoiceId", "INV-42")
+        .putValue("customer", "Kermit");
+    ProcessInstance indexedInstance = runtimeService.startProcessInstanceByKey("indexedProcess", variables);
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("process", variables);
+    runtimeService.startProcessInstanceByKey("indexedProcess",
+        Variables.createVariables().putValue("invoiceId", "INV-42").putValue("customer", "Gonzo"));
+
+    List<MessageCorrelationResult> results = runtimeService.createMessageCorrelation("newInvoiceMessage")
+      .processInstanceVariableEquals("invoiceId", "INV-42")
+      .processInstanceVariableEquals("customer", "Kermit")
+      .correlateAllWithResult();
+
+    assertEquals(2, results.size());
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(indexedInstance.getId()).count());
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(instance.getId()).count());
+    assertEquals(1, runtimeService.createEventSubscriptionQuery().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/runtime/MessageCorrelationKeyTest.bpmn20.xml")
+  public void testCorrelateByCorrelationKeyWithBusinessKey() {
+    Map<String, Object> variables = Variables.createVariables()
+        .putValue("invoiceId", 42)
+        .putValue("customer", "Kermit");
+    runtimeService.startProcessInstanceByKey("indexedProcess", "aBusinessKey", variables);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("indexedProcess", "anotherBusinessKey", variables);
+
+    MessageCorrelationResult result = runtimeService.createMessageCorrelation("newInvoiceMessage")
+      .processInstanceBusinessKey("anotherBusinessKey")
+      .processInstanceVariableEquals("invoiceId", 42)
+      .processInstanceVariableEquals("customer", "Kermit")
+      .correlateWithResult();
+
+    assertEquals(processInstance.getId(), result.getExecution().getProcessInstanceId());
+
+    try {
+      runtimeService.createMessageCorrelation("newInvoiceMessage")
+        .processInstanceVariableEquals("invoiceId", 42)
+        .processInstanceVariableEquals("customer", "Gonzo")
+        .correlate();
+      fail("expected exception");
+    } catch (MismatchingMessageCorrelationException e) {
+      // expected
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/runtime/MessageCorrelationKeyTest.bpmn20.xml")
+  public void testCorrelationKeyIsUpdatedOnVariableUpdate() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("indexedProcess",
+        Variables.createVariables().putValue("invoiceId", 42).putValue("customer", "Kermit"));
+
+    // when a correlation key variable is changed
+    runtimeService.setVariable(processInstance.getId(), "customer", "Gonzo");
+
+    // then the subscription is correlated by the new value
+    String expectedKey = MessageCorrelationKey.fromVariableValues(
+        Variables.createVariables().putValue("invoiceId", 42).putValue("customer", "Gonzo"));
+    assertEquals(expectedKey, getCorrelationKey(processInstance));
+
+    try {
+      runtimeService.createMessageCorrelation("newInvoiceMessage")
+        .processInstanceVariableEquals("invoiceId", 42)
+        .processInstanceVariableEquals("customer", "Kermit")
+        .correlate();
+      fail("expected exception");
+    } catch (MismatchingMessageCorrelationException e) {
+      // expected
+    }
+
+    MessageCorrelationResult result = runtimeService.createMessageCorrelation("newInvoiceMessage")
+      .processInstanceVariableEquals("invoiceId", 42)
+      .processInstanceVariableEquals("customer", "Gonzo")
+      .correlateWithResult();
+
+    assertEquals(processInstance.getId(), result.getExecution().getProcessInstanceId());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/runtime/MessageCorrelationKeyTest.bpmn20.xml")
+  public void testCorrelationKeyIsUpdatedOnVariableCreate() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("indexedProcess",
+        Variables.createVariables().putValue("invoiceId", 42));
+
+    // when the missing correlation key variable is set
+    runtimeService.setVariable(processInstance.getId(), "customer", "Gonzo");
+
+    // then the subscription is correlated by key
+    String expectedKey = MessageCorrelationKey.fromVariableValues(
+        Variables.createVariables().putValue("invoiceId", 42).putValue("customer", "Gonzo"));
+    assertEquals(expectedKey, getCorrelationKey(processInstance));
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/runtime/MessageCorrelationKeyTest.bpmn20.xml")
+  public void testCorrelationKeyIsUpdatedOnVariableDelete() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("indexedProcess",
+        Variables.createVariables().putValue("invoiceId", 42).putValue("customer", "Kermit"));
+
+    // when a correlation key variable is removed
+    runtimeService.removeVariable(processInstance.getId(), "customer");
+
+    // then the subscription does not match the previous values anymore
+    assertEquals(MessageCorrelationKey.getPrefix(Arrays.asList("invoiceId", "customer")), getCorrelationKey(processInstance));
+
+    try {
+      runtimeService.createMessageCorrelation("newInvoiceMessage")
+        .processInstanceVariableEquals("invoiceId", 42)
+        .processInstanceVariableEquals("customer", "Kermit")
+        .correlate();
+      fail("expected exception");
+    } catch (MismatchingMessageCorrelationException e) {
+      // expected
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/runtime/MessageCorrelationKeyTest.bpmn20.xml")
+  public void testCorrelationKeyOfSubscriptionCreatedAfterVariableUpdate() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("taskBeforeIndexedProcess");
+    String taskId = taskService.createTaskQuery().processInstanceId(processInstance.getId()).singleResult().getId();
+
+    // when the variables are set and the subscription is created in the same command
+    taskService.complete(taskId, Variables.createVariables().putValue("invoiceId", 42).putValue("customer", "Gonzo"));
+
+    // then the subscription is keyed by the new values
+    String expectedKey = MessageCorrelationKey.fromVariableValues(
+        Variables.createVariables().putValue("invoiceId", 42).putValue("customer", "Gonzo"));
+    assertEquals(expectedKey, getCorrelationKey(processInstance));
+
+    MessageCorrelationResult result = runtimeService.createMessageCorrelation("newInvoiceMessage")
+      .processInstanceVariableEquals("invoiceId", 42)
+      .processInstanceVariableEquals("customer", "Gonzo")
+      .correlateWithResult();
+
+    assertEquals(processInstance.getId(), result.getExecution().getProcessInstanceId());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/runtime/MessageCorrelationKeyTest.bpmn20.xml")
+  public void testCorrelationKeyIsKeptOnOtherVariableUpdate() {
+    Map<String, Object> variables = Variables.createVariables()
+        .putValue("invoiceId", 42)
+        .putValue("customer", "Kermit");
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("indexedProcess", variables);
+
+    runtimeService.setVariable(processInstance.getId(), "amount", 100);
+
+    assertEquals(MessageCorrelationKey.fromVariableValues(variables), getCorrelationKey(processInstance));
+  }
+
+  protected String getCorrelationKey(ProcessInstance processInstance) {
+    EventSubscription eventSubscription = runtimeService.createEventSubscriptionQuery()
+        .processInstanceId(processInstance.getId())
+        .singleResult();
+    return ((EventSubscriptionEntity) eventSubscription).getCorrelationKey();
+  }
+
+}
@@ -0,0 +1,204 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class ProcessInstanceGraphPrefetchTest {
+
+  protected static final String PROCESS = "org/camunda/bpm/engine/test/api/runtime/ProcessInstanceGraphPrefetchTest.bpmn20.xml";
+
+  @Rule
+  public ProcessEngineRule rule = new ProvidedProcessEngineRule();
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected ManagementService managementService;
+
+  protected Set<Class<?>> prefetchCommands;
+
+  @Before
+  public void setUp() {
+    processEngineConfiguration = rule.getProcessEngineConfiguration();
+    runtimeService = rule.getRuntimeService();
+    taskService = rule.getTaskService();
+    managementService = rule.getManagementService();
+
+    prefetchCommands = processEngineConfiguration.getProcessInstanceGraphPrefetchCommands();
+    processEngineConfiguration.setProcessInstanceGraphPrefetchEnabled(true);
+  }
+
+  @After
+  public void tearDown() {
+    processEngineConfiguration.setProcessInstanceGraphPrefetchEnabled(false);
+    processEngineConfiguration.setProcessInstanceGraphPrefetchCommands(prefetchCommands);
+  }
+
+  @Test
+  @Deployment(resources = PROCESS)
+  public void testPrefetchLoadsProcessInstanceGraph() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("processVariable", "value"));
+    String taskId = taskService.createTaskQuery().listPage(0, 1).get(0).getId();
+
+    Set<Class<?>> commands = new HashSet<Class<?>>(prefetchCommands);
+    commands.add(InitializeExecutionTreeCmd.class);
+    processEngineConfiguration.setProcessInstanceGraphPrefetchCommands(commands);
+
+    // when
+    CachedEntityCounts counts = processEngineConfiguration.getCommandExecutorTxRequired()
+        .execute(new InitializeExecutionTreeCmd(taskId));
+
+    // then all entities of the process instance are loaded with the execution tree
+    assertEquals(3, counts.tasks);
+    assertEquals(3, counts.jobs);
+    assertEquals(3, counts.eventSubscriptions);
+    // the process variable, the multi-instance variables and the task input variables
+    assertEquals(runtimeService.createVariableInstanceQuery().processInstanceIdIn(processInstance.getId()).count(),
+        counts.variables);
+  }
+
+  @Test
+  @Deployment(resources = PROCESS)
+  public void testNoPrefetchForOtherCommands() {
+    // given
+    runtimeService.startProcessInstanceByKey("process");
+    String taskId = taskService.createTaskQuery().listPage(0, 1).get(0).getId();
+
+    // when
+    CachedEntityCounts counts = processEngineConfiguration.getCommandExecutorTxRequired()
+        .execute(new InitializeExecutionTreeCmd(taskId));
+
+    // then only the task itself is loaded
+    assertEquals(1, counts.tasks);
+    assertEquals(0, counts.jobs);
+    assertEquals(0, counts.eventSubscriptions);
+  }
+
+  @Test
+  @Deployment(resources = PROCESS)
+  public void testCompleteTasks() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    for (Task task : taskService.createTaskQuery().taskDefinitionKey("task").list()) {
+      taskService.complete(task.getId());
+    }
+
+    // then
+    Task task = taskService.createTaskQuery().singleResult();
+    assertEquals("afterSubProcess", task.getTaskDefinitionKey());
+    assertEquals(0, managementService.createJobQuery().count());
+    assertEquals(0, runtimeService.createEventSubscriptionQuery().count());
+    assertEquals(1, runtimeService.createExecutionQuery().processInstanceId(processInstance.getId()).count());
+  }
+
+  @Test
+  @Deployment(resources = PROCESS)
+  public void testCorrelateMessage() {
+    // given
+    runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    runtimeService.createMessageCorrelation("cancel").correlateAll();
+
+    // then
+    Task task = taskService.createTaskQuery().singleResult();
+    assertEquals("afterSubProcess", task.getTaskDefinitionKey());
+    assertEquals(0, managementService.createJobQuery().count());
+  }
+
+  @Test
+  @Deployment(resources = PROCESS)
+  public void testExecuteJobs() {
+    // given
+    runtimeService.startProcessInstanceByKey("process");
+
+    // when
+    List<Job> jobs = managementService.createJobQuery().list();
+    for (Job job : jobs) {
+      managementService.executeJob(job.getId());
+    }
+
+    // then
+    Task task = taskService.createTaskQuery().singleResult();
+    assertNotNull(task);
+    assertEquals("afterSubProcess", task.getTaskDefinitionKey());
+    assertEquals(0, runtimeService.createEventSubscriptionQuery().count());
+  }
+
+  public static class InitializeExecutionTreeCmd implements Command<CachedEntityCounts> {
+
+    protected String taskId;
+
+    public InitializeExecutionTreeCmd(String taskId) {
+      this.taskId = taskId;
+    }
+
+    public CachedEntityCounts execute(CommandContext commandContext) {
+      TaskEntity task = commandContext.getTaskManager().findTaskById(taskId);
+      ExecutionEntity execution = task.getExecution();
+
+      // initializes the execution tree
+      execution.getParent();
+
+      DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+      CachedEntityCounts counts = new CachedEntityCounts();
+      counts.tasks = dbEntityManager.getCachedEntitiesByType(TaskEntity.class).size();
+      counts.jobs = dbEntityManager.getCachedEntitiesByType(JobEntity.class).size();
+      counts.eventSubscriptions = dbEntityManager.getCachedEntitiesByType(EventSubscriptionEntity.class).size();
+      counts.variables = dbEntityManager.getCachedEntitiesByType(VariableInstanceEntity.class).size();
+      return counts;
+    }
+  }
+
+  public static class CachedEntityCounts {
+    protected int tasks;
+    protected int jobs;
+    protected int eventSubscriptions;
+    protected long variables;
+  }
+
+}
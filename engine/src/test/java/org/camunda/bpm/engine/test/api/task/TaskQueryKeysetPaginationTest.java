@@ -0,0 +1,156 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.task;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.exception.NotValidException;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.query.KeysetPage;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.task.TaskQuery;
+
+public class TaskQueryKeysetPaginationTest extends PluggableProcessEngineTestCase {
+
+  protected List<String> taskIds = new ArrayList<String>();
+
+  protected void setUp() throws Exception {
+    super.setUp();
+
+    // several tasks share the same create time and priority so that the id decides the order
+    for (int i = 0; i < 7; i++) {
+      ClockUtil.setCurrentTime(new Date(1000L * (i / 3)));
+      Task task = taskService.newTask();
+      task.setName("task" + i);
+      task.setPriority(i % 2);
+      taskService.saveTask(task);
+      taskIds.add(task.getId());
+    }
+    ClockUtil.reset();
+  }
+
+  protected void tearDown() throws Exception {
+    for (String taskId : taskIds) {
+      taskService.deleteTask(taskId, true);
+    }
+    super.tearDown();
+  }
+
+  public void testPagesWithoutOrdering() {
+    List<Task> expectedTasks = taskService.createTaskQuery().orderByTaskId().asc().list();
+
+    List<Task> tasks = listAllKeysetPages(taskService.createTaskQuery(), 3);
+
+    assertSameTasks(expectedTasks, tasks);
+  }
+
+  public void testPagesOrderedByCreateTime() {
+    List<Task> expectedTasks = taskService.createTaskQuery().orderByTaskCreateTime().desc().orderByTaskId().desc().list();
+
+    List<Task> tasks = listAllKeysetPages(taskService.createTaskQuery().orderByTaskCreateTime().desc(), 2);
+
+    assertSameTasks(expectedTasks, tasks);
+  }
+
+  public void testPagesOrderedByPriority() {
+    List<Task> expectedTasks = taskService.createTaskQuery().orderByTaskPriority().asc().orderByTaskId().asc().list();
+
+    List<Task> tasks = listAllKeysetPages(taskService.createTaskQuery().orderByTaskPriority().asc(), 3);
+
+    assertSameTasks(expectedTasks, tasks);
+  }
+
+  public void testLastPageHasNoContinuationToken() {
+    KeysetPage<Task> page = taskService.createTaskQuery().listKeysetPage(null, 10);
+
+    assertEquals(7, page.getResults().size());
+    assertNull(page.getContinuationToken());
+  }
+
+  public void testCriteriaApplyToAllPages() {
+    TaskQuery query = taskService.createTaskQuery().taskPriority(1);
+
+    List<Task> tasks = listAllKeysetPages(query, 2);
+
+    assertSameTasks(taskService.createTaskQuery().taskPriority(1).orderByTaskId().asc().list(), tasks);
+    // the position of the last page does not affect the query any longer
+    assertEquals(3, query.count());
+  }
+
+  public void testUnsupportedOrdering() {
+    try {
+      taskService.createTaskQuery().orderByTaskName().asc().listKeysetPage(null, 2);
+      fail("exception expected");
+    }
+    catch (NotValidException e) {
+      assertTextPresent("Keyset pagination is only supported", e.getMessage());
+    }
+  }
+
+  public void testMultipleOrderings() {
+    try {
+      taskService.createTaskQuery().orderByTaskPriority().asc().orderByTaskCreateTime().asc().listKeysetPage(null, 2);
+      fail("exception expected");
+    }
+    catch (NotValidException e) {
+      assertTextPresent("Keyset pagination is only supported", e.getMessage());
+    }
+  }
+
+  public void testContinuationTokenOfDifferentOrdering() {
+    String continuationToken = taskService.createTaskQuery().orderByTaskPriority().asc().listKeysetPage(null, 2).getContinuationToken();
+
+    try {
+      taskService.createTaskQuery().orderByTaskCreateTime().asc().listKeysetPage(continuationToken, 2);
+      fail("exception expected");
+    }
+    catch (NotValidException e) {
+      assertTextPresent("different ordering", e.getMessage());
+    }
+  }
+
+  public void testInvalidContinuationToken() {
+    try {
+      taskService.createTaskQuery().listKeysetPage("invalid", 2);
+      fail("exception expected");
+    }
+    catch (NotValidException e) {
+      assertTextPresent("Invalid continuation token", e.getMessage());
+    }
+  }
+
+  protected List<Task> listAllKeysetPages(TaskQuery query, int maxResults) {
+    List<Task> tasks = new ArrayList<Task>();
+
+    String continuationToken = null;
+    do {
+      KeysetPage<Task> page = query.listKeysetPage(continuationToken, maxResults);
+      assertTrue(page.getResults().size() <= maxResults);
+      tasks.addAll(page.getResults());
+      continuationToken = page.getContinuationToken();
+    } while (continuationToken != null);
+
+    return tasks;
+  }
+
+  protected void assertSameTasks(List<Task> expectedTasks, List<Task> tasks) {
+    assertEquals(expectedTasks.size(), tasks.size());
+    for (int i = 0; i < expectedTasks.size(); i++) {
+      assertEquals(expectedTasks.get(i).getId(), tasks.get(i).getId());
+    }
+  }
+
+}
@@ -0,0 +1,111 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.history;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricActivityInstanceQuery;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstanceQuery;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.query.KeysetPage;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_ACTIVITY)
+public class HistoricQueryKeysetPaginationTest extends PluggableProcessEngineTestCase {
+
+  protected static final String PROCESS_KEY = "oneTaskProcess";
+
+  protected void tearDown() throws Exception {
+    ClockUtil.reset();
+    super.tearDown();
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testHistoricProcessInstancePagesOrderedByStartTime() {
+    startProcessInstances(7);
+
+    List<HistoricProcessInstance> expectedInstances = historyService.createHistoricProcessInstanceQuery()
+        .orderByProcessInstanceStartTime().asc().orderByProcessInstanceId().asc().list();
+
+    List<HistoricProcessInstance> instances = new ArrayList<HistoricProcessInstance>();
+    HistoricProcessInstanceQuery query = historyService.createHistoricProcessInstanceQuery().orderByProcessInstanceStartTime().asc();
+    String continuationToken = null;
+    do {
+      KeysetPage<HistoricProcessInstance> page = query.listKeysetPage(continuationToken, 2);
+      instances.addAll(page.getResults());
+      continuationToken = page.getContinuationToken();
+    } while (continuationToken != null);
+
+    assertEquals(7, instances.size());
+    for (int i = 0; i < expectedInstances.size(); i++) {
+      assertEquals(expectedInstances.get(i).getId(), instances.get(i).getId());
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testHistoricProcessInstancePagesWithoutOrdering() {
+    startProcessInstances(5);
+
+    KeysetPage<HistoricProcessInstance> firstPage = historyService.createHistoricProcessInstanceQuery().listKeysetPage(null, 3);
+    KeysetPage<HistoricProcessInstance> secondPage = historyService.createHistoricProcessInstanceQuery()
+        .listKeysetPage(firstPage.getContinuationToken(), 3);
+
+    List<HistoricProcessInstance> expectedInstances = historyService.createHistoricProcessInstanceQuery()
+        .orderByProcessInstanceId().asc().list();
+    assertEquals(3, firstPage.getResults().size());
+    assertEquals(2, secondPage.getResults().size());
+    assertNull(secondPage.getContinuationToken());
+    assertEquals(expectedInstances.get(2).getId(), firstPage.getResults().get(2).getId());
+    assertEquals(expectedInstances.get(3).getId(), secondPage.getResults().get(0).getId());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testHistoricActivityInstancePagesOrderedByStartTime() {
+    startProcessInstances(4);
+
+    List<HistoricActivityInstance> expectedInstances = historyService.createHistoricActivityInstanceQuery()
+        .orderByHistoricActivityInstanceStartTime().desc().orderByHistoricActivityInstanceId().desc().list();
+
+    List<HistoricActivityInstance> instances = new ArrayList<HistoricActivityInstance>();
+    HistoricActivityInstanceQuery query = historyService.createHistoricActivityInstanceQuery()
+        .orderByHistoricActivityInstanceStartTime().desc();
+    String continuationToken = null;
+    do {
+      KeysetPage<HistoricActivityInstance> page = query.listKeysetPage(continuationToken, 3);
+      instances.addAll(page.getResults());
+      continuationToken = page.getContinuationToken();
+    } while (continuationToken != null);
+
+    // a start event and a user task per process instance
+    assertEquals(8, instances.size());
+    for (int i = 0; i < expectedInstances.size(); i++) {
+      assertEquals(expectedInstances.get(i).getId(), instances.get(i).getId());
+    }
+  }
+
+  protected void startProcessInstances(int count) {
+    for (int i = 0; i < count; i++) {
+      // several instances share the same start time so that the id decides the order
+      ClockUtil.setCurrentTime(new Date(1000L * (i / 2)));
+      runtimeService.startProcessInstanceByKey(PROCESS_KEY);
+    }
+  }
+
+}
@@ -0,0 +1,185 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.history;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.HistoricVariableInstanceQueryImpl;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricVariableInstanceEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.query.QueryResultHandler;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.variable.Variables;
+
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_ACTIVITY)
+public class HistoricQueryStreamingTest extends PluggableProcessEngineTestCase {
+
+  protected static final String PROCESS_KEY = "oneTaskProcess";
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testIterateHistoricVariableInstances() {
+    startProcessInstances(5);
+
+    List<HistoricVariableInstance> expectedVariables = historyService.createHistoricVariableInstanceQuery()
+        .orderByVariableName().asc().list();
+
+    final List<HistoricVariableInstance> variables = new ArrayList<HistoricVariableInstance>();
+    historyService.createHistoricVariableInstanceQuery()
+      .orderByVariableName().asc()
+      .iterate(new CollectingResultHandler<HistoricVariableInstance>(variables));
+
+    assertEquals(10, variables.size());
+    for (int i = 0; i < expectedVariables.size(); i++) {
+      assertEquals(expectedVariables.get(i).getId(), variables.get(i).getId());
+      assertEquals(expectedVariables.get(i).getName(), variables.get(i).getName());
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testIterateHistoricVariableInstancesFetchesByteArrayValues() {
+    startProcessInstances(2);
+
+    final List<HistoricVariableInstance> variables = new ArrayList<HistoricVariableInstance>();
+    historyService.createHistoricVariableInstanceQuery()
+      .variableName("bytes")
+      .iterate(new CollectingResultHandler<HistoricVariableInstance>(variables));
+
+    assertEquals(2, variables.size());
+    for (HistoricVariableInstance variable : variables) {
+      assertEquals("bytes", new String((byte[]) variable.getValue()));
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testIterateDoesNotCacheResults() {
+    startProcessInstances(3);
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        final DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+        final List<HistoricVariableInstance> variables = new ArrayList<HistoricVariableInstance>();
+
+        new HistoricVariableInstanceQueryImpl().iterate(new QueryResultHandler<HistoricVariableInstance>() {
+          public void handleResult(HistoricVariableInstance result) {
+            variables.add(result);
+            assertTrue(dbEntityManager.getCachedEntitiesByType(HistoricVariableInstanceEntity.class).isEmpty());
+          }
+        });
+
+        assertEquals(6, variables.size());
+        assertTrue(dbEntityManager.getCachedEntitiesByType(HistoricVariableInstanceEntity.class).isEmpty());
+        assertTrue(dbEntityManager.getCachedEntitiesByType(ByteArrayEntity.class).isEmpty());
+        return null;
+      }
+    });
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testIterateReturnsCachedEntities() {
+    startProcessInstances(1);
+    final String variableId = historyService.createHistoricVariableInstanceQuery().variableName("name").singleResult().getId();
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        final HistoricVariableInstanceEntity cachedVariable = commandContext.getDbEntityManager()
+            .selectById(HistoricVariableInstanceEntity.class, variableId);
+
+        new HistoricVariableInstanceQueryImpl().variableName("name").iterate(new QueryResultHandler<HistoricVariableInstance>() {
+          public void handleResult(HistoricVariableInstance result) {
+            assertSame(cachedVariable, result);
+          }
+        });
+        return null;
+      }
+    });
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testIterateHistoricProcessInstancesWithFetchSize() {
+    int fetchSize = processEngineConfiguration.getQueryStreamingFetchSize();
+    processEngineConfiguration.setQueryStreamingFetchSize(2);
+    try {
+      startProcessInstances(5);
+      String processInstanceId = runtimeService.createProcessInstanceQuery().listPage(0, 1).get(0).getId();
+
+      final List<HistoricProcessInstance> instances = new ArrayList<HistoricProcessInstance>();
+      historyService.createHistoricProcessInstanceQuery()
+        .orderByProcessInstanceId().desc()
+        .iterate(new CollectingResultHandler<HistoricProcessInstance>(instances));
+
+      List<HistoricProcessInstance> expectedInstances = historyService.createHistoricProcessInstanceQuery()
+          .orderByProcessInstanceId().desc().list();
+      assertEquals(5, instances.size());
+      for (int i = 0; i < expectedInstances.size(); i++) {
+        assertEquals(expectedInstances.get(i).getId(), instances.get(i).getId());
+      }
+
+      instances.clear();
+      historyService.createHistoricProcessInstanceQuery()
+        .processInstanceId(processInstanceId)
+        .iterate(new CollectingResultHandler<HistoricProcessInstance>(instances));
+      assertEquals(1, instances.size());
+      assertEquals(processInstanceId, instances.get(0).getId());
+    }
+    finally {
+      processEngineConfiguration.setQueryStreamingFetchSize(fetchSize);
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testIterateHistoricActivityInstances() {
+    startProcessInstances(3);
+
+    final List<HistoricActivityInstance> activityInstances = new ArrayList<HistoricActivityInstance>();
+    historyService.createHistoricActivityInstanceQuery()
+      .activityId("theTask")
+      .iterate(new CollectingResultHandler<HistoricActivityInstance>(activityInstances));
+
+    assertEquals(3, activityInstances.size());
+    for (HistoricActivityInstance activityInstance : activityInstances) {
+      assertEquals("theTask", activityInstance.getActivityId());
+    }
+  }
+
+  protected void startProcessInstances(int count) {
+    for (int i = 0; i < count; i++) {
+      runtimeService.startProcessInstanceByKey(PROCESS_KEY, Variables.createVariables()
+          .putValue("name", "instance" + i)
+          .putValue("bytes", "bytes".getBytes()));
+    }
+  }
+
+  protected static class CollectingResultHandler<T> implements QueryResultHandler<T> {
+
+    protected List<T> results;
+
+    public CollectingResultHandler(List<T> results) {
+      this.results = results;
+    }
+
+    public void handleResult(T result) {
+      results.add(result);
+    }
+  }
+
+}
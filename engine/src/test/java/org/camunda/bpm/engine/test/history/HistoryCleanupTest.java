@@ -0,0 +1,285 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.HistoryCleanupCmd;
+import org.camunda.bpm.engine.impl.history.cleanup.HistoryCleanupHelper;
+import org.camunda.bpm.engine.impl.history.cleanup.HistoryCleanupJobHandler;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+public class HistoryCleanupTest {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml";
+  protected static final String ONE_TASK_PROCESS_WITH_TTL = "org/camunda/bpm/engine/test/history/HistoryCleanupTest.oneTaskProcessWithTtl.bpmn20.xml";
+  protected static final String INVALID_TTL_PROCESS = "org/camunda/bpm/engine/test/history/HistoryCleanupTest.invalidTtl.bpmn20.xml";
+
+  @Rule
+  public ProcessEngineRule rule = new ProvidedProcessEngineRule();
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RepositoryService repositoryService;
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected HistoryService historyService;
+  protected ManagementService managementService;
+
+  protected int defaultBatchSize;
+
+  @Before
+  public void init() {
+    processEngineConfiguration = rule.getProcessEngineConfiguration();
+    repositoryService = rule.getRepositoryService();
+    runtimeService = rule.getRuntimeService();
+    taskService = rule.getTaskService();
+    historyService = rule.getHistoryService();
+    managementService = rule.getManagementService();
+
+    defaultBatchSize = processEngineConfiguration.getHistoryCleanupBatchSize();
+  }
+
+  @After
+  public void resetConfiguration() {
+    processEngineConfiguration.setHistoryCleanupBatchSize(defaultBatchSize);
+    processEngineConfiguration.setHistoryCleanupBatchWindowStartTime(null);
+    processEngineConfiguration.setHistoryCleanupBatchWindowEndTime(null);
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        for (JobEntity job : commandContext.getJobManager().findJobsByHandlerType(HistoryCleanupJobHandler.TYPE)) {
+          commandContext.getJobManager().deleteJob(job);
+        }
+        commandContext.getHistoricJobLogManager().deleteHistoricJobLogsByHandlerType(HistoryCleanupJobHandler.TYPE);
+        return null;
+      }
+    });
+
+    ClockUtil.reset();
+  }
+
+  @Test
+  @Deployment(resources = { ONE_TASK_PROCESS_WITH_TTL, ONE_TASK_PROCESS })
+  public void testParseHistoryTimeToLive() {
+    ProcessDefinition withTtl = repositoryService.createProcessDefinitionQuery()
+        .processDefinitionKey("oneTaskProcessWithTtl")
+        .singleResult();
+    assertEquals(Integer.valueOf(5), withTtl.getHistoryTimeToLive());
+
+    ProcessDefinition withoutTtl = repositoryService.createProcessDefinitionQuery()
+        .processDefinitionKey("oneTaskProcess")
+        .singleResult();
+    assertNull(withoutTtl.getHistoryTimeToLive());
+  }
+
+  @Test
+  public void testParseInvalidHistoryTimeToLive() {
+    try {
+      repositoryService.createDeployment()
+        .addClasspathResource(INVALID_TTL_PROCESS)
+        .deploy();
+      fail("exception expected");
+    }
+    catch (ProcessEngineException e) {
+      assertTrue(e.getMessage().contains("historyTimeToLive"));
+    }
+  }
+
+  @Test
+  @Deployment(resources = { ONE_TASK_PROCESS_WITH_TTL, ONE_TASK_PROCESS })
+  public void testCleanUpExpiredProcessInstances() {
+    Date now = new Date();
+    ClockUtil.setCurrentTime(addDays(now, -10));
+
+    startAndCompleteProcessInstances("oneTaskProcessWithTtl", 3);
+    startAndCompleteProcessInstances("oneTaskProcess", 2);
+
+    // instances ended 10 days ago, time to live is 5 days
+    ClockUtil.setCurrentTime(now);
+    long removedBefore = getMeterValue(Metrics.HISTORY_CLEANUP_REMOVED_PROCESS_INSTANCES);
+
+    // when
+    Job job = historyService.cleanUpHistoryAsync();
+    managementService.executeJob(job.getId());
+
+    // then only the instances of the definition with time to live are removed
+    assertEquals(0, historyService.createHistoricProcessInstanceQuery().processDefinitionKey("oneTaskProcessWithTtl").count());
+    assertEquals(2, historyService.createHistoricProcessInstanceQuery().processDefinitionKey("oneTaskProcess").count());
+    assertEquals(2, historyService.createHistoricTaskInstanceQuery().count());
+    assertEquals(2, historyService.createHistoricActivityInstanceQuery().activityId("theTask").count());
+    assertEquals(3, getMeterValue(Metrics.HISTORY_CLEANUP_REMOVED_PROCESS_INSTANCES) - removedBefore);
+
+    // a manually triggered cleanup without batch window is not rescheduled
+    assertNull(historyService.findHistoryCleanupJob());
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS_WITH_TTL)
+  public void testKeepProcessInstancesWithinTimeToLive() {
+    Date now = new Date();
+    ClockUtil.setCurrentTime(addDays(now, -2));
+
+    startAndCompleteProcessInstances("oneTaskProcessWithTtl", 2);
+    runtimeService.startProcessInstanceByKey("oneTaskProcessWithTtl");
+
+    ClockUtil.setCurrentTime(now);
+
+    // when
+    Job job = historyService.cleanUpHistoryAsync();
+    managementService.executeJob(job.getId());
+
+    // then
+    assertEquals(3, historyService.createHistoricProcessInstanceQuery().count());
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS_WITH_TTL)
+  public void testRescheduleCleanupWhileBatchIsFull() {
+    processEngineConfiguration.setHistoryCleanupBatchSize(2);
+
+    Date now = new Date();
+    ClockUtil.setCurrentTime(addDays(now, -10));
+    startAndCompleteProcessInstances("oneTaskProcessWithTtl", 3);
+    ClockUtil.setCurrentTime(now);
+
+    // when
+    Job job = historyService.cleanUpHistoryAsync();
+    managementService.executeJob(job.getId());
+
+    // then the first batch is removed and a follow-up job is due immediately
+    assertEquals(1, historyService.createHistoricProcessInstanceQuery().count());
+    job = historyService.findHistoryCleanupJob();
+    assertNotNull(job);
+
+    managementService.executeJob(job.getId());
+
+    assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+    assertNull(historyService.findHistoryCleanupJob());
+  }
+
+  @Test
+  public void testCleanUpHistoryAsyncReturnsExistingJob() {
+    Job job = historyService.cleanUpHistoryAsync();
+    Job secondJob = historyService.cleanUpHistoryAsync();
+
+    assertEquals(job.getId(), secondJob.getId());
+    assertEquals(1, managementService.createJobQuery().count());
+  }
+
+  @Test
+  public void testBatchWindow() throws ParseException {
+    processEngineConfiguration.setHistoryCleanupBatchWindowStartTime("22:00");
+    processEngineConfiguration.setHistoryCleanupBatchWindowEndTime("02:00");
+
+    assertTrue(HistoryCleanupHelper.isBatchWindowConfigured(processEngineConfiguration));
+    assertTrue(HistoryCleanupHelper.isWithinBatchWindow(parseTime("2017-03-01 23:15"), processEngineConfiguration));
+    assertTrue(HistoryCleanupHelper.isWithinBatchWindow(parseTime("2017-03-02 01:59"), processEngineConfiguration));
+    assertFalse(HistoryCleanupHelper.isWithinBatchWindow(parseTime("2017-03-02 02:00"), processEngineConfiguration));
+    assertFalse(HistoryCleanupHelper.isWithinBatchWindow(parseTime("2017-03-01 12:00"), processEngineConfiguration));
+
+    assertEquals(parseTime("2017-03-01 22:00"),
+        HistoryCleanupHelper.getNextBatchWindowStartTime(parseTime("2017-03-01 12:00"), processEngineConfiguration));
+    assertEquals(parseTime("2017-03-02 22:00"),
+        HistoryCleanupHelper.getNextBatchWindowStartTime(parseTime("2017-03-01 23:00"), processEngineConfiguration));
+  }
+
+  @Test
+  public void testScheduleOutsideOfBatchWindow() throws ParseException {
+    processEngineConfiguration.setHistoryCleanupBatchWindowStartTime("22:00");
+    processEngineConfiguration.setHistoryCleanupBatchWindowEndTime("23:00");
+
+    ClockUtil.setCurrentTime(parseTime("2017-03-01 12:00"));
+
+    // when the job executes outside of the batch window
+    Job job = processEngineConfiguration.getCommandExecutorTxRequired()
+        .execute(new HistoryCleanupCmd(false));
+    assertEquals(parseTime("2017-03-01 22:00"), job.getDuedate());
+
+    managementService.executeJob(job.getId());
+
+    // then it is rescheduled to the start of the window
+    Job nextJob = historyService.findHistoryCleanupJob();
+    assertNotNull(nextJob);
+    assertEquals(parseTime("2017-03-01 22:00"), nextJob.getDuedate());
+  }
+
+  @Test
+  public void testParseInvalidBatchWindowTime() {
+    assertEquals(22 * 60 + 30, HistoryCleanupHelper.parseTimeOfDay("22:30"));
+
+    for (String invalidTime : new String[] { "25:00", "12:60", "12", "noon", null }) {
+      try {
+        HistoryCleanupHelper.parseTimeOfDay(invalidTime);
+        fail("exception expected for " + invalidTime);
+      }
+      catch (ProcessEngineException e) {
+        // expected
+      }
+    }
+  }
+
+  protected void startAndCompleteProcessInstances(String processDefinitionKey, int count) {
+    for (int i = 0; i < count; i++) {
+      String processInstanceId = runtimeService.startProcessInstanceByKey(processDefinitionKey).getId();
+      Task task = taskService.createTaskQuery().processInstanceId(processInstanceId).singleResult();
+      taskService.setVariable(task.getId(), "aVariable", "aValue");
+      taskService.complete(task.getId());
+    }
+  }
+
+  protected long getMeterValue(String name) {
+    return processEngineConfiguration.getMetricsRegistry().getMeterByName(name).get();
+  }
+
+  protected Date addDays(Date date, int days) {
+    return new Date(date.getTime() + days * 24L * 60 * 60 * 1000);
+  }
+
+  protected Date parseTime(String time) throws ParseException {
+    return new SimpleDateFormat("yyyy-MM-dd HH:mm").parse(time);
+  }
+
+}
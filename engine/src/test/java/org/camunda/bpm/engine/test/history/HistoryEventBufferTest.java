@@ -0,0 +1,230 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.history;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.HistoryService;
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.history.buffer.HistoryEventBufferWriter;
+import org.camunda.bpm.engine.impl.history.handler.BufferedHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryEventBufferEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.RequiredHistoryLevel;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+@RequiredHistoryLevel(ProcessEngineConfiguration.HISTORY_FULL)
+public class HistoryEventBufferTest {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml";
+
+  @Rule
+  public ProcessEngineRule rule = new ProvidedProcessEngineRule();
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected HistoryService historyService;
+  protected ManagementService managementService;
+
+  protected HistoryEventHandler historyEventHandler;
+  protected HistoryEventBufferWriter writer;
+
+  @Before
+  public void enableHistoryEventBuffer() {
+    processEngineConfiguration = rule.getProcessEngineConfiguration();
+    runtimeService = rule.getRuntimeService();
+    taskService = rule.getTaskService();
+    historyService = rule.getHistoryService();
+    managementService = rule.getManagementService();
+
+    historyEventHandler = processEngineConfiguration.getHistoryEventHandler();
+    processEngineConfiguration.setHistoryEventBufferEnabled(true);
+    processEngineConfiguration.setHistoryEventHandler(new BufferedHistoryEventHandler(historyEventHandler));
+
+    writer = new HistoryEventBufferWriter(processEngineConfiguration.getCommandExecutorTxRequired(), historyEventHandler);
+  }
+
+  @After
+  public void disableHistoryEventBuffer() {
+    writer.drainNow();
+    processEngineConfiguration.setHistoryEventBufferEnabled(false);
+    processEngineConfiguration.setHistoryEventHandler(historyEventHandler);
+    ClockUtil.reset();
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testHistoryIsWrittenWhenBufferIsDrained() {
+    // when
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    // then the history is buffered
+    assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+    assertEquals(1, getBufferCount());
+
+    // and written when the buffer is drained
+    writer.drainNow();
+
+    assertEquals(0, getBufferCount());
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery().singleResult();
+    assertEquals(processInstance.getId(), historicProcessInstance.getId());
+    assertNull(historicProcessInstance.getEndTime());
+
+    // the start event was started and ended in the same transaction
+    HistoricActivityInstance startEvent = historyService.createHistoricActivityInstanceQuery().activityId("theStart").singleResult();
+    assertNotNull(startEvent.getStartTime());
+    assertNotNull(startEvent.getEndTime());
+
+    HistoricActivityInstance userTask = historyService.createHistoricActivityInstanceQuery().activityId("theTask").singleResult();
+    assertNotNull(userTask.getStartTime());
+    assertNull(userTask.getEndTime());
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testUpdatesOfEarlierTransactionsAreWritten() {
+    // given
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess",
+        Variables.createVariables().putValue("aVariable", "aValue"));
+    runtimeService.setVariable(processInstance.getId(), "aVariable", "anotherValue");
+    Task task = taskService.createTaskQuery().singleResult();
+
+    // when the history of all transactions is written by the same drain
+    taskService.complete(task.getId());
+    assertEquals(3, getBufferCount());
+    writer.drainNow();
+
+    // then
+    assertEquals(0, getBufferCount());
+
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery().singleResult();
+    assertNotNull(historicProcessInstance.getStartTime());
+    assertNotNull(historicProcessInstance.getEndTime());
+
+    HistoricActivityInstance userTask = historyService.createHistoricActivityInstanceQuery().activityId("theTask").singleResult();
+    assertNotNull(userTask.getStartTime());
+    assertNotNull(userTask.getEndTime());
+    assertEquals(task.getId(), userTask.getTaskId());
+
+    assertNotNull(historyService.createHistoricTaskInstanceQuery().singleResult().getEndTime());
+
+    HistoricVariableInstance variable = historyService.createHistoricVariableInstanceQuery().singleResult();
+    assertEquals("anotherValue", variable.getValue());
+    assertEquals(2, historyService.createHistoricDetailQuery().variableUpdates().count());
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testDrainInSeveralBatches() {
+    // given
+    writer.setDrainBatchSize(1);
+    for (int i = 0; i < 3; i++) {
+      runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    }
+    for (Task task : taskService.createTaskQuery().list()) {
+      taskService.complete(task.getId());
+    }
+    assertEquals(6, getBufferCount());
+
+    // when
+    writer.drainNow();
+
+    // then
+    assertEquals(0, getBufferCount());
+    assertEquals(3, historyService.createHistoricProcessInstanceQuery().finished().count());
+    List<HistoricActivityInstance> userTasks = historyService.createHistoricActivityInstanceQuery().activityId("theTask").list();
+    assertEquals(3, userTasks.size());
+    for (HistoricActivityInstance userTask : userTasks) {
+      assertNotNull(userTask.getEndTime());
+    }
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testHistoryEventBufferLag() {
+    // given
+    Date now = new Date(ClockUtil.getCurrentTime().getTime() / 1000 * 1000);
+    ClockUtil.setCurrentTime(now);
+    String processInstanceId = runtimeService.startProcessInstanceByKey("oneTaskProcess").getId();
+
+    // when
+    ClockUtil.setCurrentTime(new Date(now.getTime() + 5000));
+
+    // then
+    assertEquals(5000, managementService.getHistoryEventBufferLag());
+
+    writer.drainNow();
+    assertEquals(0, managementService.getHistoryEventBufferLag());
+
+    runtimeService.deleteProcessInstance(processInstanceId, null);
+  }
+
+  @Test
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testSequenceDoesNotDependOnClock() {
+    // given a transaction and a subsequent one on a node whose clock is behind
+    Date now = new Date(ClockUtil.getCurrentTime().getTime() / 1000 * 1000);
+    ClockUtil.setCurrentTime(now);
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    ClockUtil.setCurrentTime(new Date(now.getTime() - 60000));
+    taskService.complete(taskService.createTaskQuery().singleResult().getId());
+
+    // then the rows are drained in the order of the transactions
+    List<HistoryEventBufferEntity> buffers = processEngineConfiguration.getCommandExecutorTxRequired()
+      .execute(new Command<List<HistoryEventBufferEntity>>() {
+        public List<HistoryEventBufferEntity> execute(CommandContext commandContext) {
+          return commandContext.getHistoryEventBufferManager().findBuffersToDrain(10);
+        }
+      });
+
+    assertEquals(2, buffers.size());
+    assertEquals(now, buffers.get(0).getCreateTime());
+    assertTrue(buffers.get(0).getSequence() < buffers.get(1).getSequence());
+
+    writer.drainNow();
+    assertNotNull(historyService.createHistoricProcessInstanceQuery().singleResult().getEndTime());
+  }
+
+  protected long getBufferCount() {
+    String tableName = managementService.getTableName(HistoryEventBufferEntity.class);
+    return managementService.getTableCount().get(tableName);
+  }
+
+}
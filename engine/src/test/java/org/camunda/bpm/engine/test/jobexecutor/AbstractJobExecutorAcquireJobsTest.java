@@ -30,6 +30,7 @@ public abstract class AbstractJobExecutorAcquireJobsTest {
   private boolean jobExecutorAcquireByDueDate;
   private boolean jobExecutorAcquireByPriority;
   private boolean jobExecutorPreferTimerJobs;
+  private boolean jobExecutorAcquireWithSkipLocked;
 
   @Before
   public void initServices() {
@@ -43,6 +44,7 @@ public abstract class AbstractJobExecutorAcquireJobsTest {
     jobExecutorAcquireByDueDate = configuration.isJobExecutorAcquireByDueDate();
     jobExecutorAcquireByPriority = configuration.isJobExecutorAcquireByPriority();
     jobExecutorPreferTimerJobs = configuration.isJobExecutorPreferTimerJobs();
+    jobExecutorAcquireWithSkipLocked = configuration.isJobExecutorAcquireWithSkipLocked();
   }
 
   @Before
@@ -55,6 +57,7 @@ public abstract class AbstractJobExecutorAcquireJobsTest {
     configuration.setJobExecutorAcquireByDueDate(jobExecutorAcquireByDueDate);
     configuration.setJobExecutorAcquireByPriority(jobExecutorAcquireByPriority);
     configuration.setJobExecutorPreferTimerJobs(jobExecutorPreferTimerJobs);
+    configuration.setJobExecutorAcquireWithSkipLocked(jobExecutorAcquireWithSkipLocked);
   }
 
   @After
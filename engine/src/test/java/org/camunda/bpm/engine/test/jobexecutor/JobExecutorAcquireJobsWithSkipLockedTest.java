@@ -0,0 +1,108 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.test.Deployment;
+import org.junit.Before;
+import org.junit.Test;
+
+public class JobExecutorAcquireJobsWithSkipLockedTest extends AbstractJobExecutorAcquireJobsTest {
+
+  @Before
+  public void prepareProcessEngineConfiguration() {
+    configuration.setJobExecutorAcquireWithSkipLocked(true);
+  }
+
+  @Test
+  public void testProcessEngineConfiguration() {
+    assertTrue(configuration.isJobExecutorAcquireWithSkipLocked());
+  }
+
+  @Test
+  @Deployment(resources = "org/camunda/bpm/engine/test/jobexecutor/jobPrioProcess.bpmn20.xml")
+  public void testAcquisitionByPriority() {
+    configuration.setJobExecutorAcquireByPriority(true);
+
+    // jobs with priority 5
+    startProcess("jobPrioProcess", "task2", 5);
+
+    // jobs with priority 10
+    startProcess("jobPrioProcess", "task1", 5);
+
+    List<JobEntity> acquirableJobs = findAcquirableJobs();
+    assertEquals(10, acquirableJobs.size());
+    for (int i = 0; i < 5; i++) {
+      assertEquals(10, acquirableJobs.get(i).getPriority());
+    }
+    for (int i = 5; i < 10; i++) {
+      assertEquals(5, acquirableJobs.get(i).getPriority());
+    }
+  }
+
+  @Test
+  @Deployment(resources = "org/camunda/bpm/engine/test/jobexecutor/simpleAsyncProcess.bpmn20.xml")
+  public void testConcurrentAcquisitionsSkipLockedJobs() {
+    for (int i = 0; i < 4; i++) {
+      runtimeService.startProcessInstanceByKey("simpleAsyncProcess");
+    }
+
+    // when jobs are acquired while another transaction holds its acquired jobs
+    final Set<String> concurrentlyAcquiredJobIds = new HashSet<String>();
+    Set<String> acquiredJobIds = configuration.getCommandExecutorTxRequired().execute(new Command<Set<String>>() {
+      public Set<String> execute(CommandContext commandContext) {
+        Set<String> acquiredJobIds = toIds(commandContext.getJobManager().findNextJobsToExecute(new Page(0, 2)));
+
+        concurrentlyAcquiredJobIds.addAll(configuration.getCommandExecutorTxRequiresNew().execute(new Command<Set<String>>() {
+          public Set<String> execute(CommandContext commandContext) {
+            return toIds(commandContext.getJobManager().findNextJobsToExecute(new Page(0, 4)));
+          }
+        }));
+
+        return acquiredJobIds;
+      }
+    });
+
+    assertEquals(2, acquiredJobIds.size());
+
+    if (configuration.getDbSqlSessionFactory().isSkipLockedSupported()) {
+      // then the locked jobs are skipped
+      assertEquals(2, concurrentlyAcquiredJobIds.size());
+      for (String jobId : acquiredJobIds) {
+        assertTrue(!concurrentlyAcquiredJobIds.contains(jobId));
+      }
+    } else {
+      // then all jobs are acquired as before
+      assertEquals(4, concurrentlyAcquiredJobIds.size());
+    }
+  }
+
+  protected static Set<String> toIds(List<JobEntity> jobs) {
+    Set<String> ids = new HashSet<String>();
+    for (JobEntity job : jobs) {
+      ids.add(job.getId());
+    }
+    return ids;
+  }
+
+}
@@ -0,0 +1,167 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class JobExecutorHandOffTest {
+
+  protected static final String PROCESS_RESOURCE = "org/camunda/bpm/engine/test/jobexecutor/JobExecutorHandOffTest.bpmn20.xml";
+
+  @Rule
+  public ProcessEngineRule engineRule = new ProvidedProcessEngineRule();
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected JobExecutor defaultJobExecutor;
+  protected HandOffRecordingJobExecutor jobExecutor;
+
+  @Before
+  public void replaceJobExecutor() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    defaultJobExecutor = processEngineConfiguration.getJobExecutor();
+    jobExecutor = new HandOffRecordingJobExecutor();
+    jobExecutor.registerProcessEngine((ProcessEngineImpl) engineRule.getProcessEngine());
+    processEngineConfiguration.setJobExecutor(jobExecutor);
+    processEngineConfiguration.setJobExecutorHandOffLocalJobs(true);
+  }
+
+  @After
+  public void resetJobExecutor() {
+    processEngineConfiguration.setJobExecutor(defaultJobExecutor);
+    processEngineConfiguration.setJobExecutorHandOffLocalJobs(false);
+  }
+
+  @Test
+  @Deployment(resources = PROCESS_RESOURCE)
+  public void testNonExclusiveJobIsHandedOff() {
+    // when
+    engineRule.getRuntimeService().startProcessInstanceByKey("nonExclusiveProcess");
+
+    // then the job is locked for the job executor and handed off after commit
+    JobEntity job = (JobEntity) engineRule.getManagementService().createJobQuery().singleResult();
+    assertEquals(jobExecutor.getLockOwner(), job.getLockOwner());
+    assertNotNull(job.getLockExpirationTime());
+
+    assertEquals(1, jobExecutor.handedOffJobIds.size());
+    assertEquals(job.getId(), jobExecutor.handedOffJobIds.get(0));
+    assertEquals(0, jobExecutor.jobsAdded);
+  }
+
+  @Test
+  @Deployment(resources = PROCESS_RESOURCE)
+  public void testExclusiveJobIsNotHandedOff() {
+    // when
+    engineRule.getRuntimeService().startProcessInstanceByKey("exclusiveProcess");
+
+    // then the job executor is only hinted
+    JobEntity job = (JobEntity) engineRule.getManagementService().createJobQuery().singleResult();
+    assertNull(job.getLockOwner());
+
+    assertTrue(jobExecutor.handedOffJobIds.isEmpty());
+    assertEquals(1, jobExecutor.jobsAdded);
+  }
+
+  @Test
+  @Deployment(resources = PROCESS_RESOURCE)
+  public void testJobIsNotHandedOffIfDisabled() {
+    // given
+    processEngineConfiguration.setJobExecutorHandOffLocalJobs(false);
+
+    // when
+    engineRule.getRuntimeService().startProcessInstanceByKey("nonExclusiveProcess");
+
+    // then
+    JobEntity job = (JobEntity) engineRule.getManagementService().createJobQuery().singleResult();
+    assertNull(job.getLockOwner());
+
+    assertTrue(jobExecutor.handedOffJobIds.isEmpty());
+    assertEquals(1, jobExecutor.jobsAdded);
+  }
+
+  @Test
+  @Deployment(resources = PROCESS_RESOURCE)
+  public void testRejectedJobIsUnlocked() {
+    // given
+    jobExecutor.acceptHandOff = false;
+
+    // when
+    engineRule.getRuntimeService().startProcessInstanceByKey("nonExclusiveProcess");
+
+    // then the job is left to job acquisition
+    JobEntity job = (JobEntity) engineRule.getManagementService().createJobQuery().singleResult();
+    assertNull(job.getLockOwner());
+    assertNull(job.getLockExpirationTime());
+
+    assertEquals(1, jobExecutor.handedOffJobIds.size());
+    assertEquals(1, jobExecutor.jobsAdded);
+  }
+
+  public class HandOffRecordingJobExecutor extends JobExecutor {
+
+    public boolean acceptHandOff = true;
+    public List<String> handedOffJobIds = new ArrayList<String>();
+    public int jobsAdded = 0;
+
+    public HandOffRecordingJobExecutor() {
+      isActive = true;
+    }
+
+    @Override
+    public boolean isHandOffSupported() {
+      return true;
+    }
+
+    @Override
+    protected boolean submitHandedOffJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+      handedOffJobIds.addAll(jobIds);
+      return acceptHandOff;
+    }
+
+    @Override
+    public void jobWasAdded() {
+      jobsAdded++;
+    }
+
+    protected void startExecutingJobs() {
+      // do nothing
+    }
+
+    protected void stopExecutingJobs() {
+      // do nothing
+    }
+
+    public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+      // do nothing
+    }
+
+  }
+
+}
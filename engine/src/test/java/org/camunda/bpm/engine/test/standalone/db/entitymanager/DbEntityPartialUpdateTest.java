@@ -0,0 +1,154 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.db.entitymanager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class DbEntityPartialUpdateTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask("task1")
+      .serviceTask("service").camundaAsyncBefore().camundaExpression("${true}")
+      .userTask("task2")
+      .endEvent()
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    @Override
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      return configuration.setDbEntityPartialUpdate(true);
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule);
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected ManagementService managementService;
+
+  @Before
+  public void setUp() {
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    managementService = engineRule.getManagementService();
+  }
+
+  @Test
+  public void testProcessInstanceWithPartialUpdates() {
+    engineRule.manageDeployment(engineRule.getRepositoryService()
+        .createDeployment()
+        .addModelInstance("process.bpmn", PROCESS)
+        .deploy());
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // when the task is updated and completed
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.setAssignee(task.getId(), "kermit");
+    assertEquals("kermit", taskService.createTaskQuery().singleResult().getAssignee());
+    taskService.complete(task.getId());
+
+    // and the job is updated and executed
+    Job job = managementService.createJobQuery().singleResult();
+    managementService.setJobRetries(job.getId(), 5);
+    assertEquals(5, managementService.createJobQuery().singleResult().getRetries());
+    managementService.executeJob(job.getId());
+
+    // then the process instance continues
+    task = taskService.createTaskQuery().singleResult();
+    assertEquals("task2", task.getTaskDefinitionKey());
+    assertEquals("task2", runtimeService.getActiveActivityIds(processInstance.getId()).get(0));
+    taskService.complete(task.getId());
+
+    assertNull(runtimeService.createProcessInstanceQuery().singleResult());
+  }
+
+  @Test
+  public void testUnchangedColumnsAreNotWritten() {
+    Task task = taskService.newTask();
+    task.setDescription("description");
+    taskService.saveTask(task);
+    final String taskId = task.getId();
+
+    engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        TaskEntity task = commandContext.getTaskManager().findTaskById(taskId);
+        task.setAssignee("kermit");
+
+        // the column is changed behind the back of the engine
+        try {
+          PreparedStatement statement = commandContext.getDbSqlSession().getSqlSession().getConnection()
+              .prepareStatement("update ACT_RU_TASK set DESCRIPTION_ = 'changed' where ID_ = ?");
+          statement.setString(1, taskId);
+          statement.executeUpdate();
+          statement.close();
+        } catch (SQLException e) {
+          throw new ProcessEngineException(e);
+        }
+        return null;
+      }
+    });
+
+    // then the flush only wrote the assignee
+    task = taskService.createTaskQuery().taskId(taskId).singleResult();
+    assertEquals("kermit", task.getAssignee());
+    assertEquals("changed", task.getDescription());
+
+    taskService.deleteTask(taskId, true);
+  }
+
+  @Test
+  public void testNumberOfPartialUpdatesIsBounded() {
+    DbSqlSessionFactory dbSqlSessionFactory = new DbSqlSessionFactory();
+    dbSqlSessionFactory.setMaxPartialUpdatesPerStatement(1);
+
+    assertTrue(dbSqlSessionFactory.registerPartialUpdate("updateTask", Collections.singleton("assignee")));
+    assertTrue(dbSqlSessionFactory.registerPartialUpdate("updateTask", Collections.singleton("assignee")));
+    assertFalse(dbSqlSessionFactory.registerPartialUpdate("updateTask", Collections.singleton("owner")));
+    assertTrue(dbSqlSessionFactory.registerPartialUpdate("updateExecution", Collections.singleton("activityId")));
+  }
+
+}
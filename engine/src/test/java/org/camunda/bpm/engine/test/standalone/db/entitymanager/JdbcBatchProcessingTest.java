@@ -0,0 +1,207 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.db.entitymanager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.sql.Statement;
+
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.TaskService;
+import org.camunda.bpm.engine.identity.User;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSession;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.UserEntity;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.RuleChain;
+
+public class JdbcBatchProcessingTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .userTask("task1")
+      .userTask("task2")
+      .endEvent()
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    @Override
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      return configuration.setJdbcBatchProcessing(true);
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule);
+
+  @Rule
+  public ExpectedException thrown = ExpectedException.none();
+
+  protected RuntimeService runtimeService;
+  protected TaskService taskService;
+  protected IdentityService identityService;
+
+  @Before
+  public void setUp() {
+    runtimeService = engineRule.getRuntimeService();
+    taskService = engineRule.getTaskService();
+    identityService = engineRule.getIdentityService();
+  }
+
+  @After
+  public void tearDown() {
+    for (User user : identityService.createUserQuery().list()) {
+      identityService.deleteUser(user.getId());
+    }
+  }
+
+  @Test
+  public void testInsertUpdateAndDeleteInBatches() {
+    engineRule.manageDeployment(engineRule.getRepositoryService()
+        .createDeployment()
+        .addModelInstance("process.bpmn", PROCESS)
+        .deploy());
+
+    // when a process instance with variables is started
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process",
+        Variables.createVariables().putValue("foo", "bar").putValue("baz", 42));
+
+    // and the variables are updated and the tasks are completed
+    runtimeService.setVariable(processInstance.getId(), "foo", "updated");
+    Task task = taskService.createTaskQuery().singleResult();
+    assertEquals("task1", task.getTaskDefinitionKey());
+    taskService.complete(task.getId());
+
+    // then the state was written correctly
+    assertEquals("updated", runtimeService.getVariable(processInstance.getId(), "foo"));
+    assertEquals(42, runtimeService.getVariable(processInstance.getId(), "baz"));
+
+    task = taskService.createTaskQuery().singleResult();
+    assertEquals("task2", task.getTaskDefinitionKey());
+    taskService.complete(task.getId());
+
+    assertNull(runtimeService.createProcessInstanceQuery().singleResult());
+  }
+
+  @Test
+  public void testOptimisticLockingOnUpdate() {
+    identityService.saveUser(identityService.newUser("kermit"));
+
+    User user1 = identityService.createUserQuery().singleResult();
+    User user2 = identityService.createUserQuery().singleResult();
+
+    user1.setFirstName("name one");
+    identityService.saveUser(user1);
+
+    thrown.expect(OptimisticLockingException.class);
+
+    user2.setFirstName("name two");
+    identityService.saveUser(user2);
+  }
+
+  @Test
+  public void testRevisionIncrementedAfterBatchedUpdate() {
+    identityService.saveUser(identityService.newUser("kermit"));
+
+    User user = identityService.createUserQuery().singleResult();
+    user.setFirstName("name one");
+    identityService.saveUser(user);
+
+    // the revision of the updated copy is the one in the database
+    user.setFirstName("name two");
+    identityService.saveUser(user);
+
+    assertEquals("name two", identityService.createUserQuery().singleResult().getFirstName());
+  }
+
+  @Test
+  public void testExecuteUpdateImmediately() {
+    identityService.saveUser(identityService.newUser("kermit"));
+    identityService.saveUser(identityService.newUser("gonzo"));
+
+    // when a statement is executed directly in a command which also flushes batched operations
+    int deletedRows = engineRule.getProcessEngineConfiguration()
+      .getCommandExecutorTxRequired()
+      .execute(new Command<Integer>() {
+        public Integer execute(CommandContext commandContext) {
+          UserEntity gonzo = commandContext.getDbEntityManager().selectById(UserEntity.class, "gonzo");
+          gonzo.setFirstName("Gonzo");
+
+          UserEntity kermit = commandContext.getDbEntityManager().selectById(UserEntity.class, "kermit");
+          return commandContext.getDbSqlSession().executeUpdate("deleteUser", kermit);
+        }
+      });
+
+    // then the number of affected rows is returned and the batch results stay aligned
+    assertEquals(1, deletedRows);
+    assertNull(identityService.createUserQuery().userId("kermit").singleResult());
+    assertEquals("Gonzo", identityService.createUserQuery().userId("gonzo").singleResult().getFirstName());
+  }
+
+  @Test
+  public void testUnreportedUpdateCountOfVersionedEntity() {
+    DbEntityOperation operation = new DbEntityOperation();
+    operation.setOperationType(DbOperationType.UPDATE);
+    operation.setEntity(new UserEntity("kermit"));
+
+    UnreportedUpdateCountSqlSession dbSqlSession = new UnreportedUpdateCountSqlSession(
+        engineRule.getProcessEngineConfiguration().getDbSqlSessionFactory());
+    try {
+      // then a concurrent modification cannot be ruled out
+      thrown.expect(ProcessEngineException.class);
+      thrown.expectMessage("ENGINE-03079");
+
+      // when the driver does not report the update count of a batched update
+      dbSqlSession.postProcessBatchedOperation(operation);
+    }
+    finally {
+      dbSqlSession.close();
+    }
+  }
+
+  protected static class UnreportedUpdateCountSqlSession extends DbSqlSession {
+
+    public UnreportedUpdateCountSqlSession(DbSqlSessionFactory dbSqlSessionFactory) {
+      super(dbSqlSessionFactory);
+    }
+
+    public void postProcessBatchedOperation(DbOperation operation) {
+      postProcessBatchedOperation(operation, Statement.SUCCESS_NO_INFO);
+    }
+  }
+
+}
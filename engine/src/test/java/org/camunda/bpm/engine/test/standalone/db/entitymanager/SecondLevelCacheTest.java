@@ -0,0 +1,228 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.db.entitymanager;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Date;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntitySecondLevelCache;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class SecondLevelCacheTest {
+
+  protected static final BpmnModelInstance PROCESS = Bpmn.createExecutableProcess("process")
+      .startEvent()
+      .serviceTask("service").camundaAsyncBefore().camundaExpression("${true}")
+      .endEvent()
+      .done();
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    @Override
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      return configuration.setDbEntitySecondLevelCacheEnabled(true);
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule);
+
+  protected ManagementService managementService;
+  protected String jobDefinitionId;
+
+  @Before
+  public void setUp() {
+    managementService = engineRule.getManagementService();
+
+    engineRule.manageDeployment(engineRule.getRepositoryService()
+        .createDeployment()
+        .addModelInstance("process.bpmn", PROCESS)
+        .deploy());
+
+    jobDefinitionId = managementService.createJobDefinitionQuery().singleResult().getId();
+  }
+
+  @After
+  public void tearDown() {
+    ClockUtil.reset();
+    engineRule.getProcessEngineConfiguration().getDbEntitySecondLevelCache().clear();
+  }
+
+  @Test
+  public void testEntityIsCachedAcrossCommands() {
+    JobDefinitionEntity jobDefinition = findJobDefinition();
+    assertEquals("service", jobDefinition.getActivityId());
+
+    // when the row is changed behind the back of the engine
+    updateActivityIdInDatabase("changed");
+
+    // then the cached copy is returned
+    JobDefinitionEntity cachedJobDefinition = findJobDefinition();
+    assertEquals("service", cachedJobDefinition.getActivityId());
+    assertNotSame(jobDefinition, cachedJobDefinition);
+  }
+
+  @Test
+  public void testEntityIsEvictedOnUpdate() {
+    findJobDefinition();
+
+    // when the entity is updated by the engine
+    managementService.setOverridingJobPriorityForJobDefinition(jobDefinitionId, 42);
+
+    // then the updated state is returned
+    JobDefinitionEntity jobDefinition = findJobDefinition();
+    assertEquals(Long.valueOf(42), jobDefinition.getOverridingJobPriority());
+    assertEquals(2, jobDefinition.getRevision());
+  }
+
+  @Test
+  public void testEntityIsEvictedOnBulkUpdate() {
+    findJobDefinition();
+
+    // when the entity is suspended by a bulk update
+    managementService.suspendJobDefinitionByProcessDefinitionKey("process");
+
+    // then the updated state is returned
+    assertEquals(true, findJobDefinition().isSuspended());
+  }
+
+  @Test
+  public void testEntityExpires() {
+    ClockUtil.setCurrentTime(new Date());
+    findJobDefinition();
+    updateActivityIdInDatabase("changed");
+
+    // when the time to live is exceeded
+    ClockUtil.setCurrentTime(new Date(ClockUtil.getCurrentTime().getTime() + 61000));
+
+    // then the entity is loaded again
+    assertEquals("changed", findJobDefinition().getActivityId());
+  }
+
+  @Test
+  public void testEntityIsEvictedOnDelete() {
+    findJobDefinition();
+
+    engineRule.getRepositoryService().deleteDeployment(
+        engineRule.getRepositoryService().createDeploymentQuery().singleResult().getId(), true);
+
+    assertNull(findJobDefinition());
+  }
+
+  @Test
+  public void testStateLoadedBeforeEvictionIsNotCached() {
+    DbEntitySecondLevelCache secondLevelCache = engineRule.getProcessEngineConfiguration().getDbEntitySecondLevelCache();
+
+    // given a state which is loaded before the entity is evicted by a concurrent command
+    long generation = secondLevelCache.getGeneration(JobDefinitionEntity.class);
+    JobDefinitionEntity staleJobDefinition = engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired()
+      .execute(new Command<JobDefinitionEntity>() {
+        public JobDefinitionEntity execute(CommandContext commandContext) {
+          return commandContext.getDbSqlSession().selectById(JobDefinitionEntity.class, jobDefinitionId);
+        }
+      });
+    managementService.setOverridingJobPriorityForJobDefinition(jobDefinitionId, 42);
+
+    // when the state is put into the cache afterwards
+    secondLevelCache.put(staleJobDefinition, generation);
+
+    // then it is not cached
+    assertNull(secondLevelCache.get(JobDefinitionEntity.class, jobDefinitionId));
+    assertEquals(Long.valueOf(42), findJobDefinition().getOverridingJobPriority());
+  }
+
+  @Test
+  public void testEvictionOfOtherEntityKeepsEntityCached() {
+    DbEntitySecondLevelCache secondLevelCache = engineRule.getProcessEngineConfiguration().getDbEntitySecondLevelCache();
+    findJobDefinition();
+
+    // when another entity of the type is evicted
+    secondLevelCache.remove(JobDefinitionEntity.class, "anotherJobDefinitionId");
+    updateActivityIdInDatabase("changed");
+
+    // then the cached copy is still returned
+    assertEquals("service", findJobDefinition().getActivityId());
+  }
+
+  @Test
+  public void testOlderRevisionDoesNotReplaceCachedRevision() {
+    DbEntitySecondLevelCache secondLevelCache = engineRule.getProcessEngineConfiguration().getDbEntitySecondLevelCache();
+
+    // given a state of an earlier revision
+    JobDefinitionEntity staleJobDefinition = engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired()
+      .execute(new Command<JobDefinitionEntity>() {
+        public JobDefinitionEntity execute(CommandContext commandContext) {
+          return commandContext.getDbSqlSession().selectById(JobDefinitionEntity.class, jobDefinitionId);
+        }
+      });
+    managementService.setOverridingJobPriorityForJobDefinition(jobDefinitionId, 42);
+    findJobDefinition();
+
+    // when it is put into the cache afterwards
+    secondLevelCache.put(staleJobDefinition, secondLevelCache.getGeneration(JobDefinitionEntity.class));
+
+    // then the later revision is kept
+    JobDefinitionEntity cachedJobDefinition = secondLevelCache.get(JobDefinitionEntity.class, jobDefinitionId);
+    assertEquals(2, cachedJobDefinition.getRevision());
+    assertEquals(Long.valueOf(42), cachedJobDefinition.getOverridingJobPriority());
+  }
+
+  protected JobDefinitionEntity findJobDefinition() {
+    return engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired().execute(new Command<JobDefinitionEntity>() {
+      public JobDefinitionEntity execute(CommandContext commandContext) {
+        return commandContext.getJobDefinitionManager().findById(jobDefinitionId);
+      }
+    });
+  }
+
+  protected void updateActivityIdInDatabase(final String activityId) {
+    engineRule.getProcessEngineConfiguration().getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        try {
+          PreparedStatement statement = commandContext.getDbSqlSession().getSqlSession().getConnection()
+              .prepareStatement("update ACT_RU_JOBDEF set ACT_ID_ = ? where ID_ = ?");
+          statement.setString(1, activityId);
+          statement.setString(2, jobDefinitionId);
+          statement.executeUpdate();
+          statement.close();
+        } catch (SQLException e) {
+          throw new ProcessEngineException(e);
+        }
+        return null;
+      }
+    });
+  }
+
+}
@@ -0,0 +1,189 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.scripting;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeNotNull;
+
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.scripting.CompiledScriptCache;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.ProcessEngineRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineBootstrapRule;
+import org.camunda.bpm.engine.test.util.ProcessEngineTestRule;
+import org.camunda.bpm.engine.test.util.ProvidedProcessEngineRule;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.RuleChain;
+
+public class CompiledScriptCacheTest {
+
+  protected static final String SCRIPT_LANGUAGE = "groovy";
+  protected static final String EXAMPLE_SCRIPT = "execution.setVariable('result', 42)";
+
+  protected ProcessEngineBootstrapRule bootstrapRule = new ProcessEngineBootstrapRule() {
+    public ProcessEngineConfiguration configureEngine(ProcessEngineConfigurationImpl configuration) {
+      configuration.setEnableCompiledScriptCache(true);
+      configuration.setMetricsEnabled(true);
+      return configuration;
+    }
+  };
+  protected ProcessEngineRule engineRule = new ProvidedProcessEngineRule(bootstrapRule);
+  protected ProcessEngineTestRule testRule = new ProcessEngineTestRule(engineRule);
+
+  @Rule
+  public RuleChain ruleChain = RuleChain.outerRule(bootstrapRule).around(engineRule).around(testRule);
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected RuntimeService runtimeService;
+  protected ManagementService managementService;
+  protected CompiledScriptCache compiledScriptCache;
+
+  @Before
+  public void init() {
+    processEngineConfiguration = engineRule.getProcessEngineConfiguration();
+    runtimeService = engineRule.getRuntimeService();
+    managementService = engineRule.getManagementService();
+    compiledScriptCache = processEngineConfiguration.getCompiledScriptCache();
+  }
+
+  @After
+  public void cleanUp() {
+    compiledScriptCache.clear();
+    managementService.deleteMetrics(null);
+  }
+
+  @Test
+  public void testCompileDynamicScriptOnce() {
+    // given
+    testRule.deploy(createScriptProcess("process", "${source}"));
+
+    // when
+    ProcessInstance firstInstance = startProcess("process", EXAMPLE_SCRIPT);
+    ProcessInstance secondInstance = startProcess("process", EXAMPLE_SCRIPT);
+
+    // then
+    assertEquals(42, runtimeService.getVariable(firstInstance.getId(), "result"));
+    assertEquals(42, runtimeService.getVariable(secondInstance.getId(), "result"));
+    assertEquals(1, compiledScriptCache.size());
+
+    processEngineConfiguration.getDbMetricsReporter().reportNow();
+    assertEquals(1, managementService.createMetricsQuery().name(Metrics.SCRIPT_CACHE_MISS).sum());
+    assertEquals(1, managementService.createMetricsQuery().name(Metrics.SCRIPT_CACHE_HIT).sum());
+  }
+
+  @Test
+  public void testCompileDifferentDynamicScripts() {
+    // given
+    testRule.deploy(createScriptProcess("process", "${source}"));
+
+    // when
+    ProcessInstance firstInstance = startProcess("process", EXAMPLE_SCRIPT);
+    ProcessInstance secondInstance = startProcess("process", "execution.setVariable('result', 43)");
+
+    // then
+    assertEquals(42, runtimeService.getVariable(firstInstance.getId(), "result"));
+    assertEquals(43, runtimeService.getVariable(secondInstance.getId(), "result"));
+    assertEquals(2, compiledScriptCache.size());
+  }
+
+  @Test
+  public void testShareCompiledScriptBetweenDefinitions() {
+    // given two processes with the same script
+    testRule.deploy(createScriptProcess("firstProcess", EXAMPLE_SCRIPT), createScriptProcess("secondProcess", EXAMPLE_SCRIPT));
+
+    // when
+    ProcessInstance firstInstance = runtimeService.startProcessInstanceByKey("firstProcess");
+    ProcessInstance secondInstance = runtimeService.startProcessInstanceByKey("secondProcess");
+
+    // then
+    assertEquals(42, runtimeService.getVariable(firstInstance.getId(), "result"));
+    assertEquals(42, runtimeService.getVariable(secondInstance.getId(), "result"));
+    assertEquals(1, compiledScriptCache.size());
+  }
+
+  @Test
+  public void testEvictLeastRecentlyUsedScripts() {
+    // given
+    final CompiledScriptCache cache = new CompiledScriptCache(2, null);
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ScriptEngine scriptEngine = processEngineConfiguration.getScriptingEngines().getScriptEngineForLanguage(SCRIPT_LANGUAGE);
+
+        // when
+        CompiledScript firstScript = cache.getCompiledScript(scriptEngine, SCRIPT_LANGUAGE, "1");
+        cache.getCompiledScript(scriptEngine, SCRIPT_LANGUAGE, "2");
+        assertSame(firstScript, cache.getCompiledScript(scriptEngine, SCRIPT_LANGUAGE, "1"));
+        cache.getCompiledScript(scriptEngine, SCRIPT_LANGUAGE, "3");
+
+        // then
+        assertEquals(2, cache.size());
+        assertSame(firstScript, cache.getCompiledScript(scriptEngine, SCRIPT_LANGUAGE, "1"));
+        return null;
+      }
+    });
+  }
+
+  @Test
+  public void testCacheThreadSafeCompilingEngine() {
+    ScriptEngine groovyEngine = new ScriptEngineManager().getEngineByName("groovy");
+    assertNotNull(groovyEngine);
+    assertTrue(CompiledScriptCache.isCachable(groovyEngine));
+  }
+
+  @Test
+  public void testNotCacheJavaScriptEngine() {
+    // newer JDKs do not ship a java script engine
+    ScriptEngine javaScriptEngine = new ScriptEngineManager().getEngineByName("javascript");
+    assumeNotNull(javaScriptEngine);
+
+    // the compiled scripts of the java script engine are not cached by the engine
+    assertFalse(CompiledScriptCache.isCachable(javaScriptEngine));
+  }
+
+  protected BpmnModelInstance createScriptProcess(String key, String script) {
+    return Bpmn.createExecutableProcess(key)
+        .startEvent()
+        .scriptTask()
+          .scriptFormat(SCRIPT_LANGUAGE)
+          .scriptText(script)
+        .userTask()
+        .endEvent()
+        .done();
+  }
+
+  protected ProcessInstance startProcess(String key, String source) {
+    return runtimeService.startProcessInstanceByKey(key, Variables.createVariables().putValue("source", source));
+  }
+
+}
@@ -0,0 +1,130 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_GRANT;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.AuthorizationService;
+import org.camunda.bpm.engine.IdentityService;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.authorization.Authorization;
+import org.camunda.bpm.engine.authorization.Permissions;
+import org.camunda.bpm.engine.authorization.Resources;
+import org.camunda.bpm.engine.impl.cfg.CommandChecker;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.auth.AuthorizationCommandChecker;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link AuthorizationCommandChecker} checking READ permission on a
+ * process definition for an authenticated user, including the authorization query.
+ * The permission is granted to one of the groups of the user.
+ *
+ * <p>The state is thread scoped since the authentication is bound to the thread
+ * which runs the setup.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class AuthorizationCheckBenchmark {
+
+  protected static final String USER_ID = "benchmarkUser";
+  protected static final String PROCESS_DEFINITION_KEY = "process";
+
+  @Param({"1", "20"})
+  public int numberOfGroups;
+
+  protected ProcessEngine processEngine;
+  protected CommandExecutor commandExecutor;
+  protected AuthorizationCommandChecker commandChecker;
+  protected ProcessDefinition processDefinition;
+
+  @Setup
+  public void setUp() {
+    processEngine = BenchmarkProcessEngines.createInMemoryEngine("authorizationCheckBenchmark", true);
+    ProcessEngineConfigurationImpl configuration = BenchmarkProcessEngines.getConfiguration(processEngine);
+    commandExecutor = configuration.getCommandExecutorTxRequired();
+
+    for (CommandChecker checker : configuration.getCommandCheckers()) {
+      if (checker instanceof AuthorizationCommandChecker) {
+        commandChecker = (AuthorizationCommandChecker) checker;
+      }
+    }
+
+    // deploy and grant without authentication, authorization checks do not apply then
+    processEngine.getRepositoryService()
+      .createDeployment()
+      .addModelInstance("process.bpmn", Bpmn.createExecutableProcess(PROCESS_DEFINITION_KEY).startEvent().endEvent().done())
+      .deploy();
+    processDefinition = processEngine.getRepositoryService()
+      .createProcessDefinitionQuery()
+      .processDefinitionKey(PROCESS_DEFINITION_KEY)
+      .singleResult();
+
+    List<String> groupIds = new ArrayList<String>();
+    for (int i = 0; i < numberOfGroups; i++) {
+      groupIds.add("group" + i);
+    }
+
+    AuthorizationService authorizationService = processEngine.getAuthorizationService();
+    Authorization authorization = authorizationService.createNewAuthorization(AUTH_TYPE_GRANT);
+    authorization.setGroupId(groupIds.get(groupIds.size() - 1));
+    authorization.setResource(Resources.PROCESS_DEFINITION);
+    authorization.setResourceId(PROCESS_DEFINITION_KEY);
+    authorization.addPermission(Permissions.READ);
+    authorizationService.saveAuthorization(authorization);
+
+    IdentityService identityService = processEngine.getIdentityService();
+    identityService.setAuthentication(USER_ID, groupIds);
+  }
+
+  @TearDown
+  public void tearDown() {
+    processEngine.getIdentityService().clearAuthentication();
+    processEngine.close();
+  }
+
+  @Benchmark
+  public Void checkReadProcessDefinition() {
+    return commandExecutor.execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandChecker.checkReadProcessDefinition(processDefinition);
+        return null;
+      }
+    });
+  }
+
+}
@@ -0,0 +1,44 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+
+/**
+ * Creates the process engines used by the benchmarks. All engines run against a
+ * private in-memory H2 database which is dropped when the engine is closed.
+ */
+public class BenchmarkProcessEngines {
+
+  public static ProcessEngine createInMemoryEngine(String name, boolean authorizationEnabled) {
+    ProcessEngineConfigurationImpl configuration = new StandaloneInMemProcessEngineConfiguration();
+    configuration.setMetricsEnabled(false);
+    configuration
+      .setProcessEngineName(name)
+      .setJdbcUrl("jdbc:h2:mem:" + name)
+      .setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_CREATE_DROP)
+      .setHistory(ProcessEngineConfiguration.HISTORY_NONE)
+      .setJobExecutorActivate(false)
+      .setAuthorizationEnabled(authorizationEnabled);
+
+    return configuration.buildProcessEngine();
+  }
+
+  public static ProcessEngineConfigurationImpl getConfiguration(ProcessEngine processEngine) {
+    return (ProcessEngineConfigurationImpl) processEngine.getProcessEngineConfiguration();
+  }
+
+}
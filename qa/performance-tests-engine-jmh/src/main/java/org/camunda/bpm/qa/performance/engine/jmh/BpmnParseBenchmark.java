@@ -0,0 +1,156 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.bpmn.deployer.BpmnDeployer;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParse;
+import org.camunda.bpm.engine.impl.bpmn.parser.BpmnParser;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
+import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the transformation of a large BPMN 2.0 model into process definitions
+ * as it is done by the {@link BpmnDeployer}, without persisting the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class BpmnParseBenchmark {
+
+  protected static final String RESOURCE_NAME = "large.bpmn";
+
+  @Param({"100", "1000"})
+  public int numberOfActivities;
+
+  protected ProcessEngine processEngine;
+  protected CommandExecutor commandExecutor;
+  protected BpmnParser bpmnParser;
+  protected byte[] model;
+
+  @Setup
+  public void setUp() {
+    processEngine = BenchmarkProcessEngines.createInMemoryEngine("bpmnParseBenchmark", false);
+
+    ProcessEngineConfigurationImpl configuration = BenchmarkProcessEngines.getConfiguration(processEngine);
+    commandExecutor = configuration.getCommandExecutorTxRequired();
+
+    for (Deployer deployer : configuration.getDeployers()) {
+      if (deployer instanceof BpmnDeployer) {
+        bpmnParser = ((BpmnDeployer) deployer).getBpmnParser();
+      }
+    }
+
+    model = createModel(numberOfActivities).getBytes(Charset.forName("UTF-8"));
+  }
+
+  @TearDown
+  public void tearDown() {
+    processEngine.close();
+  }
+
+  @Benchmark
+  public List<ProcessDefinitionEntity> parse() {
+    return commandExecutor.execute(new Command<List<ProcessDefinitionEntity>>() {
+      public List<ProcessDefinitionEntity> execute(CommandContext commandContext) {
+        BpmnParse bpmnParse = bpmnParser
+            .createParse()
+            .sourceInputStream(new ByteArrayInputStream(model))
+            .deployment(new DeploymentEntity())
+            .name(RESOURCE_NAME);
+
+        bpmnParse.execute();
+
+        return bpmnParse.getProcessDefinitions();
+      }
+    });
+  }
+
+  /**
+   * Creates a sequence of service tasks, user tasks and asynchronous service tasks so
+   * that the parse covers expressions, task definitions and job declarations. The XML
+   * is written directly since the fluent model builder slows down considerably for
+   * models of this size.
+   */
+  protected static String createModel(int numberOfActivities) {
+    StringBuilder process = new StringBuilder()
+      .append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+      .append("<definitions xmlns=\"http://www.omg.org/spec/BPMN/20100524/MODEL\"")
+      .append(" xmlns:camunda=\"http://camunda.org/schema/1.0/bpmn\"")
+      .append(" targetNamespace=\"http://camunda.org/benchmark\">\n")
+      .append("  <process id=\"largeProcess\" isExecutable=\"true\">\n")
+      .append("    <startEvent id=\"start\" />\n");
+
+    String previousId = "start";
+    for (int i = 0; i < numberOfActivities; i++) {
+      String id = "activity" + i;
+
+      switch (i % 3) {
+      case 0:
+        process.append("    <serviceTask id=\"").append(id)
+          .append("\" camunda:expression=\"${execution.getVariable('counter') + 1}\" />\n");
+        break;
+      case 1:
+        process.append("    <userTask id=\"").append(id)
+          .append("\" camunda:assignee=\"${initiator}\" />\n");
+        break;
+      default:
+        process.append("    <serviceTask id=\"").append(id)
+          .append("\" camunda:asyncBefore=\"true\" camunda:expression=\"${true}\" />\n");
+      }
+
+      appendSequenceFlow(process, previousId, id);
+      previousId = id;
+    }
+
+    process.append("    <endEvent id=\"end\" />\n");
+    appendSequenceFlow(process, previousId, "end");
+
+    return process
+      .append("  </process>\n")
+      .append("</definitions>\n")
+      .toString();
+  }
+
+  protected static void appendSequenceFlow(StringBuilder process, String sourceId, String targetId) {
+    process.append("    <sequenceFlow id=\"").append(sourceId).append("_").append(targetId)
+      .append("\" sourceRef=\"").append(sourceId)
+      .append("\" targetRef=\"").append(targetId).append("\" />\n");
+  }
+
+}
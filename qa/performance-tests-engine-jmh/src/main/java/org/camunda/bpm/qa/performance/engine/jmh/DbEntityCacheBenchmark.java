@@ -0,0 +1,109 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.MessageEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures filling the entity cache of a command with freshly loaded or inserted
+ * entities of mixed types and looking them up again by id.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class DbEntityCacheBenchmark {
+
+  @Param({"10", "100", "1000"})
+  public int numberOfEntities;
+
+  protected DbEntityCacheKeyMapping cacheKeyMapping;
+  protected List<DbEntity> entities;
+
+  @Setup
+  public void setUp() {
+    cacheKeyMapping = DbEntityCacheKeyMapping.defaultEntityCacheKeyMapping();
+    entities = new ArrayList<DbEntity>();
+
+    for (int i = 0; i < numberOfEntities; i++) {
+      DbEntity entity;
+      switch (i % 4) {
+      case 0:
+        entity = new ExecutionEntity();
+        break;
+      case 1:
+        entity = new TaskEntity();
+        break;
+      case 2:
+        entity = new VariableInstanceEntity();
+        break;
+      default:
+        // jobs are cached by their base type, see the cache key mapping
+        entity = new MessageEntity();
+      }
+      entity.setId(Integer.toString(i));
+      entities.add(entity);
+    }
+  }
+
+  @Benchmark
+  public DbEntityCache putPersistent() {
+    DbEntityCache cache = new DbEntityCache(cacheKeyMapping);
+    for (DbEntity entity : entities) {
+      cache.putPersistent(entity);
+    }
+    return cache;
+  }
+
+  @Benchmark
+  public DbEntityCache putTransient() {
+    DbEntityCache cache = new DbEntityCache(cacheKeyMapping);
+    for (DbEntity entity : entities) {
+      cache.putTransient(entity);
+    }
+    return cache;
+  }
+
+  @Benchmark
+  public void putPersistentAndGet(Blackhole blackhole) {
+    DbEntityCache cache = putPersistent();
+    for (DbEntity entity : entities) {
+      blackhole.consume(cache.get(entity.getClass(), entity.getId()));
+    }
+  }
+
+}
@@ -0,0 +1,88 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.el.ExpressionManager;
+import org.camunda.bpm.engine.impl.javax.el.ELContext;
+import org.camunda.bpm.engine.impl.javax.el.ValueExpression;
+import org.camunda.bpm.engine.variable.VariableMap;
+import org.camunda.bpm.engine.variable.Variables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the JUEL expressions as they are used in sequence flow conditions and
+ * task attributes, evaluated against a variable context.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class ExpressionEvaluationBenchmark {
+
+  @Param({
+    "${amount > 1000 && status == 'approved'}",
+    "${order.customer.name}",
+    "${amount * 2 + bonus / 4 - 1}"
+  })
+  public String expression;
+
+  protected ExpressionManager expressionManager;
+  protected ValueExpression valueExpression;
+  protected ELContext elContext;
+
+  @Setup
+  public void setUp() {
+    expressionManager = new ExpressionManager();
+
+    Map<String, Object> customer = new HashMap<String, Object>();
+    customer.put("name", "Kermit");
+    Map<String, Object> order = new HashMap<String, Object>();
+    order.put("customer", customer);
+
+    VariableMap variables = Variables.createVariables()
+      .putValue("amount", 1500)
+      .putValue("status", "approved")
+      .putValue("order", order)
+      .putValue("bonus", 200L);
+
+    elContext = expressionManager.createElContext(variables.asVariableContext());
+    valueExpression = expressionManager.createValueExpression(expression);
+  }
+
+  @Benchmark
+  public Object evaluate() {
+    return valueExpression.getValue(elContext);
+  }
+
+  @Benchmark
+  public Object createAndEvaluate() {
+    return expressionManager.createValueExpression(expression).getValue(elContext);
+  }
+
+}
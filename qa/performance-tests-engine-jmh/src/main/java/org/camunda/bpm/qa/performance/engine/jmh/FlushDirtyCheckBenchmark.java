@@ -0,0 +1,103 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the dirty check the entity manager performs for every persistent entity
+ * in the cache when it is flushed: obtaining the persistent state and comparing it
+ * to the copy taken when the entity was loaded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class FlushDirtyCheckBenchmark {
+
+  @Param({"100"})
+  public int numberOfEntities;
+
+  @Param({"0", "10", "100"})
+  public int dirtyPercentage;
+
+  protected List<CachedDbEntity> cachedEntities;
+
+  @Setup
+  public void setUp() {
+    cachedEntities = new ArrayList<CachedDbEntity>();
+
+    for (int i = 0; i < numberOfEntities; i++) {
+      ExecutionEntity execution = new ExecutionEntity();
+      execution.setId("execution" + i);
+      execution.setActivityInstanceId("activityInstance" + i);
+
+      TaskEntity task = new TaskEntity();
+      task.setId("task" + i);
+      task.setNameWithoutCascade("task");
+
+      CachedDbEntity cachedExecution = cache(execution);
+      CachedDbEntity cachedTask = cache(task);
+
+      if (i * 100 < dirtyPercentage * numberOfEntities) {
+        execution.setActivityInstanceId("otherActivityInstance" + i);
+        task.setNameWithoutCascade("renamed task");
+      }
+
+      cachedEntities.add(cachedExecution);
+      cachedEntities.add(cachedTask);
+    }
+  }
+
+  @Benchmark
+  public int dirtyCheck() {
+    int dirtyEntities = 0;
+    for (CachedDbEntity cachedEntity : cachedEntities) {
+      Object persistentState = cachedEntity.getEntity().getPersistentState();
+      if (cachedEntity.isDirty(persistentState)) {
+        dirtyEntities++;
+      }
+    }
+    return dirtyEntities;
+  }
+
+  protected static CachedDbEntity cache(DbEntity entity) {
+    CachedDbEntity cachedEntity = new CachedDbEntity();
+    cachedEntity.setEntity(entity);
+    cachedEntity.setEntityState(DbEntityState.PERSISTENT);
+    cachedEntity.makeCopy();
+    return cachedEntity;
+  }
+
+}
@@ -0,0 +1,98 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.INSERT;
+import static org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType.UPDATE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbReferences;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link DbOperationManager#calculateFlush()} for a tree of executions which
+ * have to be reordered by their parent references, plus updates of another type.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class FlushOrderingBenchmark {
+
+  @Param({"10", "100", "500"})
+  public int numberOfExecutions;
+
+  protected List<DbEntityOperation> operations;
+
+  @Setup
+  public void setUp() {
+    operations = new ArrayList<DbEntityOperation>();
+
+    // ids decrease towards the leaves, so that the id based pre-sorting places every
+    // child in front of its parent and the reference ordering has to move it
+    for (int i = 0; i < numberOfExecutions; i++) {
+      ExecutionEntity execution = new ExecutionEntity();
+      execution.setId(String.format("%06d", numberOfExecutions - i));
+      if (i > 0) {
+        execution.setParentId(String.format("%06d", numberOfExecutions - (i - 1) / 2));
+      }
+      operations.add(createOperation(execution, INSERT));
+
+      VariableInstanceEntity variable = new VariableInstanceEntity();
+      variable.setId("var" + i);
+      operations.add(createOperation(variable, UPDATE));
+    }
+  }
+
+  @Benchmark
+  public List<DbOperation> calculateFlush() {
+    DbOperationManager operationManager = new DbOperationManager();
+    for (DbEntityOperation operation : operations) {
+      operationManager.addOperation(operation);
+    }
+    return operationManager.calculateFlush();
+  }
+
+  protected static DbEntityOperation createOperation(DbEntity entity, DbOperationType type) {
+    DbEntityOperation operation = new DbEntityOperation();
+    operation.setEntity(entity);
+    operation.setOperationType(type);
+    if (entity instanceof HasDbReferences) {
+      operation.setFlushRelevantEntityReferences(((HasDbReferences) entity).getReferencedEntityIds());
+    }
+    return operation;
+  }
+
+}
@@ -0,0 +1,144 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jmh;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.ValueFields;
+import org.camunda.bpm.engine.impl.variable.serializer.ValueFieldsImpl;
+import org.camunda.bpm.engine.impl.variable.serializer.VariableSerializers;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.Variables.SerializationDataFormats;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures writing a typed value into the value fields of a variable and reading it
+ * back with the {@link TypedValueSerializer} the engine selects for the value, as
+ * well as the selection itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class VariableSerializersBenchmark {
+
+  @Param({"string", "integer", "long", "double", "boolean", "date", "bytes", "object"})
+  public String valueType;
+
+  protected ProcessEngine processEngine;
+  protected CommandContext commandContext;
+  protected VariableSerializers variableSerializers;
+  protected TypedValue value;
+  protected TypedValueSerializer<TypedValue> serializer;
+  protected ValueFields valueFields;
+
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setUp() {
+    processEngine = BenchmarkProcessEngines.createInMemoryEngine("variableSerializersBenchmark", false);
+    ProcessEngineConfigurationImpl configuration = BenchmarkProcessEngines.getConfiguration(processEngine);
+
+    // serializers rely on an active command context, e.g. for the default charset and
+    // serialization format. It is opened once so that only the serializers are measured.
+    commandContext = configuration.getCommandContextFactory().createCommandContext();
+    Context.setCommandContext(commandContext);
+    Context.setProcessEngineConfiguration(configuration);
+
+    variableSerializers = configuration.getVariableSerializers();
+    value = createValue(valueType);
+    serializer = (TypedValueSerializer<TypedValue>) variableSerializers.findSerializerForValue(value);
+    valueFields = new ValueFieldsImpl();
+  }
+
+  @TearDown
+  public void tearDown() {
+    Context.removeProcessEngineConfiguration();
+    Context.removeCommandContext();
+    processEngine.close();
+  }
+
+  @Benchmark
+  public TypedValueSerializer<?> findSerializer() {
+    return variableSerializers.findSerializerForValue(value);
+  }
+
+  @Benchmark
+  public TypedValue writeAndRead() {
+    serializer.writeValue(value, valueFields);
+    return serializer.readValue(valueFields, true);
+  }
+
+  @Benchmark
+  public TypedValue writeAndReadSerialized() {
+    serializer.writeValue(value, valueFields);
+    return serializer.readValue(valueFields, false);
+  }
+
+  protected static TypedValue createValue(String valueType) {
+    if ("string".equals(valueType)) {
+      return Variables.stringValue("a string value of moderate length");
+    }
+    else if ("integer".equals(valueType)) {
+      return Variables.integerValue(42);
+    }
+    else if ("long".equals(valueType)) {
+      return Variables.longValue(42L);
+    }
+    else if ("double".equals(valueType)) {
+      return Variables.doubleValue(42.0d);
+    }
+    else if ("boolean".equals(valueType)) {
+      return Variables.booleanValue(true);
+    }
+    else if ("date".equals(valueType)) {
+      return Variables.dateValue(new Date());
+    }
+    else if ("bytes".equals(valueType)) {
+      return Variables.byteArrayValue(new byte[1024]);
+    }
+    else if ("object".equals(valueType)) {
+      ArrayList<String> list = new ArrayList<String>();
+      for (int i = 0; i < 10; i++) {
+        list.add("element" + i);
+      }
+      return Variables.objectValue(list)
+        .serializationDataFormat(SerializationDataFormats.JAVA)
+        .create();
+    }
+    else {
+      throw new IllegalArgumentException("Unknown value type " + valueType);
+    }
+  }
+
+}
@@ -0,0 +1,61 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.steps;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.AcquireJobsCmd;
+import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+
+/**
+ * Acquires a number of jobs the same way the job executor does and executes
+ * the acquired jobs. Running this step on multiple threads makes the
+ * acquisitions compete for the same rows.
+ */
+public class AcquireJobsStep extends ProcessEngineAwareStep {
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected ManagementService managementService;
+  protected int numJobsToAcquire;
+
+  public AcquireJobsStep(ProcessEngine processEngine, int numJobsToAcquire) {
+    super(processEngine);
+    this.processEngineConfiguration = ((ProcessEngineImpl) processEngine).getProcessEngineConfiguration();
+    this.managementService = processEngine.getManagementService();
+    this.numJobsToAcquire = numJobsToAcquire;
+  }
+
+  @Override
+  public void execute(PerfTestRunContext context) {
+    AcquiredJobs acquiredJobs = processEngineConfiguration.getCommandExecutorTxRequired()
+      .execute(new AcquireJobsCmd(processEngineConfiguration.getJobExecutor(), numJobsToAcquire));
+
+    for (List<String> jobIds : acquiredJobs.getJobIdBatches()) {
+      for (String jobId : jobIds) {
+        try {
+          managementService.executeJob(jobId);
+        }
+        catch (OptimisticLockingException e) {
+          // the job was executed by a competing thread
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,65 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.camunda.bpm.qa.performance.engine.jobexecutor;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.AcquireJobsStep;
+import org.camunda.bpm.qa.performance.engine.steps.StartProcessInstanceStep;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Compares optimistic job acquisition with acquisition using
+ * <code>SELECT ... FOR UPDATE SKIP LOCKED</code>. On databases without
+ * support for skipping locked rows both tests use the optimistic acquisition.
+ */
+public class JobAcquisitionPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  protected static final int NUM_JOBS_TO_ACQUIRE = 3;
+
+  @After
+  public void resetConfiguration() {
+    getProcessEngineConfiguration().setJobExecutorAcquireWithSkipLocked(false);
+  }
+
+  @Test
+  @Deployment(resources = "org/camunda/bpm/qa/performance/engine/jobexecutor/JobAcquisitionPerformanceTest.asyncServiceTask.bpmn")
+  public void optimisticAcquisition() {
+    getProcessEngineConfiguration().setJobExecutorAcquireWithSkipLocked(false);
+
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process"))
+      .step(new AcquireJobsStep(engine, NUM_JOBS_TO_ACQUIRE))
+    .run();
+  }
+
+  @Test
+  @Deployment(resources = "org/camunda/bpm/qa/performance/engine/jobexecutor/JobAcquisitionPerformanceTest.asyncServiceTask.bpmn")
+  public void skipLockedAcquisition() {
+    getProcessEngineConfiguration().setJobExecutorAcquireWithSkipLocked(true);
+
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process"))
+      .step(new AcquireJobsStep(engine, NUM_JOBS_TO_ACQUIRE))
+    .run();
+  }
+
+  protected ProcessEngineConfigurationImpl getProcessEngineConfiguration() {
+    return ((ProcessEngineImpl) engine).getProcessEngineConfiguration();
+  }
+
+}
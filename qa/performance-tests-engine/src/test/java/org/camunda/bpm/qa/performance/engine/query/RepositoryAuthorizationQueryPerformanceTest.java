@@ -23,6 +23,8 @@ import org.camunda.bpm.engine.RepositoryService;
 import org.camunda.bpm.engine.authorization.Authorization;
 import org.camunda.bpm.engine.authorization.Permission;
 import org.camunda.bpm.engine.authorization.Resource;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.RebuildAuthorizationPermissionsCmd;
 import org.camunda.bpm.engine.impl.identity.Authentication;
 import org.camunda.bpm.engine.query.Query;
 import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
@@ -62,6 +64,9 @@ public class RepositoryAuthorizationQueryPerformanceTest extends AuthorizationPe
   @Parameter(4)
   public static Authentication authentication;
 
+  @Parameter(5)
+  public static boolean permissionProjectionEnabled;
+
   static List<Object[]> queryResourcesAndPermissions;
 
   static List<Authentication> authentications;
@@ -114,16 +119,19 @@ public class RepositoryAuthorizationQueryPerformanceTest extends AuthorizationPe
 
   }
 
-  @Parameters(name="{0} - {4}")
+  @Parameters(name="{0} - {4} - permission projection: {5}")
   public static Iterable<Object[]> params() {
     final ArrayList<Object[]> params = new ArrayList<Object[]>();
 
     for (Object[] queryResourcesAndPermission : queryResourcesAndPermissions) {
       for (Authentication authentication : authentications) {
-        Object[] array = new Object[queryResourcesAndPermission.length + 1];
-        System.arraycopy(queryResourcesAndPermission, 0, array, 0, queryResourcesAndPermission.length);
-        array[queryResourcesAndPermission.length] = authentication;
-        params.add(array);
+        for (boolean permissionProjectionEnabled : new boolean[] { false, true }) {
+          Object[] array = new Object[queryResourcesAndPermission.length + 2];
+          System.arraycopy(queryResourcesAndPermission, 0, array, 0, queryResourcesAndPermission.length);
+          array[queryResourcesAndPermission.length] = authentication;
+          array[queryResourcesAndPermission.length + 1] = permissionProjectionEnabled;
+          params.add(array);
+        }
       }
     }
 
@@ -132,6 +140,9 @@ public class RepositoryAuthorizationQueryPerformanceTest extends AuthorizationPe
 
   @Before
   public void createAuthorizations() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = (ProcessEngineConfigurationImpl) engine.getProcessEngineConfiguration();
+    processEngineConfiguration.setAuthorizationPermissionProjectionEnabled(permissionProjectionEnabled);
+
     AuthorizationService authorizationService = engine.getAuthorizationService();
     List<Authorization> auths = authorizationService.createAuthorizationQuery().list();
     for (Authorization authorization : auths) {
@@ -142,7 +153,12 @@ public class RepositoryAuthorizationQueryPerformanceTest extends AuthorizationPe
     for (int i = 0; i < 5; i++) {
       grouptGrant("g"+i, resource, permissions);
     }
-    engine.getProcessEngineConfiguration().setAuthorizationEnabled(true);
+
+    if (permissionProjectionEnabled) {
+      // the projection is not maintained while it is disabled
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new RebuildAuthorizationPermissionsCmd());
+    }
+    processEngineConfiguration.setAuthorizationEnabled(true);
   }
 
   @Test